@@ -0,0 +1,649 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A hard reference cache bounded by the #of bytes in the cached values and
+ * using the 2Q replacement policy. 2Q is scan resistant: a value which is only
+ * touched once (for example, by a large range scan) enters a FIFO queue (A1in)
+ * which is limited to a fraction of the cache and is evicted from there
+ * without displacing the values which are used repeatedly. Those values live
+ * on an LRU queue (Am). A key evicted from A1in is remembered on a ghost queue
+ * (A1out) and a value is placed directly onto Am when its key is found on the
+ * ghost queue.
+ * <p>
+ * The cache is divided into segments based on the hash code of the key. Each
+ * segment is guarded by its own lock and receives an equal share of the
+ * maximum #of bytes.
+ * <p>
+ * The caller is responsible for reporting the #of bytes for each value when it
+ * is inserted into the cache.
+ *
+ * @param <K>
+ *            The generic type of the keys.
+ * @param <V>
+ *            The generic type of the values.
+ *
+ * @see <a href="http://www.vldb.org/conf/1994/P439.PDF">2Q: A Low Overhead High
+ *      Performance Buffer Management Replacement Algorithm</a>
+ */
+public class TwoQueueCache<K, V> {
+
+    /**
+     * Filter used to remove entries from the cache.
+     *
+     * @param <K>
+     *            The generic type of the keys.
+     */
+    public static interface IKeyFilter<K> {
+
+        /**
+         * Return <code>true</code> iff the entry for the key should be
+         * removed.
+         */
+        boolean accept(K key);
+
+    }
+
+    /**
+     * The maximum #of bytes in the cached values.
+     */
+    private final long maximumBytes;
+
+    private final Segment<K, V>[] segments;
+
+    /**
+     * The mask used to select a segment.
+     */
+    private final int segmentMask;
+
+    /**
+     * @param maximumBytes
+     *            The maximum #of bytes in the cached values.
+     * @param concurrencyLevel
+     *            The #of segments (rounded up to a power of 2).
+     */
+    @SuppressWarnings("unchecked")
+    public TwoQueueCache(final long maximumBytes, final int concurrencyLevel) {
+
+        if (maximumBytes <= 0)
+            throw new IllegalArgumentException();
+
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+
+        int n = 1;
+
+        while (n < concurrencyLevel)
+            n <<= 1;
+
+        this.maximumBytes = maximumBytes;
+
+        this.segmentMask = n - 1;
+
+        this.segments = new Segment[n];
+
+        for (int i = 0; i < n; i++) {
+
+            segments[i] = new Segment<K, V>(Math.max(1L, maximumBytes / n));
+
+        }
+
+    }
+
+    private Segment<K, V> segmentFor(final K key) {
+
+        int h = key.hashCode();
+
+        // spread the high bits into the low bits.
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+
+        return segments[h & segmentMask];
+
+    }
+
+    /**
+     * Return the value for the key.
+     *
+     * @return The value -or- <code>null</code> if the key is not in the cache.
+     */
+    public V get(final K key) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        return segmentFor(key).get(key);
+
+    }
+
+    /**
+     * Insert or replace the value for the key.
+     *
+     * @param key
+     *            The key.
+     * @param value
+     *            The value.
+     * @param bytes
+     *            The #of bytes in the value. A value which is larger than a
+     *            segment of the cache is not retained.
+     */
+    public void put(final K key, final V value, final int bytes) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        if (value == null)
+            throw new IllegalArgumentException();
+
+        if (bytes < 0)
+            throw new IllegalArgumentException();
+
+        segmentFor(key).put(key, value, bytes);
+
+    }
+
+    /**
+     * Remove the entry for the key (if any).
+     *
+     * @return The value -or- <code>null</code> if the key was not in the cache.
+     */
+    public V remove(final K key) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        return segmentFor(key).remove(key);
+
+    }
+
+    /**
+     * Remove the entries (including the ghost entries) whose keys are
+     * accepted by the filter.
+     *
+     * @return The #of cached values which were removed.
+     */
+    public int removeAll(final IKeyFilter<K> filter) {
+
+        if (filter == null)
+            throw new IllegalArgumentException();
+
+        int n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            n += s.removeAll(filter);
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+
+        for (Segment<K, V> s : segments) {
+
+            s.clear();
+
+        }
+
+    }
+
+    /**
+     * The maximum #of bytes in the cached values.
+     */
+    public long getMaximumBytes() {
+
+        return maximumBytes;
+
+    }
+
+    /**
+     * The #of cached values.
+     */
+    public int size() {
+
+        int n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            synchronized (s) {
+
+                n += s.in.size() + s.main.size();
+
+            }
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The #of bytes in the cached values.
+     */
+    public long getBytes() {
+
+        long n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            synchronized (s) {
+
+                n += s.inBytes + s.mainBytes;
+
+            }
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The #of calls to {@link #get(Object)} which found the key.
+     */
+    public long getHitCount() {
+
+        long n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            synchronized (s) {
+
+                n += s.hits;
+
+            }
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The #of calls to {@link #get(Object)} which did not find the key.
+     */
+    public long getMissCount() {
+
+        long n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            synchronized (s) {
+
+                n += s.misses;
+
+            }
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The #of values which were evicted to stay within the maximum #of bytes.
+     */
+    public long getEvictionCount() {
+
+        long n = 0;
+
+        for (Segment<K, V> s : segments) {
+
+            synchronized (s) {
+
+                n += s.evictions;
+
+            }
+
+        }
+
+        return n;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return getClass().getSimpleName() + "{maximumBytes=" + maximumBytes
+                + ",bytes=" + getBytes() + ",size=" + size() + ",hits="
+                + getHitCount() + ",misses=" + getMissCount() + ",evictions="
+                + getEvictionCount() + "}";
+
+    }
+
+    /**
+     * A cached value and its size.
+     */
+    private static class Entry<V> {
+
+        final V value;
+
+        final int bytes;
+
+        Entry(final V value, final int bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * A segment of the cache. All methods are synchronized on the segment.
+     */
+    private static class Segment<K, V> {
+
+        /** The maximum #of bytes in the values on A1in and Am. */
+        private final long maximumBytes;
+
+        /** The maximum #of bytes in the values on A1in (25%). */
+        private final long maximumInBytes;
+
+        /** The maximum #of bytes represented by the keys on A1out (50%). */
+        private final long maximumOutBytes;
+
+        /** A1in : FIFO for values which have been touched once. */
+        final LinkedHashMap<K, Entry<V>> in = new LinkedHashMap<K, Entry<V>>(
+                16, .75f, false/* accessOrder */);
+
+        /** Am : LRU for values which have been touched more than once. */
+        final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<K, Entry<V>>(
+                16, .75f, true/* accessOrder */);
+
+        /**
+         * A1out : FIFO for the keys evicted from A1in and the size of their
+         * values.
+         */
+        final LinkedHashMap<K, Integer> out = new LinkedHashMap<K, Integer>(
+                16, .75f, false/* accessOrder */);
+
+        long inBytes, mainBytes, outBytes;
+
+        long hits, misses, evictions;
+
+        Segment(final long maximumBytes) {
+
+            this.maximumBytes = maximumBytes;
+
+            this.maximumInBytes = Math.max(1L, maximumBytes / 4);
+
+            this.maximumOutBytes = Math.max(1L, maximumBytes / 2);
+
+        }
+
+        synchronized V get(final K key) {
+
+            // Note: touches the entry on Am.
+            Entry<V> e = main.get(key);
+
+            if (e == null) {
+
+                // Note: A1in is not reordered by a hit.
+                e = in.get(key);
+
+            }
+
+            if (e == null) {
+
+                misses++;
+
+                return null;
+
+            }
+
+            hits++;
+
+            return e.value;
+
+        }
+
+        synchronized void put(final K key, final V value, final int bytes) {
+
+            Entry<V> old;
+
+            final boolean onMain;
+
+            if ((old = main.remove(key)) != null) {
+
+                mainBytes -= old.bytes;
+
+                onMain = true;
+
+            } else if ((old = in.remove(key)) != null) {
+
+                inBytes -= old.bytes;
+
+                onMain = false;
+
+            } else {
+
+                final Integer ghost = out.remove(key);
+
+                if (ghost != null)
+                    outBytes -= ghost.intValue();
+
+                // Only values which were recently evicted from A1in go on Am.
+                onMain = ghost != null;
+
+            }
+
+            if (bytes > maximumBytes) {
+
+                // Too large to be cached.
+                return;
+
+            }
+
+            if (onMain) {
+
+                main.put(key, new Entry<V>(value, bytes));
+
+                mainBytes += bytes;
+
+            } else {
+
+                in.put(key, new Entry<V>(value, bytes));
+
+                inBytes += bytes;
+
+            }
+
+            evict();
+
+        }
+
+        private void evict() {
+
+            while (inBytes + mainBytes > maximumBytes) {
+
+                if (inBytes > maximumInBytes || main.isEmpty()) {
+
+                    // Evict the oldest value on A1in and remember its key.
+                    final Iterator<Map.Entry<K, Entry<V>>> itr = in.entrySet()
+                            .iterator();
+
+                    final Map.Entry<K, Entry<V>> e = itr.next();
+
+                    itr.remove();
+
+                    inBytes -= e.getValue().bytes;
+
+                    out.put(e.getKey(), Integer.valueOf(e.getValue().bytes));
+
+                    outBytes += e.getValue().bytes;
+
+                    while (outBytes > maximumOutBytes) {
+
+                        final Iterator<Map.Entry<K, Integer>> itr2 = out
+                                .entrySet().iterator();
+
+                        outBytes -= itr2.next().getValue().intValue();
+
+                        itr2.remove();
+
+                    }
+
+                } else {
+
+                    // Evict the least recently used value on Am.
+                    final Iterator<Map.Entry<K, Entry<V>>> itr = main
+                            .entrySet().iterator();
+
+                    mainBytes -= itr.next().getValue().bytes;
+
+                    itr.remove();
+
+                }
+
+                evictions++;
+
+            }
+
+        }
+
+        synchronized V remove(final K key) {
+
+            final Integer ghost = out.remove(key);
+
+            if (ghost != null)
+                outBytes -= ghost.intValue();
+
+            Entry<V> e = main.remove(key);
+
+            if (e != null) {
+
+                mainBytes -= e.bytes;
+
+                return e.value;
+
+            }
+
+            e = in.remove(key);
+
+            if (e != null) {
+
+                inBytes -= e.bytes;
+
+                return e.value;
+
+            }
+
+            return null;
+
+        }
+
+        synchronized int removeAll(final IKeyFilter<K> filter) {
+
+            int n = 0;
+
+            {
+                final Iterator<Map.Entry<K, Entry<V>>> itr = main.entrySet()
+                        .iterator();
+
+                while (itr.hasNext()) {
+
+                    final Map.Entry<K, Entry<V>> e = itr.next();
+
+                    if (filter.accept(e.getKey())) {
+
+                        mainBytes -= e.getValue().bytes;
+
+                        itr.remove();
+
+                        n++;
+
+                    }
+
+                }
+            }
+
+            {
+                final Iterator<Map.Entry<K, Entry<V>>> itr = in.entrySet()
+                        .iterator();
+
+                while (itr.hasNext()) {
+
+                    final Map.Entry<K, Entry<V>> e = itr.next();
+
+                    if (filter.accept(e.getKey())) {
+
+                        inBytes -= e.getValue().bytes;
+
+                        itr.remove();
+
+                        n++;
+
+                    }
+
+                }
+            }
+
+            {
+                final Iterator<Map.Entry<K, Integer>> itr = out.entrySet()
+                        .iterator();
+
+                while (itr.hasNext()) {
+
+                    final Map.Entry<K, Integer> e = itr.next();
+
+                    if (filter.accept(e.getKey())) {
+
+                        outBytes -= e.getValue().intValue();
+
+                        itr.remove();
+
+                    }
+
+                }
+            }
+
+            return n;
+
+        }
+
+        synchronized void clear() {
+
+            in.clear();
+            main.clear();
+            out.clear();
+
+            inBytes = mainBytes = outBytes = 0L;
+
+        }
+
+    }
+
+}
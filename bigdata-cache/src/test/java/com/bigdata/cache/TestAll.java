@@ -80,6 +80,9 @@ public class TestAll extends TestCase {
         // Test cache semantics with weak/soft reference values.
         suite.addTestSuite(TestWeakValueCache.class);
 
+        // Test the byte bounded 2Q cache.
+        suite.addTestSuite(TestTwoQueueCache.class);
+
         //BLZG-1497 moved to com.bigdata.cache.lru
         //suite.addTestSuite(TestStoreAndAddressLRUCache.class);
 
@@ -0,0 +1,192 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.cache;
+
+import junit.framework.TestCase2;
+
+/**
+ * Test suite for {@link TwoQueueCache}. The tests use a single segment so the
+ * replacement policy is deterministic.
+ */
+public class TestTwoQueueCache extends TestCase2 {
+
+    public TestTwoQueueCache() {
+    }
+
+    public TestTwoQueueCache(final String name) {
+        super(name);
+    }
+
+    public void test_ctor_correctRejection() {
+
+        try {
+            new TwoQueueCache<Integer, String>(0L, 1);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+        try {
+            new TwoQueueCache<Integer, String>(100L, 0);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+    }
+
+    public void test_getPutRemove() {
+
+        final TwoQueueCache<Integer, String> cache = new TwoQueueCache<Integer, String>(
+                100L, 1);
+
+        assertNull(cache.get(1));
+
+        cache.put(1, "a", 10);
+        cache.put(2, "b", 20);
+
+        assertEquals("a", cache.get(1));
+        assertEquals("b", cache.get(2));
+        assertEquals(2, cache.size());
+        assertEquals(30L, cache.getBytes());
+        assertEquals(2L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+
+        // replace the value.
+        cache.put(1, "c", 5);
+        assertEquals("c", cache.get(1));
+        assertEquals(25L, cache.getBytes());
+
+        assertEquals("c", cache.remove(1));
+        assertNull(cache.remove(1));
+        assertNull(cache.get(1));
+        assertEquals(1, cache.size());
+        assertEquals(20L, cache.getBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getBytes());
+
+    }
+
+    /**
+     * The #of bytes is bounded and a value larger than the cache is not
+     * retained.
+     */
+    public void test_maximumBytes() {
+
+        final TwoQueueCache<Integer, String> cache = new TwoQueueCache<Integer, String>(
+                100L, 1);
+
+        for (int i = 0; i < 1000; i++) {
+
+            cache.put(i, "v" + i, 7);
+
+            assertTrue(cache.getBytes() <= 100L);
+
+        }
+
+        assertEquals(14, cache.size());
+        assertEquals(1000L - 14, cache.getEvictionCount());
+
+        cache.put(-1, "big", 101);
+        assertNull(cache.get(-1));
+
+        // The most recent value was retained.
+        assertEquals("v999", cache.get(999));
+
+    }
+
+    /**
+     * A value whose key was recently evicted from A1in is placed onto Am and
+     * is not displaced by a scan over values which are only touched once.
+     */
+    public void test_scanResistance() {
+
+        final TwoQueueCache<Integer, String> cache = new TwoQueueCache<Integer, String>(
+                100L, 1);
+
+        // Fill the cache (all on A1in) and then push key 0 onto A1out.
+        for (int i = 0; i < 11; i++) {
+
+            cache.put(i, "v" + i, 10);
+
+        }
+
+        assertNull(cache.get(0));
+
+        // Reinsert key 0 : it goes on Am.
+        cache.put(0, "v0", 10);
+
+        // A scan over many values which are touched once.
+        for (int i = 100; i < 1000; i++) {
+
+            cache.put(i, "v" + i, 10);
+
+        }
+
+        // Key 0 survived the scan.
+        assertEquals("v0", cache.get(0));
+
+    }
+
+    public void test_removeAll() {
+
+        final TwoQueueCache<Integer, String> cache = new TwoQueueCache<Integer, String>(
+                1000L, 4);
+
+        for (int i = 0; i < 20; i++) {
+
+            cache.put(i, "v" + i, 1);
+
+        }
+
+        final int n = cache.removeAll(new TwoQueueCache.IKeyFilter<Integer>() {
+            @Override
+            public boolean accept(final Integer key) {
+                return key.intValue() % 2 == 0;
+            }
+        });
+
+        assertEquals(10, n);
+        assertEquals(10, cache.size());
+        assertEquals(10L, cache.getBytes());
+
+        for (int i = 0; i < 20; i++) {
+
+            if (i % 2 == 0)
+                assertNull(cache.get(i));
+            else
+                assertEquals("v" + i, cache.get(i));
+
+        }
+
+    }
+
+}
@@ -497,6 +497,145 @@ public class TestSubqueryOp extends AbstractSubqueryTestCase {
 
     }
 
+    /**
+     * Unit test in which several source solutions agree on the projected
+     * variable <code>x</code>. The subquery results for <code>x=Brad</code>
+     * are memoized and must be merged with each source solution having that
+     * binding.
+     */
+    public void test_join_selectOnly_x_memoized() throws Exception {
+
+        final int joinId = 2;
+        final int predId = 3;
+        final int subqueryId = 4;
+        
+        final IVariable<?> x = Var.var("x");
+        final IVariable<?> y = Var.var("y");
+        
+        final Predicate<E> predOp = new Predicate<E>(//
+                new IVariableOrConstant[] { //
+                new Constant<String>("John"), x }, //
+                NV.asMap(new NV[] {//
+                        new NV(Predicate.Annotations.RELATION_NAME,
+                                new String[] { namespace }),//
+                        new NV(Predicate.Annotations.BOP_ID, predId),//
+                        new NV(Annotations.TIMESTAMP,
+                                ITx.READ_COMMITTED),//
+                }));
+
+        final PipelineJoin<E> subquery = new PipelineJoin<E>(
+                new BOp[] { },//
+                new NV(Predicate.Annotations.BOP_ID, joinId),//
+                new NV(PipelineJoin.Annotations.PREDICATE, predOp),//
+                new NV(SubqueryOp.Annotations.JOIN_TYPE,JoinTypeEnum.Normal)//
+                );
+
+        final SubqueryOp subqueryOp = new SubqueryOp(
+                new BOp[] {},//
+                new NV(Predicate.Annotations.BOP_ID, subqueryId),//
+                new NV(SubqueryOp.Annotations.SELECT, new IVariable[]{x}),//
+                new NV(SubqueryOp.Annotations.SUBQUERY, subquery),//
+                new NV(SubqueryOp.Annotations.JOIN_TYPE, JoinTypeEnum.Normal),//
+                new NV(SubqueryOp.Annotations.MEMO_CAPACITY, 10),//
+                new NV(QueryEngine.Annotations.CHUNK_HANDLER,
+                        StandaloneChunkHandler.TEST_INSTANCE)//
+                );
+
+        final PipelineOp query = subqueryOp;
+        
+        // the expected solutions.
+        final IBindingSet[] expected = new IBindingSet[] {//
+                new ListBindingSet(//
+                        new IVariable[] { x },//
+                        new IConstant[] { new Constant<String>("Mary") }//
+                ),//
+                new ListBindingSet(//
+                        new IVariable[] { x, y },//
+                        new IConstant[] { new Constant<String>("Brad"),
+                                          new Constant<String>("Fred"),
+                                }//
+                ),//
+                new ListBindingSet(//
+                        new IVariable[] { x, y },//
+                        new IConstant[] { new Constant<String>("Brad"),
+                                          new Constant<String>("Leon"),
+                                }//
+                ),//
+        };
+
+        final IBindingSet[] initialBindingSets;
+        {
+            final List<IBindingSet> list = new LinkedList<IBindingSet>();
+            
+            IBindingSet tmp;
+
+            tmp = new ListBindingSet();
+            tmp.set(x, new Constant<String>("Brad"));
+            tmp.set(y, new Constant<String>("Fred"));
+            list.add(tmp);
+            
+            tmp = new ListBindingSet();
+            tmp.set(x, new Constant<String>("Mary"));
+            list.add(tmp);
+            
+            tmp = new ListBindingSet();
+            tmp.set(x, new Constant<String>("Brad"));
+            tmp.set(y, new Constant<String>("Leon"));
+            list.add(tmp);
+            
+            initialBindingSets = list.toArray(new IBindingSet[0]);
+            
+        }
+
+        final IRunningQuery runningQuery = queryEngine.eval(query,
+                initialBindingSets);
+
+        AbstractQueryEngineTestCase.assertSameSolutionsAnyOrder(expected, runningQuery);
+
+        {
+            final BOpStats stats = runningQuery.getStats().get(
+                    subqueryId);
+            assertEquals(3L, stats.unitsIn.get());
+            assertEquals(3L, stats.unitsOut.get());
+        }
+        
+        assertTrue(runningQuery.isDone());
+        assertFalse(runningQuery.isCancelled());
+        runningQuery.get(); // verify nothing thrown.
+
+    }
+
+    /**
+     * Unit test for the LRU eviction policy of the subquery memo.
+     */
+    public void test_subqueryMemo_lru() {
+
+        final IVariable<?> x = Var.var("x");
+
+        final IBindingSet a = new ListBindingSet(new IVariable[] { x },
+                new IConstant[] { new Constant<String>("a") });
+        final IBindingSet b = new ListBindingSet(new IVariable[] { x },
+                new IConstant[] { new Constant<String>("b") });
+        final IBindingSet c = new ListBindingSet(new IVariable[] { x },
+                new IConstant[] { new Constant<String>("c") });
+
+        final SubqueryOp.SubqueryMemo memo = new SubqueryOp.SubqueryMemo(2/* capacity */);
+
+        memo.put(a, Boolean.TRUE);
+        memo.put(b, Boolean.FALSE);
+
+        // touch [a] so [b] is the eldest entry.
+        assertEquals(Boolean.TRUE, memo.get(a.clone()));
+
+        memo.put(c, Boolean.TRUE);
+
+        assertEquals(2, memo.size());
+        assertEquals(Boolean.TRUE, memo.get(a));
+        assertNull(memo.get(b));
+        assertEquals(Boolean.TRUE, memo.get(c));
+
+    }
+
     /**
      * Unit test for optional join group. Three joins are used and target a
      * {@link SliceOp}. The 2nd and 3rd joins are embedded in an
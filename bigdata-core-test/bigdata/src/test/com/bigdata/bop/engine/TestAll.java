@@ -84,6 +84,12 @@ public class TestAll extends TestCase {
         // test suite for the bop statistics class.
         suite.addTestSuite(TestBOpStats.class);
 
+        // test suite for the static analysis counters.
+        suite.addTestSuite(TestStaticAnalysisCounters.class);
+
+        // test suite for the join cardinality feedback store.
+        suite.addTestSuite(TestCardinalityFeedback.class);
+
         // test suite for startOp messages.
         suite.addTestSuite(TestStartOpMessage.class);
         
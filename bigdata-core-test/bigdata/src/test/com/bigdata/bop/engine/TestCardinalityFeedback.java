@@ -0,0 +1,238 @@
+/*
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.bop.engine;
+
+import java.util.Properties;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.journal.BufferMode;
+import com.bigdata.journal.ITx;
+import com.bigdata.journal.Journal;
+
+/**
+ * Test suite for {@link CardinalityFeedback}.
+ */
+public class TestCardinalityFeedback extends TestCase2 {
+
+    public TestCardinalityFeedback() {
+
+    }
+
+    public TestCardinalityFeedback(final String name) {
+        super(name);
+    }
+
+    /**
+     * Verify that the observations are folded into a decayed average.
+     */
+    public void test_observe() {
+
+        final CardinalityFeedback feedback = new CardinalityFeedback(
+                null/* indexManager */, 10/* capacity */, .5d/* decay */);
+
+        // Nothing observed.
+        assertEquals(-1d, feedback.get("a"));
+
+        // The first observation is stored as given.
+        feedback.observe("a", .8d);
+        assertEquals(.8d, feedback.get("a"));
+
+        // A larger observation moves the average up.
+        feedback.observe("a", 1d);
+        assertEquals(.9d, feedback.get("a"), 1e-9);
+
+        // A smaller observation moves the average down.
+        feedback.observe("a", .1d);
+        assertEquals(.5d, feedback.get("a"), 1e-9);
+
+        // keys are independent.
+        assertEquals(-1d, feedback.get("b"));
+        feedback.observe("b", 0d);
+        assertEquals(0d, feedback.get("b"));
+        assertEquals(.5d, feedback.get("a"), 1e-9);
+
+    }
+
+    /**
+     * Verify that the least recently used keys are evicted.
+     */
+    public void test_capacity() {
+
+        final CardinalityFeedback feedback = new CardinalityFeedback(
+                null/* indexManager */, 2/* capacity */, .5d/* decay */);
+
+        feedback.observe("a", .1d);
+        feedback.observe("b", .2d);
+
+        // touch [a].
+        assertEquals(.1d, feedback.get("a"));
+
+        // evicts [b].
+        feedback.observe("c", .3d);
+
+        assertEquals(.1d, feedback.get("a"));
+        assertEquals(-1d, feedback.get("b"));
+        assertEquals(.3d, feedback.get("c"));
+
+    }
+
+    /**
+     * A selectivity must be in <code>[0:1]</code>.
+     */
+    public void test_observe_badArgs() {
+
+        final CardinalityFeedback feedback = new CardinalityFeedback();
+
+        try {
+            feedback.observe("a", -.1d);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+        try {
+            feedback.observe("a", 1.1d);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+        assertEquals(-1d, feedback.get("a"));
+
+    }
+
+    private Journal newJournal(final boolean groupCommit) {
+
+        final Properties p = new Properties(getProperties());
+
+        p.setProperty(Journal.Options.BUFFER_MODE, BufferMode.Transient
+                .toString());
+
+        p.setProperty(Journal.Options.GROUP_COMMIT, Boolean
+                .toString(groupCommit));
+
+        return new Journal(p);
+
+    }
+
+    /**
+     * Verify that the observations are written onto the journal by a task
+     * and are read back on a cache miss, including by another instance.
+     */
+    public void test_persistent() throws Exception {
+
+        final Journal journal = newJournal(true/* groupCommit */);
+
+        try {
+
+            final CardinalityFeedback feedback = new CardinalityFeedback(
+                    journal, 1/* capacity */, .5d/* decay */);
+
+            assertTrue(feedback.isPersistent());
+
+            // Nothing to write.
+            assertNull(feedback.flush());
+
+            feedback.observe("a", .2d);
+            feedback.observe("a", .4d);
+
+            // evicts [a] from the cache before it was written.
+            feedback.observe("b", .1d);
+
+            // Not visible until written and committed.
+            assertNull(journal.getIndex(CardinalityFeedback.NAME,
+                    ITx.READ_COMMITTED));
+
+            // Await the group commit.
+            feedback.flush().get();
+
+            assertNull(feedback.flush());
+
+            // Read through on a cache miss.
+            assertEquals(.3d, feedback.get("a"), 1e-9);
+
+            // Observations continue from the persisted value.
+            feedback.observe("a", .1d);
+            assertEquals(.2d, feedback.get("a"), 1e-9);
+            feedback.flush().get();
+
+            // A new instance sees the committed values.
+            final CardinalityFeedback feedback2 = new CardinalityFeedback(
+                    journal);
+
+            assertEquals(.2d, feedback2.get("a"), 1e-9);
+            assertEquals(.1d, feedback2.get("b"), 1e-9);
+            assertEquals(-1d, feedback2.get("c"));
+
+        } finally {
+
+            journal.destroy();
+
+        }
+
+    }
+
+    /**
+     * Without group commit the statistics are only kept in memory since the
+     * application decides when the journal commits.
+     */
+    public void test_notPersistent() throws Exception {
+
+        final Journal journal = newJournal(false/* groupCommit */);
+
+        try {
+
+            final CardinalityFeedback feedback = new CardinalityFeedback(
+                    journal);
+
+            assertFalse(feedback.isPersistent());
+
+            feedback.observe("a", .5d);
+
+            assertNull(feedback.flush());
+
+            assertEquals(.5d, feedback.get("a"));
+
+            assertNull(journal.getIndex(CardinalityFeedback.NAME,
+                    ITx.READ_COMMITTED));
+
+            assertEquals(-1d, new CardinalityFeedback(journal).get("a"));
+
+        } finally {
+
+            journal.destroy();
+
+        }
+
+    }
+
+}
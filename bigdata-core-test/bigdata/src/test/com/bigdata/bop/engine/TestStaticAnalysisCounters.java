@@ -0,0 +1,119 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.bop.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.bop.engine.StaticAnalysisCounters.LatencyHistogram;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounter;
+
+/**
+ * Test suite for {@link StaticAnalysisCounters}.
+ */
+public class TestStaticAnalysisCounters extends TestCase2 {
+
+    public TestStaticAnalysisCounters() {
+
+    }
+
+    public TestStaticAnalysisCounters(final String name) {
+        super(name);
+    }
+
+    /**
+     * Verify the assignment of latencies to histogram buckets.
+     */
+    public void test_histogramBuckets() {
+
+        assertEquals(0, LatencyHistogram.bucket(0L));
+        assertEquals(0, LatencyHistogram.bucket(TimeUnit.MICROSECONDS
+                .toNanos(9)));
+        assertEquals(1, LatencyHistogram.bucket(TimeUnit.MICROSECONDS
+                .toNanos(10)));
+        assertEquals(2, LatencyHistogram.bucket(TimeUnit.MICROSECONDS
+                .toNanos(500)));
+        assertEquals(3, LatencyHistogram.bucket(TimeUnit.MILLISECONDS
+                .toNanos(1)));
+        assertEquals(4, LatencyHistogram.bucket(TimeUnit.MILLISECONDS
+                .toNanos(50)));
+        assertEquals(5, LatencyHistogram.bucket(TimeUnit.MILLISECONDS
+                .toNanos(999)));
+        assertEquals(6, LatencyHistogram.bucket(TimeUnit.SECONDS.toNanos(5)));
+
+    }
+
+    /**
+     * Verify that optimizer calls are aggregated per optimizer and reported
+     * through the {@link CounterSet}.
+     */
+    public void test_registerOptimizerCall() {
+
+        final StaticAnalysisCounters c = new StaticAnalysisCounters();
+
+        assertNull(c.getOptimizerHistogram("ASTFooOptimizer"));
+
+        c.registerOptimizerCall("ASTFooOptimizer",
+                TimeUnit.MICROSECONDS.toNanos(5));
+        c.registerOptimizerCall("ASTFooOptimizer",
+                TimeUnit.MILLISECONDS.toNanos(2));
+        c.registerOptimizerCall("ASTBarOptimizer",
+                TimeUnit.MILLISECONDS.toNanos(20));
+        c.registerOptimizerLoopCall(TimeUnit.MILLISECONDS.toNanos(30));
+
+        final LatencyHistogram foo = c.getOptimizerHistogram("ASTFooOptimizer");
+
+        assertEquals(2L, foo.getNrCalls());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(5)
+                + TimeUnit.MILLISECONDS.toNanos(2), foo.getElapsedNanos());
+        assertEquals(new long[] { 1, 0, 0, 1, 0, 0, 0 }, foo.getBucketCounts());
+
+        assertEquals(1L, c.getOptimizerHistogram("ASTBarOptimizer")
+                .getNrCalls());
+        assertEquals(1L, c.getOptimizerLoopHistogram().getNrCalls());
+        assertEquals(0L, c.getRangeCountHistogram().getNrCalls());
+
+        final CounterSet counters = c.getCounters();
+
+        final ICounter<?> nrCalls = (ICounter<?>) counters
+                .getPath("optimizers/ASTFooOptimizer/nrCalls");
+
+        assertNotNull(nrCalls);
+        assertEquals(2L, nrCalls.getValue());
+
+        final ICounter<?> bucket = (ICounter<?>) counters
+                .getPath("optimizers/ASTFooOptimizer/histogram/lt10ms");
+
+        assertNotNull(bucket);
+        assertEquals(1L, bucket.getValue());
+
+    }
+
+}
@@ -98,6 +98,9 @@ public class TestAll extends TestCase {
         // test index procedures.
         suite.addTest(com.bigdata.btree.proc.TestAll.suite());
 
+        // test the views published for readers of an unisolated index.
+        suite.addTestSuite(TestUnisolatedReadWriteIndexViews.class);
+
         return suite;
         
     }
@@ -142,6 +142,26 @@ public class TestAll_BTreeBasics extends TestCase {
          * test index with raw record support enabled.
          */
         suite.addTestSuite(TestRawRecords.class);
+
+        /*
+         * test of ordered batch lookup using a leaf cursor.
+         */
+        suite.addTestSuite(TestSortedKeyLookup.class);
+
+        /*
+         * test of reading keys and values in place from coded leaves.
+         */
+        suite.addTestSuite(TestTupleSlices.class);
+
+        /*
+         * test of the JVM-wide cache for node and leaf data records.
+         */
+        suite.addTestSuite(TestPageCache.class);
+
+        /*
+         * test of the bottom-up build of an empty BTree.
+         */
+        suite.addTestSuite(TestBTreeBuilder.class);
         
         /*
          * stress test join processing
@@ -84,6 +84,8 @@ public class TestAll_IndexSegment extends TestCase {
         suite.addTestSuite(TestIndexSegmentBuilderWithCompactingMerge.class);
         // test when blobs are used in the source B+Tree.
         suite.addTestSuite(TestIndexSegmentBuilderWithBlobCapacity.class);
+        // test the build when the leaves are coded concurrently.
+        suite.addTestSuite(TestIndexSegmentBuilderWithConcurrentLeafCoding.class);
         // test multi-block iterators for the index segment.
         suite.addTestSuite(TestIndexSegmentMultiBlockIterators.class);
         // test iterators for the index segment.
@@ -68,6 +68,9 @@ public class TestAll_Iterators extends TestCase {
         
         // test cursors for a read-write B+Tree.
         suite.addTestSuite(TestMutableBTreeCursors.class);
+
+        // test leaf read-ahead for B+Tree cursors.
+        suite.addTestSuite(TestBTreeCursorReadAhead.class);
         
         // test stackable tuple filters
         suite.addTest(com.bigdata.btree.filter.TestAll.suite());
@@ -0,0 +1,375 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import org.apache.log4j.Level;
+
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.rawstore.IRawStore;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+
+/**
+ * Test suite for {@link BTreeBuilder}.
+ */
+public class TestBTreeBuilder extends TestCase2 {
+
+    public TestBTreeBuilder() {
+    }
+
+    public TestBTreeBuilder(final String name) {
+        super(name);
+    }
+
+    private static byte[] key(final int i) {
+
+        return TestKeyBuilder.asSortKey(i);
+
+    }
+
+    private static byte[] val(final int i) {
+
+        return new byte[] { (byte) i, (byte) (i >>> 8) };
+
+    }
+
+    /**
+     * Build a {@link BTree} with the even integers in [0:2n).
+     */
+    private BTree build(final IRawStore store, final IndexMetadata md,
+            final int n) {
+
+        final BTree btree = BTree.create(store, md);
+
+        final BTreeBuilder builder = new BTreeBuilder(btree, n);
+
+        for (int i = 0; i < n; i++) {
+
+            builder.add(key(i * 2), val(i * 2));
+
+        }
+
+        assertEquals(n, builder.build());
+
+        assertEquals(n, btree.getEntryCount());
+
+        if (n > 0) {
+
+            assertEquals(builder.getPlan().height, btree.getHeight());
+
+            assertEquals(builder.getPlan().nleaves, btree.getLeafCount());
+
+            assertEquals(builder.getPlan().nnodes, btree.getNodeCount());
+
+        }
+
+        return btree;
+
+    }
+
+    private void assertContents(final AbstractBTree btree, final int n) {
+
+        assertTrue(btree.dump(Level.ERROR, System.err));
+
+        for (int i = 0; i < n; i++) {
+
+            assertEquals(val(i * 2), btree.lookup(key(i * 2)));
+
+            assertNull(btree.lookup(key(i * 2 + 1)));
+
+        }
+
+        final ITupleIterator<?> itr = btree.rangeIterator();
+
+        int i = 0;
+
+        while (itr.hasNext()) {
+
+            final ITuple<?> tuple = itr.next();
+
+            assertEquals(key(i * 2), tuple.getKey());
+
+            assertEquals(val(i * 2), tuple.getValue());
+
+            i++;
+
+        }
+
+        assertEquals(n, i);
+
+    }
+
+    /**
+     * Build trees of various sizes and branching factors and verify their
+     * structure and contents.
+     */
+    public void test_build() {
+
+        final int[] branchingFactors = new int[] { 3, 4, 5, 16, 32 };
+
+        final int[] sizes = new int[] { 0, 1, 2, 3, 4, 5, 10, 31, 32, 33, 100,
+                1000, 4321 };
+
+        for (int m : branchingFactors) {
+
+            for (int n : sizes) {
+
+                final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+                md.setBranchingFactor(m);
+
+                final BTree btree = build(new SimpleMemoryRawStore(), md, n);
+
+                assertContents(btree, n);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Verify that the built tree is restart safe and that it can be modified.
+     */
+    public void test_checkpointAndInsert() {
+
+        final IRawStore store = new SimpleMemoryRawStore();
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(4);
+
+        final int n = 500;
+
+        final BTree btree = build(store, md, n);
+
+        final long addr = btree.writeCheckpoint();
+
+        assertContents(BTree.load(store, addr, true/* readOnly */), n);
+
+        final BTree btree2 = BTree.load(store, addr, false/* readOnly */);
+
+        // Insert the odd integers.
+        for (int i = 0; i < 2 * n; i += 2) {
+
+            assertNull(btree2.insert(key(i + 1), val(i + 1)));
+
+        }
+
+        // Remove some of the even integers.
+        for (int i = 0; i < 2 * n; i += 10) {
+
+            assertEquals(val(i), btree2.remove(key(i)));
+
+        }
+
+        assertTrue(btree2.dump(Level.ERROR, System.err));
+
+        for (int i = 0; i < 2 * n; i++) {
+
+            assertEquals(i % 10 == 0 ? null : val(i), btree2.lookup(key(i)));
+
+        }
+
+        assertEquals(2 * n - n / 5, btree2.getEntryCount());
+
+    }
+
+    /**
+     * Large values are written as raw records.
+     */
+    public void test_rawRecords() {
+
+        final IRawStore store = new SimpleMemoryRawStore();
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(3);
+
+        md.setRawRecords(true);
+
+        md.setMaxRecLen(4);
+
+        final BTree btree = BTree.create(store, md);
+
+        final int n = 100;
+
+        final BTreeBuilder builder = new BTreeBuilder(btree, n);
+
+        for (int i = 0; i < n; i++) {
+
+            builder.add(key(i), new byte[i % 10]);
+
+        }
+
+        builder.build();
+
+        final BTree btree2 = BTree.load(store, btree.writeCheckpoint(), true/* readOnly */);
+
+        for (int i = 0; i < n; i++) {
+
+            assertEquals(new byte[i % 10], btree2.lookup(key(i)));
+
+        }
+
+    }
+
+    /**
+     * The keys are added to the bloom filter.
+     */
+    public void test_bloomFilter() {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBloomFilterFactory(new BloomFilterFactory(1000/* n */));
+
+        final int n = 500;
+
+        final BTree btree = build(new SimpleMemoryRawStore(), md, n);
+
+        assertNotNull(btree.getBloomFilter());
+
+        for (int i = 0; i < n; i++) {
+
+            assertTrue(btree.getBloomFilter().contains(key(i * 2)));
+
+        }
+
+        assertContents(btree, n);
+
+    }
+
+    /**
+     * The nodes and leaves written by the builder are placed into the
+     * {@link PageCache}, the same as those written by an incremental
+     * checkpoint.
+     */
+    public void test_pageCache() {
+
+        final IRawStore store = new SimpleMemoryRawStore();
+
+        final PageCache pageCache = PageCache.getPageCache(store);
+
+        if (pageCache == null) {
+
+            // The page cache is disabled.
+            return;
+
+        }
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(4);
+
+        final BTree btree = build(store, md, 100);
+
+        // Reading the root does not read its children.
+        final Node root = (Node) btree.getRoot();
+
+        for (int i = 0; i <= root.getKeyCount(); i++) {
+
+            // The child was cached when it was written.
+            assertNotNull(pageCache.get(store.getUUID(),
+                    root.getChildAddr(i)));
+
+        }
+
+    }
+
+    /**
+     * Correct rejection tests.
+     */
+    public void test_correctRejection() {
+
+        final IRawStore store = new SimpleMemoryRawStore();
+
+        {
+            // keys out of order.
+            final BTreeBuilder builder = new BTreeBuilder(BTree.create(
+                    store, new IndexMetadata(UUID.randomUUID())), 2);
+            builder.add(key(2), null);
+            try {
+                builder.add(key(1), null);
+                fail("Expecting: " + IllegalArgumentException.class);
+            } catch (IllegalArgumentException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+        }
+
+        {
+            // too many tuples.
+            final BTreeBuilder builder = new BTreeBuilder(BTree.create(
+                    store, new IndexMetadata(UUID.randomUUID())), 1);
+            builder.add(key(1), null);
+            try {
+                builder.add(key(2), null);
+                fail("Expecting: " + IllegalStateException.class);
+            } catch (IllegalStateException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+        }
+
+        {
+            // too few tuples.
+            final BTree btree = BTree.create(store, new IndexMetadata(
+                    UUID.randomUUID()));
+            final BTreeBuilder builder = new BTreeBuilder(btree, 2);
+            builder.add(key(1), null);
+            try {
+                builder.build();
+                fail("Expecting: " + IllegalStateException.class);
+            } catch (IllegalStateException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+            // the tree was not modified.
+            assertEquals(0L, btree.getEntryCount());
+        }
+
+        {
+            // not empty.
+            final BTree btree = BTree.create(store, new IndexMetadata(
+                    UUID.randomUUID()));
+            btree.insert(key(1), null);
+            try {
+                new BTreeBuilder(btree, 1);
+                fail("Expecting: " + IllegalStateException.class);
+            } catch (IllegalStateException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+        }
+
+    }
+
+}
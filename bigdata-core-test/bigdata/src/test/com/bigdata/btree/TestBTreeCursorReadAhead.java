@@ -0,0 +1,285 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.Properties;
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.journal.BufferMode;
+import com.bigdata.journal.Journal;
+
+/**
+ * Test suite for the leaf read-ahead of the {@link AbstractBTreeTupleCursor}
+ * for a {@link BTree} backed by a {@link Journal}.
+ * 
+ * @see Journal.Options#READ_AHEAD_LEAVES
+ */
+public class TestBTreeCursorReadAhead extends TestCase2 {
+
+    public TestBTreeCursorReadAhead() {
+    }
+
+    public TestBTreeCursorReadAhead(final String name) {
+        super(name);
+    }
+
+    private static final int N = 2000;
+
+    private Properties getProperties(final int readPoolSize) {
+
+        final Properties properties = new Properties(super.getProperties());
+
+        properties.setProperty(Journal.Options.BUFFER_MODE,
+                BufferMode.DiskRW.toString());
+
+        properties.setProperty(Journal.Options.CREATE_TEMP_FILE, "true");
+
+        properties.setProperty(Journal.Options.DELETE_ON_EXIT, "true");
+
+        properties.setProperty(Journal.Options.READ_POOL_SIZE, ""
+                + readPoolSize);
+
+        properties.setProperty(Journal.Options.READ_AHEAD_LEAVES, "3");
+
+        return properties;
+
+    }
+
+    /**
+     * Write a {@link BTree} with a small branching factor on which the even
+     * integers in [0:2N) are present and return its checkpoint address.
+     */
+    private long writeBTree(final Journal jnl) {
+
+        return writeBTree(jnl, 4/* branchingFactor */);
+
+    }
+
+    /**
+     * Write a {@link BTree} with the given branching factor on which the even
+     * integers in [0:2N) are present and return its checkpoint address.
+     */
+    private long writeBTree(final Journal jnl, final int branchingFactor) {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(branchingFactor);
+
+        final BTree btree = BTree.create(jnl, md);
+
+        for (int i = 0; i < N; i++) {
+
+            btree.insert(TestKeyBuilder.asSortKey(i * 2), new byte[] { (byte) i });
+
+        }
+
+        return btree.writeCheckpoint();
+
+    }
+
+    /**
+     * Verify a scan of [fromIndex:toIndex).
+     * 
+     * @return The #of leaves read ahead during the scan.
+     */
+    private long doScanTest(final BTree btree, final int fromIndex,
+            final int toIndex, final boolean reverse) {
+
+        final long before = btree.getBtreeCounters().readAheadLeaves.get();
+
+        final int flags = IRangeQuery.DEFAULT | IRangeQuery.CURSOR
+                | (reverse ? IRangeQuery.REVERSE : 0);
+
+        final ITupleIterator<?> itr = btree.rangeIterator(
+                TestKeyBuilder.asSortKey(fromIndex * 2),
+                TestKeyBuilder.asSortKey(toIndex * 2), 0/* capacity */, flags,
+                null/* filter */);
+
+        int n = 0;
+
+        while (itr.hasNext()) {
+
+            final ITuple<?> t = itr.next();
+
+            final int i = reverse ? toIndex - 1 - n : fromIndex + n;
+
+            assertEquals(TestKeyBuilder.asSortKey(i * 2), t.getKey());
+
+            assertEquals(new byte[] { (byte) i }, t.getValue());
+
+            n++;
+
+        }
+
+        assertEquals(toIndex - fromIndex, n);
+
+        return btree.getBtreeCounters().readAheadLeaves.get() - before;
+
+    }
+
+    /**
+     * Forward and reverse scans of a committed (read-only) {@link BTree}.
+     */
+    public void test_readOnly() {
+
+        final Journal jnl = new Journal(getProperties(2/* readPoolSize */));
+
+        try {
+
+            assertNotNull(jnl.getReadExecutor());
+
+            assertEquals(3, jnl.getReadAheadLeaves());
+
+            final long addr = writeBTree(jnl);
+
+            jnl.commit();
+
+            assertTrue(doScanTest(BTree.load(jnl, addr, true/* readOnly */), 0, N, false/* reverse */) > 0);
+
+            assertTrue(doScanTest(BTree.load(jnl, addr, true/* readOnly */), 0, N, true/* reverse */) > 0);
+
+            assertTrue(doScanTest(BTree.load(jnl, addr, true/* readOnly */), 101, 1433, false/* reverse */) > 0);
+
+            assertTrue(doScanTest(BTree.load(jnl, addr, true/* readOnly */), 101, 1433, true/* reverse */) > 0);
+
+        } finally {
+
+            jnl.destroy();
+
+        }
+
+    }
+
+    /**
+     * Read-ahead continues into the sibling of the parent of the current leaf.
+     * On a {@link BTree} of height two, a full scan reads ahead every leaf but
+     * the first one visited, including the leaves which are the first (or, for
+     * a reverse scan, the last) child of their parent.
+     */
+    public void test_readAheadCrossesParent() {
+
+        final Journal jnl = new Journal(getProperties(2/* readPoolSize */));
+
+        try {
+
+            final long addr = writeBTree(jnl, 32/* branchingFactor */);
+
+            jnl.commit();
+
+            BTree btree = BTree.load(jnl, addr, true/* readOnly */);
+
+            assertEquals(2, btree.getHeight());
+
+            final long nleaves = btree.getLeafCount();
+
+            assertEquals(nleaves - 1, doScanTest(btree, 0, N, false/* reverse */));
+
+            btree = BTree.load(jnl, addr, true/* readOnly */);
+
+            assertEquals(nleaves - 1, doScanTest(btree, 0, N, true/* reverse */));
+
+        } finally {
+
+            jnl.destroy();
+
+        }
+
+    }
+
+    /**
+     * Forward and reverse scans of a mutable {@link BTree}, including removal
+     * of tuples during the scan.
+     */
+    public void test_mutable() {
+
+        final Journal jnl = new Journal(getProperties(2/* readPoolSize */));
+
+        try {
+
+            final long addr = writeBTree(jnl);
+
+            doScanTest(BTree.load(jnl, addr, false/* readOnly */), 0, N, false/* reverse */);
+
+            doScanTest(BTree.load(jnl, addr, false/* readOnly */), 57, 1999, true/* reverse */);
+
+            final BTree btree = BTree.load(jnl, addr, false/* readOnly */);
+
+            final ITupleIterator<?> itr = btree.rangeIterator(null/* fromKey */,
+                    null/* toKey */, 0/* capacity */, IRangeQuery.DEFAULT
+                            | IRangeQuery.CURSOR, null/* filter */);
+
+            int n = 0;
+
+            while (itr.hasNext()) {
+
+                itr.next();
+
+                if (n++ % 3 == 0)
+                    itr.remove();
+
+            }
+
+            assertEquals(N, n);
+
+            assertEquals(N - (N + 2) / 3, btree.rangeCount());
+
+        } finally {
+
+            jnl.destroy();
+
+        }
+
+    }
+
+    /**
+     * Scans are correct when there is no read executor (read-ahead is
+     * disabled).
+     */
+    public void test_disabled() {
+
+        final Journal jnl = new Journal(getProperties(0/* readPoolSize */));
+
+        try {
+
+            assertNull(jnl.getReadExecutor());
+
+            final long addr = writeBTree(jnl);
+
+            assertEquals(0L, doScanTest(BTree.load(jnl, addr, true/* readOnly */), 0, N, false/* reverse */));
+
+        } finally {
+
+            jnl.destroy();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.io.File;
+
+import com.bigdata.btree.keys.TestKeyBuilder;
+
+/**
+ * Test suite for building {@link IndexSegment}s when the leaves are coded
+ * concurrently. The generated {@link IndexSegment} must be the same as the one
+ * generated when each leaf is coded by the thread running the build.
+ * 
+ * @see IndexSegmentBuilder.Options#LEAF_CODING_THREADS
+ */
+public class TestIndexSegmentBuilderWithConcurrentLeafCoding extends
+        AbstractIndexSegmentTestCase {
+
+    public TestIndexSegmentBuilderWithConcurrentLeafCoding() {
+    }
+
+    public TestIndexSegmentBuilderWithConcurrentLeafCoding(final String name) {
+        super(name);
+    }
+
+    private File outFile1, outFile2;
+
+    private File tmpDir;
+
+    public void setUp() throws Exception {
+
+        super.setUp();
+
+        outFile1 = newFile(getName() + "1.seg");
+
+        outFile2 = newFile(getName() + "2.seg");
+
+        tmpDir = outFile1.getAbsoluteFile().getParentFile();
+
+    }
+
+    public void tearDown() throws Exception {
+
+        for (File f : new File[] { outFile1, outFile2 }) {
+
+            if (f != null && f.exists() && !f.delete()) {
+
+                log.warn("Could not delete file: " + f);
+
+            }
+
+        }
+
+        super.tearDown();
+
+        // clear references.
+        outFile1 = outFile2 = null;
+        tmpDir = null;
+
+    }
+
+    private static File newFile(final String name) {
+
+        final File f = new File(name);
+
+        if (f.exists() && !f.delete()) {
+
+            throw new RuntimeException("Could not delete file: " + f);
+
+        }
+
+        return f;
+
+    }
+
+    /**
+     * Return a B+Tree with <i>n</i> random keys and values.
+     */
+    private BTree getRandomBTree(final int m, final int n) {
+
+        final BTree btree = getBTree(m);
+
+        for (int i = 0; i < n; i++) {
+
+            final byte[] val = new byte[r.nextInt(20)];
+
+            r.nextBytes(val);
+
+            btree.insert(TestKeyBuilder.asSortKey(r.nextInt()), val);
+
+        }
+
+        return btree;
+
+    }
+
+    private IndexSegmentCheckpoint doBuild(final BTree btree,
+            final File outFile, final int m, final int leafCodingThreads)
+            throws Exception {
+
+        final IndexSegmentBuilder builder = IndexSegmentBuilder.newInstance(
+                outFile, tmpDir, btree.getEntryCount(), btree.rangeIterator(),
+                m, btree.getIndexMetadata(), System.currentTimeMillis(),
+                true/* compactingMerge */, false/* bufferNodes */);
+
+        builder.setLeafCodingThreads(leafCodingThreads);
+
+        assertEquals(leafCodingThreads, builder.getLeafCodingThreads());
+
+        return builder.call();
+
+    }
+
+    /**
+     * Build the same {@link IndexSegment} with and without concurrent leaf
+     * coding and verify that the generated {@link IndexSegment}s have the same
+     * structure and the same data as the source {@link BTree}.
+     */
+    private void doCompareTest(final BTree btree, final int m,
+            final int leafCodingThreads) throws Exception {
+
+        final IndexSegmentCheckpoint expected = doBuild(btree, outFile1, m, 1/* leafCodingThreads */);
+
+        final IndexSegmentCheckpoint actual = doBuild(btree, outFile2, m,
+                leafCodingThreads);
+
+        assertEquals(expected.height, actual.height);
+        assertEquals(expected.nleaves, actual.nleaves);
+        assertEquals(expected.nnodes, actual.nnodes);
+        assertEquals(expected.nentries, actual.nentries);
+        assertEquals(expected.maxNodeOrLeafLength, actual.maxNodeOrLeafLength);
+        assertEquals(expected.extentLeaves, actual.extentLeaves);
+        assertEquals(expected.extentNodes, actual.extentNodes);
+        assertEquals(expected.addrRoot, actual.addrRoot);
+        assertEquals(expected.addrFirstLeaf, actual.addrFirstLeaf);
+        assertEquals(expected.addrLastLeaf, actual.addrLastLeaf);
+
+        final IndexSegment seg = new IndexSegmentStore(outFile2)
+                .loadIndexSegment();
+
+        try {
+
+            testForwardScan(seg);
+            testReverseScan(seg);
+
+            assertSameBTree(btree, seg);
+
+        } finally {
+
+            // close so we can delete the backing store.
+            seg.close();
+
+        }
+
+    }
+
+    /**
+     * Many more leaves than leaves coded concurrently.
+     */
+    public void test_manyLeaves() throws Exception {
+
+        final BTree btree = getRandomBTree(32, 5000);
+
+        doCompareTest(btree, 7/* m */, 4/* leafCodingThreads */);
+
+        doCompareTest(btree, 30/* m */, 2 + r.nextInt(7)/* leafCodingThreads */);
+
+    }
+
+    /**
+     * Fewer leaves than leaves coded concurrently.
+     */
+    public void test_fewLeaves() throws Exception {
+
+        final BTree btree = getRandomBTree(3, 10);
+
+        doCompareTest(btree, 3/* m */, 8/* leafCodingThreads */);
+
+    }
+
+    /**
+     * A single root leaf is always coded by the thread running the build.
+     */
+    public void test_rootLeaf() throws Exception {
+
+        final BTree btree = getRandomBTree(3, 2);
+
+        doCompareTest(btree, 3/* m */, 4/* leafCodingThreads */);
+
+    }
+
+    public void test_leafCodingThreads_correctRejection() throws Exception {
+
+        final BTree btree = getRandomBTree(3, 2);
+
+        final IndexSegmentBuilder builder = IndexSegmentBuilder.newInstance(
+                outFile1, tmpDir, btree.getEntryCount(), btree.rangeIterator(),
+                3/* m */, btree.getIndexMetadata(), System.currentTimeMillis(),
+                true/* compactingMerge */, false/* bufferNodes */);
+
+        try {
+            builder.setLeafCodingThreads(0);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+    }
+
+}
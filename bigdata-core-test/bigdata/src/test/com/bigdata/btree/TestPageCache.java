@@ -0,0 +1,215 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.Properties;
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.data.IAbstractNodeData;
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.io.DirectBufferPool;
+import com.bigdata.journal.BufferMode;
+import com.bigdata.journal.Journal;
+import com.bigdata.journal.TemporaryRawStore;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+import com.bigdata.rwstore.sector.MemStore;
+
+/**
+ * Test suite for {@link PageCache}.
+ */
+public class TestPageCache extends TestCase2 {
+
+    public TestPageCache() {
+    }
+
+    public TestPageCache(final String name) {
+        super(name);
+    }
+
+    /**
+     * Return the data record for the root leaf of a B+Tree, which is coded
+     * iff the B+Tree was checkpointed.
+     */
+    private IAbstractNodeData getRootData(final boolean checkpoint) {
+
+        final BTree btree = BTree.create(new SimpleMemoryRawStore(),
+                new IndexMetadata(UUID.randomUUID()));
+
+        for (int i = 0; i < 10; i++) {
+
+            btree.insert(TestKeyBuilder.asSortKey(i), new byte[] { (byte) i });
+
+        }
+
+        if (checkpoint)
+            btree.writeCheckpoint();
+
+        return btree.getRoot().getDelegate();
+
+    }
+
+    public void test_getPutRemove() {
+
+        final PageCache cache = new PageCache(1024 * 1024, 4);
+
+        final UUID store1 = UUID.randomUUID();
+
+        final UUID store2 = UUID.randomUUID();
+
+        final IAbstractNodeData data = getRootData(true/* checkpoint */);
+
+        assertTrue(data.isCoded());
+
+        assertNull(cache.get(store1, 12L));
+
+        cache.put(store1, 12L, data);
+
+        assertSame(data, cache.get(store1, 12L));
+
+        // The store is part of the key.
+        assertNull(cache.get(store2, 12L));
+
+        cache.remove(store1, 12L);
+
+        assertNull(cache.get(store1, 12L));
+
+    }
+
+    /**
+     * A data record which is not coded is not cached and replaces a record
+     * which was cached for the same address.
+     */
+    public void test_notCoded() {
+
+        final PageCache cache = new PageCache(1024 * 1024, 4);
+
+        final UUID store = UUID.randomUUID();
+
+        final IAbstractNodeData data = getRootData(false/* checkpoint */);
+
+        assertFalse(data.isCoded());
+
+        cache.put(store, 12L, getRootData(true/* checkpoint */));
+
+        cache.put(store, 12L, data);
+
+        assertNull(cache.get(store, 12L));
+
+    }
+
+    public void test_clear() {
+
+        final PageCache cache = new PageCache(1024 * 1024, 4);
+
+        final UUID store1 = UUID.randomUUID();
+
+        final UUID store2 = UUID.randomUUID();
+
+        final IAbstractNodeData data = getRootData(true/* checkpoint */);
+
+        for (long addr = 1; addr <= 10; addr++) {
+
+            cache.put(store1, addr, data);
+
+            cache.put(store2, addr, data);
+
+        }
+
+        assertEquals(10, cache.clear(store1));
+
+        for (long addr = 1; addr <= 10; addr++) {
+
+            assertNull(cache.get(store1, addr));
+
+            assertSame(data, cache.get(store2, addr));
+
+        }
+
+    }
+
+    /**
+     * The cache is never used for a transient B+Tree.
+     */
+    public void test_transient() {
+
+        assertNull(PageCache.getPageCache(null/* store */));
+
+        assertFalse(PageCache.isCacheable(null/* store */));
+
+    }
+
+    /**
+     * The cache is only used for the durable stores, which clear their
+     * records from the cache when they are closed or destroyed.
+     */
+    public void test_isCacheable() {
+
+        final SimpleMemoryRawStore simpleStore = new SimpleMemoryRawStore();
+
+        try {
+            assertFalse(PageCache.isCacheable(simpleStore));
+        } finally {
+            simpleStore.destroy();
+        }
+
+        final MemStore memStore = new MemStore(DirectBufferPool.INSTANCE);
+
+        try {
+            assertFalse(PageCache.isCacheable(memStore));
+            // An allocation context, e.g., for a hash join.
+            assertFalse(PageCache.isCacheable(memStore
+                    .createAllocationContext()));
+        } finally {
+            memStore.destroy();
+        }
+
+        final TemporaryRawStore tmpStore = new TemporaryRawStore();
+
+        try {
+            assertFalse(PageCache.isCacheable(tmpStore));
+        } finally {
+            tmpStore.destroy();
+        }
+
+        final Properties properties = new Properties();
+
+        properties.setProperty(Journal.Options.BUFFER_MODE,
+                BufferMode.Transient.toString());
+
+        final Journal journal = new Journal(properties);
+
+        try {
+            assertTrue(PageCache.isCacheable(journal));
+        } finally {
+            journal.destroy();
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.Random;
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.btree.raba.ReadOnlyKeysRaba;
+import com.bigdata.rawstore.IRawStore;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+
+/**
+ * Test suite for {@link SortedKeyLookup}. The results are compared against
+ * {@link AbstractBTree#lookup(byte[])} for each key.
+ */
+public class TestSortedKeyLookup extends TestCase2 {
+
+    public TestSortedKeyLookup() {
+    }
+
+    public TestSortedKeyLookup(final String name) {
+        super(name);
+    }
+
+    /**
+     * Return a B+Tree with a small branching factor in which the even integers
+     * in [0:2000) are present and every 10th of them is deleted.
+     */
+    private BTree getBTree(final IRawStore store) {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(3);
+
+        md.setDeleteMarkers(true);
+
+        final BTree btree = BTree.create(store, md);
+
+        for (int i = 0; i < 2000; i += 2) {
+
+            btree.insert(TestKeyBuilder.asSortKey(i), new byte[] { (byte) i });
+
+        }
+
+        for (int i = 0; i < 2000; i += 20) {
+
+            btree.remove(TestKeyBuilder.asSortKey(i));
+
+        }
+
+        return btree;
+
+    }
+
+    private static byte[][] keys(final int[] a) {
+
+        final byte[][] keys = new byte[a.length][];
+
+        for (int i = 0; i < a.length; i++) {
+
+            keys[i] = TestKeyBuilder.asSortKey(a[i]);
+
+        }
+
+        return keys;
+
+    }
+
+    private void doLookupTest(final AbstractBTree btree, final int[] a) {
+
+        final byte[][] keys = keys(a);
+
+        final byte[][] actual = SortedKeyLookup.lookup(btree,
+                new ReadOnlyKeysRaba(keys));
+
+        assertEquals(keys.length, actual.length);
+
+        for (int i = 0; i < keys.length; i++) {
+
+            assertEquals("key=" + a[i], btree.lookup(keys[i]), actual[i]);
+
+        }
+
+    }
+
+    /**
+     * Dense ordered keys, including keys before and after the keys in the
+     * index.
+     */
+    public void test_dense() {
+
+        final BTree btree = getBTree(new SimpleMemoryRawStore());
+
+        final int[] a = new int[2100];
+
+        for (int i = 0; i < a.length; i++) {
+
+            a[i] = i - 50;
+
+        }
+
+        doLookupTest(btree, a);
+
+    }
+
+    /**
+     * Sparse ordered keys which skip over many leaves.
+     */
+    public void test_sparse() {
+
+        final BTree btree = getBTree(new SimpleMemoryRawStore());
+
+        doLookupTest(btree, new int[] { 2, 3, 4, 200, 201, 202, 900, 1500,
+                1998, 1999, 5000 });
+
+    }
+
+    /**
+     * Keys which are not ordered and keys which are duplicated.
+     */
+    public void test_unordered() {
+
+        final BTree btree = getBTree(new SimpleMemoryRawStore());
+
+        final Random r = new Random();
+
+        final int[] a = new int[500];
+
+        for (int i = 0; i < a.length; i++) {
+
+            a[i] = r.nextInt(2100);
+
+        }
+
+        doLookupTest(btree, a);
+
+        doLookupTest(btree, new int[] { 10, 10, 12, 12, 8 });
+
+    }
+
+    /**
+     * A read-only B+Tree, for which leaves are read ahead.
+     */
+    public void test_readOnly() {
+
+        final IRawStore store = new SimpleMemoryRawStore();
+
+        final long addr = getBTree(store).writeCheckpoint();
+
+        final BTree btree = BTree.load(store, addr, true/* readOnly */);
+
+        assertTrue(btree.isReadOnly());
+
+        final int[] a = new int[1000];
+
+        for (int i = 0; i < a.length; i++) {
+
+            a[i] = i * 3;
+
+        }
+
+        doLookupTest(btree, a);
+
+    }
+
+    /**
+     * An empty B+Tree.
+     */
+    public void test_empty() {
+
+        final BTree btree = BTree.create(new SimpleMemoryRawStore(),
+                new IndexMetadata(UUID.randomUUID()));
+
+        doLookupTest(btree, new int[] { 1, 2, 3 });
+
+    }
+
+}
@@ -4,6 +4,8 @@ import java.util.Arrays;
 
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataInputBuffer;
+import com.bigdata.io.IByteArraySlice;
+import com.bigdata.io.MutableByteArraySlice;
 import com.bigdata.rawstore.IBlock;
 
 /**
@@ -118,6 +120,12 @@ public class TestTuple<E> implements ITuple<E> {
 
     }
 
+    public IByteArraySlice getKeySlice() {
+
+        return new MutableByteArraySlice().set(key, 0/* off */, key.length);
+
+    }
+
     public boolean getKeysRequested() {
 
         return ((flags & IRangeQuery.KEYS) != 0);
@@ -157,6 +165,15 @@ public class TestTuple<E> implements ITuple<E> {
 
     }
 
+    public IByteArraySlice getValueSlice() {
+
+        if (val == null)
+            throw new UnsupportedOperationException();
+
+        return new MutableByteArraySlice().set(val, 0/* off */, val.length);
+
+    }
+
     public boolean getValuesRequested() {
 
         return ((flags & IRangeQuery.VALS) != 0);
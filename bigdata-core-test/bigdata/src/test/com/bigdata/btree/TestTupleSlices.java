@@ -0,0 +1,244 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.btree.raba.codec.FixedLengthValueRabaCoder;
+import com.bigdata.btree.raba.codec.IRabaCoder;
+import com.bigdata.btree.raba.codec.SimpleRabaCoder;
+import com.bigdata.io.IByteArraySlice;
+import com.bigdata.rawstore.IRawStore;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+
+/**
+ * Test suite for {@link ITuple#getKeySlice()} and
+ * {@link ITuple#getValueSlice()}. When the leaves are coded such that the keys
+ * or values may be read in place, the slices must be backed by the coded
+ * record rather than by the buffers of the tuple.
+ */
+public class TestTupleSlices extends TestCase2 {
+
+    public TestTupleSlices() {
+    }
+
+    public TestTupleSlices(final String name) {
+        super(name);
+    }
+
+    private static final int N = 500;
+
+    private static byte[] value(final int i) {
+
+        if (i % 7 == 0)
+            return null;
+
+        return new byte[] { (byte) i, (byte) (i >> 8), 1 };
+
+    }
+
+    /**
+     * Return a read-only B+Tree using the given coders in which the integers
+     * in [0:N) are present and every 10th of them is deleted.
+     */
+    private BTree getBTree(final IRawStore store, final IRabaCoder keysCoder,
+            final IRabaCoder valsCoder) {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(4);
+
+        md.setDeleteMarkers(true);
+
+        md.setTupleSerializer(new DefaultTupleSerializer(DefaultTupleSerializer
+                .getDefaultKeyBuilderFactory(), keysCoder, valsCoder));
+
+        final BTree btree = BTree.create(store, md);
+
+        for (int i = 0; i < N; i++) {
+
+            btree.insert(TestKeyBuilder.asSortKey(i), value(i));
+
+        }
+
+        for (int i = 0; i < N; i += 10) {
+
+            btree.remove(TestKeyBuilder.asSortKey(i));
+
+        }
+
+        final long addr = btree.writeCheckpoint();
+
+        return BTree.load(store, addr, true/* readOnly */);
+
+    }
+
+    /**
+     * Verify the slices for each tuple.
+     * 
+     * @param inPlace
+     *            <code>true</code> iff the slices should be read in place from
+     *            the coded leaves.
+     */
+    private void doSliceTest(final BTree btree, final boolean inPlace) {
+
+        final ITupleIterator<?> itr = btree.rangeIterator(null/* fromKey */,
+                null/* toKey */, 0/* capacity */, IRangeQuery.DEFAULT
+                        | IRangeQuery.DELETED, null/* filter */);
+
+        int i = 0;
+
+        while (itr.hasNext()) {
+
+            final ITuple<?> t = itr.next();
+
+            final byte[] key = TestKeyBuilder.asSortKey(i);
+
+            final IByteArraySlice k = t.getKeySlice();
+
+            assertEquals(key, k.toByteArray());
+
+            assertEquals(key.length, k.len());
+
+            if (i % 10 == 0) {
+
+                assertTrue(t.isDeletedVersion());
+
+                try {
+                    t.getValueSlice();
+                    fail("Expecting: " + UnsupportedOperationException.class);
+                } catch (UnsupportedOperationException ex) {
+                    if (log.isInfoEnabled())
+                        log.info("Ignoring expected exception: " + ex);
+                }
+
+            } else if (value(i) == null) {
+
+                assertTrue(t.isNull());
+
+                try {
+                    t.getValueSlice();
+                    fail("Expecting: " + UnsupportedOperationException.class);
+                } catch (UnsupportedOperationException ex) {
+                    if (log.isInfoEnabled())
+                        log.info("Ignoring expected exception: " + ex);
+                }
+
+            } else {
+
+                final IByteArraySlice v = t.getValueSlice();
+
+                assertEquals(value(i), v.toByteArray());
+
+                assertEquals(inPlace, v.array() != t.getValueBuffer().array());
+
+                // Once copied, the slice is backed by the value buffer.
+                assertTrue(t.getValueSlice().array() == t.getValueBuffer()
+                        .array());
+
+                assertEquals(value(i), t.getValue());
+
+            }
+
+            assertEquals(inPlace, k.array() != t.getKeyBuffer().array());
+
+            // Once copied, the slice is backed by the key buffer.
+            assertTrue(t.getKeySlice().array() == t.getKeyBuffer().array());
+
+            assertEquals(key, t.getKey());
+
+            i++;
+
+        }
+
+        assertEquals(N, i);
+
+    }
+
+    /**
+     * Keys and values are read in place.
+     */
+    public void test_inPlace() {
+
+        doSliceTest(getBTree(new SimpleMemoryRawStore(),
+                SimpleRabaCoder.INSTANCE, SimpleRabaCoder.INSTANCE), true/* inPlace */);
+
+    }
+
+    /**
+     * Fixed length values are read in place.
+     */
+    public void test_inPlace_fixedLengthValues() {
+
+        doSliceTest(getBTree(new SimpleMemoryRawStore(),
+                SimpleRabaCoder.INSTANCE, new FixedLengthValueRabaCoder(3)),
+                true/* inPlace */);
+
+    }
+
+    /**
+     * The default coders must copy the keys and values into the tuple.
+     */
+    public void test_copied() {
+
+        doSliceTest(getBTree(new SimpleMemoryRawStore(),
+                DefaultTupleSerializer.getDefaultLeafKeysCoder(),
+                DefaultTupleSerializer.getDefaultValuesCoder()), false/* inPlace */);
+
+    }
+
+    /**
+     * The keys and values of a mutable B+Tree are always copied.
+     */
+    public void test_mutable() {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setTupleSerializer(new DefaultTupleSerializer(DefaultTupleSerializer
+                .getDefaultKeyBuilderFactory(), SimpleRabaCoder.INSTANCE,
+                SimpleRabaCoder.INSTANCE));
+
+        final BTree btree = BTree.create(new SimpleMemoryRawStore(), md);
+
+        btree.insert(new byte[] { 1, 2 }, new byte[] { 3 });
+
+        final ITuple<?> t = btree.rangeIterator().next();
+
+        assertEquals(new byte[] { 1, 2 }, t.getKeySlice().toByteArray());
+
+        assertTrue(t.getKeySlice().array() == t.getKeyBuffer().array());
+
+        assertEquals(new byte[] { 3 }, t.getValueSlice().toByteArray());
+
+        assertTrue(t.getValueSlice().array() == t.getValueBuffer().array());
+
+    }
+
+}
@@ -0,0 +1,322 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.BTree.PublishedView;
+import com.bigdata.btree.keys.TestKeyBuilder;
+import com.bigdata.btree.proc.BatchInsert.BatchInsertConstructor;
+import com.bigdata.btree.proc.BatchLookup.BatchLookupConstructor;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+
+/**
+ * Test suite for the read-only views which are published for lock-free readers
+ * by an {@link UnisolatedReadWriteIndex}.
+ * 
+ * @see UnisolatedReadWriteIndex.Options#PUBLISH_VIEWS
+ */
+public class TestUnisolatedReadWriteIndexViews extends TestCase2 {
+
+    public TestUnisolatedReadWriteIndexViews() {
+    }
+
+    public TestUnisolatedReadWriteIndexViews(final String name) {
+        super(name);
+    }
+
+    private BTree getBTree() {
+
+        final IndexMetadata md = new IndexMetadata(UUID.randomUUID());
+
+        md.setBranchingFactor(3);
+
+        return BTree.create(new SimpleMemoryRawStore(), md);
+
+    }
+
+    /**
+     * Insert the keys in [fromKey:toKey) using a batch procedure. The value
+     * for each key is the low byte of the key.
+     */
+    private void insert(final UnisolatedReadWriteIndex ndx, final int fromKey,
+            final int toKey) {
+
+        final int n = toKey - fromKey;
+
+        final byte[][] keys = new byte[n][];
+
+        final byte[][] vals = new byte[n][];
+
+        for (int i = 0; i < n; i++) {
+
+            keys[i] = TestKeyBuilder.asSortKey(fromKey + i);
+
+            vals[i] = new byte[] { (byte) (fromKey + i) };
+
+        }
+
+        ndx.submit(0/* fromIndex */, n/* toIndex */, keys, vals,
+                BatchInsertConstructor.RETURN_NO_VALUES, null/* aggregator */);
+
+    }
+
+    /**
+     * Nothing is published unless the option is enabled.
+     */
+    public void test_notPublished() {
+
+        final BTree btree = getBTree();
+
+        final UnisolatedReadWriteIndex ndx = new UnisolatedReadWriteIndex(
+                btree, 100/* defaultCapacity */, false/* publishViews */);
+
+        insert(ndx, 0, 10);
+
+        assertNull(btree.acquirePublishedView());
+
+        assertEquals(new byte[] { 5 }, ndx.lookup(TestKeyBuilder.asSortKey(5)));
+
+    }
+
+    /**
+     * A view is published at the end of each batch and reads on the view see
+     * the writes made by the batch.
+     */
+    public void test_publishedView() {
+
+        final BTree btree = getBTree();
+
+        final UnisolatedReadWriteIndex ndx = new UnisolatedReadWriteIndex(
+                btree, 100/* defaultCapacity */, true/* publishViews */);
+
+        insert(ndx, 0, 10);
+
+        final PublishedView view1 = btree.acquirePublishedView();
+
+        assertNotNull(view1);
+
+        try {
+
+            assertTrue(view1.btree.isReadOnly());
+
+            assertEquals(10, view1.btree.getEntryCount());
+
+        } finally {
+
+            view1.release();
+
+        }
+
+        // Point tests, range counts and iterators read on the view.
+        assertEquals(new byte[] { 5 }, ndx.lookup(TestKeyBuilder.asSortKey(5)));
+
+        assertFalse(ndx.contains(TestKeyBuilder.asSortKey(10)));
+
+        assertEquals(10, ndx.rangeCount());
+
+        assertEquals(10, ndx.rangeCountExact(null, null));
+
+        AbstractBTreeTestCase.assertSameIterator(new byte[][] { new byte[] { 8 }, new byte[] { 9 } },
+                ndx.rangeIterator(TestKeyBuilder.asSortKey(8), null));
+
+        // A read-only procedure reads on the view.
+        final byte[][] keys = new byte[][] { TestKeyBuilder.asSortKey(3),
+                TestKeyBuilder.asSortKey(12) };
+
+        ndx.submit(0/* fromIndex */, 2/* toIndex */, keys, null/* vals */,
+                BatchLookupConstructor.INSTANCE, null/* aggregator */);
+
+        // The next batch replaces the view.
+        insert(ndx, 10, 20);
+
+        final PublishedView view2 = btree.acquirePublishedView();
+
+        assertNotNull(view2);
+
+        try {
+
+            assertNotSame(view1, view2);
+
+            assertEquals(20, view2.btree.getEntryCount());
+
+        } finally {
+
+            view2.release();
+
+        }
+
+        assertEquals(new byte[] { 15 }, ndx.lookup(TestKeyBuilder.asSortKey(15)));
+
+        assertEquals(20, ndx.rangeCount());
+
+    }
+
+    /**
+     * A write which is not made by a batch retires the published view and the
+     * readers see that write using the read lock.
+     */
+    public void test_writeRetiresView() {
+
+        final BTree btree = getBTree();
+
+        final UnisolatedReadWriteIndex ndx = new UnisolatedReadWriteIndex(
+                btree, 100/* defaultCapacity */, true/* publishViews */);
+
+        insert(ndx, 0, 10);
+
+        assertNotNull(acquireAndRelease(btree));
+
+        ndx.insert(TestKeyBuilder.asSortKey(10), new byte[] { 10 });
+
+        assertNull(btree.acquirePublishedView());
+
+        assertEquals(new byte[] { 10 }, ndx.lookup(TestKeyBuilder.asSortKey(10)));
+
+        assertEquals(11, ndx.rangeCount());
+
+        // The next batch publishes a view again.
+        insert(ndx, 20, 30);
+
+        assertNotNull(acquireAndRelease(btree));
+
+        assertEquals(21, ndx.rangeCount());
+
+    }
+
+    /**
+     * The writer of a batch reads its own writes rather than the published
+     * view, which remains visible to other readers until the end of the batch.
+     */
+    public void test_writerReadsOwnWrites() throws Exception {
+
+        final BTree btree = getBTree();
+
+        final UnisolatedReadWriteIndex ndx = new UnisolatedReadWriteIndex(
+                btree, 100/* defaultCapacity */, true/* publishViews */);
+
+        insert(ndx, 0, 10);
+
+        final PublishedView view1 = acquireAndRelease(btree);
+
+        btree.beginPublishedWrite();
+
+        try {
+
+            btree.insert(TestKeyBuilder.asSortKey(10), new byte[] { 10 });
+
+            assertNull(btree.acquirePublishedView());
+
+            assertEquals(new byte[] { 10 },
+                    ndx.lookup(TestKeyBuilder.asSortKey(10)));
+
+            // Another thread still sees the published view.
+            final PublishedView[] a = new PublishedView[1];
+
+            final Thread t = new Thread() {
+                @Override
+                public void run() {
+                    a[0] = acquireAndRelease(btree);
+                }
+            };
+
+            t.start();
+
+            t.join();
+
+            assertSame(view1, a[0]);
+
+        } finally {
+
+            btree.endPublishedWrite(true/* publish */);
+
+        }
+
+        final PublishedView view2 = acquireAndRelease(btree);
+
+        assertNotNull(view2);
+
+        assertNotSame(view1, view2);
+
+        assertEquals(11, view2.btree.getEntryCount());
+
+    }
+
+    /**
+     * The view is retired when the index is committed. A reader holding a
+     * reference to the retired view may continue to read on it.
+     */
+    public void test_commitRetiresView() {
+
+        final BTree btree = getBTree();
+
+        final UnisolatedReadWriteIndex ndx = new UnisolatedReadWriteIndex(
+                btree, 100/* defaultCapacity */, true/* publishViews */);
+
+        insert(ndx, 0, 10);
+
+        final PublishedView view = btree.acquirePublishedView();
+
+        assertNotNull(view);
+
+        try {
+
+            btree.handleCommit(System.currentTimeMillis());
+
+            assertNull(btree.acquirePublishedView());
+
+            assertEquals(new byte[] { 5 },
+                    view.btree.lookup(TestKeyBuilder.asSortKey(5)));
+
+        } finally {
+
+            view.release();
+
+        }
+
+        assertEquals(new byte[] { 5 }, ndx.lookup(TestKeyBuilder.asSortKey(5)));
+
+    }
+
+    /**
+     * Return the published view after releasing the reference acquired by this
+     * method.
+     */
+    private static PublishedView acquireAndRelease(final BTree btree) {
+
+        final PublishedView view = btree.acquirePublishedView();
+
+        if (view != null)
+            view.release();
+
+        return view;
+
+    }
+
+}
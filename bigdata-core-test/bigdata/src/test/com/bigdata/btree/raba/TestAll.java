@@ -66,6 +66,7 @@ public class TestAll extends TestCase {
 
         // test key search routines on the key buffer implementations.
         suite.addTestSuite(TestKeyBufferSearch.class);
+        suite.addTestSuite(TestKeyPrefixSearch.class);
 
         // test suite for a read-only view onto a backing raba.
         suite.addTestSuite(TestSubRangeRaba.class);
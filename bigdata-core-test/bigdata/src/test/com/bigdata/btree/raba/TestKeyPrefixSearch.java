@@ -0,0 +1,244 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.btree.raba;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.raba.codec.CanonicalHuffmanRabaCoder;
+import com.bigdata.btree.raba.codec.FrontCodedRabaCoder.DefaultFrontCodedRabaCoder;
+import com.bigdata.btree.raba.codec.IRabaCoder;
+import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * Test suite for {@link KeyPrefixSearch}. The results are compared against
+ * {@link IRaba#search(byte[])}.
+ */
+public class TestKeyPrefixSearch extends TestCase2 {
+
+    public TestKeyPrefixSearch() {
+    }
+
+    public TestKeyPrefixSearch(final String name) {
+        super(name);
+    }
+
+    private final Random r = new Random();
+
+    /**
+     * Return random keys in order. The keys share a random prefix and use a
+     * small alphabet (including zero bytes) so the probes frequently tie with
+     * the packed words.
+     */
+    private byte[][] getKeys(final byte[] prefix, final int n) {
+
+        final TreeSet<byte[]> set = new TreeSet<byte[]>(
+                BytesUtil.UnsignedByteArrayComparator.INSTANCE);
+
+        while (set.size() < n) {
+
+            set.add(getKey(prefix));
+
+        }
+
+        return set.toArray(new byte[n][]);
+
+    }
+
+    private byte[] getKey(final byte[] prefix) {
+
+        final byte[] key = new byte[prefix.length + r.nextInt(14)];
+
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+
+        for (int i = prefix.length; i < key.length; i++) {
+
+            switch (r.nextInt(4)) {
+            case 0:
+                key[i] = 0;
+                break;
+            case 1:
+                key[i] = (byte) 0xff;
+                break;
+            default:
+                key[i] = (byte) (1 + r.nextInt(2));
+            }
+
+        }
+
+        return key;
+
+    }
+
+    /**
+     * Return a probe. This is an existing key, a truncation or extension of an
+     * existing key or a random key (which may or may not share the prefix).
+     */
+    private byte[] getProbe(final IRaba keys, final byte[] prefix) {
+
+        switch (r.nextInt(4)) {
+        case 0:
+            return keys.get(r.nextInt(keys.size()));
+        case 1: {
+            final byte[] key = keys.get(r.nextInt(keys.size()));
+            return Arrays.copyOf(key, r.nextInt(key.length + 1));
+        }
+        case 2: {
+            final byte[] key = keys.get(r.nextInt(keys.size()));
+            return Arrays.copyOf(key, key.length + 1 + r.nextInt(2));
+        }
+        default: {
+            final byte[] key = getKey(prefix);
+            if (key.length > 0 && r.nextInt(4) == 0)
+                key[r.nextInt(key.length)] ^= 0x40;
+            return key;
+        }
+        }
+
+    }
+
+    private void doSearchTest(final IRaba keys, final byte[] prefix,
+            final int nprobes) {
+
+        final KeyPrefixSearch s = new KeyPrefixSearch(keys);
+
+        assertTrue(s.getKeys() == keys);
+
+        for (int i = 0; i < nprobes; i++) {
+
+            final byte[] probe = getProbe(keys, prefix);
+
+            assertEquals(BytesUtil.toString(probe), keys.search(probe),
+                    s.search(probe));
+
+        }
+
+    }
+
+    private void doRandomTest(final IRabaCoder coder) {
+
+        for (int trial = 0; trial < 200; trial++) {
+
+            final byte[] prefix = new byte[r.nextInt(12)];
+
+            r.nextBytes(prefix);
+
+            final byte[][] a = getKeys(prefix, 1 + r.nextInt(100));
+
+            final IRaba keys = new ReadOnlyKeysRaba(a);
+
+            doSearchTest(
+                    coder == null ? keys : coder.encodeLive(keys,
+                            new DataOutputBuffer()), prefix, 100/* nprobes */);
+
+        }
+
+    }
+
+    public void test_readOnlyKeys() {
+
+        doRandomTest(null/* coder */);
+
+    }
+
+    public void test_frontCoded() {
+
+        doRandomTest(DefaultFrontCodedRabaCoder.INSTANCE);
+
+    }
+
+    public void test_canonicalHuffman() {
+
+        doRandomTest(CanonicalHuffmanRabaCoder.INSTANCE);
+
+    }
+
+    /**
+     * Keys which differ only in trailing zero bytes, so they pack into the
+     * same word.
+     */
+    public void test_trailingZeros() {
+
+        final IRaba keys = new ReadOnlyKeysRaba(new byte[][] {//
+                new byte[] { 1 },//
+                new byte[] { 1, 0 },//
+                new byte[] { 1, 0, 0 },//
+                new byte[] { 1, 0, 0, 0, 0, 0, 0, 0, 0, 0 },//
+                new byte[] { 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1 },//
+                new byte[] { 1, 1 },//
+                });
+
+        final KeyPrefixSearch s = new KeyPrefixSearch(keys);
+
+        assertEquals(0, s.search(new byte[] { 1 }));
+        assertEquals(2, s.search(new byte[] { 1, 0, 0 }));
+        assertEquals(-4, s.search(new byte[] { 1, 0, 0, 0 }));
+        assertEquals(4, s.search(new byte[] { 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1 }));
+        assertEquals(-6, s.search(new byte[] { 1, 0, 1 }));
+        assertEquals(-1, s.search(new byte[] { 0 }));
+        assertEquals(-1, s.search(new byte[] {}));
+        assertEquals(-7, s.search(new byte[] { 2 }));
+
+    }
+
+    public void test_empty() {
+
+        final KeyPrefixSearch s = new KeyPrefixSearch(new ReadOnlyKeysRaba(
+                new byte[0][]));
+
+        assertEquals(-1, s.search(new byte[] { 1 }));
+
+    }
+
+    public void test_correctRejection() {
+
+        try {
+            new KeyPrefixSearch(null);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+        try {
+            // Mutable keys.
+            new KeyPrefixSearch(new MutableKeyBuffer(10));
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+    }
+
+}
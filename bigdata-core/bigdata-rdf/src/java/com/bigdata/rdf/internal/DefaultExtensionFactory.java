@@ -6,8 +6,10 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.bigdata.rdf.internal.impl.extensions.DateOrdinalExtension;
 import com.bigdata.rdf.internal.impl.extensions.DateTimeExtension;
 import com.bigdata.rdf.internal.impl.extensions.DerivedNumericsExtension;
+import com.bigdata.rdf.internal.impl.extensions.FixedDecimalExtension;
 import com.bigdata.rdf.internal.impl.extensions.GeoSpatialLiteralExtension;
 import com.bigdata.rdf.internal.impl.extensions.XSDStringExtension;
 import com.bigdata.rdf.model.BigdataLiteral;
@@ -25,6 +27,13 @@ import com.bigdata.service.geospatial.GeoSpatialDatatypeConfiguration;
  * <dt>{@link DerivedNumericsExtension}</dt>
  * <dd>Inlining literals which represent derived numeric values into
  * the statement indices.</dd>
+ * <dt>{@link DateOrdinalExtension}</dt>
+ * <dd>Inlining <code>xsd:date</code> and <code>xsd:gYear</code> literals as
+ * packed ordinals (optional, takes precedence over the
+ * {@link DateTimeExtension} for those datatypes).</dd>
+ * <dt>{@link FixedDecimalExtension}</dt>
+ * <dd>Inlining <code>xsd:decimal</code> literals with a small scale as
+ * fixed-point values (optional).</dd>
  * </dl>
  */
 public class DefaultExtensionFactory implements IExtensionFactory {
@@ -68,6 +77,19 @@ public class DefaultExtensionFactory implements IExtensionFactory {
     		
     	}
 
+        if (config.isInlineDateOrdinals()) {
+            /*
+             * Note: Registered after the DateTimeExtension so it replaces that
+             * extension for xsd:date and xsd:gYear.
+             */
+            extensions.add(new DateOrdinalExtension<BigdataLiteral>(resolver));
+        }
+
+        if (config.getInlineDecimalScale() > 0) {
+            extensions.add(new FixedDecimalExtension<BigdataLiteral>(resolver,
+                    config.getInlineDecimalScale()));
+        }
+
         if (config.getMaxInlineStringLength() > 0) {
 			/*
 			 * Note: This extension is used for both literals and URIs. It MUST
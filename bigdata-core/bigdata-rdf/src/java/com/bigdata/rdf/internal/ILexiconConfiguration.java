@@ -91,6 +91,48 @@ public interface ILexiconConfiguration<V extends BigdataValue> {
      */
     public TimeZone getInlineDateTimesTimeZone();
 
+    /**
+     * Return <code>true</code> if xsd:date and xsd:gYear literals are being
+     * inlined as packed ordinals.
+     *
+     * @see AbstractTripleStore.Options#INLINE_DATE_ORDINALS
+     */
+    public boolean isInlineDateOrdinals();
+
+    /**
+     * Return the scale at which xsd:decimal literals are inlined as
+     * fixed-point values -or- ZERO (0) if they are not.
+     *
+     * @see AbstractTripleStore.Options#INLINE_DECIMAL_SCALE
+     */
+    public int getInlineDecimalScale();
+
+    /**
+     * Return the maximum length of a language tagged literal which will be
+     * fully inlined -or- ZERO (0) if they are not.
+     *
+     * @see AbstractTripleStore.Options#MAX_INLINE_LANG_LITERAL_LENGTH
+     */
+    public int getMaxInlineLangLiteralLength();
+
+    /**
+     * Return <code>true</code> iff all literals of the datatype share one key
+     * encoding in the statement indices, so a key-range scan formed from the
+     * bounds of a range FILTER visits all values in that range. This is not
+     * the case for <code>xsd:date</code> and <code>xsd:gYear</code> when
+     * {@link AbstractTripleStore.Options#INLINE_DATE_ORDINALS} is enabled
+     * (only some values are inlined, the rest are in the lexicon) or for
+     * <code>xsd:decimal</code> when
+     * {@link AbstractTripleStore.Options#INLINE_DECIMAL_SCALE} is enabled
+     * (values which do not fit the fixed scale use another inline encoding).
+     * 
+     * @param datatype
+     *            The datatype -or- <code>null</code> if it is not known, in
+     *            which case <code>false</code> is returned if any datatype
+     *            has more than one key encoding.
+     */
+    public boolean isRangeSafe(URI datatype);
+
     /**
      * Return the threshold at which a literal would be stored in the
      * {@link LexiconKeyOrder#BLOBS} index.
@@ -0,0 +1,898 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+import org.openrdf.model.URI;
+
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.ITuple;
+import com.bigdata.btree.ITupleIterator;
+import com.bigdata.rdf.internal.impl.literal.AbstractLiteralIV;
+import com.bigdata.rdf.lexicon.LexiconRelation;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.vocab.Vocabulary;
+import com.bigdata.rdf.vocab.VocabularyDecl;
+
+/**
+ * Analyzes the {@link URI}s in a lexicon and reports the namespaces whose
+ * local names could be inlined by one of the {@link InlineURIHandler}s. The
+ * analysis makes two passes over the {@link URI}s.
+ * <ol>
+ * <li>Each local name is classified and a count is maintained for each
+ * candidate handler (e.g., a {@link InlinePrefixedIntegerURIHandler} for the
+ * prefix <code>Q</code> in the namespace
+ * <code>http://www.wikidata.org/entity/</code>).</li>
+ * <li>The candidates having at least the minimum count are instantiated and
+ * each {@link URI} in their namespace is run through the handler. The
+ * {@link URI}s which are inlined are counted and a {@link URI} is
+ * <em>unsafe</em> if it is inlined but its local name is not recovered
+ * exactly (e.g., <code>007</code> for an integer handler). A candidate with
+ * any unsafe {@link URI}s is rejected since it would conflate distinct
+ * {@link URI}s.</li>
+ * </ol>
+ * At most one handler is selected for each namespace. The selected handlers
+ * may then be written out as a {@link VocabularyDecl} declaring their
+ * namespaces, a {@link Vocabulary} and an {@link InlineURIFactory} which
+ * declares the handlers. Those classes must be compiled and used to create a
+ * new KB instance. The data must then be copied into that KB instance since
+ * the inlining is a property of the lexicon configuration which can not be
+ * changed once the KB exists.
+ * <p>
+ * Note: The {@link URI}s which are already inlined by the KB are not visible
+ * in the lexicon and are not reported.
+ *
+ * @see com.bigdata.rdf.util.AnalyzeInlineURIs
+ */
+public class InlineURIAnalyzer {
+
+    private static final transient Logger log = Logger
+            .getLogger(InlineURIAnalyzer.class);
+
+    /**
+     * The local name patterns which are recognized.
+     */
+    public static enum Pattern {
+
+        /**
+         * An integer (<code>123</code>).
+         *
+         * @see InlineSignedIntegerURIHandler
+         */
+        SignedInteger,
+
+        /**
+         * A fixed width integer (<code>000123</code>).
+         *
+         * @see InlineFixedWidthIntegerURIHandler
+         */
+        FixedWidthInteger,
+
+        /**
+         * A prefix followed by an integer (<code>Q123</code>).
+         *
+         * @see InlinePrefixedIntegerURIHandler
+         */
+        PrefixedInteger,
+
+        /**
+         * A prefix followed by a fixed width integer (<code>PR_000123</code>).
+         *
+         * @see InlinePrefixedFixedWidthIntegerURIHandler
+         */
+        PrefixedFixedWidthInteger,
+
+        /**
+         * A {@link UUID}.
+         *
+         * @see InlineUUIDURIHandler
+         */
+        UUID;
+
+    }
+
+    /**
+     * A candidate {@link InlineURIHandler} for some namespace.
+     */
+    public static class Candidate {
+
+        private final String namespace;
+
+        private final Pattern pattern;
+
+        private final String prefix;
+
+        private final int width;
+
+        /**
+         * The #of local names which matched the pattern (first pass).
+         */
+        long matched;
+
+        /**
+         * The #of {@link URI}s which the handler inlines (second pass).
+         */
+        long inlined;
+
+        /**
+         * The #of {@link URI}s which the handler inlines but can not recover
+         * exactly (second pass).
+         */
+        long unsafe;
+
+        /**
+         * The handler (second pass).
+         */
+        InlineURIHandler handler;
+
+        Candidate(final String namespace, final Pattern pattern,
+                final String prefix, final int width) {
+
+            this.namespace = namespace;
+            this.pattern = pattern;
+            this.prefix = prefix;
+            this.width = width;
+
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * The prefix of the local name (if any).
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * The width of the integer (if fixed).
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        public long getMatchedCount() {
+            return matched;
+        }
+
+        public long getInlinedCount() {
+            return inlined;
+        }
+
+        public long getUnsafeCount() {
+            return unsafe;
+        }
+
+        /**
+         * Return a new instance of the {@link InlineURIHandler}.
+         */
+        public InlineURIHandler newHandler() {
+
+            switch (pattern) {
+            case SignedInteger:
+                return new InlineSignedIntegerURIHandler(namespace);
+            case FixedWidthInteger:
+                return new InlineFixedWidthIntegerURIHandler(namespace, width);
+            case PrefixedInteger:
+                return new InlinePrefixedIntegerURIHandler(namespace, prefix);
+            case PrefixedFixedWidthInteger:
+                return new InlinePrefixedFixedWidthIntegerURIHandler(namespace,
+                        prefix, width);
+            case UUID:
+                return new InlineUUIDURIHandler(namespace);
+            default:
+                throw new AssertionError();
+            }
+
+        }
+
+        /**
+         * Return the Java expression which constructs the handler.
+         */
+        public String toJava() {
+
+            final String ns = quote(namespace);
+
+            switch (pattern) {
+            case SignedInteger:
+                return "new InlineSignedIntegerURIHandler(" + ns + ")";
+            case FixedWidthInteger:
+                return "new InlineFixedWidthIntegerURIHandler(" + ns + ", "
+                        + width + ")";
+            case PrefixedInteger:
+                return "new InlinePrefixedIntegerURIHandler(" + ns + ", "
+                        + quote(prefix) + ")";
+            case PrefixedFixedWidthInteger:
+                return "new InlinePrefixedFixedWidthIntegerURIHandler(" + ns
+                        + ", " + quote(prefix) + ", " + width + ")";
+            case UUID:
+                return "new InlineUUIDURIHandler(" + ns + ")";
+            default:
+                throw new AssertionError();
+            }
+
+        }
+
+        private String key() {
+            return pattern + ":" + prefix + ":" + width;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{namespace=" + namespace
+                    + ", pattern=" + pattern
+                    + (prefix.length() > 0 ? ", prefix=" + prefix : "")
+                    + (width > 0 ? ", width=" + width : "") + ", matched="
+                    + matched + ", inlined=" + inlined + ", unsafe=" + unsafe
+                    + "}";
+        }
+
+    }
+
+    /**
+     * The maximum #of candidates which are tracked for a single namespace.
+     * This bounds the space required when a namespace has many distinct local
+     * name prefixes.
+     */
+    static final int MAX_CANDIDATES_PER_NAMESPACE = 16;
+
+    /**
+     * The minimum #of {@link URI}s which must be inlined for a handler to be
+     * selected.
+     */
+    private final long minCount;
+
+    /**
+     * The candidates for each namespace.
+     */
+    private final Map<String, Map<String, Candidate>> candidates = new HashMap<String, Map<String, Candidate>>();
+
+    /**
+     * The #of {@link URI}s seen in the first pass.
+     */
+    private long uriCount = 0;
+
+    /**
+     * <code>true</code> once the first pass is done.
+     */
+    private boolean validating = false;
+
+    /**
+     * @param minCount
+     *            The minimum #of {@link URI}s which must be inlined for a
+     *            handler to be selected.
+     */
+    public InlineURIAnalyzer(final long minCount) {
+
+        if (minCount < 1)
+            throw new IllegalArgumentException();
+
+        this.minCount = minCount;
+
+    }
+
+    /**
+     * Analyze the {@link URI}s in the ID2TERM index of the KB.
+     */
+    public void analyze(final AbstractTripleStore store) {
+
+        final LexiconRelation lex = store.getLexiconRelation();
+
+        final IIndex ndx = lex.getId2TermIndex();
+
+        for (int pass = 0; pass < 2; pass++) {
+
+            @SuppressWarnings("unchecked")
+            final ITupleIterator<BigdataValue> itr = ndx.rangeIterator();
+
+            while (itr.hasNext()) {
+
+                final ITuple<BigdataValue> tuple = itr.next();
+
+                final BigdataValue value = tuple.getObject();
+
+                if (!(value instanceof URI))
+                    continue;
+
+                if (pass == 0) {
+
+                    add((URI) value);
+
+                } else {
+
+                    validate((URI) value);
+
+                }
+
+            }
+
+            if (pass == 0)
+                endFirstPass();
+
+            if (log.isInfoEnabled())
+                log.info("pass=" + pass + ", uris=" + uriCount
+                        + ", namespaces=" + candidates.size());
+
+        }
+
+    }
+
+    /**
+     * First pass: classify the local name of the {@link URI}.
+     */
+    public void add(final URI uri) {
+
+        if (validating)
+            throw new IllegalStateException();
+
+        uriCount++;
+
+        final String namespace = uri.getNamespace();
+
+        final String localName = uri.getLocalName();
+
+        if (localName.length() == 0)
+            return;
+
+        if (isUUID(localName)) {
+
+            match(namespace, Pattern.UUID, "", 0);
+
+            return;
+
+        }
+
+        // Find the trailing digits.
+        int j = localName.length();
+
+        while (j > 0 && localName.charAt(j - 1) >= '0'
+                && localName.charAt(j - 1) <= '9') {
+
+            j--;
+
+        }
+
+        final int width = localName.length() - j;
+
+        if (width == 0 || width > 18) {
+
+            // Not an integer (or too long to inline).
+            return;
+
+        }
+
+        final String prefix = localName.substring(0, j);
+
+        final boolean padded = width > 1 && localName.charAt(j) == '0';
+
+        if (!padded) {
+
+            match(namespace, prefix.length() == 0 ? Pattern.SignedInteger
+                    : Pattern.PrefixedInteger, prefix, 0);
+
+        }
+
+        match(namespace, prefix.length() == 0 ? Pattern.FixedWidthInteger
+                : Pattern.PrefixedFixedWidthInteger, prefix, width);
+
+    }
+
+    private void match(final String namespace, final Pattern pattern,
+            final String prefix, final int width) {
+
+        Map<String, Candidate> m = candidates.get(namespace);
+
+        if (m == null) {
+
+            candidates.put(namespace,
+                    m = new LinkedHashMap<String, Candidate>());
+
+        }
+
+        final Candidate tmp = new Candidate(namespace, pattern, prefix, width);
+
+        Candidate c = m.get(tmp.key());
+
+        if (c == null) {
+
+            if (m.size() >= MAX_CANDIDATES_PER_NAMESPACE)
+                return;
+
+            m.put(tmp.key(), c = tmp);
+
+        }
+
+        c.matched++;
+
+    }
+
+    /**
+     * Done with the first pass. The candidates which did not match at least
+     * the minimum #of local names are discarded and handlers are created for
+     * the rest.
+     */
+    public void endFirstPass() {
+
+        if (validating)
+            throw new IllegalStateException();
+
+        validating = true;
+
+        final List<String> namespaces = new ArrayList<String>(
+                candidates.keySet());
+
+        for (String namespace : namespaces) {
+
+            final Map<String, Candidate> m = candidates.get(namespace);
+
+            final List<Candidate> tmp = new ArrayList<Candidate>(m.values());
+
+            m.clear();
+
+            for (Candidate c : tmp) {
+
+                if (c.matched >= minCount) {
+
+                    c.handler = c.newHandler();
+
+                    m.put(c.key(), c);
+
+                }
+
+            }
+
+            if (m.isEmpty())
+                candidates.remove(namespace);
+
+        }
+
+    }
+
+    /**
+     * Second pass: run the {@link URI} through each candidate handler for its
+     * namespace.
+     */
+    public void validate(final URI uri) {
+
+        if (!validating)
+            throw new IllegalStateException();
+
+        final Map<String, Candidate> m = candidates.get(uri.getNamespace());
+
+        if (m == null)
+            return;
+
+        final String localName = uri.getLocalName();
+
+        for (Candidate c : m.values()) {
+
+            final AbstractLiteralIV<BigdataLiteral, ?> delegate;
+            try {
+                delegate = createDelegate(c.handler, localName);
+            } catch (RuntimeException ex) {
+                // Not handled.
+                continue;
+            }
+
+            if (delegate == null)
+                continue;
+
+            c.inlined++;
+
+            String actual;
+            try {
+                actual = c.handler.getLocalNameFromDelegate(delegate);
+            } catch (RuntimeException ex) {
+                actual = null;
+            }
+
+            if (!localName.equals(actual)) {
+
+                c.unsafe++;
+
+                if (log.isDebugEnabled())
+                    log.debug("unsafe: " + c + ", uri=" + uri + ", actual="
+                            + actual);
+
+            }
+
+        }
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AbstractLiteralIV<BigdataLiteral, ?> createDelegate(
+            final InlineURIHandler handler, final String localName) {
+
+        return handler.createInlineIV(localName);
+
+    }
+
+    /**
+     * Return the selected candidates (one per namespace) in descending order
+     * by the #of {@link URI}s which they inline. A candidate is selected if it
+     * has no unsafe {@link URI}s and inlines at least the minimum #of
+     * {@link URI}s.
+     */
+    public List<Candidate> getSelected() {
+
+        if (!validating)
+            throw new IllegalStateException();
+
+        final List<Candidate> selected = new ArrayList<Candidate>();
+
+        for (Map<String, Candidate> m : candidates.values()) {
+
+            Candidate best = null;
+
+            for (Candidate c : m.values()) {
+
+                if (c.unsafe > 0 || c.inlined < minCount)
+                    continue;
+
+                if (best == null || c.inlined > best.inlined) {
+
+                    best = c;
+
+                }
+
+            }
+
+            if (best != null)
+                selected.add(best);
+
+        }
+
+        Collections.sort(selected, INLINED_DESC);
+
+        return selected;
+
+    }
+
+    /**
+     * Return all candidates which survived the first pass in descending order
+     * by the #of {@link URI}s which they inline.
+     */
+    public List<Candidate> getCandidates() {
+
+        final List<Candidate> all = new ArrayList<Candidate>();
+
+        for (Map<String, Candidate> m : candidates.values()) {
+
+            all.addAll(m.values());
+
+        }
+
+        Collections.sort(all, INLINED_DESC);
+
+        return all;
+
+    }
+
+    private static final Comparator<Candidate> INLINED_DESC = new Comparator<Candidate>() {
+
+        @Override
+        public int compare(final Candidate o1, final Candidate o2) {
+
+            if (o1.inlined != o2.inlined)
+                return o1.inlined > o2.inlined ? -1 : 1;
+
+            return o1.namespace.compareTo(o2.namespace);
+
+        }
+
+    };
+
+    /**
+     * Write a report on the candidates.
+     */
+    public void writeReport(final Writer w) throws IOException {
+
+        final List<Candidate> selected = getSelected();
+
+        long inlined = 0;
+
+        for (Candidate c : selected) {
+
+            inlined += c.inlined;
+
+        }
+
+        w.write("uris=" + uriCount + ", inlinable=" + inlined + ", handlers="
+                + selected.size() + "\n");
+
+        for (Candidate c : getCandidates()) {
+
+            final String status;
+            if (selected.contains(c)) {
+                status = "selected";
+            } else if (c.unsafe > 0) {
+                status = "rejected (unsafe)";
+            } else if (c.inlined < minCount) {
+                status = "rejected (minCount)";
+            } else {
+                status = "not selected";
+            }
+
+            w.write(status + " : " + c + "\n");
+
+        }
+
+        w.flush();
+
+    }
+
+    /**
+     * Write out the Java source files for a {@link VocabularyDecl} declaring
+     * the namespaces of the selected handlers, a {@link Vocabulary} using that
+     * declaration, and an {@link InlineURIFactory} declaring the selected
+     * handlers.
+     *
+     * @param dir
+     *            The source directory (the package directories are created
+     *            as necessary).
+     * @param packageName
+     *            The package for the generated classes.
+     * @param className
+     *            The base name for the generated classes. The suffixes
+     *            <code>VocabularyDecl</code>, <code>Vocabulary</code> and
+     *            <code>InlineURIFactory</code> are appended.
+     * @param baseVocabularyClass
+     *            The class name of the {@link Vocabulary} to extend.
+     * @param baseFactoryClass
+     *            The class name of the {@link InlineURIFactory} to extend.
+     *
+     * @return The properties which must be specified when the new KB instance
+     *         is created.
+     */
+    public String writeSources(final File dir, final String packageName,
+            final String className, final String baseVocabularyClass,
+            final String baseFactoryClass) throws IOException {
+
+        final List<Candidate> selected = getSelected();
+
+        final File pkgDir = new File(dir, packageName.replace('.',
+                File.separatorChar));
+
+        if (!pkgDir.exists() && !pkgDir.mkdirs())
+            throw new IOException("Could not create: " + pkgDir);
+
+        final String declName = className + "VocabularyDecl";
+        final String vocabName = className + "Vocabulary";
+        final String factoryName = className + "InlineURIFactory";
+
+        // The VocabularyDecl.
+        {
+            final PrintWriter w = newWriter(new File(pkgDir, declName
+                    + ".java"));
+            try {
+                header(w, packageName);
+                w.println("import java.util.Arrays;");
+                w.println("import java.util.Collections;");
+                w.println("import java.util.Iterator;");
+                w.println();
+                w.println("import org.openrdf.model.URI;");
+                w.println("import org.openrdf.model.impl.URIImpl;");
+                w.println();
+                w.println("import com.bigdata.rdf.vocab.VocabularyDecl;");
+                w.println();
+                w.println("/**");
+                w.println(" * The namespaces of the inline URI handlers declared by");
+                w.println(" * {@link " + factoryName + "}.");
+                w.println(" */");
+                w.println("public class " + declName
+                        + " implements VocabularyDecl {");
+                w.println();
+                w.println("    static private final URI[] uris = new URI[] {//");
+                for (Candidate c : selected) {
+                    w.println("        new URIImpl(" + quote(c.namespace)
+                            + "), // inlined=" + c.inlined);
+                }
+                w.println("    };");
+                w.println();
+                w.println("    public " + declName + "() {");
+                w.println("    }");
+                w.println();
+                w.println("    @Override");
+                w.println("    public Iterator<URI> values() {");
+                w.println("        return Collections.unmodifiableList(Arrays.asList(uris)).iterator();");
+                w.println("    }");
+                w.println();
+                w.println("}");
+            } finally {
+                w.close();
+            }
+        }
+
+        // The Vocabulary.
+        {
+            final PrintWriter w = newWriter(new File(pkgDir, vocabName
+                    + ".java"));
+            try {
+                header(w, packageName);
+                w.println("/**");
+                w.println(" * Extends {@link " + baseVocabularyClass
+                        + "} with {@link " + declName + "}.");
+                w.println(" */");
+                w.println("public class " + vocabName + " extends "
+                        + baseVocabularyClass + " {");
+                w.println();
+                w.println("    /**");
+                w.println("     * De-serialization ctor.");
+                w.println("     */");
+                w.println("    public " + vocabName + "() {");
+                w.println("        super();");
+                w.println("    }");
+                w.println();
+                w.println("    public " + vocabName
+                        + "(final String namespace) {");
+                w.println("        super(namespace);");
+                w.println("    }");
+                w.println();
+                w.println("    @Override");
+                w.println("    protected void addValues() {");
+                /*
+                 * Note: The declarations of the base class must come first so
+                 * the Values which it declares keep the same codes (and hence
+                 * the same IVs) as in a KB which uses the base class.
+                 */
+                w.println("        super.addValues();");
+                w.println("        addDecl(new " + declName + "());");
+                w.println("    }");
+                w.println();
+                w.println("}");
+            } finally {
+                w.close();
+            }
+        }
+
+        // The InlineURIFactory.
+        {
+            final PrintWriter w = newWriter(new File(pkgDir, factoryName
+                    + ".java"));
+            try {
+                header(w, packageName);
+                w.println("import com.bigdata.rdf.internal.*;");
+                w.println();
+                w.println("/**");
+                w.println(" * Declares the inline URI handlers. It is intended to be used with");
+                w.println(" * {@link " + vocabName + "}.");
+                w.println(" */");
+                w.println("public class " + factoryName + " extends "
+                        + baseFactoryClass + " {");
+                w.println();
+                w.println("    public " + factoryName + "() {");
+                w.println("        super();");
+                for (Candidate c : selected) {
+                    w.println("        addHandler(" + c.toJava() + ");");
+                }
+                w.println("    }");
+                w.println();
+                w.println("}");
+            } finally {
+                w.close();
+            }
+        }
+
+        return AbstractTripleStore.Options.VOCABULARY_CLASS + "="
+                + packageName + "." + vocabName + "\n"
+                + AbstractTripleStore.Options.INLINE_URI_FACTORY_CLASS + "="
+                + packageName + "." + factoryName + "\n";
+
+    }
+
+    private static PrintWriter newWriter(final File file) throws IOException {
+
+        return new PrintWriter(new OutputStreamWriter(new FileOutputStream(
+                file), "UTF-8"));
+
+    }
+
+    private static void header(final PrintWriter w, final String packageName) {
+
+        w.println("/*");
+        w.println(" * Generated by " + InlineURIAnalyzer.class.getName()
+                + ".");
+        w.println(" */");
+        w.println("package " + packageName + ";");
+        w.println();
+
+    }
+
+    /**
+     * Return a Java string literal for the value.
+     */
+    static String quote(final String s) {
+
+        final StringBuilder sb = new StringBuilder(s.length() + 2);
+
+        sb.append('"');
+
+        for (int i = 0; i < s.length(); i++) {
+
+            final char c = s.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+
+        }
+
+        sb.append('"');
+
+        return sb.toString();
+
+    }
+
+    private static boolean isUUID(final String s) {
+
+        if (s.length() != 36 || s.charAt(8) != '-')
+            return false;
+
+        try {
+
+            UUID.fromString(s);
+
+            return true;
+
+        } catch (IllegalArgumentException ex) {
+
+            return false;
+
+        }
+
+    }
+
+}
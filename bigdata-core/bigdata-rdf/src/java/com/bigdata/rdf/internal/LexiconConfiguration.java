@@ -168,6 +168,21 @@ public class LexiconConfiguration<V extends BigdataValue>
      */
 	private final TimeZone inlineDateTimesTimeZone;
 
+    /**
+     * @see AbstractTripleStore.Options#INLINE_DATE_ORDINALS
+     */
+    private final boolean inlineDateOrdinals;
+
+    /**
+     * @see AbstractTripleStore.Options#INLINE_DECIMAL_SCALE
+     */
+    private final int inlineDecimalScale;
+
+    /**
+     * @see AbstractTripleStore.Options#MAX_INLINE_LANG_LITERAL_LENGTH
+     */
+    private final int maxInlineLangLiteralLength;
+
 	/**
      * @see AbstractTripleStore.Options#REJECT_INVALID_XSD_VALUES
      */
@@ -275,6 +290,51 @@ public class LexiconConfiguration<V extends BigdataValue>
 
     }
 
+    @Override
+    public boolean isInlineDateOrdinals() {
+
+        return inlineDateOrdinals;
+
+    }
+
+    @Override
+    public int getInlineDecimalScale() {
+
+        return inlineDecimalScale;
+
+    }
+
+    @Override
+    public int getMaxInlineLangLiteralLength() {
+
+        return maxInlineLangLiteralLength;
+
+    }
+
+    @Override
+    public boolean isRangeSafe(final URI datatype) {
+
+        if (inlineDateOrdinals
+                && (datatype == null || XSD.DATE.equals(datatype) || XSD.GYEAR
+                        .equals(datatype))) {
+
+            // Some values are inlined as ordinals, others are in the lexicon.
+            return false;
+
+        }
+
+        if (inlineDecimalScale > 0
+                && (datatype == null || XSD.DECIMAL.equals(datatype))) {
+
+            // Fixed-point and XSDDecimalIV encodings.
+            return false;
+
+        }
+
+        return true;
+
+    }
+
     @Override
     public int getBlobsThreshold() {
 
@@ -323,6 +383,16 @@ public class LexiconConfiguration<V extends BigdataValue>
 		sb.append(", " + AbstractTripleStore.Options.INLINE_DATE_TIMES + "="
 				+ inlineDateTimes);
 
+        sb.append(", " + AbstractTripleStore.Options.INLINE_DATE_ORDINALS + "="
+                + inlineDateOrdinals);
+
+        sb.append(", " + AbstractTripleStore.Options.INLINE_DECIMAL_SCALE + "="
+                + inlineDecimalScale);
+
+        sb.append(", "
+                + AbstractTripleStore.Options.MAX_INLINE_LANG_LITERAL_LENGTH
+                + "=" + maxInlineLangLiteralLength);
+
 		sb.append(", " + AbstractTripleStore.Options.REJECT_INVALID_XSD_VALUES + "="
 				+ rejectInvalidXSDValues);
 		
@@ -347,6 +417,32 @@ public class LexiconConfiguration<V extends BigdataValue>
 
     }
 
+    public LexiconConfiguration(//
+            final int blobsThreshold,
+            final boolean inlineXSDDatatypeLiterals,//
+            final boolean inlineTextLiterals,//
+            final int maxInlineTextLength,//
+            final boolean inlineBNodes,//
+            final boolean inlineDateTimes,//
+            final TimeZone inlineDateTimesTimeZone,
+            final boolean rejectInvalidXSDValues,
+            final boolean enableRawRecordsSupport,//
+            final IExtensionFactory xFactory,//
+            final Vocabulary vocab,
+            final BigdataValueFactory valueFactory,//
+            final IInlineURIFactory uriFactory,//
+            final boolean geoSpatial,
+            final GeoSpatialConfig geoSpatialConfig) {
+
+        this(blobsThreshold, inlineXSDDatatypeLiterals, inlineTextLiterals,
+                maxInlineTextLength, inlineBNodes, inlineDateTimes,
+                inlineDateTimesTimeZone, false/* inlineDateOrdinals */,
+                0/* inlineDecimalScale */, 0/* maxInlineLangLiteralLength */,
+                rejectInvalidXSDValues, enableRawRecordsSupport, xFactory,
+                vocab, valueFactory, uriFactory, geoSpatial, geoSpatialConfig);
+
+    }
+
     @SuppressWarnings("rawtypes")
     public LexiconConfiguration(//
             final int blobsThreshold,
@@ -356,6 +452,9 @@ public class LexiconConfiguration<V extends BigdataValue>
             final boolean inlineBNodes,//
             final boolean inlineDateTimes,//
             final TimeZone inlineDateTimesTimeZone,
+            final boolean inlineDateOrdinals,//
+            final int inlineDecimalScale,//
+            final int maxInlineLangLiteralLength,//
             final boolean rejectInvalidXSDValues,
             final boolean enableRawRecordsSupport,//
             final IExtensionFactory xFactory,//
@@ -371,6 +470,12 @@ public class LexiconConfiguration<V extends BigdataValue>
         if (maxInlineTextLength < 0)
             throw new IllegalArgumentException();
 
+        if (inlineDecimalScale < 0)
+            throw new IllegalArgumentException();
+
+        if (maxInlineLangLiteralLength < 0)
+            throw new IllegalArgumentException();
+
         if (vocab == null)
             throw new IllegalArgumentException();
 
@@ -384,6 +489,9 @@ public class LexiconConfiguration<V extends BigdataValue>
         this.inlineBNodes = inlineBNodes;
         this.inlineDateTimes = inlineDateTimes;
         this.inlineDateTimesTimeZone = inlineDateTimesTimeZone;
+        this.inlineDateOrdinals = inlineDateOrdinals;
+        this.inlineDecimalScale = inlineDecimalScale;
+        this.maxInlineLangLiteralLength = maxInlineLangLiteralLength;
         this.rejectInvalidXSDValues = rejectInvalidXSDValues;
         this.enableRawRecordsSupport = enableRawRecordsSupport;
         this.xFactory = xFactory;
@@ -684,6 +792,25 @@ public class LexiconConfiguration<V extends BigdataValue>
 
         }
 
+        if (maxInlineLangLiteralLength > 0 && value.getLanguage() != null) {
+
+            /*
+             * Attempt to fully inline a (short) language tagged literal.
+             */
+
+            final long totalLength = BigdataValueSerializer
+                    .getStringLength(value);
+
+            if (totalLength <= maxInlineLangLiteralLength) {
+
+                return new FullyInlineTypedLiteralIV<BigdataLiteral>(
+                        value.getLabel(), value.getLanguage(),
+                        value.getDatatype());
+
+            }
+
+        }
+
         // Literal was not inlined.
         return null;
 
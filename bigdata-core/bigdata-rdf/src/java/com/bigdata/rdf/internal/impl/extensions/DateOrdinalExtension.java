@@ -0,0 +1,313 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal.impl.extensions;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+import com.bigdata.rdf.internal.IDatatypeURIResolver;
+import com.bigdata.rdf.internal.IExtension;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.XSD;
+import com.bigdata.rdf.internal.impl.literal.AbstractLiteralIV;
+import com.bigdata.rdf.internal.impl.literal.LiteralExtensionIV;
+import com.bigdata.rdf.internal.impl.literal.XSDNumericIV;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.store.AbstractTripleStore;
+
+/**
+ * This implementation of {@link IExtension} inlines <code>xsd:date</code> and
+ * <code>xsd:gYear</code> literals as packed ordinals. An <code>xsd:date</code>
+ * is stored as the number of days since <code>1970-01-01</code> in the
+ * proleptic Gregorian calendar and an <code>xsd:gYear</code> is stored as the
+ * year. Both are encoded as an inline int, so the natural order of the keys is
+ * the order of the values and the lexical form is recovered exactly.
+ * <p>
+ * Unlike the {@link DateTimeExtension}, only literals without a time zone and
+ * in their canonical lexical form are inlined. Anything else is not inlined
+ * and will be stored in the lexicon, so no information is lost.
+ * 
+ * @see AbstractTripleStore.Options#INLINE_DATE_ORDINALS
+ */
+@SuppressWarnings("rawtypes")
+public class DateOrdinalExtension<V extends BigdataValue> implements
+        IExtension<V> {
+
+    private final BigdataURI date;
+
+    private final BigdataURI gYear;
+
+    public DateOrdinalExtension(final IDatatypeURIResolver resolver) {
+
+        this.date = resolver.resolve(XSD.DATE);
+
+        this.gYear = resolver.resolve(XSD.GYEAR);
+
+    }
+
+    @Override
+    public Set<BigdataURI> getDatatypes() {
+
+        final Set<BigdataURI> datatypes = new LinkedHashSet<BigdataURI>();
+
+        datatypes.add(date);
+
+        datatypes.add(gYear);
+
+        return datatypes;
+
+    }
+
+    /**
+     * Attempts to convert the supplied value into an ordinal.
+     * 
+     * @return The {@link LiteralExtensionIV} -or- <code>null</code> if the
+     *         literal is not in the canonical lexical form for its datatype or
+     *         has a time zone.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public LiteralExtensionIV createIV(final Value value) {
+
+        if (value instanceof Literal == false)
+            throw new IllegalArgumentException();
+
+        final Literal lit = (Literal) value;
+
+        final URI dt = lit.getDatatype();
+
+        final String s = lit.getLabel();
+
+        final BigdataURI resolvedDT;
+        final int ordinal;
+        try {
+
+            if (date.stringValue().equals(dt.stringValue())) {
+
+                resolvedDT = date;
+
+                ordinal = parseDate(s);
+
+            } else if (gYear.stringValue().equals(dt.stringValue())) {
+
+                resolvedDT = gYear;
+
+                ordinal = parseYear(s);
+
+            } else {
+
+                throw new IllegalArgumentException();
+
+            }
+
+        } catch (NumberFormatException ex) {
+
+            // Not canonical. Do not inline.
+            return null;
+
+        }
+
+        final AbstractLiteralIV delegate = new XSDNumericIV<BigdataLiteral>(
+                ordinal);
+
+        return new LiteralExtensionIV(delegate, resolvedDT.getIV());
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V asValue(final LiteralExtensionIV iv, final BigdataValueFactory vf) {
+
+        final IV extensionIV = iv.getExtensionIV();
+
+        final int ordinal = iv.getDelegate().intValue();
+
+        if (extensionIV.equals(date.getIV())) {
+
+            return (V) vf.createLiteral(formatDate(ordinal), date);
+
+        } else if (extensionIV.equals(gYear.getIV())) {
+
+            return (V) vf.createLiteral(formatYear(ordinal), gYear);
+
+        }
+
+        throw new IllegalArgumentException("unrecognized datatype");
+
+    }
+
+    /**
+     * Return the number of days since <code>1970-01-01</code> for a date in
+     * the canonical <code>YYYY-MM-DD</code> form. Only the years
+     * <code>0001</code> through <code>9999</code> are accepted.
+     * 
+     * @throws NumberFormatException
+     *             if the date is not in the canonical form.
+     */
+    static int parseDate(final String s) {
+
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-')
+            throw new NumberFormatException(s);
+
+        final int y = digits(s, 0, 4);
+        final int m = digits(s, 5, 7);
+        final int d = digits(s, 8, 10);
+
+        if (y < 1 || m < 1 || m > 12 || d < 1 || d > 31)
+            throw new NumberFormatException(s);
+
+        final int days = daysFromCivil(y, m, d);
+
+        // Rejects dates such as 2001-02-30.
+        if (!s.equals(formatDate(days)))
+            throw new NumberFormatException(s);
+
+        return days;
+
+    }
+
+    /**
+     * Return the canonical <code>YYYY-MM-DD</code> form for a date given as
+     * the number of days since <code>1970-01-01</code>.
+     */
+    static String formatDate(final int days) {
+
+        // See http://howardhinnant.github.io/date_algorithms.html
+        final long z = days + 719468L;
+        final long era = (z >= 0 ? z : z - 146096) / 146097;
+        final long doe = z - era * 146097;
+        final long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final long mp = (5 * doy + 2) / 153;
+        final long d = doy - (153 * mp + 2) / 5 + 1;
+        final long m = mp < 10 ? mp + 3 : mp - 9;
+        final long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+
+        final StringBuilder sb = new StringBuilder(10);
+        pad(sb, y, 4);
+        sb.append('-');
+        pad(sb, m, 2);
+        sb.append('-');
+        pad(sb, d, 2);
+        return sb.toString();
+
+    }
+
+    private static int daysFromCivil(int y, final int m, final int d) {
+
+        if (m <= 2)
+            y--;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yoe = y - era * 400;
+        final int doy = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + d - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+
+    }
+
+    /**
+     * Return the year for a <code>xsd:gYear</code> in the canonical form
+     * (an optional minus sign and at least four digits, without a time zone).
+     * 
+     * @throws NumberFormatException
+     *             if the year is not in the canonical form.
+     */
+    static int parseYear(final String s) {
+
+        final boolean neg = s.startsWith("-");
+
+        final int n = s.length() - (neg ? 1 : 0);
+
+        if (n < 4 || n > 9)
+            throw new NumberFormatException(s);
+
+        final int y = digits(s, neg ? 1 : 0, s.length());
+
+        if (y == 0 || (n > 4 && s.charAt(neg ? 1 : 0) == '0'))
+            throw new NumberFormatException(s);
+
+        return neg ? -y : y;
+
+    }
+
+    /**
+     * Return the canonical form of an <code>xsd:gYear</code>.
+     */
+    static String formatYear(final int year) {
+
+        final StringBuilder sb = new StringBuilder(5);
+
+        if (year < 0)
+            sb.append('-');
+
+        pad(sb, Math.abs((long) year), 4);
+
+        return sb.toString();
+
+    }
+
+    private static int digits(final String s, final int from, final int to) {
+
+        int v = 0;
+
+        for (int i = from; i < to; i++) {
+
+            final char c = s.charAt(i);
+
+            if (c < '0' || c > '9')
+                throw new NumberFormatException(s);
+
+            v = v * 10 + (c - '0');
+
+        }
+
+        return v;
+
+    }
+
+    private static void pad(final StringBuilder sb, final long v,
+            final int width) {
+
+        final String t = Long.toString(v);
+
+        for (int i = t.length(); i < width; i++)
+            sb.append('0');
+
+        sb.append(t);
+
+    }
+
+}
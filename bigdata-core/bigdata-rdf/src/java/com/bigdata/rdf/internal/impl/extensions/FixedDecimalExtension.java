@@ -0,0 +1,171 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal.impl.extensions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Set;
+
+import org.openrdf.model.Literal;
+import org.openrdf.model.Value;
+import org.openrdf.model.datatypes.XMLDatatypeUtil;
+
+import com.bigdata.rdf.internal.IDatatypeURIResolver;
+import com.bigdata.rdf.internal.IExtension;
+import com.bigdata.rdf.internal.XSD;
+import com.bigdata.rdf.internal.impl.literal.AbstractLiteralIV;
+import com.bigdata.rdf.internal.impl.literal.LiteralExtensionIV;
+import com.bigdata.rdf.internal.impl.literal.XSDDecimalIV;
+import com.bigdata.rdf.internal.impl.literal.XSDNumericIV;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.store.AbstractTripleStore;
+
+/**
+ * This implementation of {@link IExtension} inlines <code>xsd:decimal</code>
+ * literals having a small scale as fixed-point values. The value is multiplied
+ * by <code>10^scale</code> and the result is encoded as an inline long. Since
+ * all values share the same scale, the natural order of the keys is the
+ * numeric order of the values. This is more compact than the variable length
+ * {@link XSDDecimalIV} encoding and avoids the {@link BigDecimal} arithmetic
+ * when the keys are decoded.
+ * <p>
+ * Values whose scale exceeds the configured scale or which do not fit in a
+ * long are not handled by this extension and are inlined as an
+ * {@link XSDDecimalIV} instead. As for the {@link XSDDecimalIV}, trailing
+ * zeros are not preserved.
+ * 
+ * @see AbstractTripleStore.Options#INLINE_DECIMAL_SCALE
+ */
+@SuppressWarnings("rawtypes")
+public class FixedDecimalExtension<V extends BigdataValue> implements
+        IExtension<V> {
+
+    /**
+     * The maximum supported scale. A long has 18 full decimal digits, so this
+     * still leaves some room for the integer part.
+     */
+    public static final int MAX_SCALE = 12;
+
+    private static final BigInteger MIN_LONG = BigInteger
+            .valueOf(Long.MIN_VALUE);
+
+    private static final BigInteger MAX_LONG = BigInteger
+            .valueOf(Long.MAX_VALUE);
+
+    private final BigdataURI datatype;
+
+    private final int scale;
+
+    /**
+     * @param resolver
+     *            Used to resolve <code>xsd:decimal</code>.
+     * @param scale
+     *            The fixed scale (the number of digits to the right of the
+     *            decimal point) in [1:{@value #MAX_SCALE}].
+     */
+    public FixedDecimalExtension(final IDatatypeURIResolver resolver,
+            final int scale) {
+
+        if (scale < 1 || scale > MAX_SCALE)
+            throw new IllegalArgumentException("scale=" + scale);
+
+        this.datatype = resolver.resolve(XSD.DECIMAL);
+
+        this.scale = scale;
+
+    }
+
+    @Override
+    public Set<BigdataURI> getDatatypes() {
+
+        return Collections.singleton(datatype);
+
+    }
+
+    /**
+     * Attempts to convert the supplied value into a fixed-point value.
+     * 
+     * @return The {@link LiteralExtensionIV} -or- <code>null</code> if the
+     *         value can not be represented at the configured scale.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public LiteralExtensionIV createIV(final Value value) {
+
+        if (value instanceof Literal == false)
+            throw new IllegalArgumentException();
+
+        final BigDecimal d = XMLDatatypeUtil.parseDecimal(((Literal) value)
+                .getLabel());
+
+        // Note: stripTrailingZeros() does not normalize zero before Java 8.
+        if (d.signum() != 0 && d.stripTrailingZeros().scale() > scale) {
+
+            // Would lose precision.
+            return null;
+
+        }
+
+        final BigInteger unscaled = d.signum() == 0 ? BigInteger.ZERO : d
+                .setScale(scale).unscaledValue();
+
+        if (unscaled.compareTo(MIN_LONG) < 0
+                || unscaled.compareTo(MAX_LONG) > 0) {
+
+            // Too large.
+            return null;
+
+        }
+
+        final AbstractLiteralIV delegate = new XSDNumericIV<BigdataLiteral>(
+                unscaled.longValue());
+
+        return new LiteralExtensionIV(delegate, datatype.getIV());
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V asValue(final LiteralExtensionIV iv, final BigdataValueFactory vf) {
+
+        final BigDecimal d = BigDecimal.valueOf(iv.getDelegate().longValue(),
+                scale);
+
+        final String s = d.signum() == 0 ? "0" : d.stripTrailingZeros()
+                .toPlainString();
+
+        return (V) vf.createLiteral(s, datatype);
+
+    }
+
+}
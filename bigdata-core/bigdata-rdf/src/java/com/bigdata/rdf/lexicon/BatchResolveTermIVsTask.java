@@ -36,6 +36,8 @@ class BatchResolveTermIVsTask implements Callable<Void> {
     private final ITermCache<IV<?,?>, BigdataValue> termCache;
     private final BigdataValueFactory valueFactory;
     private final int MAX_CHUNK;
+    private final OffHeapTermCache offHeapCache;
+    private final FrontCodedDictionary dictionary;
 
     public BatchResolveTermIVsTask(
             final ExecutorService service,
@@ -44,7 +46,29 @@ class BatchResolveTermIVsTask implements Callable<Void> {
             final ConcurrentHashMap<IV<?, ?>/* iv */, BigdataValue/* term */> ret,
             final ITermCache<IV<?,?>, BigdataValue> termCache,
             final BigdataValueFactory valueFactory,
-            final int chunkSize) {
+            final int chunkSize,
+            final OffHeapTermCache offHeapCache) {
+
+        this(service, ndx, ivs, ret, termCache, valueFactory, chunkSize,
+                offHeapCache, null/* dictionary */);
+
+    }
+
+    /**
+     * @param dictionary
+     *            The compiled dictionary for the ID2TERM index (optional). It
+     *            is consulted before the off-heap cache and the index.
+     */
+    public BatchResolveTermIVsTask(
+            final ExecutorService service,
+            final IIndex ndx,
+            final Collection<TermId<?>> ivs,
+            final ConcurrentHashMap<IV<?, ?>/* iv */, BigdataValue/* term */> ret,
+            final ITermCache<IV<?,?>, BigdataValue> termCache,
+            final BigdataValueFactory valueFactory,
+            final int chunkSize,
+            final OffHeapTermCache offHeapCache,
+            final FrontCodedDictionary dictionary) {
 
         this.service = service;
         
@@ -59,15 +83,77 @@ class BatchResolveTermIVsTask implements Callable<Void> {
         this.valueFactory = valueFactory;
 
         this.MAX_CHUNK = chunkSize;
+
+        this.offHeapCache = offHeapCache;
+
+        this.dictionary = dictionary;
         
     }
 
     public Void call() throws Exception {
 
-        final int numNotFound = ivs.size();
+        final Collection<TermId<?>> toResolve;
+
+        if (offHeapCache == null && dictionary == null) {
+
+            toResolve = ivs;
+
+        } else {
+
+            /*
+             * Decode the IVs whose serialized values are in the compiled
+             * dictionary or the off-heap cache. Only the rest will be
+             * resolved against the index.
+             */
+
+            toResolve = new ArrayList<TermId<?>>(ivs.size());
+
+            final IKeyBuilder keyBuilder = dictionary == null ? null
+                    : KeyBuilder.newInstance();
+
+            for (TermId<?> tid : ivs) {
+
+                byte[] data = null;
+
+                if (dictionary != null) {
+
+                    data = dictionary.get(tid.encode(keyBuilder.reset())
+                            .getKey());
+
+                }
+
+                if (data == null && offHeapCache != null) {
+
+                    data = offHeapCache.get(tid);
+
+                }
+
+                if (data == null) {
+
+                    toResolve.add(tid);
+
+                    continue;
+
+                }
+
+                ResolveTermTask.resolve(tid, data, ret, termCache,
+                        valueFactory);
+
+            }
+
+            if (toResolve.isEmpty()) {
+
+                // Done.
+                return null;
+
+            }
+
+        }
+
+        final int numNotFound = toResolve.size();
         
         // An array of IVs that to be resolved against the index.
-            final TermId<?>[] notFound = ivs.toArray(new TermId[numNotFound]);
+            final TermId<?>[] notFound = toResolve.toArray(new TermId[numNotFound]);
  
             // Sort IVs into index order.
         Arrays.sort(notFound, 0, numNotFound);
@@ -95,7 +181,7 @@ class BatchResolveTermIVsTask implements Callable<Void> {
             
             new ResolveTermTask(ndx, 0/* fromIndex */,
                     numNotFound/* toIndex */, keys, notFound, ret,
-                    termCache, valueFactory).call();
+                    termCache, valueFactory, offHeapCache).call();
 
         } else {
             
@@ -136,7 +222,8 @@ class BatchResolveTermIVsTask implements Callable<Void> {
 //                            + toIndex + ", remaining=" + remaining);
                 
                 tasks.add(new ResolveTermTask(ndx, fromIndex, toIndex,
-                        keys, notFound, ret, termCache, valueFactory));
+                        keys, notFound, ret, termCache, valueFactory,
+                        offHeapCache));
 
                 fromIndex = toIndex;
                 
@@ -0,0 +1,706 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.ITuple;
+import com.bigdata.btree.ITupleIterator;
+import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * A compiled, read-only dictionary mapping unsigned byte[] keys onto byte[]
+ * values. It is built from an index in key order (e.g., TERM2ID or ID2TERM)
+ * and memory-mapped when it is opened, so it costs nothing on the Java heap
+ * other than one <code>long</code> per bucket.
+ * <p>
+ * The keys are front-coded in buckets of {@link #getBucketSize()} entries.
+ * The first key in each bucket is stored in full and each following key is
+ * stored as the length of the prefix which it shares with the previous key
+ * and the remaining bytes. The value of each entry follows its key. A lookup
+ * is a binary search over the first keys of the buckets followed by a scan of
+ * a single bucket.
+ * <p>
+ * The file is mapped in chunks of up to 1GB. A bucket never spans a chunk
+ * boundary (the writer pads the chunk instead), so a bucket is always read
+ * from a single {@link MappedByteBuffer}.
+ * <p>
+ * The file layout is:
+ *
+ * <pre>
+ * header  : magic, version, sourceUUID, entryCount, bucketSize, chunkShift, bucketCount, indexOffset
+ * buckets : ( key0Length key0 value0Length value0 ( prefixLength suffixLength suffix valueLength value )* )*
+ * index   : the file offset of each bucket (long[bucketCount])
+ * </pre>
+ *
+ * All lengths within a bucket are unsigned variable length integers.
+ * <p>
+ * Note: The dictionary records the {@link UUID} of the index from which it
+ * was built. The entries of the TERM2ID and ID2TERM indices are never changed
+ * once they are committed, so a dictionary built from a commit point remains
+ * valid for that index and may be consulted before the index for any view.
+ * The index itself holds the terms which were added after the dictionary was
+ * built.
+ *
+ * @see com.bigdata.rdf.store.AbstractTripleStore.Options#COMPILED_DICTIONARY_DIR
+ * @see com.bigdata.rdf.util.CompileLexicon
+ */
+public class FrontCodedDictionary {
+
+    private static final transient Logger log = Logger
+            .getLogger(FrontCodedDictionary.class);
+
+    /**
+     * The file name extension for a dictionary.
+     */
+    public static final String EXT = ".fcd";
+
+    private static final int MAGIC = 0xfcd1c701;
+
+    private static final int VERSION0 = 0;
+
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * The default #of entries in a bucket.
+     */
+    public static final int DEFAULT_BUCKET_SIZE = 16;
+
+    /**
+     * The default log2 of the chunk size (1GB).
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    private final File file;
+
+    private final UUID sourceUUID;
+
+    private final long entryCount;
+
+    private final int bucketSize;
+
+    private final int chunkShift;
+
+    private final long chunkMask;
+
+    /**
+     * The file offset of each bucket.
+     */
+    private final long[] buckets;
+
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * Return the file for the dictionary of the named index in the given
+     * directory.
+     */
+    public static File getFile(final File dir, final String indexName) {
+
+        return new File(dir, indexName + EXT);
+
+    }
+
+    /**
+     * Open a dictionary.
+     *
+     * @param file
+     *            The file.
+     *
+     * @throws IOException
+     *             if the file could not be read or is not a dictionary.
+     */
+    public FrontCodedDictionary(final File file) throws IOException {
+
+        if (file == null)
+            throw new IllegalArgumentException();
+
+        this.file = file;
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+
+            if (raf.length() < HEADER_SIZE)
+                throw new IOException("Not a dictionary: " + file);
+
+            if (raf.readInt() != MAGIC)
+                throw new IOException("Bad magic: " + file);
+
+            final int version = raf.readInt();
+
+            if (version != VERSION0)
+                throw new IOException("Unknown version: " + version + ", file="
+                        + file);
+
+            sourceUUID = new UUID(raf.readLong(), raf.readLong());
+
+            entryCount = raf.readLong();
+
+            bucketSize = raf.readInt();
+
+            chunkShift = raf.readInt();
+
+            chunkMask = (1L << chunkShift) - 1;
+
+            final long bucketCount = raf.readLong();
+
+            final long indexOffset = raf.readLong();
+
+            if (bucketCount > Integer.MAX_VALUE)
+                throw new IOException("Too many buckets: " + bucketCount);
+
+            if (indexOffset + bucketCount * 8 != raf.length())
+                throw new IOException("Truncated: " + file);
+
+            buckets = new long[(int) bucketCount];
+
+            final ByteBuffer b = ByteBuffer.allocate(buckets.length * 8);
+
+            while (b.hasRemaining()) {
+
+                if (raf.getChannel().read(b, indexOffset + b.position()) < 0)
+                    throw new IOException("Truncated: " + file);
+
+            }
+
+            b.flip();
+
+            b.asLongBuffer().get(buckets);
+
+            final FileChannel channel = raf.getChannel();
+
+            final int nchunks = (int) ((indexOffset + chunkMask) >>> chunkShift);
+
+            chunks = new MappedByteBuffer[nchunks];
+
+            for (int i = 0; i < nchunks; i++) {
+
+                final long pos = ((long) i) << chunkShift;
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, pos,
+                        Math.min(chunkMask + 1, indexOffset - pos));
+
+            }
+
+        } finally {
+
+            // Note: The mapping remains valid once the channel is closed.
+            raf.close();
+
+        }
+
+        if (log.isInfoEnabled())
+            log.info(this.toString());
+
+    }
+
+    /**
+     * The {@link UUID} of the index from which the dictionary was built.
+     */
+    public UUID getSourceUUID() {
+
+        return sourceUUID;
+
+    }
+
+    /**
+     * The #of entries in the dictionary.
+     */
+    public long getEntryCount() {
+
+        return entryCount;
+
+    }
+
+    /**
+     * The #of entries in each bucket.
+     */
+    public int getBucketSize() {
+
+        return bucketSize;
+
+    }
+
+    public File getFile() {
+
+        return file;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return getClass().getSimpleName() + "{file=" + file + ", sourceUUID="
+                + sourceUUID + ", entryCount=" + entryCount + ", bucketSize="
+                + bucketSize + ", bucketCount=" + buckets.length + "}";
+
+    }
+
+    /**
+     * Return the value for the key.
+     *
+     * @param key
+     *            The key.
+     *
+     * @return The value -or- <code>null</code> if the key is not in the
+     *         dictionary.
+     */
+    public byte[] get(final byte[] key) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        // Find the last bucket whose first key is LTE the key.
+        int low = 0;
+        int high = buckets.length - 1;
+        int found = -1;
+
+        while (low <= high) {
+
+            final int mid = (low + high) >>> 1;
+
+            final int cmp = compareFirstKey(buckets[mid], key);
+
+            if (cmp < 0) {
+
+                found = mid;
+                low = mid + 1;
+
+            } else if (cmp > 0) {
+
+                high = mid - 1;
+
+            } else {
+
+                found = mid;
+                break;
+
+            }
+
+        }
+
+        if (found == -1) {
+
+            // The key is LT the first key in the dictionary.
+            return null;
+
+        }
+
+        return scanBucket(found, key);
+
+    }
+
+    /**
+     * Compare the first key of the bucket at that offset with the key.
+     */
+    private int compareFirstKey(final long offset, final byte[] key) {
+
+        final ByteBuffer b = chunks[(int) (offset >>> chunkShift)];
+
+        int pos = (int) (offset & chunkMask);
+
+        // Decode the key length.
+        int len = 0;
+        for (int shift = 0;; shift += 7) {
+            final int v = b.get(pos++);
+            len |= (v & 0x7f) << shift;
+            if ((v & 0x80) == 0)
+                break;
+        }
+
+        final int n = Math.min(len, key.length);
+
+        for (int i = 0; i < n; i++) {
+
+            final int a = b.get(pos + i) & 0xff;
+
+            final int c = key[i] & 0xff;
+
+            if (a != c)
+                return a < c ? -1 : 1;
+
+        }
+
+        return len - key.length;
+
+    }
+
+    /**
+     * Scan the bucket for the key.
+     */
+    private byte[] scanBucket(final int bucket, final byte[] key) {
+
+        final long offset = buckets[bucket];
+
+        final ByteBuffer b = chunks[(int) (offset >>> chunkShift)];
+
+        final int[] pos = new int[] { (int) (offset & chunkMask) };
+
+        final int n = bucket + 1 == buckets.length ? (int) (entryCount - ((long) bucket)
+                * bucketSize)
+                : bucketSize;
+
+        // The current key.
+        byte[] cur = new byte[Math.max(key.length, 16)];
+        int curLen = 0;
+
+        for (int i = 0; i < n; i++) {
+
+            final int prefixLength = i == 0 ? 0 : readVInt(b, pos);
+
+            final int suffixLength = readVInt(b, pos);
+
+            curLen = prefixLength + suffixLength;
+
+            if (curLen > cur.length) {
+
+                final byte[] tmp = new byte[Math.max(curLen, cur.length * 2)];
+
+                System.arraycopy(cur, 0, tmp, 0, prefixLength);
+
+                cur = tmp;
+
+            }
+
+            for (int j = 0; j < suffixLength; j++) {
+
+                cur[prefixLength + j] = b.get(pos[0] + j);
+
+            }
+
+            pos[0] += suffixLength;
+
+            final int valueLength = readVInt(b, pos);
+
+            final int cmp = BytesUtil.compareBytesWithLenAndOffset(0, curLen,
+                    cur, 0, key.length, key);
+
+            if (cmp == 0) {
+
+                final byte[] val = new byte[valueLength];
+
+                final ByteBuffer d = b.duplicate();
+
+                d.position(pos[0]);
+
+                d.get(val);
+
+                return val;
+
+            }
+
+            if (cmp > 0) {
+
+                // Passed the key.
+                return null;
+
+            }
+
+            pos[0] += valueLength;
+
+        }
+
+        return null;
+
+    }
+
+    private static int readVInt(final ByteBuffer b, final int[] pos) {
+
+        int p = pos[0];
+
+        int value = 0;
+
+        for (int shift = 0;; shift += 7) {
+
+            final int v = b.get(p++);
+
+            value |= (v & 0x7f) << shift;
+
+            if ((v & 0x80) == 0)
+                break;
+
+        }
+
+        pos[0] = p;
+
+        return value;
+
+    }
+
+    private static void writeVInt(final OutputStream os, int v)
+            throws IOException {
+
+        while ((v & ~0x7f) != 0) {
+
+            os.write((v & 0x7f) | 0x80);
+
+            v >>>= 7;
+
+        }
+
+        os.write(v);
+
+    }
+
+    /**
+     * Build a dictionary from the tuples visited by the iterator. The tuples
+     * MUST be visited in strictly ascending key order and MUST report their
+     * keys and values. The dictionary is written onto a temporary file which
+     * is then renamed, so an existing dictionary is replaced atomically.
+     *
+     * @param file
+     *            The file.
+     * @param sourceUUID
+     *            The {@link UUID} of the index from which the tuples are read.
+     * @param itr
+     *            The tuples.
+     *
+     * @return The #of entries in the dictionary.
+     */
+    public static long build(final File file, final UUID sourceUUID,
+            final ITupleIterator<?> itr) throws IOException {
+
+        return build(file, sourceUUID, itr, DEFAULT_BUCKET_SIZE,
+                DEFAULT_CHUNK_SHIFT);
+
+    }
+
+    static long build(final File file, final UUID sourceUUID,
+            final ITupleIterator<?> itr, final int bucketSize,
+            final int chunkShift) throws IOException {
+
+        if (file == null || sourceUUID == null || itr == null)
+            throw new IllegalArgumentException();
+
+        if (bucketSize < 1)
+            throw new IllegalArgumentException();
+
+        if (chunkShift < 10 || chunkShift > 30)
+            throw new IllegalArgumentException();
+
+        final long chunkSize = 1L << chunkShift;
+
+        final File tmp = new File(file.getPath() + ".tmp");
+
+        // The bucket offsets.
+        final DataOutputBuffer index = new DataOutputBuffer();
+
+        // The bucket being built.
+        final ByteArrayOutputStream bucket = new ByteArrayOutputStream();
+
+        long entryCount = 0;
+
+        long bucketCount = 0;
+
+        final RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+
+        try {
+
+            raf.setLength(0);
+
+            // Note: shares the file position with [raf].
+            final OutputStream os = new BufferedOutputStream(
+                    new FileOutputStream(raf.getFD()));
+
+            long offset = HEADER_SIZE;
+
+            // Reserve space for the header.
+            os.write(new byte[HEADER_SIZE]);
+
+            byte[] prior = null;
+
+            while (itr.hasNext()) {
+
+                final ITuple<?> tuple = itr.next();
+
+                final byte[] key = tuple.getKey();
+
+                final byte[] val = tuple.getValue();
+
+                if (val == null)
+                    throw new IllegalArgumentException("No value: "
+                            + BytesUtil.toString(key));
+
+                if (prior != null && BytesUtil.compareBytes(prior, key) >= 0)
+                    throw new IllegalArgumentException("Keys out of order: "
+                            + BytesUtil.toString(key));
+
+                if (entryCount % bucketSize == 0) {
+
+                    if (entryCount > 0) {
+
+                        offset = flushBucket(os, bucket, offset, chunkSize,
+                                index);
+
+                        bucketCount++;
+
+                    }
+
+                    writeVInt(bucket, key.length);
+
+                    bucket.write(key);
+
+                } else {
+
+                    final int prefixLength = commonPrefixLength(prior, key);
+
+                    writeVInt(bucket, prefixLength);
+
+                    writeVInt(bucket, key.length - prefixLength);
+
+                    bucket.write(key, prefixLength, key.length - prefixLength);
+
+                }
+
+                writeVInt(bucket, val.length);
+
+                bucket.write(val);
+
+                prior = key;
+
+                entryCount++;
+
+            }
+
+            if (bucket.size() > 0) {
+
+                offset = flushBucket(os, bucket, offset, chunkSize, index);
+
+                bucketCount++;
+
+            }
+
+            // The index.
+            os.write(index.array(), 0, index.pos());
+
+            os.flush();
+
+            // The header.
+            raf.seek(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION0);
+            raf.writeLong(sourceUUID.getMostSignificantBits());
+            raf.writeLong(sourceUUID.getLeastSignificantBits());
+            raf.writeLong(entryCount);
+            raf.writeInt(bucketSize);
+            raf.writeInt(chunkShift);
+            raf.writeLong(bucketCount);
+            raf.writeLong(offset);
+
+            raf.getFD().sync();
+
+        } finally {
+
+            raf.close();
+
+        }
+
+        if (!tmp.renameTo(file)) {
+
+            // Note: renameTo() does not replace an existing file on all
+            // platforms.
+            if (!file.delete() || !tmp.renameTo(file))
+                throw new IOException("Could not rename " + tmp + " to "
+                        + file);
+
+        }
+
+        if (log.isInfoEnabled())
+            log.info("file=" + file + ", entryCount=" + entryCount
+                    + ", bucketCount=" + bucketCount + ", bytes="
+                    + file.length());
+
+        return entryCount;
+
+    }
+
+    /**
+     * Write the bucket at the current file offset, first padding to the next
+     * chunk if the bucket would span a chunk boundary.
+     *
+     * @return The file offset after the bucket.
+     */
+    private static long flushBucket(final OutputStream os,
+            final ByteArrayOutputStream bucket,
+            long offset, final long chunkSize, final DataOutputBuffer index)
+            throws IOException {
+
+        final int size = bucket.size();
+
+        if (size > chunkSize)
+            throw new IllegalArgumentException("Bucket too large: " + size);
+
+        final long remaining = chunkSize - (offset % chunkSize);
+
+        if (size > remaining) {
+
+            // Pad to the next chunk (remaining LT size).
+            os.write(new byte[(int) remaining]);
+
+            offset += remaining;
+
+        }
+
+        index.writeLong(offset);
+
+        bucket.writeTo(os);
+
+        bucket.reset();
+
+        return offset + size;
+
+    }
+
+    private static int commonPrefixLength(final byte[] a, final byte[] b) {
+
+        final int n = Math.min(a.length, b.length);
+
+        int i = 0;
+
+        while (i < n && a[i] == b[i])
+            i++;
+
+        return i;
+
+    }
+
+}
@@ -28,6 +28,8 @@
 
 package com.bigdata.rdf.lexicon;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -76,6 +78,9 @@ import com.bigdata.btree.filter.TupleFilter;
 import com.bigdata.btree.keys.IKeyBuilder;
 import com.bigdata.btree.keys.KVO;
 import com.bigdata.cache.ConcurrentWeakValueCacheWithBatchedUpdates;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
 import com.bigdata.journal.IIndexManager;
 import com.bigdata.journal.IJournal;
 import com.bigdata.journal.IResourceLock;
@@ -514,9 +519,9 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
 		}
 
         /*
-         * @todo This should be a high concurrency LIRS or similar cache in
-         * order to prevent the cache being flushed by the materialization of
-         * low frequency terms.
+         * Note: The TinyLFUTermCache prevents the cache from being flushed by
+         * the materialization of low frequency terms, but the weak value cache
+         * remains the default.
          */
         {
             
@@ -524,9 +529,47 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
                     AbstractTripleStore.Options.TERM_CACHE_CAPACITY,
                     AbstractTripleStore.Options.DEFAULT_TERM_CACHE_CAPACITY));
 
+            final String termCacheType = getProperty(
+                    AbstractTripleStore.Options.TERM_CACHE_TYPE,
+                    AbstractTripleStore.Options.DEFAULT_TERM_CACHE_TYPE);
+
+            final long termCacheMaxBytes = Long.parseLong(getProperty(
+                    AbstractTripleStore.Options.TERM_CACHE_MAX_BYTES,
+                    AbstractTripleStore.Options.DEFAULT_TERM_CACHE_MAX_BYTES));
+
+            final boolean tinyLFU;
+            if (AbstractTripleStore.Options.TERM_CACHE_TYPE_TINY_LFU
+                    .equals(termCacheType)) {
+                tinyLFU = true;
+            } else if (AbstractTripleStore.Options.TERM_CACHE_TYPE_WEAK
+                    .equals(termCacheType)) {
+                tinyLFU = false;
+            } else {
+                throw new IllegalArgumentException(
+                        AbstractTripleStore.Options.TERM_CACHE_TYPE + "="
+                                + termCacheType);
+            }
+
             final Long commitTime = getCommitTime();
             
-            if (commitTime != null && TimestampUtility.isReadOnly(timestamp)) {
+            if (commitTime != null && TimestampUtility.isReadOnly(timestamp)
+                    && tinyLFU) {
+
+                /*
+                 * Shared for read-only views from the same commit time (see
+                 * below).
+                 */
+                termCache = tinyLFUTermCacheFactory.getInstance(new NT(
+                        namespace, commitTime.longValue()),
+                        termCacheMaxBytes * 2);
+
+            } else if (tinyLFU) {
+
+                termCache = new TinyLFUTermCache<IV<?, ?>, BigdataValue>(
+                        termCacheMaxBytes,
+                        TINY_LFU_CONCURRENCY_LEVEL);
+
+            } else if (commitTime != null && TimestampUtility.isReadOnly(timestamp)) {
 
                 /*
                  * Shared for read-only views from sample commit time. Sharing
@@ -555,6 +598,22 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
                 ));
 
             }
+
+            offHeapTermCacheMaxBytes = Long.parseLong(getProperty(
+                    AbstractTripleStore.Options.OFF_HEAP_TERM_CACHE_MAX_BYTES,
+                    AbstractTripleStore.Options.DEFAULT_OFF_HEAP_TERM_CACHE_MAX_BYTES));
+
+            if (offHeapTermCacheMaxBytes < 0)
+                throw new IllegalArgumentException(
+                        AbstractTripleStore.Options.OFF_HEAP_TERM_CACHE_MAX_BYTES
+                                + "=" + offHeapTermCacheMaxBytes);
+
+            final String dir = getProperty(
+                    AbstractTripleStore.Options.COMPILED_DICTIONARY_DIR,
+                    AbstractTripleStore.Options.DEFAULT_COMPILED_DICTIONARY_DIR);
+
+            compiledDictionaryDir = dir.trim().length() == 0 ? null
+                    : new File(dir.trim());
             
         }
         
@@ -583,6 +642,18 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
             inlineDateTimesTimeZone = TimeZone.getTimeZone(getProperty(
                     AbstractTripleStore.Options.INLINE_DATE_TIMES_TIMEZONE,
                     AbstractTripleStore.Options.DEFAULT_INLINE_DATE_TIMES_TIMEZONE));
+
+            final boolean inlineDateOrdinals = Boolean.parseBoolean(getProperty(
+                    AbstractTripleStore.Options.INLINE_DATE_ORDINALS,
+                    AbstractTripleStore.Options.DEFAULT_INLINE_DATE_ORDINALS));
+
+            final int inlineDecimalScale = Integer.parseInt(getProperty(
+                    AbstractTripleStore.Options.INLINE_DECIMAL_SCALE,
+                    AbstractTripleStore.Options.DEFAULT_INLINE_DECIMAL_SCALE));
+
+            final int maxInlineLangLiteralLength = Integer.parseInt(getProperty(
+                    AbstractTripleStore.Options.MAX_INLINE_LANG_LITERAL_LENGTH,
+                    AbstractTripleStore.Options.DEFAULT_MAX_INLINE_LANG_LITERAL_LENGTH));
             
             rejectInvalidXSDValues = Boolean.parseBoolean(getProperty(
                     AbstractTripleStore.Options.REJECT_INVALID_XSD_VALUES,
@@ -652,7 +723,8 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
                     blobsThreshold,
                     inlineLiterals, inlineTextLiterals,
                     maxInlineTextLength, inlineBNodes, inlineDateTimes,
-                    inlineDateTimesTimeZone,
+                    inlineDateTimesTimeZone, inlineDateOrdinals,
+                    inlineDecimalScale, maxInlineLangLiteralLength,
                     rejectInvalidXSDValues, enableRawRecordsSupport, xFactory, 
                     vocab, valueFactory, uriFactory, geoSpatial, geoSpatialConfig);
 
@@ -832,6 +904,9 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
             valueFactory.remove(/*getNamespace()*/);
 
             termCache.clear();
+
+            if (offHeapTermCache != null)
+                offHeapTermCache.clear();
             
             super.destroy();
 
@@ -2054,7 +2129,8 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
             // write on the forward index (sync RPC)
             a = new Term2IdWriteTask(getTerm2IdIndex(), readOnly,
                     storeBlankNodes, termIdBitsToReverse, numTerms, terms,
-                    stats).call();
+                    stats, getCompiledDictionary(LexiconKeyOrder.TERM2ID))
+                    .call();
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
@@ -2852,7 +2928,9 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
 	        if (!termIVs.isEmpty()) {
 	
 	            tasks.add(new BatchResolveTermIVsTask(service, getId2TermIndex(),
-	                    termIVs, ret, termCache, valueFactory, termsChunksSize));
+	                    termIVs, ret, termCache, valueFactory, termsChunksSize,
+	                    getOffHeapTermCache(),
+	                    getCompiledDictionary(LexiconKeyOrder.ID2TERM)));
 	
 	        }
 	
@@ -3064,21 +3142,263 @@ public class LexiconRelation extends AbstractRelation<BigdataValue>
         }
     };
     
+    /**
+     * The #of segments for a {@link TinyLFUTermCache}. This is sized for a
+     * large #of threads materializing terms concurrently.
+     */
+    static private final int TINY_LFU_CONCURRENCY_LEVEL = 64;
+
+    /**
+     * Factory used for {@link #termCache} for read-only views of the lexicon
+     * when the {@link AbstractTripleStore.Options#TERM_CACHE_TYPE} is
+     * {@value AbstractTripleStore.Options#TERM_CACHE_TYPE_TINY_LFU}.
+     */
+    static private CanonicalFactory<NT/* key */, ITermCache<IV<?,?>, BigdataValue>, Long/* state */> tinyLFUTermCacheFactory = new CanonicalFactory<NT, ITermCache<IV<?,?>, BigdataValue>, Long>(
+            1/* queueCapacity */) {
+        @Override
+        protected ITermCache<IV<?,?>, BigdataValue> newInstance(
+                NT key, Long termCacheMaxBytes) {
+            return new TinyLFUTermCache<IV<?,?>,BigdataValue>(//
+                    termCacheMaxBytes.longValue(),// maximum bytes.
+                    TINY_LFU_CONCURRENCY_LEVEL// concurrency level
+            );
+        }
+    };
+    
+    /**
+     * The maximum #of bytes for the {@link OffHeapTermCache} and zero if it is
+     * disabled.
+     * 
+     * @see AbstractTripleStore.Options#OFF_HEAP_TERM_CACHE_MAX_BYTES
+     */
+    private final long offHeapTermCacheMaxBytes;
+
+    /**
+     * The {@link OffHeapTermCache} for this view (lazily resolved).
+     */
+    private volatile OffHeapTermCache offHeapTermCache;
+
+    /**
+     * Factory used for the {@link OffHeapTermCache}s. The cache is shared by
+     * all read-only views of the lexicon and is therefore keyed by the
+     * {@link UUID} of the ID2TERM index, which identifies the lexicon across
+     * commit points and changes when the lexicon is destroyed and re-created.
+     */
+    static private CanonicalFactory<UUID/* key */, OffHeapTermCache, Long/* state */> offHeapTermCacheFactory = new CanonicalFactory<UUID, OffHeapTermCache, Long>(
+            1/* queueCapacity */) {
+        @Override
+        protected OffHeapTermCache newInstance(UUID key,
+                Long maximumBytes) {
+            return new OffHeapTermCache(maximumBytes.longValue(),
+                    TINY_LFU_CONCURRENCY_LEVEL// concurrency level
+            );
+        }
+    };
+
+    /**
+     * Return the {@link OffHeapTermCache} for this view.
+     * 
+     * @return The cache -or- <code>null</code> if the cache is disabled or if
+     *         this is not a read-only view of a commit point.
+     */
+    OffHeapTermCache getOffHeapTermCache() {
+
+        if (offHeapTermCacheMaxBytes == 0L)
+            return null;
+
+        if (getCommitTime() == null
+                || !TimestampUtility.isReadOnly(getTimestamp())) {
+
+            /*
+             * Note: A term identifier which was assigned by the unisolated
+             * view could be reassigned after an abort.
+             */
+            return null;
+
+        }
+
+        OffHeapTermCache c = offHeapTermCache;
+
+        if (c == null) {
+
+            final UUID indexUUID = getId2TermIndex().getIndexMetadata()
+                    .getIndexUUID();
+
+            offHeapTermCache = c = offHeapTermCacheFactory.getInstance(
+                    indexUUID, offHeapTermCacheMaxBytes);
+
+        }
+
+        return c;
+
+    }
+
+    /**
+     * The directory containing the compiled dictionaries and <code>null</code>
+     * if they are disabled.
+     * 
+     * @see AbstractTripleStore.Options#COMPILED_DICTIONARY_DIR
+     */
+    private final File compiledDictionaryDir;
+
+    /**
+     * The compiled dictionaries for TERM2ID and ID2TERM for this view (lazily
+     * resolved). {@link #NO_DICTIONARY} is used once it is known that there
+     * is no usable dictionary.
+     */
+    private volatile Object compiledTerm2Id, compiledId2Term;
+
+    private static final Object NO_DICTIONARY = new Object();
+
+    /**
+     * Factory used for the {@link FrontCodedDictionary}s. A dictionary is
+     * mapped once and shared by all views of the lexicon, so the factory is
+     * keyed by the file.
+     */
+    static private CanonicalFactory<File/* key */, FrontCodedDictionary, Void/* state */> compiledDictionaryFactory = new CanonicalFactory<File, FrontCodedDictionary, Void>(
+            1/* queueCapacity */) {
+        @Override
+        protected FrontCodedDictionary newInstance(final File key,
+                final Void state) {
+            try {
+                return new FrontCodedDictionary(key);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    };
+
+    /**
+     * Return the compiled dictionary for the TERM2ID or ID2TERM index.
+     * 
+     * @param keyOrder
+     *            Either {@link LexiconKeyOrder#TERM2ID} or
+     *            {@link LexiconKeyOrder#ID2TERM}.
+     * 
+     * @return The dictionary -or- <code>null</code> if the dictionaries are
+     *         disabled, if there is no dictionary for that index, or if the
+     *         dictionary was built from another index (e.g., for a KB instance
+     *         which was since destroyed and re-created).
+     * 
+     * @see AbstractTripleStore.Options#COMPILED_DICTIONARY_DIR
+     */
+    FrontCodedDictionary getCompiledDictionary(final LexiconKeyOrder keyOrder) {
+
+        if (compiledDictionaryDir == null)
+            return null;
+
+        final boolean term2id;
+        if (keyOrder == LexiconKeyOrder.TERM2ID) {
+            term2id = true;
+        } else if (keyOrder == LexiconKeyOrder.ID2TERM) {
+            term2id = false;
+        } else {
+            throw new IllegalArgumentException();
+        }
+
+        Object d = term2id ? compiledTerm2Id : compiledId2Term;
+
+        if (d == null) {
+
+            d = NO_DICTIONARY;
+
+            final File file = FrontCodedDictionary.getFile(
+                    compiledDictionaryDir, getFQN(keyOrder));
+
+            if (file.exists()) {
+
+                final FrontCodedDictionary tmp = compiledDictionaryFactory
+                        .getInstance(file, null/* state */);
+
+                final UUID indexUUID = (term2id ? getTerm2IdIndex()
+                        : getId2TermIndex()).getIndexMetadata().getIndexUUID();
+
+                if (indexUUID.equals(tmp.getSourceUUID())) {
+
+                    d = tmp;
+
+                } else {
+
+                    log.warn("Ignoring dictionary built for another index: "
+                            + tmp + ", indexUUID=" + indexUUID);
+
+                }
+
+            } else if (log.isInfoEnabled()) {
+
+                log.info("No dictionary: " + file);
+
+            }
+
+            if (term2id)
+                compiledTerm2Id = d;
+            else
+                compiledId2Term = d;
+
+        }
+
+        return d == NO_DICTIONARY ? null : (FrontCodedDictionary) d;
+
+    }
+
     /**
      * Clear all term caches for the supplied namespace.
      */
     @SuppressWarnings("rawtypes")
     static public void clearTermCacheFactory(final String namespace) {
         
-        final Iterator it = termCacheFactory.entryIterator();
-        while (it.hasNext()) {
-            final NT nt = (NT) ((Entry) it.next()).getKey();
-            if (nt.getName().equals(namespace)) {
-                it.remove();
+        for (Iterator it : new Iterator[] { termCacheFactory.entryIterator(),
+                tinyLFUTermCacheFactory.entryIterator() }) {
+            while (it.hasNext()) {
+                final NT nt = (NT) ((Entry) it.next()).getKey();
+                if (nt.getName().equals(namespace)) {
+                    it.remove();
+                }
             }
         }
         
     }
+
+    /**
+     * Return the counters for the term cache. The hit rate is reported when
+     * the {@link AbstractTripleStore.Options#TERM_CACHE_TYPE} is
+     * {@value AbstractTripleStore.Options#TERM_CACHE_TYPE_TINY_LFU}. Otherwise
+     * only the size of the cache is reported. The counters for the
+     * {@link OffHeapTermCache} are reported under <code>offHeap</code> once
+     * that cache is in use.
+     */
+    public CounterSet getTermCacheCounters() {
+
+        final CounterSet root;
+
+        if (termCache instanceof ICounterSetAccess) {
+
+            root = ((ICounterSetAccess) termCache).getCounters();
+
+        } else {
+
+            root = new CounterSet();
+
+            root.addCounter("size", new Instrument<Integer>() {
+                @Override
+                public void sample() {
+                    setValue(termCache.size());
+                }
+            });
+
+        }
+
+        final OffHeapTermCache c = offHeapTermCache;
+
+        if (c != null) {
+
+            root.makePath("offHeap").attach(c.getCounters());
+
+        }
+
+        return root;
+
+    }
     
     /**
      * The {@link Vocabulary} implementation class.
@@ -0,0 +1,686 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.bigdata.counters.CAT;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
+import com.bigdata.io.DirectBufferPool;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rwstore.sector.MemoryManager;
+import com.bigdata.rwstore.sector.MemoryManagerOutOfMemory;
+import com.bigdata.rwstore.sector.SectorAllocator;
+
+/**
+ * A cache of the serialized {@link com.bigdata.rdf.model.BigdataValue}s for
+ * {@link TermId}s which lives on the native heap. The records are the values
+ * of the ID2TERM index and are stored in a {@link MemoryManager} backed by the
+ * {@link DirectBufferPool}, so the capacity of the cache is independent of the
+ * size of the Java heap. A cache hit replaces the batch lookup against the
+ * ID2TERM index (and the decoding of its leaves) by a copy of the record from
+ * the native heap.
+ * <p>
+ * The only structures on the Java heap are the open addressing hash tables
+ * mapping the term identifiers onto the addresses of their records (18 bytes
+ * per slot). The cache is divided into segments, each of which is guarded by
+ * its own lock. The CLOCK policy is used to choose the records to be evicted
+ * when a segment is over its share of the capacity or when the
+ * {@link MemoryManager} can not satisfy an allocation.
+ * <p>
+ * Note: The term identifier of a {@link TermId} is not reused once it has been
+ * committed, so this cache may be shared by all read-only views of a lexicon.
+ * It must not be used for the unisolated view since an abort could cause the
+ * same term identifier to be assigned to another value.
+ *
+ * @see AbstractTripleStore.Options#OFF_HEAP_TERM_CACHE_MAX_BYTES
+ */
+public class OffHeapTermCache implements ICounterSetAccess {
+
+    /**
+     * The initial #of slots in the hash table of a segment.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Records larger than this are not cached.
+     */
+    static final int MAX_RECORD_SIZE = SectorAllocator.BLOB_SIZE;
+
+    private final long maximumBytes;
+
+    private final MemoryManager memoryManager;
+
+    private final Segment[] segments;
+
+    private final int segmentShift;
+
+    private final CAT hitCount = new CAT();
+
+    private final CAT missCount = new CAT();
+
+    private final CAT evictionCount = new CAT();
+
+    /**
+     * @param maximumBytes
+     *            The maximum #of bytes of native memory used by the cache.
+     * @param concurrencyLevel
+     *            The #of segments (rounded up to a power of two).
+     */
+    public OffHeapTermCache(final long maximumBytes, final int concurrencyLevel) {
+
+        if (maximumBytes <= 0)
+            throw new IllegalArgumentException();
+
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+
+        int nsegments = 1;
+        int shift = 0;
+        while (nsegments < concurrencyLevel) {
+            nsegments <<= 1;
+            shift++;
+        }
+
+        this.maximumBytes = maximumBytes;
+
+        final int sectorSize = DirectBufferPool.INSTANCE.getBufferCapacity();
+
+        final long nsectors = Math.max(1L, (maximumBytes + sectorSize - 1)
+                / sectorSize);
+
+        this.memoryManager = new MemoryManager(DirectBufferPool.INSTANCE,
+                (int) Math.min(Integer.MAX_VALUE, nsectors), false/* blocks */,
+                null/* properties */);
+
+        this.segmentShift = 32 - shift;
+
+        this.segments = new Segment[nsegments];
+
+        final long segmentBytes = Math.max(1L, maximumBytes / nsegments);
+
+        for (int i = 0; i < nsegments; i++) {
+
+            segments[i] = new Segment(segmentBytes);
+
+        }
+
+    }
+
+    private static int hash(final long id, final byte flags) {
+
+        long h = (id ^ (((long) flags) << 56)) * 0x9E3779B97F4A7C15L;
+
+        h ^= (h >>> 32);
+
+        return (int) h;
+
+    }
+
+    private Segment segmentFor(final int h) {
+
+        return segmentShift == 32 ? segments[0] : segments[h >>> segmentShift];
+
+    }
+
+    /**
+     * Return a copy of the serialized value for the term identifier.
+     *
+     * @param tid
+     *            The term identifier.
+     *
+     * @return The serialized value -or- <code>null</code> if it is not in the
+     *         cache.
+     */
+    public byte[] get(final TermId<?> tid) {
+
+        final long id = tid.getTermId();
+
+        final byte flags = tid.flags();
+
+        final int h = hash(id, flags);
+
+        final byte[] data = segmentFor(h).get(id, flags, h);
+
+        if (data != null) {
+
+            hitCount.increment();
+
+        } else {
+
+            missCount.increment();
+
+        }
+
+        return data;
+
+    }
+
+    /**
+     * Add the serialized value for the term identifier to the cache. This is a
+     * NOP if the term identifier is already in the cache or if the record is
+     * too large to be cached.
+     *
+     * @param tid
+     *            The term identifier.
+     * @param data
+     *            The serialized value (the value of the ID2TERM index).
+     */
+    public void put(final TermId<?> tid, final byte[] data) {
+
+        if (data == null)
+            throw new IllegalArgumentException();
+
+        if (data.length == 0 || data.length > MAX_RECORD_SIZE)
+            return;
+
+        final long id = tid.getTermId();
+
+        final byte flags = tid.flags();
+
+        final int h = hash(id, flags);
+
+        segmentFor(h).put(id, flags, h, data);
+
+    }
+
+    /**
+     * The #of records in the cache.
+     */
+    public int size() {
+
+        int n = 0;
+
+        for (Segment s : segments) {
+
+            n += s.size();
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The #of bytes in the cached records.
+     */
+    public long bytes() {
+
+        long n = 0;
+
+        for (Segment s : segments) {
+
+            n += s.bytes();
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * Discard all records and release the native memory.
+     */
+    public void clear() {
+
+        for (Segment s : segments) {
+
+            s.lock();
+
+        }
+
+        try {
+
+            for (Segment s : segments) {
+
+                s.reset();
+
+            }
+
+            memoryManager.clear();
+
+        } finally {
+
+            for (Segment s : segments) {
+
+                s.unlock();
+
+            }
+
+        }
+
+    }
+
+    /**
+     * The ratio of the cache hits to the cache requests.
+     */
+    public double getHitRate() {
+
+        final long hits = hitCount.get();
+
+        final long n = hits + missCount.get();
+
+        return n == 0 ? 0d : hits / (double) n;
+
+    }
+
+    @Override
+    public CounterSet getCounters() {
+
+        final CounterSet root = new CounterSet();
+
+        // #of cache hits.
+        root.addCounter("hitCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(hitCount.get());
+            }
+        });
+
+        // #of cache misses.
+        root.addCounter("missCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(missCount.get());
+            }
+        });
+
+        // hits / (hits + misses).
+        root.addCounter("hitRate", new Instrument<Double>() {
+            @Override
+            public void sample() {
+                setValue(getHitRate());
+            }
+        });
+
+        // #of records evicted.
+        root.addCounter("evictionCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(evictionCount.get());
+            }
+        });
+
+        // #of records in the cache.
+        root.addCounter("size", new Instrument<Integer>() {
+            @Override
+            public void sample() {
+                setValue(size());
+            }
+        });
+
+        // #of bytes in the cached records.
+        root.addCounter("bytes", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(bytes());
+            }
+        });
+
+        // maximum #of bytes of native memory.
+        root.addCounter("maximumBytes", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(maximumBytes);
+            }
+        });
+
+        root.makePath("memoryManager").attach(memoryManager.getCounters());
+
+        return root;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return super.toString() + "{size=" + size() + ",bytes=" + bytes()
+                + ",maximumBytes=" + maximumBytes + ",hitRate=" + getHitRate()
+                + ",evictionCount=" + evictionCount.get() + "}";
+
+    }
+
+    /**
+     * A segment of the cache. All state is guarded by the segment lock.
+     */
+    private final class Segment extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long maximumBytes;
+
+        /** The term identifiers. */
+        private long[] ids;
+
+        /** The flags of the {@link TermId}s. */
+        private byte[] flags;
+
+        /** The addresses of the records. A zero indicates an empty slot. */
+        private long[] addrs;
+
+        /** The CLOCK reference bits. */
+        private boolean[] referenced;
+
+        private int mask;
+
+        private int size;
+
+        private long bytes;
+
+        /** The CLOCK hand. */
+        private int hand;
+
+        Segment(final long maximumBytes) {
+
+            this.maximumBytes = maximumBytes;
+
+            init(INITIAL_CAPACITY);
+
+        }
+
+        private void init(final int capacity) {
+
+            ids = new long[capacity];
+            flags = new byte[capacity];
+            addrs = new long[capacity];
+            referenced = new boolean[capacity];
+            mask = capacity - 1;
+            size = 0;
+            bytes = 0;
+            hand = 0;
+
+        }
+
+        int size() {
+            lock();
+            try {
+                return size;
+            } finally {
+                unlock();
+            }
+        }
+
+        long bytes() {
+            lock();
+            try {
+                return bytes;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Return the slot for the term identifier -or- <code>-1</code> if it
+         * is not found.
+         */
+        private int indexOf(final long id, final byte f, final int h) {
+
+            int i = h & mask;
+
+            while (addrs[i] != 0L) {
+
+                if (ids[i] == id && flags[i] == f)
+                    return i;
+
+                i = (i + 1) & mask;
+
+            }
+
+            return -1;
+
+        }
+
+        byte[] get(final long id, final byte f, final int h) {
+
+            lock();
+            try {
+
+                final int i = indexOf(id, f, h);
+
+                if (i == -1)
+                    return null;
+
+                referenced[i] = true;
+
+                return memoryManager.read(addrs[i]);
+
+            } finally {
+                unlock();
+            }
+
+        }
+
+        void put(final long id, final byte f, final int h, final byte[] data) {
+
+            lock();
+            try {
+
+                if (indexOf(id, f, h) != -1) {
+
+                    // Already cached.
+                    return;
+
+                }
+
+                while (size > 0 && bytes + data.length > maximumBytes) {
+
+                    evict();
+
+                }
+
+                long addr = 0L;
+
+                while (addr == 0L) {
+
+                    try {
+
+                        addr = memoryManager.allocate(ByteBuffer.wrap(data),
+                                false/* blocks */);
+
+                    } catch (MemoryManagerOutOfMemory ex) {
+
+                        if (size == 0) {
+
+                            // Nothing which we could release.
+                            return;
+
+                        }
+
+                        /*
+                         * The native memory is exhausted (or fragmented).
+                         * Release some records from this segment and retry.
+                         */
+                        evict();
+
+                    }
+
+                }
+
+                if ((size + 1) * 4 > addrs.length * 3) {
+
+                    grow();
+
+                }
+
+                int i = h & mask;
+
+                while (addrs[i] != 0L) {
+
+                    i = (i + 1) & mask;
+
+                }
+
+                ids[i] = id;
+                flags[i] = f;
+                addrs[i] = addr;
+                referenced[i] = false;
+
+                size++;
+
+                bytes += data.length;
+
+            } finally {
+                unlock();
+            }
+
+        }
+
+        /**
+         * Evict one record using the CLOCK policy.
+         */
+        private void evict() {
+
+            while (true) {
+
+                final int i = hand;
+
+                hand = (hand + 1) & mask;
+
+                if (addrs[i] == 0L)
+                    continue;
+
+                if (referenced[i]) {
+
+                    // Give it a second chance.
+                    referenced[i] = false;
+
+                    continue;
+
+                }
+
+                removeAt(i);
+
+                evictionCount.increment();
+
+                return;
+
+            }
+
+        }
+
+        /**
+         * Remove the record in the slot, releasing its native memory, and
+         * shift back any records in the same probe sequence.
+         */
+        private void removeAt(int i) {
+
+            final long addr = addrs[i];
+
+            memoryManager.free(addr);
+
+            bytes -= memoryManager.allocationSize(addr);
+
+            size--;
+
+            int j = i;
+
+            while (true) {
+
+                j = (j + 1) & mask;
+
+                if (addrs[j] == 0L)
+                    break;
+
+                final int k = hash(ids[j], flags[j]) & mask;
+
+                // skip if the home slot of [j] is cyclically in (i, j].
+                if ((i <= j) ? (i < k && k <= j) : (i < k || k <= j))
+                    continue;
+
+                ids[i] = ids[j];
+                flags[i] = flags[j];
+                addrs[i] = addrs[j];
+                referenced[i] = referenced[j];
+
+                i = j;
+
+            }
+
+            addrs[i] = 0L;
+            referenced[i] = false;
+
+        }
+
+        /**
+         * Double the capacity of the hash table.
+         */
+        private void grow() {
+
+            final long[] oldIds = ids;
+            final byte[] oldFlags = flags;
+            final long[] oldAddrs = addrs;
+            final boolean[] oldReferenced = referenced;
+
+            final int n = size;
+
+            final long b = bytes;
+
+            init(oldAddrs.length << 1);
+
+            for (int j = 0; j < oldAddrs.length; j++) {
+
+                if (oldAddrs[j] == 0L)
+                    continue;
+
+                int i = hash(oldIds[j], oldFlags[j]) & mask;
+
+                while (addrs[i] != 0L) {
+
+                    i = (i + 1) & mask;
+
+                }
+
+                ids[i] = oldIds[j];
+                flags[i] = oldFlags[j];
+                addrs[i] = oldAddrs[j];
+                referenced[i] = oldReferenced[j];
+
+            }
+
+            size = n;
+
+            bytes = b;
+
+        }
+
+        /**
+         * Discard the hash table. The caller is responsible for releasing the
+         * native memory.
+         */
+        void reset() {
+
+            init(INITIAL_CAPACITY);
+
+        }
+
+    }
+
+}
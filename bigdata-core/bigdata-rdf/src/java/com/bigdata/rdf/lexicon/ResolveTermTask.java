@@ -36,6 +36,8 @@ class ResolveTermTask implements Callable<Void> {
     private final ITermCache<IV<?,?>, BigdataValue> termCache;
     private final BigdataValueFactory valueFactory;
 
+    private final OffHeapTermCache offHeapCache;
+
     /**
      * 
      * @param ndx
@@ -57,12 +59,16 @@ class ResolveTermTask implements Callable<Void> {
      *            identifier as the key. This is a concurrent map because
      *            the operation may have been split across multiple shards,
      *            in which case the updates to the map can be concurrent.
+     * @param offHeapCache
+     *            The serialized values read from the index are entered into
+     *            this cache (optional).
      */
     ResolveTermTask(final IIndex ndx, final int fromIndex,
             final int toIndex, final byte[][] keys, final TermId<?>[] notFound,
             final ConcurrentHashMap<IV<?,?>, BigdataValue> map,
             final ITermCache<IV<?,?>, BigdataValue> termCache,
-            final BigdataValueFactory valueFactory) {
+            final BigdataValueFactory valueFactory,
+            final OffHeapTermCache offHeapCache) {
 
         this.ndx = ndx;
         this.fromIndex = fromIndex;
@@ -72,6 +78,7 @@ class ResolveTermTask implements Callable<Void> {
         this.map = map;
         this.termCache = termCache;
         this.valueFactory = valueFactory;
+        this.offHeapCache = offHeapCache;
 
     }
 
@@ -107,36 +114,13 @@ class ResolveTermTask implements Callable<Void> {
 
                 }
 
-                /*
-                 * Note: This automatically sets the valueFactory reference
-                 * on the de-serialized value.
-                 */
-                BigdataValue value = valueFactory.getValueSerializer()
-                        .deserialize(data);
-                
-                // Set the term identifier.
-                value.setIV(tid);
-
-                final BigdataValue tmp = termCache.putIfAbsent(tid, value);
+                if (offHeapCache != null) {
 
-                if (tmp != null) {
-
-                    value = tmp;
+                    offHeapCache.put(tid, data);
 
                 }
 
-                /*
-                 * The term identifier was set when the value was
-                 * de-serialized. However, this will throw an
-                 * IllegalStateException if the value somehow was assigned
-                 * the wrong term identifier (paranoia test).
-                 */
-                assert value.getIV().equals(tid) : "expecting tid=" + tid
-                        + ", but found " + value.getIV();
-                assert (value).getValueFactory() == valueFactory;
-
-                // save in caller's concurrent map.
-                map.put(tid, value);
+                resolve(tid, data, map, termCache, valueFactory);
 
             }
 
@@ -145,5 +129,52 @@ class ResolveTermTask implements Callable<Void> {
         return null;
         
     }
+
+    /**
+     * De-serialize the value for a term identifier, enter it into the term
+     * cache and save it in the caller's map.
+     * 
+     * @param tid
+     *            The term identifier.
+     * @param data
+     *            The serialized value (the value of the ID2TERM index).
+     */
+    static void resolve(final TermId<?> tid, final byte[] data,
+            final ConcurrentHashMap<IV<?,?>, BigdataValue> map,
+            final ITermCache<IV<?,?>, BigdataValue> termCache,
+            final BigdataValueFactory valueFactory) {
+
+        /*
+         * Note: This automatically sets the valueFactory reference
+         * on the de-serialized value.
+         */
+        BigdataValue value = valueFactory.getValueSerializer()
+                .deserialize(data);
+        
+        // Set the term identifier.
+        value.setIV(tid);
+
+        final BigdataValue tmp = termCache.putIfAbsent(tid, value);
+
+        if (tmp != null) {
+
+            value = tmp;
+
+        }
+
+        /*
+         * The term identifier was set when the value was
+         * de-serialized. However, this will throw an
+         * IllegalStateException if the value somehow was assigned
+         * the wrong term identifier (paranoia test).
+         */
+        assert value.getIV().equals(tid) : "expecting tid=" + tid
+                + ", but found " + value.getIV();
+        assert (value).getValueFactory() == valueFactory;
+
+        // save in caller's concurrent map.
+        map.put(tid, value);
+
+    }
     
 }
\ No newline at end of file
@@ -34,8 +34,10 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
+import com.bigdata.btree.AbstractBTree;
 import com.bigdata.btree.ICounter;
 import com.bigdata.btree.IIndex;
+import com.bigdata.btree.SortedKeyLookup;
 import com.bigdata.btree.keys.KeyBuilder;
 import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedure;
 import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedureConstructor;
@@ -308,6 +310,16 @@ public class Term2IdWriteProc extends AbstractKeyArrayIndexProcedure<Result> imp
         
 //        final DataOutputBuffer kbuf = new DataOutputBuffer(128);
 
+        /*
+         * Lookup all keys against a leaf cursor in a single ordered pass. This
+         * requires that there are no duplicate keys unless the operation is
+         * read-only, since otherwise a key inserted by this procedure would
+         * not be visible to the lookup of its duplicate.
+         */
+        final byte[][] found = ndx instanceof AbstractBTree
+                && (readOnly || isStrictlyAscending(keys)) ? SortedKeyLookup
+                .lookup((AbstractBTree) ndx, keys) : null;
+
         // #of new terms (#of writes on the index).
         int nnew = 0;
         for (int i = 0; i < numTerms; i++) {
@@ -367,7 +379,7 @@ public class Term2IdWriteProc extends AbstractKeyArrayIndexProcedure<Result> imp
                  * @todo reuse Tuple for lookups to reduce allocation (will
                  * reuse an internal buffer).
                  */
-                final byte[] tmp = ndx.lookup(key);
+                final byte[] tmp = found != null ? found[i] : ndx.lookup(key);
     
                 if (tmp == null) {
 
@@ -462,6 +474,24 @@ public class Term2IdWriteProc extends AbstractKeyArrayIndexProcedure<Result> imp
 
     }
     
+    /**
+     * Return <code>true</code> iff the keys are in strictly ascending order.
+     */
+    private static boolean isStrictlyAscending(final IRaba keys) {
+
+        final int n = keys.size();
+
+        for (int i = 1; i < n; i++) {
+
+            if (BytesUtil.compareBytes(keys.get(i - 1), keys.get(i)) >= 0)
+                return false;
+
+        }
+
+        return true;
+
+    }
+
     private void groundTruthTest(final byte[] key, final long termId, final IIndex ndx,
             final ICounter counter) {
         
@@ -29,12 +29,14 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
+import org.openrdf.model.BNode;
 
 import com.bigdata.btree.IIndex;
 import com.bigdata.btree.keys.KVO;
 import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedureConstructor;
 import com.bigdata.btree.proc.IResultHandler;
 import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.IVUtility;
 import com.bigdata.rdf.lexicon.Term2IdWriteProc.Term2IdWriteProcConstructor;
 import com.bigdata.rdf.model.BigdataValue;
 import com.bigdata.service.Split;
@@ -59,12 +61,29 @@ public class Term2IdWriteTask implements
     private final int numTerms;
     private final BigdataValue[] terms;
     private final WriteTaskStats stats;
+    private final FrontCodedDictionary dictionary;
     
     public Term2IdWriteTask(final IIndex termIdIndex, final boolean readOnly,
             final boolean storeBlankNodes, final int termIdBitsToReverse,
             final int numTerms, final BigdataValue[] terms,
             final WriteTaskStats stats) {
 
+        this(termIdIndex, readOnly, storeBlankNodes, termIdBitsToReverse,
+                numTerms, terms, stats, null/* dictionary */);
+
+    }
+
+    /**
+     * @param dictionary
+     *            The compiled dictionary for the TERM2ID index (optional).
+     *            Terms found in the dictionary have their {@link IV}s set
+     *            directly and are not submitted to the index.
+     */
+    public Term2IdWriteTask(final IIndex termIdIndex, final boolean readOnly,
+            final boolean storeBlankNodes, final int termIdBitsToReverse,
+            final int numTerms, final BigdataValue[] terms,
+            final WriteTaskStats stats, final FrontCodedDictionary dictionary) {
+
         if (termIdIndex == null)
             throw new IllegalArgumentException();
 
@@ -92,6 +111,8 @@ public class Term2IdWriteTask implements
         this.terms = terms;
         
         this.stats = stats;
+
+        this.dictionary = dictionary;
         
     }
     
@@ -209,6 +230,23 @@ public class Term2IdWriteTask implements
                             
                         }
 
+                        if (dictionary != null
+                                && (storeBlankNodes || !(b[i].obj instanceof BNode))) {
+
+                            final byte[] val = dictionary.get(b[i].key);
+
+                            if (val != null) {
+
+                                // term identifier found in the dictionary.
+                                b[i].obj.setIV(IVUtility.decodeFromOffset(
+                                        val, 0));
+
+                                continue;
+
+                            }
+
+                        }
+
                         // assign to a[] (dense variant of b[]).
                         a[ndistinct] = b[i];
                         
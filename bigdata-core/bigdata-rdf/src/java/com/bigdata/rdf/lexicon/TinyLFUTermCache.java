@@ -0,0 +1,800 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openrdf.model.Literal;
+
+import com.bigdata.counters.CAT;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.model.BigdataValue;
+
+/**
+ * A term cache bounded by the estimated #of bytes of its entries. Unlike
+ * {@link TermCache}, this cache does not use weak references and does not
+ * batch updates in thread-local buffers. The entries are hard references
+ * which are dropped by the eviction policy, so there is no
+ * {@link java.lang.ref.WeakReference} churn for the garbage collector.
+ * <p>
+ * The cache is divided into segments. Each segment is guarded by its own lock
+ * and has its own share of the size bound. Within a segment, the W-TinyLFU
+ * policy is used:
+ * <ul>
+ * <li>New entries enter an LRU admission window (1% of the segment).</li>
+ * <li>Entries evicted from the window become candidates for the main region,
+ * which is a segmented LRU having a probation and a protected (80%) part. An
+ * entry which is hit while on probation is promoted to the protected part.</li>
+ * <li>When the segment is over its bound, the candidate and the LRU victim of
+ * the probation part are compared using an approximate access frequency
+ * (a 4-bit count-min sketch which is periodically aged). The entry with the
+ * lower frequency is evicted.</li>
+ * </ul>
+ * This keeps a burst of low frequency terms (e.g., materializing a large
+ * result set once) from flushing the frequently used terms out of the cache.
+ *
+ * @see AbstractTripleStore.Options#TERM_CACHE_TYPE
+ */
+public class TinyLFUTermCache<K extends IV<?, ?>, V extends BigdataValue>
+        implements ITermCache<K, V>, ICounterSetAccess {
+
+    /**
+     * The fixed overhead in bytes charged for each cache entry (the map
+     * entry, the list node and the value object headers).
+     */
+    static final int ENTRY_OVERHEAD = 96;
+
+    private final long maximumBytes;
+
+    private final Segment<V>[] segments;
+
+    private final int segmentShift;
+
+    private final CAT hitCount = new CAT();
+
+    private final CAT missCount = new CAT();
+
+    private final CAT evictionCount = new CAT();
+
+    /**
+     * @param maximumBytes
+     *            The maximum estimated #of bytes for the entries in the cache.
+     * @param concurrencyLevel
+     *            The #of segments (rounded up to a power of two).
+     */
+    @SuppressWarnings("unchecked")
+    public TinyLFUTermCache(final long maximumBytes, final int concurrencyLevel) {
+
+        if (maximumBytes <= 0)
+            throw new IllegalArgumentException();
+
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+
+        int nsegments = 1;
+        int shift = 0;
+        while (nsegments < concurrencyLevel) {
+            nsegments <<= 1;
+            shift++;
+        }
+
+        this.maximumBytes = maximumBytes;
+
+        this.segmentShift = 32 - shift;
+
+        this.segments = new Segment[nsegments];
+
+        final long segmentBytes = Math.max(1L, maximumBytes / nsegments);
+
+        for (int i = 0; i < nsegments; i++) {
+
+            segments[i] = new Segment<V>(segmentBytes);
+
+        }
+
+    }
+
+    /**
+     * Spread the hash code so the high bits select the segment and the low
+     * bits index the frequency sketch.
+     */
+    private static int hash(final Object k) {
+
+        int h = k.hashCode() * 0x9E3779B9;
+
+        h ^= (h >>> 16);
+
+        return h;
+
+    }
+
+    private Segment<V> segmentFor(final int h) {
+
+        return segmentShift == 32 ? segments[0] : segments[h >>> segmentShift];
+
+    }
+
+    @Override
+    public int size() {
+
+        int n = 0;
+
+        for (Segment<V> s : segments) {
+
+            n += s.size();
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The estimated #of bytes of the entries in the cache.
+     */
+    public long bytes() {
+
+        long n = 0;
+
+        for (Segment<V> s : segments) {
+
+            n += s.bytes();
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * The maximum estimated #of bytes for the entries in the cache.
+     */
+    public long getMaximumBytes() {
+
+        return maximumBytes;
+
+    }
+
+    @Override
+    public V get(final K k) {
+
+        final int h = hash(k);
+
+        final V v = segmentFor(h).get(k, h);
+
+        if (v != null) {
+
+            hitCount.increment();
+
+        } else {
+
+            missCount.increment();
+
+        }
+
+        return v;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note: The key is cloned in order to break the reference from the
+     * {@link IV} to its cached {@link BigdataValue} before the key is entered
+     * into the cache.
+     */
+    @Override
+    public V putIfAbsent(final K k, final V v) {
+
+        if (v == null)
+            throw new IllegalArgumentException();
+
+        final int h = hash(k);
+
+        return segmentFor(h).putIfAbsent(k, v, h, evictionCount);
+
+    }
+
+    @Override
+    public void clear() {
+
+        for (Segment<V> s : segments) {
+
+            s.clear();
+
+        }
+
+    }
+
+    /**
+     * Estimate the #of bytes retained by a cache entry.
+     */
+    static int weigh(final IV<?, ?> k, final BigdataValue v) {
+
+        long n = ENTRY_OVERHEAD + k.byteLength();
+
+        // chars are two bytes each.
+        n += 2L * v.stringValue().length();
+
+        if (v instanceof Literal) {
+
+            final String lang = ((Literal) v).getLanguage();
+
+            if (lang != null)
+                n += 2L * lang.length();
+
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, n);
+
+    }
+
+    @Override
+    public CounterSet getCounters() {
+
+        final CounterSet root = new CounterSet();
+
+        // #of cache hits.
+        root.addCounter("hitCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(hitCount.get());
+            }
+        });
+
+        // #of cache misses.
+        root.addCounter("missCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(missCount.get());
+            }
+        });
+
+        // hits / (hits + misses).
+        root.addCounter("hitRate", new Instrument<Double>() {
+            @Override
+            public void sample() {
+                setValue(getHitRate());
+            }
+        });
+
+        // #of entries evicted.
+        root.addCounter("evictionCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(evictionCount.get());
+            }
+        });
+
+        // #of entries in the cache.
+        root.addCounter("size", new Instrument<Integer>() {
+            @Override
+            public void sample() {
+                setValue(size());
+            }
+        });
+
+        // estimated #of bytes of the entries in the cache.
+        root.addCounter("bytes", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(bytes());
+            }
+        });
+
+        // maximum estimated #of bytes of the entries in the cache.
+        root.addCounter("maximumBytes", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(maximumBytes);
+            }
+        });
+
+        return root;
+
+    }
+
+    /**
+     * The ratio of the cache hits to the cache requests.
+     */
+    public double getHitRate() {
+
+        final long hits = hitCount.get();
+
+        final long n = hits + missCount.get();
+
+        return n == 0 ? 0d : hits / (double) n;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return super.toString() + "{size=" + size() + ",bytes=" + bytes()
+                + ",maximumBytes=" + maximumBytes + ",hitRate=" + getHitRate()
+                + ",evictionCount=" + evictionCount.get() + "}";
+
+    }
+
+    /*
+     * Segments.
+     */
+
+    /** The queue of a cache entry. */
+    private static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    /**
+     * A cache entry. The entry is a node in the doubly linked list of the
+     * queue to which it belongs.
+     */
+    private static final class Node<V> {
+
+        final IV<?, ?> key;
+
+        final V value;
+
+        final int hash;
+
+        final int weight;
+
+        int queue;
+
+        Node<V> prev, next;
+
+        Node(final IV<?, ?> key, final V value, final int hash, final int weight) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+            this.weight = weight;
+        }
+
+    }
+
+    /**
+     * A doubly linked LRU list. The head is the least recently used entry.
+     */
+    private static final class Queue<V> {
+
+        private final Node<V> sentinel = new Node<V>(null, null, 0, 0);
+
+        long bytes;
+
+        Queue() {
+            sentinel.prev = sentinel.next = sentinel;
+        }
+
+        Node<V> head() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        Node<V> tail() {
+            return sentinel.prev == sentinel ? null : sentinel.prev;
+        }
+
+        void addLast(final Node<V> n) {
+            n.prev = sentinel.prev;
+            n.next = sentinel;
+            sentinel.prev.next = n;
+            sentinel.prev = n;
+            bytes += n.weight;
+        }
+
+        void remove(final Node<V> n) {
+            n.prev.next = n.next;
+            n.next.prev = n.prev;
+            n.prev = n.next = null;
+            bytes -= n.weight;
+        }
+
+        void moveToLast(final Node<V> n) {
+            remove(n);
+            addLast(n);
+        }
+
+        void clear() {
+            sentinel.prev = sentinel.next = sentinel;
+            bytes = 0;
+        }
+
+    }
+
+    /**
+     * A segment of the cache. All state is guarded by the segment lock.
+     */
+    private static final class Segment<V extends BigdataValue> extends
+            ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long maximumBytes;
+
+        private final long maximumWindowBytes;
+
+        private final long maximumProtectedBytes;
+
+        private final HashMap<IV<?, ?>, Node<V>> map = new HashMap<IV<?, ?>, Node<V>>();
+
+        private final Queue<V> window = new Queue<V>();
+
+        private final Queue<V> probation = new Queue<V>();
+
+        private final Queue<V> protect = new Queue<V>();
+
+        private final FrequencySketch sketch;
+
+        Segment(final long maximumBytes) {
+
+            this.maximumBytes = maximumBytes;
+
+            this.maximumWindowBytes = Math.max(1L, maximumBytes / 100);
+
+            this.maximumProtectedBytes = (long) ((maximumBytes - maximumWindowBytes) * .8);
+
+            // assume ~128 bytes per entry when sizing the sketch.
+            this.sketch = new FrequencySketch((int) Math.min(1 << 20,
+                    Math.max(16L, maximumBytes / 128)));
+
+        }
+
+        int size() {
+            lock();
+            try {
+                return map.size();
+            } finally {
+                unlock();
+            }
+        }
+
+        long bytes() {
+            lock();
+            try {
+                return window.bytes + probation.bytes + protect.bytes;
+            } finally {
+                unlock();
+            }
+        }
+
+        V get(final Object k, final int h) {
+
+            lock();
+            try {
+
+                sketch.increment(h);
+
+                final Node<V> n = map.get(k);
+
+                if (n == null)
+                    return null;
+
+                switch (n.queue) {
+                case WINDOW:
+                    window.moveToLast(n);
+                    break;
+                case PROBATION:
+                    // promote to the protected queue.
+                    probation.remove(n);
+                    n.queue = PROTECTED;
+                    protect.addLast(n);
+                    demoteProtected();
+                    break;
+                case PROTECTED:
+                    protect.moveToLast(n);
+                    break;
+                default:
+                    throw new AssertionError();
+                }
+
+                return n.value;
+
+            } finally {
+                unlock();
+            }
+
+        }
+
+        V putIfAbsent(final IV<?, ?> k, final V v, final int h,
+                final CAT evictionCount) {
+
+            lock();
+            try {
+
+                final Node<V> old = map.get(k);
+
+                if (old != null) {
+
+                    // No need to write on the map.
+                    return old.value;
+
+                }
+
+                final IV<?, ?> key = k.clone(true/* clearCache */);
+
+                final Node<V> n = new Node<V>(key, v, h, weigh(key, v));
+
+                n.queue = WINDOW;
+
+                map.put(key, n);
+
+                window.addLast(n);
+
+                evict(evictionCount);
+
+                return null;
+
+            } finally {
+                unlock();
+            }
+
+        }
+
+        void clear() {
+            lock();
+            try {
+                map.clear();
+                window.clear();
+                probation.clear();
+                protect.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Move entries from the protected queue to the probation queue while
+         * the protected queue is over its bound.
+         */
+        private void demoteProtected() {
+
+            while (protect.bytes > maximumProtectedBytes) {
+
+                final Node<V> n = protect.head();
+
+                protect.remove(n);
+
+                n.queue = PROBATION;
+
+                probation.addLast(n);
+
+            }
+
+        }
+
+        /**
+         * Move the entries which overflow the admission window onto the
+         * probation queue as candidates and then evict entries until the
+         * segment is within its bound.
+         */
+        private void evict(final CAT evictionCount) {
+
+            while (window.bytes > maximumWindowBytes) {
+
+                final Node<V> n = window.head();
+
+                window.remove(n);
+
+                n.queue = PROBATION;
+
+                probation.addLast(n);
+
+            }
+
+            while (window.bytes + probation.bytes + protect.bytes > maximumBytes) {
+
+                final Node<V> victim;
+
+                final Node<V> head = probation.head();
+
+                if (head == null) {
+
+                    // Nothing on probation.
+                    final Node<V> p = protect.head();
+
+                    victim = p != null ? p : window.head();
+
+                } else {
+
+                    /*
+                     * The most recent candidate admitted from the window
+                     * competes with the LRU entry on probation.
+                     */
+                    final Node<V> candidate = probation.tail();
+
+                    if (candidate != head
+                            && sketch.frequency(candidate.hash) > sketch
+                                    .frequency(head.hash)) {
+
+                        victim = head;
+
+                    } else {
+
+                        victim = candidate;
+
+                    }
+
+                }
+
+                remove(victim);
+
+                evictionCount.increment();
+
+            }
+
+        }
+
+        private void remove(final Node<V> n) {
+
+            switch (n.queue) {
+            case WINDOW:
+                window.remove(n);
+                break;
+            case PROBATION:
+                probation.remove(n);
+                break;
+            case PROTECTED:
+                protect.remove(n);
+                break;
+            default:
+                throw new AssertionError();
+            }
+
+            map.remove(n.key);
+
+        }
+
+    }
+
+    /**
+     * A count-min sketch of the access frequency of the keys using 4-bit
+     * counters. The counters are halved once the #of increments reaches the
+     * sample size so that the frequencies reflect recent history. This class
+     * is not thread-safe.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = new long[] { 0xc3a5c85c97cb3127L,
+                0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+
+        private final int mask;
+
+        private final int sampleSize;
+
+        private int size;
+
+        /**
+         * @param maximumEntries
+         *            The expected maximum #of entries.
+         */
+        FrequencySketch(final int maximumEntries) {
+
+            int n = 1;
+            while (n < maximumEntries)
+                n <<= 1;
+
+            table = new long[n];
+
+            mask = n - 1;
+
+            sampleSize = 10 * n;
+
+        }
+
+        /**
+         * Return the estimated frequency of the hash code (0 to 15).
+         */
+        int frequency(final int h) {
+
+            int freq = 15;
+
+            for (int i = 0; i < 4; i++) {
+
+                final int count = (int) ((table[index(h, i)] >>> offset(h, i)) & 0xfL);
+
+                freq = Math.min(freq, count);
+
+            }
+
+            return freq;
+
+        }
+
+        /**
+         * Increment the frequency of the hash code.
+         */
+        void increment(final int h) {
+
+            boolean added = false;
+
+            for (int i = 0; i < 4; i++) {
+
+                final int index = index(h, i);
+
+                final int offset = offset(h, i);
+
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+
+                    table[index] += 1L << offset;
+
+                    added = true;
+
+                }
+
+            }
+
+            if (added && ++size >= sampleSize) {
+
+                reset();
+
+            }
+
+        }
+
+        /**
+         * Halve all counters.
+         */
+        private void reset() {
+
+            for (int i = 0; i < table.length; i++) {
+
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+
+            }
+
+            size >>>= 1;
+
+        }
+
+        private int index(final int h, final int i) {
+
+            long hash = (h + SEEDS[i]) * SEEDS[i];
+
+            hash += hash >>> 32;
+
+            return ((int) hash) & mask;
+
+        }
+
+        /**
+         * The bit offset of the 4-bit counter within the long word.
+         */
+        private static int offset(final int h, final int i) {
+
+            return ((h >>> (i << 3)) & 0xf) << 2;
+
+        }
+
+    }
+
+}
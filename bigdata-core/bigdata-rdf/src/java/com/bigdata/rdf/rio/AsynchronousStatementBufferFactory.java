@@ -77,7 +77,9 @@ import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFParser;
 
 import com.bigdata.btree.AsynchronousIndexWriteConfiguration;
+import com.bigdata.btree.IIndex;
 import com.bigdata.btree.IndexMetadata;
+import com.bigdata.btree.UnisolatedReadWriteIndex;
 import com.bigdata.btree.keys.IKeyBuilder;
 import com.bigdata.btree.keys.KVO;
 import com.bigdata.btree.keys.KeyBuilder;
@@ -89,6 +91,7 @@ import com.bigdata.counters.OneShotInstrument;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataOutputBuffer;
 import com.bigdata.journal.AbstractTask;
+import com.bigdata.journal.Journal;
 import com.bigdata.rdf.internal.IV;
 import com.bigdata.rdf.internal.VTE;
 import com.bigdata.rdf.internal.impl.BlobIV;
@@ -122,6 +125,7 @@ import com.bigdata.rdf.spo.SPOKeyOrder;
 import com.bigdata.rdf.spo.SPORelation;
 import com.bigdata.rdf.spo.SPOTupleSerializer;
 import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.store.LocalTripleStore;
 import com.bigdata.rdf.store.ScaleOutTripleStore;
 import com.bigdata.relation.accesspath.BlockingBuffer;
 import com.bigdata.relation.accesspath.IBuffer;
@@ -129,8 +133,9 @@ import com.bigdata.relation.accesspath.IRunnableBuffer;
 import com.bigdata.relation.accesspath.UnsynchronizedUnboundedChunkBuffer;
 import com.bigdata.search.TextIndexWriteProc;
 import com.bigdata.service.AbstractFederation;
+import com.bigdata.service.IBigdataFederation;
 import com.bigdata.service.Split;
-import com.bigdata.service.ndx.IScaleOutClientIndex;
+import com.bigdata.service.ndx.IAsynchronousWriteBufferFactory;
 import com.bigdata.service.ndx.pipeline.DefaultDuplicateRemover;
 import com.bigdata.service.ndx.pipeline.KVOC;
 import com.bigdata.service.ndx.pipeline.KVOLatch;
@@ -314,9 +319,15 @@ import cutthecrap.utils.striterators.Striterator;
  * }
  * </pre>
  *
- * @todo evaluate this approach for writing on a local triple store. if there is
- *       a performance benefit then refactor accordingly (requires asynchronous
- *       write API for BTree and friends).
+ * <p>
+ * Note: This may be used with a {@link ScaleOutTripleStore} or with the
+ * unisolated view of a local triple store (e.g., a {@link LocalTripleStore} on
+ * a {@link Journal}). In the latter case the asynchronous index writes are
+ * applied by the {@link UnisolatedReadWriteIndex} view of each index, whose
+ * write lock serializes the concurrent writers on the same index, and the
+ * caller is responsible for the commit. Since the statements are not restart
+ * safe until that commit, <i>deleteAfter</i> is not supported for a local
+ * triple store.
  */
 public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
         implements IAsynchronousWriteStatementBufferFactory<S> {
@@ -327,7 +338,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
     /**
      * The database into which the statements will be written.
      */
-    private final ScaleOutTripleStore tripleStore;
+    private final AbstractTripleStore tripleStore;
     
     /**
      * The lexicon.
@@ -1370,7 +1381,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
      *            queue capacity and chunk size.
      */
     public AsynchronousStatementBufferFactory(//
-            final ScaleOutTripleStore tripleStore,//
+            final AbstractTripleStore tripleStore,//
             final int producerChunkSize, //
             final int valuesInitialCapacity,//
             final int bnodesInitialCapacity, //
@@ -1427,6 +1438,18 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
             
         }
 
+        if (deleteAfter
+                && !(tripleStore.getIndexManager() instanceof IBigdataFederation)) {
+
+            /*
+             * The writes on a local triple store are not restart safe until the
+             * caller commits.
+             */
+            throw new UnsupportedOperationException(
+                    "deleteAfter requires a federation");
+
+        }
+
         /*
          * Open the necessary buffers.
          * 
@@ -1446,7 +1469,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
                 assertLiveness(lexiconRelation.getTerm2IdIndex()
                         .getIndexMetadata().getName(), config);
 
-                buffer_t2id = ((IScaleOutClientIndex) lexiconRelation
+                buffer_t2id = asyncWriter(lexiconRelation
                         .getTerm2IdIndex())
                         .newWriteBuffer(
                                 new Term2IdWriteProcAsyncResultHandler(false/* readOnly */),
@@ -1457,7 +1480,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
                                         lexiconRelation
                                                 .getTermIdBitsToReverse()));
 
-                buffer_id2t = ((IScaleOutClientIndex) lexiconRelation
+                buffer_id2t = asyncWriter(lexiconRelation
                         .getId2TermIndex())
                         .newWriteBuffer(
                                 null/* resultHandler */,
@@ -1477,7 +1500,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
                 assertLiveness(lexiconRelation.getBlobsIndex()
                         .getIndexMetadata().getName(), config);
 
-                buffer_blobs = ((IScaleOutClientIndex) lexiconRelation
+                buffer_blobs = asyncWriter(lexiconRelation
                         .getBlobsIndex())
                         .newWriteBuffer(
                                 new BlobsWriteProcAsyncResultHandler(false/* readOnly */),
@@ -1507,7 +1530,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
                     final BigdataValueCentricFullTextIndex tmp = (BigdataValueCentricFullTextIndex) lexiconRelation
                             .getSearchEngine();
 
-                    buffer_text = ((IScaleOutClientIndex) tmp.getIndex()).newWriteBuffer(
+                    buffer_text = asyncWriter(tmp.getIndex()).newWriteBuffer(
                                     textResultHandler,// counts tuples written on index
                                     new DefaultDuplicateRemover<BigdataValue>(true/* testRefs */),
                                     TextIndexWriteProc.IndexWriteProcConstructor.NO_OVERWRITE);
@@ -1544,7 +1567,7 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
 
                     final SPOKeyOrder keyOrder = itr.next();
 
-                    final IRunnableBuffer<KVO<ISPO>[]> buffer = ((IScaleOutClientIndex) spoRelation
+                    final IRunnableBuffer<KVO<ISPO>[]> buffer = asyncWriter(spoRelation
                             .getIndex(keyOrder))
                             .newWriteBuffer(
                                     keyOrder.isPrimaryIndex() ? statementResultHandler
@@ -1665,6 +1688,30 @@ public class AsynchronousStatementBufferFactory<S extends BigdataStatement, R>
 
     } // ctor
 
+    /**
+     * Return the asynchronous write API for an index. This is supported by the
+     * scale-out index views and by the {@link UnisolatedReadWriteIndex} view of
+     * a local index.
+     * 
+     * @throws UnsupportedOperationException
+     *             if the index does not support asynchronous writes (e.g., a
+     *             read-only view).
+     */
+    private static IAsynchronousWriteBufferFactory asyncWriter(final IIndex ndx) {
+
+        if (!(ndx instanceof IAsynchronousWriteBufferFactory)) {
+
+            throw new UnsupportedOperationException(
+                    "Asynchronous writes not supported: index="
+                            + ndx.getIndexMetadata().getName() + ", class="
+                            + ndx.getClass().getName());
+
+        }
+
+        return (IAsynchronousWriteBufferFactory) ndx;
+
+    }
+
     /**
      * Note: If there is a large sink idle timeout on the TERM2ID index then the
      * sink will not flush itself automatically once its master is no longer
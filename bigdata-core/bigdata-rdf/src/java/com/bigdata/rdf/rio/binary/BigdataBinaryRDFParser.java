@@ -0,0 +1,314 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.rio.binary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.helpers.BasicParserSettings;
+import org.openrdf.rio.helpers.RDFParserBase;
+
+import com.bigdata.io.DataInputBuffer;
+import com.bigdata.io.LongPacker;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.model.BigdataValueSerializer;
+
+/**
+ * Parser for {@link ServiceProviderHook#BLAZEGRAPH_BINARY}. The values in the
+ * dictionary of each block are decoded directly into the configured
+ * {@link ValueFactory} (which is normally the value factory of the target KB)
+ * so no RDF syntax is parsed during the load.
+ * <p>
+ * Unless {@link BasicParserSettings#PRESERVE_BNODE_IDS} is specified, the blank
+ * node IDs of a stream whose header carries a scope are prefixed by an ID
+ * derived from that scope, so the same blank node in two streams having the
+ * same scope (for example, two files written by the same parallel export) is
+ * the same blank node. The blank node IDs of a stream without a scope are
+ * mapped through the blank node IDs of the parser, as usual.
+ * 
+ * @see BigdataBinaryRDFWriter
+ */
+public class BigdataBinaryRDFParser extends RDFParserBase {
+
+    /**
+     * The prefix for the blank node IDs of the stream being parsed and
+     * <code>null</code> if they are scoped by the parser.
+     */
+    private String scope = null;
+
+    public BigdataBinaryRDFParser() {
+        super();
+    }
+
+    public BigdataBinaryRDFParser(final ValueFactory valueFactory) {
+        super(valueFactory);
+    }
+
+    @Override
+    public RDFFormat getRDFFormat() {
+
+        return ServiceProviderHook.BLAZEGRAPH_BINARY;
+
+    }
+
+    /**
+     * Not supported. This is a binary format.
+     */
+    @Override
+    public void parse(final Reader reader, final String baseURI) {
+
+        throw new UnsupportedOperationException();
+
+    }
+
+    @Override
+    public void parse(final InputStream is, final String baseURI)
+            throws IOException, RDFParseException, RDFHandlerException {
+
+        if (is == null)
+            throw new IllegalArgumentException();
+
+        final DataInput in = new DataInputStream(
+                is instanceof BufferedInputStream ? is
+                        : new BufferedInputStream(is));
+
+        if (rdfHandler != null)
+            rdfHandler.startRDF();
+
+        final int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException ex) {
+            reportFatalError("Empty stream");
+            return;
+        }
+
+        if (magic != BigdataBinaryRDFWriter.MAGIC)
+            reportFatalError("Bad magic: " + Integer.toHexString(magic));
+
+        try {
+
+            final int version = in.readInt();
+
+            if (version < 0 || version > BigdataBinaryRDFWriter.VERSION)
+                reportFatalError("Unknown version: " + version);
+
+            scope = null;
+
+            if (version >= 1 && in.readByte() != 0) {
+
+                final UUID uuid = new UUID(in.readLong(), in.readLong());
+
+                if (!getParserConfig().get(
+                        BasicParserSettings.PRESERVE_BNODE_IDS)) {
+
+                    scope = "b" + uuid.toString().replace("-", "") + "_";
+
+                }
+
+            }
+
+            final BigdataValueSerializer<Value> valueSer =
+                    new BigdataValueSerializer<Value>(valueFactory);
+
+            final DataInputBuffer dib = new DataInputBuffer(new byte[0]);
+
+            final StringBuilder tmp = new StringBuilder();
+
+            Value[] values = new Value[0];
+
+            byte[] buf = new byte[256];
+
+            int nvalues;
+
+            while ((nvalues = in.readInt()) != -1) {
+
+                final int nstmts = in.readInt();
+
+                // Each statement refers to at most four values.
+                if (nvalues < 0 || nstmts < 0 || nvalues > 4L * nstmts)
+                    reportFatalError("Bad block: nvalues=" + nvalues
+                            + ", nstmts=" + nstmts);
+
+                for (int i = 0; i < nvalues; i++) {
+
+                    if (i == values.length) {
+
+                        /*
+                         * Grow the dictionary as the values are read rather
+                         * than allocating it for nvalues, which is not
+                         * trusted.
+                         */
+                        values = Arrays.copyOf(values, (int) Math.min(nvalues,
+                                Math.max(256L, 2L * values.length)));
+
+                    }
+
+                    final int len = unpackInt(in, "value length");
+
+                    buf = readFully(in, buf, len);
+
+                    dib.setBuffer(buf, 0, len);
+
+                    values[i] = resolve(valueSer.deserialize(dib, tmp));
+
+                }
+
+                for (int i = 0; i < nstmts; i++) {
+
+                    final Value s = getValue(values, nvalues,
+                            unpackInt(in, "value reference"));
+
+                    final Value p = getValue(values, nvalues,
+                            unpackInt(in, "value reference"));
+
+                    final Value o = getValue(values, nvalues,
+                            unpackInt(in, "value reference"));
+
+                    final int c = unpackInt(in, "value reference");
+
+                    final Value g = c == 0 ? null : getValue(values, nvalues,
+                            c - 1);
+
+                    if (!(s instanceof Resource) || !(p instanceof URI)
+                            || (g != null && !(g instanceof Resource)))
+                        reportFatalError("Bad statement: s=" + s + ", p=" + p
+                                + ", o=" + o + ", c=" + g);
+
+                    final Statement stmt = createStatement((Resource) s,
+                            (URI) p, o, (Resource) g);
+
+                    if (rdfHandler != null)
+                        rdfHandler.handleStatement(stmt);
+
+                }
+
+            }
+
+        } catch (EOFException ex) {
+
+            reportFatalError("Unexpected end of stream");
+
+        }
+
+        clear();
+
+        if (rdfHandler != null)
+            rdfHandler.endRDF();
+
+    }
+
+    /**
+     * Blank nodes are prefixed by the scope from the header of the stream.
+     * Otherwise they are mapped through the blank node identifiers of the
+     * parser so they are scoped by the stream (and so the configured blank
+     * node handling is respected).
+     */
+    private Value resolve(final Value v) throws RDFParseException {
+
+        if (!(v instanceof BNode))
+            return v;
+
+        if (scope != null)
+            return valueFactory.createBNode(scope + ((BNode) v).getID());
+
+        return createBNode(((BNode) v).getID());
+
+    }
+
+    /**
+     * Read a packed non-negative int.
+     */
+    private int unpackInt(final DataInput in, final String what)
+            throws IOException, RDFParseException {
+
+        final long v = LongPacker.unpackLong(in);
+
+        if (v < 0 || v > Integer.MAX_VALUE)
+            reportFatalError("Bad " + what + ": " + v);
+
+        return (int) v;
+
+    }
+
+    /**
+     * Read <i>len</i> bytes into the buffer. The buffer is grown as the bytes
+     * are read, so a bad length does not allocate more than the stream holds.
+     * 
+     * @return The buffer.
+     */
+    private static byte[] readFully(final DataInput in, byte[] buf,
+            final int len) throws IOException {
+
+        int off = 0;
+
+        while (off < len) {
+
+            if (off == buf.length)
+                buf = Arrays.copyOf(buf, (int) Math.min(len, 2L * buf.length));
+
+            final int n = Math.min(len, buf.length) - off;
+
+            in.readFully(buf, off, n);
+
+            off += n;
+
+        }
+
+        return buf;
+
+    }
+
+    private Value getValue(final Value[] values, final int nvalues,
+            final int index) throws RDFParseException {
+
+        if (index < 0 || index >= nvalues)
+            reportFatalError("Bad value reference: " + index + ", nvalues="
+                    + nvalues);
+
+        return values[index];
+
+    }
+
+}
@@ -0,0 +1,413 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.rio.binary;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFWriterBase;
+
+import com.bigdata.io.ByteArrayBuffer;
+import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.io.LongPacker;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.model.BigdataValueSerializer;
+
+/**
+ * Writer for {@link ServiceProviderHook#BLAZEGRAPH_BINARY}, a binary
+ * interchange format which can be loaded without parsing any RDF syntax. The
+ * stream is a header followed by a sequence of blocks and an end marker:
+ * 
+ * <pre>
+ * stream := MAGIC:int VERSION:int scope block* -1:int
+ * scope  := 0:byte | 1:byte msb:long lsb:long
+ * block  := nvalues:int nstmts:int value{nvalues} stmt{nstmts}
+ * value  := length:packed byte{length}
+ * stmt   := s:packed p:packed o:packed c:packed
+ * </pre>
+ * 
+ * Each block carries its own dictionary. The values are coded using the
+ * {@link BigdataValueSerializer}, which is the same coding that is used for
+ * the <code>ID2TERM</code> index, and the statements refer to the values by
+ * their index in the dictionary of the block. The context is coded as
+ * <code>1+index</code> and <code>0</code> means that there is no context.
+ * <p>
+ * Blank node identifiers are scoped by the stream, not by the block, so the
+ * same blank node may be used in any block. When the header carries a scope
+ * (a {@link UUID}), the blank node identifiers are instead scoped by that
+ * {@link UUID} and the same blank node may be used in any stream having the
+ * same scope. This is used by the parallel export of a KB, where the
+ * statements using a blank node may be written onto different files.
+ * 
+ * @see BigdataBinaryRDFParser
+ */
+public class BigdataBinaryRDFWriter extends RDFWriterBase {
+
+    /**
+     * The magic value at the start of the stream.
+     */
+    public static final int MAGIC = 0x42474252;
+
+    /**
+     * The current version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The default #of statements in a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 10000;
+
+    private final DataOutputStream out;
+
+    private final int blockSize;
+
+    private final UUID scope;
+
+    private final BigdataValueSerializer<Value> valueSer = new BigdataValueSerializer<Value>(
+            ValueFactoryImpl.getInstance());
+
+    private final DataOutputBuffer buf = new DataOutputBuffer(256);
+
+    private final ByteArrayBuffer tmp = new ByteArrayBuffer(256);
+
+    /**
+     * The dictionary for the current block.
+     */
+    private final Map<Value, Integer> dict = new HashMap<Value, Integer>();
+
+    private byte[][] values;
+
+    private final int[] refs;
+
+    private int nstmts = 0;
+
+    private boolean writingStarted = false;
+
+    public BigdataBinaryRDFWriter(final OutputStream out) {
+
+        this(out, DEFAULT_BLOCK_SIZE);
+
+    }
+
+    /**
+     * @param out
+     *            The output stream.
+     * @param blockSize
+     *            The maximum #of statements in a block.
+     */
+    public BigdataBinaryRDFWriter(final OutputStream out, final int blockSize) {
+
+        this(out, blockSize, null/* scope */);
+
+    }
+
+    /**
+     * @param out
+     *            The output stream.
+     * @param blockSize
+     *            The maximum #of statements in a block.
+     * @param scope
+     *            The scope of the blank node identifiers (optional). When
+     *            <code>null</code> the blank node identifiers are scoped by
+     *            the stream.
+     */
+    public BigdataBinaryRDFWriter(final OutputStream out, final int blockSize,
+            final UUID scope) {
+
+        if (out == null)
+            throw new IllegalArgumentException();
+
+        if (blockSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.out = new DataOutputStream(out);
+
+        this.blockSize = blockSize;
+
+        this.scope = scope;
+
+        this.values = new byte[Math.min(blockSize * 4, 1024)][];
+
+        this.refs = new int[blockSize * 4];
+
+    }
+
+    @Override
+    public RDFFormat getRDFFormat() {
+
+        return ServiceProviderHook.BLAZEGRAPH_BINARY;
+
+    }
+
+    @Override
+    public void startRDF() throws RDFHandlerException {
+
+        if (writingStarted)
+            throw new IllegalStateException();
+
+        writingStarted = true;
+
+        try {
+
+            writeHeader(out, scope);
+
+        } catch (IOException e) {
+
+            throw new RDFHandlerException(e);
+
+        }
+
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException {
+
+        if (!writingStarted)
+            throw new IllegalStateException();
+
+        try {
+
+            flushBlock();
+
+            writeEnd(out);
+
+            out.flush();
+
+        } catch (IOException e) {
+
+            throw new RDFHandlerException(e);
+
+        }
+
+    }
+
+    @Override
+    public void handleNamespace(final String prefix, final String uri)
+            throws RDFHandlerException {
+
+        // Namespaces are not part of the format.
+
+    }
+
+    @Override
+    public void handleComment(final String comment)
+            throws RDFHandlerException {
+
+        // Comments are not part of the format.
+
+    }
+
+    @Override
+    public void handleStatement(final Statement st) throws RDFHandlerException {
+
+        if (!writingStarted)
+            throw new IllegalStateException();
+
+        final int off = nstmts * 4;
+
+        refs[off + 0] = addValue(st.getSubject());
+        refs[off + 1] = addValue(st.getPredicate());
+        refs[off + 2] = addValue(st.getObject());
+
+        final Resource c = st.getContext();
+
+        refs[off + 3] = c == null ? 0 : addValue(c) + 1;
+
+        if (++nstmts == blockSize) {
+
+            try {
+
+                flushBlock();
+
+            } catch (IOException e) {
+
+                throw new RDFHandlerException(e);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Return the index of the value in the dictionary for the current block,
+     * adding it to the dictionary if necessary.
+     */
+    private int addValue(final Value v) {
+
+        final Integer idx = dict.get(v);
+
+        if (idx != null)
+            return idx.intValue();
+
+        final int n = dict.size();
+
+        if (n == values.length) {
+
+            final byte[][] t = new byte[n * 2][];
+
+            System.arraycopy(values, 0, t, 0, n);
+
+            values = t;
+
+        }
+
+        buf.reset();
+
+        values[n] = valueSer.serialize(v, buf, tmp);
+
+        dict.put(v, n);
+
+        return n;
+
+    }
+
+    private void flushBlock() throws IOException {
+
+        if (nstmts == 0)
+            return;
+
+        writeBlock(out, values, dict.size(), refs, nstmts);
+
+        dict.clear();
+
+        nstmts = 0;
+
+    }
+
+    /**
+     * Write the header of the stream. The blank node identifiers are scoped
+     * by the stream.
+     */
+    public static void writeHeader(final DataOutput out) throws IOException {
+
+        writeHeader(out, null/* scope */);
+
+    }
+
+    /**
+     * Write the header of the stream.
+     * 
+     * @param out
+     *            The output.
+     * @param scope
+     *            The scope of the blank node identifiers (optional). When
+     *            <code>null</code> the blank node identifiers are scoped by
+     *            the stream. Otherwise they are scoped by this {@link UUID}.
+     */
+    public static void writeHeader(final DataOutput out, final UUID scope)
+            throws IOException {
+
+        out.writeInt(MAGIC);
+
+        out.writeInt(VERSION);
+
+        if (scope == null) {
+
+            out.writeByte(0);
+
+        } else {
+
+            out.writeByte(1);
+
+            out.writeLong(scope.getMostSignificantBits());
+
+            out.writeLong(scope.getLeastSignificantBits());
+
+        }
+
+    }
+
+    /**
+     * Write a block.
+     * 
+     * @param out
+     *            The output.
+     * @param values
+     *            The dictionary for the block. Each entry is a value coded
+     *            by the {@link BigdataValueSerializer}.
+     * @param nvalues
+     *            The #of entries in the dictionary.
+     * @param refs
+     *            The statements. There are four entries per statement,
+     *            giving the index of the subject, predicate and object in the
+     *            dictionary followed by <code>1+index</code> of the context
+     *            (or <code>0</code> if there is no context).
+     * @param nstmts
+     *            The #of statements.
+     */
+    public static void writeBlock(final DataOutput out, final byte[][] values,
+            final int nvalues, final int[] refs, final int nstmts)
+            throws IOException {
+
+        out.writeInt(nvalues);
+
+        out.writeInt(nstmts);
+
+        for (int i = 0; i < nvalues; i++) {
+
+            final byte[] b = values[i];
+
+            LongPacker.packLong(out, b.length);
+
+            out.write(b);
+
+        }
+
+        final int n = nstmts * 4;
+
+        for (int i = 0; i < n; i++) {
+
+            LongPacker.packLong(out, refs[i]);
+
+        }
+
+    }
+
+    /**
+     * Write the end of the stream.
+     */
+    public static void writeEnd(final DataOutput out) throws IOException {
+
+        out.writeInt(-1);
+
+    }
+
+}
@@ -0,0 +1,593 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.rio.ntriples;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.rio.IRDFParserOptions;
+import com.bigdata.rdf.rio.RDFParserOptions;
+import com.bigdata.util.Bytes;
+
+/**
+ * Parses a single document in a line based format (N-Triples or N-Quads)
+ * using several parsers at once. The document is cut into blocks at line
+ * boundaries by the calling thread and each block is parsed by a new
+ * {@link RDFParser} on an {@link Executor}. Since the source is read
+ * sequentially, this works equally well for compressed sources, which can not
+ * be split into byte ranges by seeking.
+ * <p>
+ * Each block is reported to a new {@link RDFHandler} (see
+ * {@link #newRDFHandler()}), including the {@link RDFHandler#startRDF()} and
+ * {@link RDFHandler#endRDF()} events, so the statements of different blocks
+ * are reported concurrently and in no particular order.
+ * <p>
+ * Blank nodes are scoped by the document rather than by the parser. Unless
+ * {@link IRDFParserOptions#getPreserveBNodeIDs()} is specified, the blank node
+ * IDs in the document are prefixed by an ID which is unique to each
+ * {@link #parse(InputStream, String, Executor, int)} invocation, so the same
+ * label in two blocks of the same document is the same blank node while the
+ * labels of different documents remain distinct.
+ */
+public abstract class NTriplesSplitter {
+
+    /**
+     * The default size of a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * Bytes.megabyte32;
+
+    private final ValueFactory valueFactory;
+
+    private final RDFFormat format;
+
+    private final IRDFParserOptions options;
+
+    private final int blockSize;
+
+    /**
+     * @param valueFactory
+     *            The value factory used by the parsers.
+     * @param format
+     *            The format of the document (must be line based).
+     * @param options
+     *            The options which are applied to each parser.
+     * @param blockSize
+     *            The target size of a block in bytes. A block is extended if
+     *            a single line is larger than this.
+     *
+     * @see #isSplittable(RDFFormat)
+     */
+    public NTriplesSplitter(final ValueFactory valueFactory,
+            final RDFFormat format, final IRDFParserOptions options,
+            final int blockSize) {
+
+        if (valueFactory == null)
+            throw new IllegalArgumentException();
+
+        if (!isSplittable(format))
+            throw new IllegalArgumentException("format=" + format);
+
+        if (options == null)
+            throw new IllegalArgumentException();
+
+        if (blockSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.valueFactory = valueFactory;
+        this.format = format;
+        this.options = options;
+        this.blockSize = blockSize;
+
+    }
+
+    /**
+     * Return <code>true</code> iff the format may be split at line
+     * boundaries.
+     */
+    public static boolean isSplittable(final RDFFormat format) {
+
+        return RDFFormat.NTRIPLES.equals(format)
+                || RDFFormat.NQUADS.equals(format)
+                || ServiceProviderHook.NTRIPLES_RDR.equals(format);
+
+    }
+
+    /**
+     * Return a new handler for the statements parsed from a block. This is
+     * invoked concurrently.
+     */
+    protected abstract RDFHandler newRDFHandler();
+
+    /**
+     * Parse the document.
+     *
+     * @param is
+     *            The document.
+     * @param baseURI
+     *            The base URI.
+     * @param executor
+     *            Used to run the parsers.
+     * @param maxBlocks
+     *            The maximum #of blocks which are buffered or parsed at once.
+     *
+     * @return The #of statements which were parsed.
+     */
+    public long parse(final InputStream is, final String baseURI,
+            final Executor executor, final int maxBlocks) throws IOException,
+            RDFParseException, RDFHandlerException, InterruptedException {
+
+        if (is == null)
+            throw new IllegalArgumentException();
+
+        if (baseURI == null)
+            throw new IllegalArgumentException();
+
+        if (maxBlocks <= 0)
+            throw new IllegalArgumentException();
+
+        final String scope = options.getPreserveBNodeIDs() ? null : "b"
+                + UUID.randomUUID().toString().replace("-", "") + "_";
+
+        final Semaphore permits = new Semaphore(maxBlocks);
+
+        final List<Future<Long>> futures = new LinkedList<Future<Long>>();
+
+        final BlockReader reader = new BlockReader(is);
+
+        long n = 0;
+
+        try {
+
+            while (true) {
+
+                permits.acquire();
+
+                // Report the first error (if any) without waiting.
+                final Iterator<Future<Long>> itr = futures.iterator();
+
+                while (itr.hasNext()) {
+
+                    final Future<Long> f = itr.next();
+
+                    if (f.isDone()) {
+
+                        n += get(f);
+
+                        itr.remove();
+
+                    }
+
+                }
+
+                final Block block = reader.next();
+
+                if (block == null) {
+
+                    permits.release();
+
+                    break;
+
+                }
+
+                final FutureTask<Long> ft = new FutureTask<Long>(new BlockTask(
+                        block, baseURI, scope, permits));
+
+                futures.add(ft);
+
+                executor.execute(ft);
+
+            }
+
+            for (Future<Long> f : futures) {
+
+                n += get(f);
+
+            }
+
+            futures.clear();
+
+            return n;
+
+        } finally {
+
+            for (Future<Long> f : futures) {
+
+                f.cancel(true/* mayInterruptIfRunning */);
+
+            }
+
+        }
+
+    }
+
+    private static long get(final Future<Long> f) throws IOException,
+            RDFParseException, RDFHandlerException, InterruptedException {
+
+        try {
+
+            return f.get();
+
+        } catch (ExecutionException ex) {
+
+            final Throwable t = ex.getCause();
+
+            if (t instanceof RDFParseException)
+                throw (RDFParseException) t;
+
+            if (t instanceof RDFHandlerException)
+                throw (RDFHandlerException) t;
+
+            if (t instanceof IOException)
+                throw (IOException) t;
+
+            if (t instanceof RuntimeException)
+                throw (RuntimeException) t;
+
+            if (t instanceof Error)
+                throw (Error) t;
+
+            throw new RuntimeException(t);
+
+        }
+
+    }
+
+    /**
+     * A block of complete lines.
+     */
+    private static class Block {
+
+        final byte[] buf;
+
+        final int len;
+
+        /**
+         * The line number of the first line in the block (origin one).
+         */
+        final long firstLine;
+
+        Block(final byte[] buf, final int len, final long firstLine) {
+
+            this.buf = buf;
+            this.len = len;
+            this.firstLine = firstLine;
+
+        }
+
+    }
+
+    /**
+     * Cuts the source into blocks at line boundaries.
+     */
+    private class BlockReader {
+
+        private final InputStream is;
+
+        /**
+         * The bytes after the last line terminator in the previous block.
+         */
+        private byte[] rem = new byte[0];
+
+        private long lineNo = 1;
+
+        private boolean eof = false;
+
+        BlockReader(final InputStream is) {
+
+            this.is = is;
+
+        }
+
+        /**
+         * Return the next block -or- <code>null</code> if the source is
+         * exhausted.
+         */
+        Block next() throws IOException {
+
+            if (eof)
+                return null;
+
+            byte[] buf = new byte[Math.max(blockSize, rem.length)];
+
+            System.arraycopy(rem, 0, buf, 0, rem.length);
+
+            int len = rem.length;
+
+            // The index of the first byte of the next block.
+            int end = 0;
+
+            while (true) {
+
+                while (len < buf.length) {
+
+                    final int nread = is.read(buf, len, buf.length - len);
+
+                    if (nread == -1) {
+
+                        eof = true;
+
+                        break;
+
+                    }
+
+                    len += nread;
+
+                }
+
+                if (eof) {
+
+                    end = len;
+
+                    break;
+
+                }
+
+                end = lastLineTerminator(buf, len) + 1;
+
+                if (end > 0)
+                    break;
+
+                // A single line is larger than the buffer.
+                buf = Arrays.copyOf(buf, buf.length * 2);
+
+            }
+
+            rem = Arrays.copyOfRange(buf, end, len);
+
+            if (end == 0)
+                return null;
+
+            final Block block = new Block(buf, end, lineNo);
+
+            for (int i = 0; i < end; i++) {
+
+                if (buf[i] == '\n')
+                    lineNo++;
+
+            }
+
+            return block;
+
+        }
+
+    }
+
+    /**
+     * Return the index of the last <code>LF</code> or <code>CR</code> in the
+     * first <i>len</i> bytes of the buffer and <code>-1</code> if there is
+     * none. Since neither byte can appear within a multi-byte UTF-8 sequence
+     * or (unescaped) within an RDF term, this is a line boundary.
+     */
+    static int lastLineTerminator(final byte[] buf, final int len) {
+
+        for (int i = len - 1; i >= 0; i--) {
+
+            if (buf[i] == '\n' || buf[i] == '\r')
+                return i;
+
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Parses one block.
+     */
+    private class BlockTask implements Callable<Long> {
+
+        private final Block block;
+
+        private final String baseURI;
+
+        private final String scope;
+
+        private final Semaphore permits;
+
+        BlockTask(final Block block, final String baseURI,
+                final String scope, final Semaphore permits) {
+
+            this.block = block;
+            this.baseURI = baseURI;
+            this.scope = scope;
+            this.permits = permits;
+
+        }
+
+        @Override
+        public Long call() throws Exception {
+
+            try {
+
+                final RDFParser parser = Rio.createParser(format, valueFactory);
+
+                parser.setValueFactory(valueFactory);
+
+                RDFParserOptions.apply(options, parser);
+
+                if (scope != null) {
+
+                    // The labels are made unique by the handler.
+                    parser.setPreserveBNodeIDs(true);
+
+                }
+
+                final ScopedRDFHandler handler = new ScopedRDFHandler(
+                        newRDFHandler(), scope);
+
+                parser.setRDFHandler(handler);
+
+                try {
+
+                    parser.parse(new ByteArrayInputStream(block.buf, 0,
+                            block.len), baseURI);
+
+                } catch (RDFParseException ex) {
+
+                    final RDFParseException ex2 = new RDFParseException(
+                            "In block starting at line " + block.firstLine
+                                    + ": " + ex.getMessage());
+
+                    ex2.initCause(ex);
+
+                    throw ex2;
+
+                }
+
+                return handler.n;
+
+            } finally {
+
+                permits.release();
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Prefixes the blank node IDs with the document scope and counts the
+     * statements.
+     */
+    private class ScopedRDFHandler implements RDFHandler {
+
+        private final RDFHandler delegate;
+
+        private final String scope;
+
+        long n = 0;
+
+        ScopedRDFHandler(final RDFHandler delegate, final String scope) {
+
+            this.delegate = delegate;
+            this.scope = scope;
+
+        }
+
+        private Value scope(final Value v) {
+
+            if (scope == null || !(v instanceof BNode))
+                return v;
+
+            if (v instanceof BigdataBNode
+                    && ((BigdataBNode) v).isStatementIdentifier()) {
+
+                // A statement about a statement, not a labeled blank node.
+                return v;
+
+            }
+
+            return valueFactory.createBNode(scope + ((BNode) v).getID());
+
+        }
+
+        @Override
+        public void handleStatement(final Statement st)
+                throws RDFHandlerException {
+
+            final Statement t;
+
+            if (scope == null) {
+
+                t = st;
+
+            } else {
+
+                final Resource s = (Resource) scope(st.getSubject());
+
+                final Value o = scope(st.getObject());
+
+                final Resource c = (Resource) scope(st.getContext());
+
+                t = s == st.getSubject() && o == st.getObject()
+                        && c == st.getContext() ? st : c == null ? valueFactory
+                        .createStatement(s, st.getPredicate(), o)
+                        : valueFactory.createStatement(s, st.getPredicate(), o,
+                                c);
+
+            }
+
+            delegate.handleStatement(t);
+
+            n++;
+
+        }
+
+        @Override
+        public void startRDF() throws RDFHandlerException {
+            delegate.startRDF();
+        }
+
+        @Override
+        public void endRDF() throws RDFHandlerException {
+            delegate.endRDF();
+        }
+
+        @Override
+        public void handleNamespace(final String prefix, final String uri)
+                throws RDFHandlerException {
+            delegate.handleNamespace(prefix, uri);
+        }
+
+        @Override
+        public void handleComment(final String comment)
+                throws RDFHandlerException {
+            delegate.handleComment(comment);
+        }
+
+    }
+
+}
@@ -32,6 +32,7 @@ import java.util.UUID;
 import com.bigdata.bop.BufferAnnotations;
 import com.bigdata.bop.PipelineOp;
 import com.bigdata.bop.ap.SampleIndex.SampleType;
+import com.bigdata.bop.engine.CardinalityFeedback;
 import com.bigdata.bop.engine.IChunkHandler;
 import com.bigdata.bop.engine.IRunningQuery;
 import com.bigdata.bop.engine.QueryEngine;
@@ -40,6 +41,7 @@ import com.bigdata.bop.join.HashJoinAnnotations;
 import com.bigdata.bop.join.JoinAnnotations;
 import com.bigdata.htree.HTree;
 import com.bigdata.io.DirectBufferPool;
+import com.bigdata.journal.Journal;
 import com.bigdata.rdf.sparql.ast.cache.CacheConnectionFactory;
 import com.bigdata.rdf.sparql.ast.hints.QueryHintRegistry;
 import com.bigdata.rdf.sparql.ast.hints.QueryHintScope;
@@ -803,5 +805,23 @@ public interface QueryHints {
    final String GEARING = "gearing";
    final static String GEARING_FORWARD = "forward";
    final static String GEARING_REVERSE = "reverse";
+
+   /**
+    * When <code>true</code>, the selectivities observed for the joins of a
+    * query are recorded when the query completes and are used by the
+    * {@link ASTStaticJoinOptimizer} to refine the range counts of the same
+    * statement patterns the next time the same query is planned. This allows
+    * recurring queries to converge on a good join order without
+    * {@link #RUN_FIRST} or {@link #RUN_LAST} hints. The observations are
+    * kept as a decayed average for each statement pattern of each query
+    * shape. They are cached by the {@link QueryEngine} and are persisted on
+    * a {@link Journal} which uses group commit.
+    * 
+    * @see CardinalityFeedback
+    */
+   String JOIN_ORDER_FEEDBACK = "joinOrderFeedback";
+
+   boolean DEFAULT_JOIN_ORDER_FEEDBACK = Boolean.valueOf(System.getProperty(
+           QueryHints.class.getName() + "." + JOIN_ORDER_FEEDBACK, "false"));
    
 }
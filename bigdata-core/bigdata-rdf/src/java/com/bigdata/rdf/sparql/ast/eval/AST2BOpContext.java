@@ -181,6 +181,15 @@ public class AST2BOpContext implements IdFactory, IEvaluationContext {
      */
     public long nativeDistinctSPOThreshold = QueryHints.DEFAULT_NATIVE_DISTINCT_SPO_THRESHOLD;
 
+    /**
+     * When <code>true</code>, the join cardinalities observed for queries
+     * having the same shape are used to refine the static join order and the
+     * cardinalities observed for this query are recorded.
+     * 
+     * @see QueryHints#JOIN_ORDER_FEEDBACK
+     */
+    public boolean joinOrderFeedback = QueryHints.DEFAULT_JOIN_ORDER_FEEDBACK;
+
     /**
      * When <code>true</code>, will use the version of the DISTINCT SOLUTIONS
      * operator which uses the {@link HTree} against the native heap.
@@ -53,6 +53,7 @@ import com.bigdata.bop.controller.ServiceCallJoin;
 import com.bigdata.bop.controller.Steps;
 import com.bigdata.bop.controller.SubqueryOp;
 import com.bigdata.bop.controller.Union;
+import com.bigdata.bop.engine.CardinalityFeedback;
 import com.bigdata.bop.engine.QueryEngine;
 import com.bigdata.bop.engine.StaticAnalysisStats;
 import com.bigdata.bop.join.HTreeHashJoinUtility;
@@ -4977,6 +4978,12 @@ public class AST2BOpUtility extends AST2BOpRTO {
         anns.add(new NV(Annotations.ORIGINAL_INDEX,
                 sp.getProperty(Annotations.ORIGINAL_INDEX)));
 
+        // Propagate the key used to record the observed cardinality.
+        if (sp.getProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY) != null) {
+            anns.add(new NV(CardinalityFeedback.Annotations.FEEDBACK_KEY,
+                    sp.getProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY)));
+        }
+
         /*
          * BufferAnnotations are used by all PipelineOps to control their
          * vectoring. However, some BufferAnnotations are *also* used by the
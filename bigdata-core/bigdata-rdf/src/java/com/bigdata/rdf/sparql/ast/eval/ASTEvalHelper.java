@@ -380,6 +380,68 @@ public class ASTEvalHelper {
 
     }
     
+    /**
+     * Evaluate a SELECT query without materializing the projected variables.
+     * Unlike {@link #evaluateTupleQuery2(AbstractTripleStore, ASTContainer,
+     * QueryBindingSet, boolean)}, this respects the {@link Dataset} and the
+     * deferred IV resolution of the query. The caller is responsible for the
+     * resolution of the {@link IV}s in the solutions, e.g., by writing inline
+     * {@link IV}s directly and batch resolving the others against the lexicon.
+     * 
+     * @param store
+     *            The {@link AbstractTripleStore} having the data.
+     * @param astContainer
+     *            The {@link ASTContainer}.
+     * @param globallyScopedBS
+     *            The initial solution to kick things off.
+     * @param dataset
+     *            The data set (optional).
+     * 
+     * @return An iterator from which the solutions may be drained. Closing
+     *         the iterator will cancel the query.
+     * 
+     * @throws QueryEvaluationException
+     */
+    static public ICloseableIterator<IBindingSet[]> evaluateUnmaterializedTupleQuery(
+            final AbstractTripleStore store, final ASTContainer astContainer,
+            final QueryBindingSet globallyScopedBS, final Dataset dataset)
+            throws QueryEvaluationException {
+
+        final AST2BOpContext context = new AST2BOpContext(astContainer, store);
+
+        // Do not add a materialization step for the projection.
+        context.materializeProjectionInQuery = false;
+
+        optimizeQuery(astContainer, context, globallyScopedBS, dataset);
+
+        doSparqlLogging(context);
+
+        final PipelineOp queryPlan = astContainer.getQueryPlan();
+
+        IRunningQuery runningQuery = null;
+        try {
+
+            // Submit query for evaluation.
+            runningQuery = context.queryEngine.eval(queryPlan,
+                    astContainer.getOptimizedASTBindingSets(),
+                    context.getQueryAttributes());
+            runningQuery.setStaticAnalysisStats(context
+                    .getStaticAnalysisStats());
+
+            // Cancel the query if the iterator is closed.
+            return new RunningQueryCloseableIterator<IBindingSet[]>(
+                    runningQuery, runningQuery.iterator());
+
+        } catch (Throwable t) {
+            if (runningQuery != null) {
+                // ensure query is halted.
+                runningQuery.cancel(true/* mayInterruptIfRunning */);
+            }
+            throw new QueryEvaluationException(t);
+        }
+
+    }
+    
     /**
      * Optimize a SELECT query.
      * 
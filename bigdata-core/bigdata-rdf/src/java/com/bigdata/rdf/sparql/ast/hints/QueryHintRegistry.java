@@ -204,6 +204,11 @@ public class QueryHintRegistry {
          */
         add(new GearingHint());
         
+        /*
+         * Learn join cardinalities from completed queries.
+         */
+        add(new JoinOrderFeedbackHint());
+        
     }
 
 }
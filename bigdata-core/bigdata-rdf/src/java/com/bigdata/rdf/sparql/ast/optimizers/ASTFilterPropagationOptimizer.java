@@ -0,0 +1,333 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sparql.ast.optimizers;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.openrdf.model.URI;
+
+import com.bigdata.bop.BOpUtility;
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IVariable;
+import com.bigdata.rdf.sparql.ast.AssignmentNode;
+import com.bigdata.rdf.sparql.ast.ConstantNode;
+import com.bigdata.rdf.sparql.ast.FilterNode;
+import com.bigdata.rdf.sparql.ast.FunctionNode;
+import com.bigdata.rdf.sparql.ast.FunctionRegistry;
+import com.bigdata.rdf.sparql.ast.GraphPatternGroup;
+import com.bigdata.rdf.sparql.ast.IGroupMemberNode;
+import com.bigdata.rdf.sparql.ast.IValueExpressionNode;
+import com.bigdata.rdf.sparql.ast.JoinGroupNode;
+import com.bigdata.rdf.sparql.ast.ProjectionNode;
+import com.bigdata.rdf.sparql.ast.QueryType;
+import com.bigdata.rdf.sparql.ast.StaticAnalysis;
+import com.bigdata.rdf.sparql.ast.SubqueryRoot;
+import com.bigdata.rdf.sparql.ast.UnionNode;
+import com.bigdata.rdf.sparql.ast.VarNode;
+import com.bigdata.rdf.sparql.ast.eval.AST2BOpContext;
+import com.bigdata.rdf.sparql.ast.service.ServiceNode;
+
+/**
+ * Sideways information passing for simple FILTERs. A FILTER which compares a
+ * single variable against constants (<code>=</code>, <code>!=</code>,
+ * <code>&lt;</code>, <code>&lt;=</code>, <code>&gt;</code>,
+ * <code>&gt;=</code>, <code>sameTerm</code> and <code>IN</code>) constrains
+ * every solution of its join group. When a child group of that join group
+ * (required or OPTIONAL, or a branch of a UNION) or a SPARQL 1.1 subquery
+ * definitely binds the same variable, a copy of the FILTER is added to the
+ * child so the constraint is applied before the child's solutions are joined
+ * back into the parent. Since the copied FILTER lands in the child group, the
+ * {@link ASTRangeOptimizer} can turn it into a key-range constraint on the
+ * statement patterns of that group and {@link ASTAttachJoinFiltersOptimizer}
+ * attaches it to the first join which binds the variable.
+ * <p>
+ * This is safe because such a FILTER fails for an unbound variable. A child
+ * solution which violates the FILTER can only contribute to parent solutions
+ * which carry the same binding and are therefore rejected anyway. For an
+ * OPTIONAL child, the parent solution which survives without the child's
+ * binding leaves the variable unbound and is likewise rejected.
+ * <p>
+ * The FILTER is NOT copied into:
+ * <ul>
+ * <li>MINUS groups, where it would change which solutions are removed.</li>
+ * <li>Groups which do not definitely bind the variable, since bottom-up
+ * evaluation would then see the variable as unbound.</li>
+ * <li>Subqueries which have a LIMIT/OFFSET, which are aggregations, or which
+ * do not project the variable as-is.</li>
+ * <li>{@link ServiceNode}s. A SPARQL 1.1 SERVICE is sent to the remote end
+ * point using its original text and other services interpret their graph
+ * patterns themselves.</li>
+ * </ul>
+ * FILTERs are pushed transitively since the nested child groups are visited
+ * after their parents.
+ *
+ * @see ASTRangeOptimizer
+ * @see ASTUnionFiltersOptimizer
+ */
+public class ASTFilterPropagationOptimizer extends AbstractJoinGroupOptimizer
+        implements IASTOptimizer {
+
+    private static final transient Logger log = Logger
+            .getLogger(ASTFilterPropagationOptimizer.class);
+
+    public ASTFilterPropagationOptimizer() {
+        super(false /* childFirst */, false /* optimizeServiceNodes */);
+    }
+
+    @Override
+    protected void optimizeJoinGroup(final AST2BOpContext ctx,
+            final StaticAnalysis sa, final IBindingSet[] bSets,
+            final JoinGroupNode group) {
+
+        /*
+         * Collect the FILTERs which may be propagated and the variable which
+         * each of them constrains.
+         */
+        final Map<FilterNode, IVariable<?>> filters = new LinkedHashMap<FilterNode, IVariable<?>>();
+
+        for (IGroupMemberNode child : group) {
+
+            if (!(child instanceof FilterNode))
+                continue;
+
+            final FilterNode filter = (FilterNode) child;
+
+            final VarNode var = getConstrainedVar(filter
+                    .getValueExpressionNode());
+
+            if (var != null) {
+
+                filters.put(filter, var.getValueExpression());
+
+            }
+
+        }
+
+        if (filters.isEmpty())
+            return;
+
+        /*
+         * Collect the target groups. A snapshot is taken since we will modify
+         * the children of those groups.
+         */
+        final List<GraphPatternGroup<IGroupMemberNode>> targets = new LinkedList<GraphPatternGroup<IGroupMemberNode>>();
+
+        for (IGroupMemberNode child : group) {
+
+            if (child instanceof JoinGroupNode) {
+
+                if (!((JoinGroupNode) child).isMinus()) {
+
+                    targets.add((JoinGroupNode) child);
+
+                }
+
+            } else if (child instanceof UnionNode) {
+
+                for (JoinGroupNode branch : (UnionNode) child) {
+
+                    targets.add(branch);
+
+                }
+
+            } else if (child instanceof SubqueryRoot) {
+
+                final SubqueryRoot subquery = (SubqueryRoot) child;
+
+                if (subquery.getQueryType() == QueryType.SELECT
+                        && !subquery.hasSlice()
+                        && !StaticAnalysis.isAggregate(subquery)) {
+
+                    @SuppressWarnings("unchecked")
+                    final GraphPatternGroup<IGroupMemberNode> whereClause = (GraphPatternGroup<IGroupMemberNode>) subquery
+                            .getWhereClause();
+
+                    if (whereClause != null) {
+
+                        /*
+                         * Only those variables which the subquery projects
+                         * without renaming are visible on both sides.
+                         */
+                        final Set<IVariable<?>> projected = getPlainProjectedVars(subquery
+                                .getProjection());
+
+                        for (Map.Entry<FilterNode, IVariable<?>> e : filters
+                                .entrySet()) {
+
+                            if (projected.contains(e.getValue())) {
+
+                                propagate(sa, whereClause, e.getKey(),
+                                        e.getValue());
+
+                            }
+
+                        }
+
+                    }
+
+                }
+
+            }
+
+        }
+
+        for (GraphPatternGroup<IGroupMemberNode> target : targets) {
+
+            for (Map.Entry<FilterNode, IVariable<?>> e : filters.entrySet()) {
+
+                propagate(sa, target, e.getKey(), e.getValue());
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Add a copy of the FILTER to the target group iff the target group
+     * definitely binds the variable and does not already have that FILTER.
+     */
+    private void propagate(final StaticAnalysis sa,
+            final GraphPatternGroup<IGroupMemberNode> target,
+            final FilterNode filter, final IVariable<?> var) {
+
+        final Set<IVariable<?>> produced = sa.getDefinitelyProducedBindings(
+                target, new LinkedHashSet<IVariable<?>>(), true/* recursive */);
+
+        if (!produced.contains(var))
+            return;
+
+        for (IGroupMemberNode child : target) {
+
+            if (child instanceof FilterNode && child.equals(filter)) {
+
+                // Already present (e.g., the optimizer was run before).
+                return;
+
+            }
+
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Propagating " + filter + " into " + target);
+
+        target.addChild(BOpUtility.deepCopy(filter));
+
+    }
+
+    /**
+     * Return the variable constrained by a FILTER iff the FILTER compares that
+     * variable against constants using an operator which fails when the
+     * variable is unbound.
+     *
+     * @return The variable -or- <code>null</code> if the FILTER is not of that
+     *         form.
+     */
+    static VarNode getConstrainedVar(final IValueExpressionNode ve) {
+
+        if (!(ve instanceof FunctionNode))
+            return null;
+
+        final FunctionNode f = (FunctionNode) ve;
+
+        final URI uri = f.getFunctionURI();
+
+        if (uri.equals(FunctionRegistry.IN)) {
+
+            // ?x IN (c1, c2, ...)
+            if (f.arity() < 2 || !(f.get(0) instanceof VarNode))
+                return null;
+
+            for (int i = 1; i < f.arity(); i++) {
+
+                if (!(f.get(i) instanceof ConstantNode))
+                    return null;
+
+            }
+
+            return (VarNode) f.get(0);
+
+        }
+
+        if (uri.equals(FunctionRegistry.EQ) || uri.equals(FunctionRegistry.NE)
+                || uri.equals(FunctionRegistry.GT)
+                || uri.equals(FunctionRegistry.GE)
+                || uri.equals(FunctionRegistry.LT)
+                || uri.equals(FunctionRegistry.LE)
+                || uri.equals(FunctionRegistry.SAME_TERM)) {
+
+            if (f.arity() != 2)
+                return null;
+
+            if (f.get(0) instanceof VarNode && f.get(1) instanceof ConstantNode)
+                return (VarNode) f.get(0);
+
+            if (f.get(1) instanceof VarNode && f.get(0) instanceof ConstantNode)
+                return (VarNode) f.get(1);
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Return the variables which are projected without being renamed or
+     * computed by a SELECT expression.
+     */
+    private static Set<IVariable<?>> getPlainProjectedVars(
+            final ProjectionNode projection) {
+
+        final Set<IVariable<?>> vars = new LinkedHashSet<IVariable<?>>();
+
+        if (projection == null)
+            return vars;
+
+        for (AssignmentNode n : projection) {
+
+            final IValueExpressionNode ve = n.getValueExpressionNode();
+
+            if (ve instanceof VarNode && ve.equals(n.getVarNode())) {
+
+                vars.add(n.getVar());
+
+            }
+
+        }
+
+        return vars;
+
+    }
+
+}
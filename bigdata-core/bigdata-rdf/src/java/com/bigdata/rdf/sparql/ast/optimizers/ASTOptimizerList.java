@@ -36,6 +36,8 @@ import org.apache.log4j.Logger;
 import com.bigdata.bop.BOp;
 import com.bigdata.bop.BOpUtility;
 import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.engine.QueryEngine;
+import com.bigdata.bop.engine.StaticAnalysisCounters;
 import com.bigdata.bop.engine.StaticAnalysisStats;
 import com.bigdata.rdf.sparql.ast.IQueryNode;
 import com.bigdata.rdf.sparql.ast.QueryNodeWithBindingSet;
@@ -96,12 +98,20 @@ public class ASTOptimizerList extends LinkedList<IASTOptimizer> implements
      * <p>
      * Note: This makes a deep copy of the AST before applying destructive
      * modifications.
+     * <p>
+     * The elapsed time for each optimizer is reported both to the
+     * {@link StaticAnalysisStats} for the query and to the
+     * {@link StaticAnalysisCounters} of the {@link QueryEngine}, which
+     * aggregates a latency histogram per optimizer over all queries.
      */
     @Override
     public QueryNodeWithBindingSet optimize(
         final AST2BOpContext context, final QueryNodeWithBindingSet input) {
 
         final StaticAnalysisStats saStats = context.getStaticAnalysisStats();
+
+        final StaticAnalysisCounters saCounters = context.queryEngine == null ? null
+                : context.queryEngine.getStaticAnalysisCounters();
         
         final long startLoop = System.nanoTime();
 
@@ -131,14 +141,23 @@ public class ASTOptimizerList extends LinkedList<IASTOptimizer> implements
             if (DEBUG)
                 log.debug("Rewritten AST:\n" + tmp.getQueryNode());
 
-            saStats.registerOptimizerCall(
-               opt.getClass().getSimpleName(), 
-               System.nanoTime() - startOpt);
+            final String optName = opt.getClass().getSimpleName();
+
+            final long elapsedOpt = System.nanoTime() - startOpt;
+
+            saStats.registerOptimizerCall(optName, elapsedOpt);
+
+            if (saCounters != null)
+                saCounters.registerOptimizerCall(optName, elapsedOpt);
       
         }
 
-        saStats.registerOptimizerLoopCall(
-           System.nanoTime() - startLoop);
+        final long elapsedLoop = System.nanoTime() - startLoop;
+
+        saStats.registerOptimizerLoopCall(elapsedLoop);
+
+        if (saCounters != null)
+            saCounters.registerOptimizerLoopCall(elapsedLoop);
 
         return tmp;
 
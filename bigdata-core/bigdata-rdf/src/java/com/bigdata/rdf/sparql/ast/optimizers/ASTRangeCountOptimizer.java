@@ -36,10 +36,12 @@ import org.apache.log4j.Logger;
 import com.bigdata.bop.IBindingSet;
 import com.bigdata.bop.IConstant;
 import com.bigdata.bop.IVariable;
+import com.bigdata.bop.engine.StaticAnalysisCounters;
 import com.bigdata.bop.engine.StaticAnalysisStats;
 import com.bigdata.rdf.internal.IV;
 import com.bigdata.rdf.internal.constraints.RangeBOp;
 import com.bigdata.rdf.sparql.ast.JoinGroupNode;
+import com.bigdata.rdf.sparql.ast.QueryNodeWithBindingSet;
 import com.bigdata.rdf.sparql.ast.RangeNode;
 import com.bigdata.rdf.sparql.ast.StatementPatternNode;
 import com.bigdata.rdf.sparql.ast.StaticAnalysis;
@@ -53,6 +55,22 @@ import com.bigdata.util.concurrent.ExecutionExceptions;
 
 /**
  * Attach range counts to all statement patterns in the query.
+ * <p>
+ * The statement patterns are collected from all join groups in the query
+ * (including named subqueries, subqueries, and the graph patterns of EXISTS
+ * and NOT EXISTS) before any range count is taken. The range counts are then
+ * obtained in a single concurrent batch so the latency of static analysis is
+ * bounded by the slowest access path rather than by the sum of the slowest
+ * access path in each join group.
+ * <p>
+ * Note: {@link #optimizeJoinGroup(AST2BOpContext, StaticAnalysis, IBindingSet[], JoinGroupNode)}
+ * is not used by {@link #optimize(AST2BOpContext, QueryNodeWithBindingSet)}.
+ * Subclasses which need to replace the range counts (for example, in unit
+ * tests) should override
+ * {@link #estimateCardinality(StatementPatternNode, AST2BOpContext, IBindingSet, int)}
+ * or
+ * {@link #estimateCardinalities(StatementPatternNode, IV, IV, IV, IV, AST2BOpContext, int)}
+ * , which are invoked for each statement pattern in the batch.
  * 
  * @author mikepersonick
  *
@@ -62,6 +80,58 @@ public class ASTRangeCountOptimizer extends AbstractJoinGroupOptimizer
 
     private static final transient Logger log = Logger
             .getLogger(ASTRangeCountOptimizer.class);
+
+    /**
+     * Collect the range count tasks for all join groups in the query and then
+     * run them as a single batch.
+     */
+    @Override
+    public QueryNodeWithBindingSet optimize(final AST2BOpContext context,
+            final QueryNodeWithBindingSet input) {
+
+        final List<Callable<Void>> tasks = new LinkedList<Callable<Void>>();
+
+        final QueryNodeWithBindingSet output = new AbstractJoinGroupOptimizer() {
+
+            @Override
+            protected void optimizeJoinGroup(final AST2BOpContext ctx,
+                    final StaticAnalysis sa, final IBindingSet[] bSets,
+                    final JoinGroupNode group) {
+
+                final List<StatementPatternNode> spNodes = group
+                        .getStatementPatterns();
+
+                if (!spNodes.isEmpty()) {
+
+                    final int nrExogeneousBindings = bSets == null ? 0
+                            : bSets.length;
+
+                    tasks.addAll(newRangeCountTasks(ctx, spNodes,
+                            getExogenousBindings(bSets), nrExogeneousBindings));
+
+                }
+
+            }
+
+        }.optimize(context, input);
+
+        if (!tasks.isEmpty()) {
+
+            final long start = System.nanoTime();
+
+            runRangeCountTasks(context, tasks);
+
+            final StaticAnalysisCounters saCounters = context.queryEngine == null ? null
+                    : context.queryEngine.getStaticAnalysisCounters();
+
+            if (saCounters != null)
+                saCounters.registerRangeCountCall(System.nanoTime() - start);
+
+        }
+
+        return output;
+
+    }
 	
     /**
      * Optimize the join group.
@@ -96,20 +166,58 @@ public class ASTRangeCountOptimizer extends AbstractJoinGroupOptimizer
             final IBindingSet exogenousBindings,
             final int nrExogeneousBindings) {
 
-        final AbstractTripleStore db = ctx.getAbstractTripleStore();
+        runRangeCountTasks(ctx, newRangeCountTasks(ctx, spNodes,
+                exogenousBindings, nrExogeneousBindings));
+
+    }
+
+    /**
+     * Return the tasks which will obtain the range counts for those
+     * {@link StatementPatternNode}s which do not already have the
+     * {@link Annotations#ESTIMATED_CARDINALITY} annotation.
+     */
+    private List<Callable<Void>> newRangeCountTasks(final AST2BOpContext ctx,
+            final List<StatementPatternNode> spNodes,
+            final IBindingSet exogenousBindings,
+            final int nrExogeneousBindings) {
 
-        // Setup tasks to obtain estimated range counts.
         final List<Callable<Void>> tasks = new LinkedList<Callable<Void>>();
+
         for (StatementPatternNode sp : spNodes) {
 
             if (sp.getProperty(Annotations.ESTIMATED_CARDINALITY) == null) {
 
-                tasks.add(new RangeCountTask(sp, ctx, exogenousBindings, nrExogeneousBindings));
+                tasks.add(new RangeCountTask(sp, ctx, exogenousBindings,
+                        nrExogeneousBindings));
 
             }
 
         }
 
+        return tasks;
+
+    }
+
+    /**
+     * Run the range count tasks in parallel, throwing out any errors. This is
+     * invoked once per query by
+     * {@link #optimize(AST2BOpContext, QueryNodeWithBindingSet)} with the
+     * tasks for all statement patterns in the query.
+     * 
+     * @param ctx
+     *            The evaluation context.
+     * @param tasks
+     *            The tasks, each of which attaches the range count to one
+     *            statement pattern.
+     */
+    protected void runRangeCountTasks(final AST2BOpContext ctx,
+            final List<Callable<Void>> tasks) {
+
+        if (tasks.isEmpty())
+            return;
+
+        final AbstractTripleStore db = ctx.getAbstractTripleStore();
+
         // Obtain range counts in parallel.
         final List<Future<Void>> futures;
         try {
@@ -184,6 +292,11 @@ public class ASTRangeCountOptimizer extends AbstractJoinGroupOptimizer
     }
     
     /**
+     * Attach the range count to the statement pattern. This is invoked by the
+     * tasks submitted by
+     * {@link #runRangeCountTasks(AST2BOpContext, List)}, so it may run
+     * concurrently for different statement patterns.
+     * <p>
      * For testing purposes we can override this method.
      * @param sp
      * @param db
@@ -31,15 +31,18 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
+import org.openrdf.model.Literal;
 import org.openrdf.model.URI;
 import org.openrdf.query.algebra.Compare.CompareOp;
 
 import com.bigdata.bop.BOpContextBase;
 import com.bigdata.bop.IBindingSet;
 import com.bigdata.bop.IValueExpression;
+import com.bigdata.rdf.internal.ILexiconConfiguration;
 import com.bigdata.rdf.internal.IV;
 import com.bigdata.rdf.internal.constraints.CompareBOp;
 import com.bigdata.rdf.internal.constraints.RangeBOp;
+import com.bigdata.rdf.model.BigdataValue;
 import com.bigdata.rdf.sparql.ast.ConstantNode;
 import com.bigdata.rdf.sparql.ast.FilterNode;
 import com.bigdata.rdf.sparql.ast.FunctionNode;
@@ -126,6 +129,10 @@ public class ASTRangeOptimizer extends AbstractJoinGroupOptimizer
         final GlobalAnnotations globals = new GlobalAnnotations(
         		ctx.getLexiconNamespace(), ctx.getTimestamp());
         
+        final ILexiconConfiguration<?> lexiconConfig = ctx
+                .getAbstractTripleStore().getLexiconRelation()
+                .getLexiconConfiguration();
+        
         for (IQueryNode node : group) {
 
             if (!(node instanceof StatementPatternNode))
@@ -146,6 +153,17 @@ public class ASTRangeOptimizer extends AbstractJoinGroupOptimizer
 
 			final RangeNode range = ranges.get(v);
 			
+			if (!isRangeSafe(lexiconConfig, range.from())
+					|| !isRangeSafe(lexiconConfig, range.to())) {
+				
+				/*
+				 * The datatype has more than one key encoding, so a key-range
+				 * scan would miss some values. The FILTERs still apply.
+				 */
+				continue;
+				
+			}
+			
 			final RangeBOp bop = toRangeBOp(ctx.getBOpContext(), range, globals);
 			
 			if (log.isDebugEnabled()) {
@@ -160,6 +178,33 @@ public class ASTRangeOptimizer extends AbstractJoinGroupOptimizer
     	
     }
     
+    /**
+     * Return <code>true</code> unless the bound is a constant whose datatype
+     * may have more than one key encoding.
+     * 
+     * @see ILexiconConfiguration#isRangeSafe(URI)
+     */
+    private static boolean isRangeSafe(
+            final ILexiconConfiguration<?> lexiconConfig,
+            final ValueExpressionNode bound) {
+
+        if (!(bound instanceof ConstantNode))
+            return true;
+
+        final BigdataValue value = ((ConstantNode) bound).getValue();
+
+        if (value != null && !(value instanceof Literal)) {
+
+            // Not a literal.
+            return true;
+
+        }
+
+        return lexiconConfig.isRangeSafe(value == null ? null
+                : ((Literal) value).getDatatype());
+
+    }
+
     /**
      * Public static facilitates the test cases.
      */
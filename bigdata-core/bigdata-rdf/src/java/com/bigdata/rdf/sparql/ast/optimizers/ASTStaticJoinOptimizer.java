@@ -27,7 +27,12 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.rdf.sparql.ast.optimizers;
 
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -39,6 +44,7 @@ import com.bigdata.bop.BOp;
 import com.bigdata.bop.BOpUtility;
 import com.bigdata.bop.IBindingSet;
 import com.bigdata.bop.IVariable;
+import com.bigdata.bop.engine.CardinalityFeedback;
 import com.bigdata.bop.joinGraph.fast.DefaultEvaluationPlan2;
 import com.bigdata.rdf.sparql.ast.GraphPatternGroup;
 import com.bigdata.rdf.sparql.ast.IBindingProducerNode;
@@ -54,6 +60,7 @@ import com.bigdata.rdf.sparql.ast.QueryHints;
 import com.bigdata.rdf.sparql.ast.QueryNodeWithBindingSet;
 import com.bigdata.rdf.sparql.ast.QueryOptimizerEnum;
 import com.bigdata.rdf.sparql.ast.QueryRoot;
+import com.bigdata.rdf.sparql.ast.StatementPatternNode;
 import com.bigdata.rdf.sparql.ast.StaticAnalysis;
 import com.bigdata.rdf.sparql.ast.SubqueryRoot;
 import com.bigdata.rdf.sparql.ast.UnionNode;
@@ -179,6 +186,12 @@ public class ASTStaticJoinOptimizer implements IASTOptimizer {
 
         final IBindingSet exogenousBindings = getExogenousBindings(bindingSets);
         
+        if (context.joinOrderFeedback) {
+
+            applyCardinalityFeedback(context, queryRoot);
+
+        }
+
         // Named subqueries
         if (queryRoot.getNamedSubqueries() != null) {
 
@@ -588,6 +601,108 @@ public class ASTStaticJoinOptimizer implements IASTOptimizer {
 		    }
 		}
 	}
+
+    /**
+     * Tag each required statement pattern with the key under which the
+     * selectivity of its join is recorded when the query completes and scale
+     * the estimated cardinality (the range count of the access path) by the
+     * selectivity which was observed for earlier runs of the same query.
+     * <p>
+     * The key is the shape of the query (a digest of its original AST) plus
+     * the position of the statement pattern in a pre-order traversal of the
+     * AST. The observed selectivity mostly reflects the FILTERs attached to
+     * the join, so it is never shared with the same statement pattern in
+     * another query. This is done once for the whole query, before any join
+     * group is reordered, so the positions do not depend on the join order.
+     * 
+     * @see QueryHints#JOIN_ORDER_FEEDBACK
+     */
+    private void applyCardinalityFeedback(final AST2BOpContext ctx,
+            final QueryRoot queryRoot) {
+
+        if (ctx.astContainer == null || !ctx.astContainer.isQuery()) {
+
+            // Only learned for SPARQL QUERY.
+            return;
+
+        }
+
+        final String shape = getShapeSignature(ctx.astContainer
+                .getOriginalAST());
+
+        final CardinalityFeedback feedback = ctx.queryEngine
+                .getCardinalityFeedback();
+
+        int position = 0;
+
+        final Iterator<BOp> itr = BOpUtility
+                .preOrderIteratorWithAnnotations(queryRoot);
+
+        while (itr.hasNext()) {
+
+            final BOp op = itr.next();
+
+            if (!(op instanceof StatementPatternNode))
+                continue;
+
+            final StatementPatternNode sp = (StatementPatternNode) op;
+
+            final String key = shape + "#" + position++;
+
+            if (sp.isOptional()
+                    || sp.getProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY) != null) {
+
+                // Not recorded -or- feedback was already applied.
+                continue;
+
+            }
+
+            sp.setProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY, key);
+
+            final double selectivity = feedback.get(key);
+
+            final Long estimate = (Long) sp
+                    .getProperty(Annotations.ESTIMATED_CARDINALITY);
+
+            if (selectivity < 0 || estimate == null || estimate == 0L)
+                continue;
+
+            /*
+             * Note: A non-empty access path is never estimated as empty since
+             * a ZERO cardinality tail is always run first.
+             */
+            final long observed = Math.max(1L,
+                    Math.round(estimate * selectivity));
+
+            if (log.isDebugEnabled())
+                log.debug("Using observed selectivity " + selectivity
+                        + ": cardinality " + observed + " rather than "
+                        + estimate + " for " + sp);
+
+            sp.setProperty(Annotations.ESTIMATED_CARDINALITY, observed);
+
+        }
+
+    }
+
+    /**
+     * Return a digest of the query, which identifies recurring queries.
+     */
+    static String getShapeSignature(final QueryRoot queryRoot) {
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        final byte[] b = digest.digest(queryRoot.toString().getBytes(
+                Charset.forName("UTF-8")));
+
+        return new BigInteger(1/* signum */, b).toString(16/* radix */);
+
+    }
     
 //    /**
 //     * Use the SPORelation from the database to grab the appropriate range
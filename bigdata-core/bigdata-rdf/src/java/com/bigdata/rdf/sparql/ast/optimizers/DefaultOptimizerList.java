@@ -500,6 +500,15 @@ public class DefaultOptimizerList extends ASTOptimizerList {
          */
         add(new ASTRunFirstRunLastOptimizer());
 
+        /*
+         * Copy simple FILTERs comparing a variable against constants into the
+         * child groups and subqueries which definitely bind that variable.
+         * This must run before the ASTRangeOptimizer so the copied FILTERs
+         * can become key-range constraints on the statement patterns within
+         * those child groups.
+         */
+        add(new ASTFilterPropagationOptimizer());
+
         /*
          * FIXME Datatype and value range constraints. Per the notes immediately
          * above, incorporate an optimizer which leverages information about
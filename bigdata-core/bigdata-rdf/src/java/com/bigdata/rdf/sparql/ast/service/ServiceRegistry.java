@@ -38,6 +38,7 @@ import org.openrdf.model.impl.URIImpl;
 
 import com.bigdata.bop.join.BaseJoinStats;
 import com.bigdata.rdf.graph.impl.bd.GASService;
+import com.bigdata.rdf.sail.MaterializedViewServiceFactory;
 import com.bigdata.rdf.sail.RDRHistoryServiceFactory;
 import com.bigdata.rdf.sparql.ast.QueryHints;
 import com.bigdata.rdf.sparql.ast.cache.DescribeServiceFactory;
@@ -172,6 +173,10 @@ public class ServiceRegistry {
 
         }
 
+        // Maintenance of materialized views (named solution sets).
+        add(MaterializedViewServiceFactory.SERVICE_KEY,
+                new MaterializedViewServiceFactory());
+
         // The Gather-Apply-Scatter RDF Graph Mining service.
         add(GASService.Options.SERVICE_KEY, new GASService());
 
@@ -0,0 +1,987 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.spo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.BTree;
+import com.bigdata.btree.BTreeBuilder;
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.UnisolatedReadWriteIndex;
+import com.bigdata.btree.proc.LongAggregator;
+import com.bigdata.journal.ITx;
+import com.bigdata.rdf.model.StatementEnum;
+import com.bigdata.rdf.spo.SPOIndexWriteProc.IndexWriteProcConstructor;
+import com.bigdata.relation.accesspath.IElementFilter;
+import com.bigdata.striterator.IKeyOrder;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * Collects the statements written on the statement indices of an
+ * {@link SPORelation} and builds each statement index bottom-up from the
+ * sorted statements using a {@link BTreeBuilder}. This is used for the
+ * initial bulk load of a KB, where it replaces the random inserts into the
+ * statement indices (and the associated node splits and copy-on-write) by an
+ * external merge sort and a single sequential write of each index.
+ * <p>
+ * The tuples for each statement index are buffered in memory until a run is
+ * full. The run is then sorted, duplicates are combined, and the run is
+ * written onto a temporary file. The runs are merged when the indices are
+ * built. The merge is performed twice: the first pass counts the distinct
+ * tuples (which determines the shape of the {@link BTree}) and the second pass
+ * feeds them to the {@link BTreeBuilder}. When all tuples fit into a single
+ * run nothing is written onto temporary files. The statement indices are
+ * sorted and built in parallel.
+ * <p>
+ * Only an empty statement index is built bottom-up. If a statement index
+ * already has tuples (e.g., the axioms or the statements of an earlier
+ * commit), then the sorted tuples are written onto that index using ordinary
+ * batched writes, which is still faster than the random writes for the
+ * unsorted statements.
+ * <p>
+ * Note: The statements are not visible on the statement indices until
+ * {@link #build()}. The {@link ISPO#isModified()} flag is not reported since
+ * it is not known whether a statement is new until the indices are built.
+ * Therefore this must not be used with truth maintenance or with a change
+ * log.
+ * 
+ * @see SPORelation#beginBulkBuild(int, File)
+ * @see BTreeBuilder
+ */
+public class SPOBulkBuilder {
+
+    private static final transient Logger log = Logger
+            .getLogger(SPOBulkBuilder.class);
+
+    /**
+     * The default #of tuples per statement index in each sorted run.
+     */
+    public static final int DEFAULT_RUN_SIZE = 1000000;
+
+    /**
+     * The #of tuples in each batched write onto a statement index which is
+     * not empty.
+     */
+    private static final int WRITE_CHUNK_SIZE = 10000;
+
+    /**
+     * Orders the records by their key (all bytes but the last). The last byte
+     * of each record is the value of the tuple.
+     */
+    private static final Comparator<byte[]> RECORD_COMPARATOR = new Comparator<byte[]>() {
+
+        @Override
+        public int compare(final byte[] a, final byte[] b) {
+
+            return BytesUtil.compareBytesWithLenAndOffset(0, a.length - 1, a,
+                    0, b.length - 1, b);
+
+        }
+
+    };
+
+    private final SPORelation relation;
+
+    private final int runSize;
+
+    private final File tmpDir;
+
+    private final List<KeyOrderRuns> indices = new ArrayList<KeyOrderRuns>();
+
+    private long nstmts = 0L;
+
+    private boolean done = false;
+
+    /**
+     * @param relation
+     *            The {@link SPORelation}, which must be the
+     *            {@link ITx#UNISOLATED} view of a relation on a local
+     *            {@link BTree}s (e.g., on a journal or a temporary store).
+     * @param runSize
+     *            The maximum #of tuples per statement index in each sorted
+     *            run.
+     * @param tmpDir
+     *            The directory for the run files (optional, defaults to
+     *            <code>java.io.tmpdir</code>).
+     * 
+     * @throws UnsupportedOperationException
+     *             if the statement indices are not local {@link BTree}s.
+     */
+    public SPOBulkBuilder(final SPORelation relation, final int runSize,
+            final File tmpDir) {
+
+        if (relation == null)
+            throw new IllegalArgumentException();
+
+        if (runSize <= 0)
+            throw new IllegalArgumentException();
+
+        if (relation.getTimestamp() != ITx.UNISOLATED)
+            throw new UnsupportedOperationException("Not unisolated: "
+                    + relation.getNamespace());
+
+        this.relation = relation;
+
+        this.runSize = runSize;
+
+        this.tmpDir = tmpDir;
+
+        final Iterator<IKeyOrder<ISPO>> itr = relation.getKeyOrders();
+
+        while (itr.hasNext()) {
+
+            indices.add(new KeyOrderRuns((SPOKeyOrder) itr.next()));
+
+        }
+
+    }
+
+    /**
+     * Buffer statements for the statement indices.
+     * 
+     * @param a
+     *            The statements.
+     * @param numStmts
+     *            The #of elements of that array to be written.
+     * @param filter
+     *            An optional filter. Statements matched by the filter are NOT
+     *            written.
+     * 
+     * @return The #of statements which were buffered.
+     * 
+     * @see SPORelation#insert(ISPO[], int, IElementFilter)
+     */
+    public long add(final ISPO[] a, final int numStmts,
+            final IElementFilter<ISPO> filter) {
+
+        if (done)
+            throw new IllegalStateException();
+
+        final boolean quads = relation.getKeyArity() == 4;
+
+        final boolean sids = relation.getStatementIdentifiers();
+
+        final ISPO[] stmts = new ISPO[numStmts];
+
+        int n = 0;
+
+        for (int i = 0; i < numStmts; i++) {
+
+            final ISPO spo = a[i];
+
+            if (spo == null)
+                throw new IllegalArgumentException("null @ index=" + i);
+
+            if (!spo.isFullyBound())
+                throw new IllegalArgumentException("Not fully bound: " + spo);
+
+            if (quads) {
+                if (spo.c() == null)
+                    throw new IllegalArgumentException("context not bound: "
+                            + spo);
+            } else if (!sids && spo.c() != null) {
+                throw new IllegalArgumentException(
+                        "context bound, but not quads or sids: " + spo);
+            }
+
+            if (filter != null && filter.isValid(spo))
+                continue;
+
+            stmts[n++] = spo;
+
+        }
+
+        if (n == 0)
+            return 0L;
+
+        final int nstmts = n;
+
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(
+                indices.size());
+
+        for (final KeyOrderRuns t : indices) {
+
+            tasks.add(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+
+                    t.add(stmts, nstmts);
+
+                    return null;
+
+                }
+
+            });
+
+        }
+
+        runAll(tasks);
+
+        this.nstmts += nstmts;
+
+        return nstmts;
+
+    }
+
+    /**
+     * Build the statement indices from the buffered statements. This is a NOP
+     * for a statement index if no statements were buffered. The new indices
+     * become restart safe with the next commit.
+     * 
+     * @return The #of tuples in the primary statement index.
+     */
+    public long build() {
+
+        if (done)
+            throw new IllegalStateException();
+
+        done = true;
+
+        final long begin = System.currentTimeMillis();
+
+        final List<Callable<Long>> tasks = new ArrayList<Callable<Long>>(
+                indices.size());
+
+        for (final KeyOrderRuns t : indices) {
+
+            tasks.add(new Callable<Long>() {
+
+                @Override
+                public Long call() throws Exception {
+
+                    return t.build();
+
+                }
+
+            });
+
+        }
+
+        final List<Long> counts = runAll(tasks);
+
+        final long n = counts.get(indexOf(relation.getPrimaryKeyOrder()));
+
+        if (log.isInfoEnabled())
+            log.info("Built statement indices: nstmts=" + nstmts
+                    + ", ntuples=" + n + ", elapsed="
+                    + (System.currentTimeMillis() - begin) + "ms");
+
+        return n;
+
+    }
+
+    /**
+     * Discard the buffered statements and any run files.
+     */
+    public void abort() {
+
+        done = true;
+
+        for (KeyOrderRuns t : indices) {
+
+            t.discard();
+
+        }
+
+    }
+
+    private int indexOf(final SPOKeyOrder keyOrder) {
+
+        for (int i = 0; i < indices.size(); i++) {
+
+            if (indices.get(i).keyOrder == keyOrder)
+                return i;
+
+        }
+
+        throw new AssertionError();
+
+    }
+
+    private <T> List<T> runAll(final List<Callable<T>> tasks) {
+
+        try {
+
+            final List<Future<T>> futures = relation.getExecutorService()
+                    .invokeAll(tasks);
+
+            final List<T> ret = new ArrayList<T>(futures.size());
+
+            for (Future<T> f : futures) {
+
+                ret.add(f.get());
+
+            }
+
+            return ret;
+
+        } catch (InterruptedException ex) {
+
+            throw new RuntimeException(ex);
+
+        } catch (ExecutionException ex) {
+
+            throw new RuntimeException(ex);
+
+        }
+
+    }
+
+    /**
+     * Combine the values of two tuples for the same statement, following
+     * {@link SPOIndexWriteProc} when the new value is written onto an index
+     * which has the old value: a change to or from
+     * {@link StatementEnum#History} and a write with the override bit replace
+     * the old {@link StatementEnum}, which is otherwise the max of the two.
+     * The old value (including its user flag) is kept if the
+     * {@link StatementEnum} does not change.
+     * <p>
+     * The combined value may still be written onto an index which is not
+     * empty, so the override bit is set if it is set for the old value or if
+     * the new value replaced the old {@link StatementEnum}: once a write has
+     * replaced the {@link StatementEnum}, the outcome no longer depends on the
+     * value in the index. The override bit is cleared for
+     * {@link StatementEnum#Explicit}, which is the max of any type and is
+     * never written with the override bit. (The user flag of a statement in
+     * the index whose {@link StatementEnum} is not changed by the combined
+     * override write is kept, even if an intervening write would have
+     * replaced it.)
+     */
+    static byte combine(final byte oldVal, final byte newVal) {
+
+        final StatementEnum oldType = StatementEnum.decode(oldVal);
+
+        final StatementEnum newType = StatementEnum.decode(newVal);
+
+        final boolean override = StatementEnum.isOverride(newVal);
+
+        final boolean replace = override || oldType == StatementEnum.History
+                || newType == StatementEnum.History;
+
+        final StatementEnum type;
+
+        if (replace) {
+
+            type = newType;
+
+        } else {
+
+            type = StatementEnum.max(oldType, newType);
+
+        }
+
+        final int overrideBit = (replace || StatementEnum.isOverride(oldVal))
+                && type != StatementEnum.Explicit ? StatementEnum.MASK_OVERRIDE
+                : 0x0;
+
+        if (type == oldType) {
+
+            return (byte) ((oldVal & ~StatementEnum.MASK_OVERRIDE) | overrideBit);
+
+        }
+
+        return (byte) (type.code()
+                | (StatementEnum.isUserFlag(newVal) ? StatementEnum.MASK_USER_FLAG
+                        : 0x0) | overrideBit);
+
+    }
+
+    /**
+     * Sort the records, combining the values for duplicate keys.
+     * 
+     * @return The #of distinct records, which are in [0:n).
+     */
+    static int sortAndCombine(final byte[][] a, final int n) {
+
+        if (n == 0)
+            return 0;
+
+        Arrays.sort(a, 0, n, RECORD_COMPARATOR);
+
+        int j = 0;
+
+        for (int i = 1; i < n; i++) {
+
+            if (RECORD_COMPARATOR.compare(a[j], a[i]) == 0) {
+
+                final byte[] r = a[j];
+
+                r[r.length - 1] = combine(r[r.length - 1],
+                        a[i][a[i].length - 1]);
+
+            } else {
+
+                a[++j] = a[i];
+
+            }
+
+        }
+
+        for (int i = j + 1; i < n; i++) {
+
+            a[i] = null;
+
+        }
+
+        return j + 1;
+
+    }
+
+    /**
+     * The sorted runs for one statement index.
+     */
+    private class KeyOrderRuns {
+
+        private final SPOKeyOrder keyOrder;
+
+        /**
+         * The current (unsorted) run.
+         */
+        private byte[][] buf = null;
+
+        private int n = 0;
+
+        private final List<File> files = new LinkedList<File>();
+
+        KeyOrderRuns(final SPOKeyOrder keyOrder) {
+
+            this.keyOrder = keyOrder;
+
+            // Verify that the index is a local BTree.
+            getBTree();
+
+        }
+
+        /**
+         * The unisolated {@link BTree}. This is not wrapped by an
+         * {@link UnisolatedReadWriteIndex}.
+         */
+        private BTree getBTree() {
+
+            final IIndex ndx = relation.getIndexManager().getIndex(
+                    relation.getFQN(keyOrder), ITx.UNISOLATED);
+
+            if (!(ndx instanceof BTree))
+                throw new UnsupportedOperationException("Not a local BTree: "
+                        + relation.getFQN(keyOrder));
+
+            return (BTree) ndx;
+
+        }
+
+        void add(final ISPO[] stmts, final int nstmts) throws IOException {
+
+            final SPOTupleSerializer tupleSer = (SPOTupleSerializer) relation
+                    .getIndex(keyOrder).getIndexMetadata().getTupleSerializer();
+
+            for (int i = 0; i < nstmts; i++) {
+
+                final ISPO spo = stmts[i];
+
+                final byte[] key = tupleSer.serializeKey(spo);
+
+                final byte[] val = tupleSer.serializeVal(spo);
+
+                final byte[] rec = Arrays.copyOf(key, key.length + 1);
+
+                rec[key.length] = val[0];
+
+                add(rec);
+
+            }
+
+        }
+
+        private void add(final byte[] rec) throws IOException {
+
+            if (buf == null)
+                buf = new byte[runSize][];
+
+            buf[n++] = rec;
+
+            if (n == runSize) {
+
+                spill();
+
+            }
+
+        }
+
+        /**
+         * Sort the current run and write it onto a temporary file.
+         */
+        private void spill() throws IOException {
+
+            final int m = sortAndCombine(buf, n);
+
+            final File file = File.createTempFile("spo", ".run", tmpDir);
+
+            files.add(file);
+
+            final DataOutputStream os = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)));
+
+            try {
+
+                for (int i = 0; i < m; i++) {
+
+                    os.writeInt(buf[i].length);
+
+                    os.write(buf[i]);
+
+                    buf[i] = null;
+
+                }
+
+            } finally {
+
+                os.close();
+
+            }
+
+            n = 0;
+
+            if (log.isDebugEnabled())
+                log.debug(keyOrder + ": wrote run: " + file + ", ntuples=" + m);
+
+        }
+
+        /**
+         * Build the statement index.
+         * 
+         * @return The #of tuples in the statement index.
+         */
+        long build() throws IOException {
+
+            final IIndex view = relation.getIndex(keyOrder);
+
+            final Lock lock = view instanceof UnisolatedReadWriteIndex ? ((UnisolatedReadWriteIndex) view)
+                    .writeLock() : null;
+
+            if (lock != null)
+                lock.lock();
+
+            try {
+
+                final BTree btree = getBTree();
+
+                if (n == 0 && files.isEmpty()) {
+
+                    // Nothing was added.
+                    return btree.getEntryCount();
+
+                }
+
+                if (btree.getEntryCount() != 0) {
+
+                    /*
+                     * The index is not empty, so write the sorted tuples
+                     * using ordinary batched writes.
+                     */
+
+                    return write(btree);
+
+                }
+
+                final long ntuples;
+
+                if (files.isEmpty()) {
+
+                    // Everything fits in memory.
+                    final int m = sortAndCombine(buf, n);
+
+                    final BTreeBuilder builder = new BTreeBuilder(btree, m);
+
+                    for (int i = 0; i < m; i++) {
+
+                        add(builder, buf[i]);
+
+                    }
+
+                    ntuples = builder.build();
+
+                } else {
+
+                    if (n > 0)
+                        spill();
+
+                    buf = null;
+
+                    // Pass 1: count the distinct tuples.
+                    long m = 0;
+                    {
+                        final MergeRuns itr = new MergeRuns(files);
+                        try {
+                            while (itr.next() != null)
+                                m++;
+                        } finally {
+                            itr.close();
+                        }
+                    }
+
+                    // Pass 2: build the index.
+                    final BTreeBuilder builder = new BTreeBuilder(btree, m);
+                    {
+                        final MergeRuns itr = new MergeRuns(files);
+                        try {
+                            byte[] rec;
+                            while ((rec = itr.next()) != null)
+                                add(builder, rec);
+                        } finally {
+                            itr.close();
+                        }
+                    }
+
+                    ntuples = builder.build();
+
+                }
+
+                if (log.isInfoEnabled())
+                    log.info(keyOrder + ": ntuples=" + ntuples + ", nruns="
+                            + Math.max(1, files.size()) + ", height="
+                            + btree.getHeight());
+
+                return ntuples;
+
+            } finally {
+
+                if (lock != null)
+                    lock.unlock();
+
+                discard();
+
+            }
+
+        }
+
+        /**
+         * Write the sorted tuples onto a statement index which is not empty
+         * using the same index procedure as the {@link SPOIndexWriter}.
+         * 
+         * @return The #of tuples in the statement index.
+         */
+        private long write(final BTree btree) throws IOException {
+
+            final BatchWriter writer = new BatchWriter(btree);
+
+            if (files.isEmpty()) {
+
+                final int m = sortAndCombine(buf, n);
+
+                for (int i = 0; i < m; i++) {
+
+                    writer.add(buf[i]);
+
+                }
+
+            } else {
+
+                if (n > 0)
+                    spill();
+
+                buf = null;
+
+                final MergeRuns itr = new MergeRuns(files);
+                try {
+                    byte[] rec;
+                    while ((rec = itr.next()) != null)
+                        writer.add(rec);
+                } finally {
+                    itr.close();
+                }
+
+            }
+
+            writer.flush();
+
+            if (log.isInfoEnabled())
+                log.info(keyOrder + ": nwritten=" + writer.writeCount
+                        + ", nruns=" + Math.max(1, files.size())
+                        + ", ntuples=" + btree.getEntryCount());
+
+            return btree.getEntryCount();
+
+        }
+
+        private void add(final BTreeBuilder builder, final byte[] rec) {
+
+            /*
+             * Note: The override bit is never stored in the index.
+             */
+            builder.add(Arrays.copyOf(rec, rec.length - 1), RDFValueFactory
+                    .getValue((byte) (rec[rec.length - 1] & ~StatementEnum.MASK_OVERRIDE)));
+
+        }
+
+        void discard() {
+
+            buf = null;
+
+            n = 0;
+
+            for (File file : files) {
+
+                if (!file.delete())
+                    log.warn("Could not delete: " + file);
+
+            }
+
+            files.clear();
+
+        }
+
+    }
+
+    /**
+     * Writes sorted tuples onto a statement index in chunks.
+     */
+    private static class BatchWriter {
+
+        private final BTree btree;
+
+        private final byte[][] keys = new byte[WRITE_CHUNK_SIZE][];
+
+        private final byte[][] vals = new byte[WRITE_CHUNK_SIZE][];
+
+        private int n = 0;
+
+        /**
+         * The #of tuples which were inserted or updated.
+         */
+        long writeCount = 0L;
+
+        BatchWriter(final BTree btree) {
+
+            this.btree = btree;
+
+        }
+
+        void add(final byte[] rec) {
+
+            keys[n] = Arrays.copyOf(rec, rec.length - 1);
+
+            vals[n] = RDFValueFactory.getValue(rec[rec.length - 1]);
+
+            if (++n == keys.length)
+                flush();
+
+        }
+
+        void flush() {
+
+            if (n == 0)
+                return;
+
+            final LongAggregator aggregator = new LongAggregator();
+
+            btree.submit(0/* fromIndex */, n/* toIndex */, keys, vals,
+                    IndexWriteProcConstructor.INSTANCE, aggregator);
+
+            writeCount += aggregator.getResult();
+
+            Arrays.fill(keys, 0, n, null);
+
+            Arrays.fill(vals, 0, n, null);
+
+            n = 0;
+
+        }
+
+    }
+
+    /**
+     * A k-way merge of sorted run files. Records with the same key are
+     * combined in the order in which the runs were written, so the value of a
+     * later run is combined into the value of an earlier run (which matters
+     * for the override bit).
+     */
+    private static class MergeRuns {
+
+        private final PriorityQueue<RunReader> queue;
+
+        private final List<RunReader> readers = new LinkedList<RunReader>();
+
+        MergeRuns(final List<File> files) throws IOException {
+
+            queue = new PriorityQueue<RunReader>(files.size(),
+                    new Comparator<RunReader>() {
+                        @Override
+                        public int compare(final RunReader o1,
+                                final RunReader o2) {
+                            final int ret = RECORD_COMPARATOR.compare(o1.cur,
+                                    o2.cur);
+                            if (ret != 0)
+                                return ret;
+                            // Break ties by run, newest last.
+                            return o1.seq < o2.seq ? -1 : o1.seq > o2.seq ? 1
+                                    : 0;
+                        }
+                    });
+
+            try {
+
+                int seq = 0;
+
+                for (File file : files) {
+
+                    final RunReader r = new RunReader(file, seq++);
+
+                    readers.add(r);
+
+                    if (r.advance())
+                        queue.add(r);
+
+                }
+
+            } catch (IOException ex) {
+
+                close();
+
+                throw ex;
+
+            }
+
+        }
+
+        /**
+         * Return the next distinct record -or- <code>null</code> if the runs
+         * are exhausted.
+         */
+        byte[] next() throws IOException {
+
+            RunReader r = queue.poll();
+
+            if (r == null)
+                return null;
+
+            final byte[] rec = r.cur;
+
+            if (r.advance())
+                queue.add(r);
+
+            while ((r = queue.peek()) != null
+                    && RECORD_COMPARATOR.compare(rec, r.cur) == 0) {
+
+                queue.poll();
+
+                rec[rec.length - 1] = combine(rec[rec.length - 1],
+                        r.cur[r.cur.length - 1]);
+
+                if (r.advance())
+                    queue.add(r);
+
+            }
+
+            return rec;
+
+        }
+
+        void close() {
+
+            for (RunReader r : readers) {
+
+                try {
+                    r.in.close();
+                } catch (IOException ex) {
+                    log.warn(ex, ex);
+                }
+
+            }
+
+        }
+
+    }
+
+    private static class RunReader {
+
+        private final DataInputStream in;
+
+        /**
+         * The index of the run in the order in which the runs were written.
+         */
+        private final int seq;
+
+        private byte[] cur;
+
+        RunReader(final File file, final int seq) throws IOException {
+
+            in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file)));
+
+            this.seq = seq;
+
+        }
+
+        /**
+         * Read the next record.
+         * 
+         * @return <code>false</code> if the run is exhausted.
+         */
+        boolean advance() throws IOException {
+
+            final int len;
+            try {
+                len = in.readInt();
+            } catch (EOFException ex) {
+                cur = null;
+                return false;
+            }
+
+            cur = new byte[len];
+
+            in.readFully(cur);
+
+            return true;
+
+        }
+
+    }
+
+}
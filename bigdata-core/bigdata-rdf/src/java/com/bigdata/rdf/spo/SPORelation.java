@@ -28,6 +28,7 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.rdf.spo;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -708,9 +709,14 @@ public class SPORelation extends AbstractRelation<ISPO> {
 
         final IndexMetadata metadata = newIndexMetadata(getFQN(keyOrder));
 
-        // leading key compression works great.
-        final IRabaCoder leafKeySer = DefaultTupleSerializer
-                .getDefaultLeafKeysCoder();
+        /*
+         * Leading key compression works great and is the default. The coder
+         * may be overridden using IndexMetadata.Options#LEAF_KEYS_CODER, e.g.,
+         * to use the SimpleRabaCoder so range scans read the keys in place
+         * (see ITuple#getKeySlice()).
+         */
+        final IRabaCoder leafKeySer = metadata.getTupleSerializer()
+                .getLeafKeysCoder();
 
 //        final IRabaCoder leafValSer;
 //        if (!statementIdentifiers) {
@@ -2092,10 +2098,106 @@ public class SPORelation extends AbstractRelation<ISPO> {
         
     }
 
+    /**
+     * The bulk builder for the statement indices (if one is active).
+     * 
+     * @see #beginBulkBuild(int, File)
+     */
+    private volatile SPOBulkBuilder bulkBuilder = null;
+
+    /**
+     * Begin a bulk build of the statement indices. Until
+     * {@link #endBulkBuild()}, the statements passed to
+     * {@link #insert(ISPO[], int, IElementFilter)} are collected and sorted by
+     * an {@link SPOBulkBuilder} rather than being written on the statement
+     * indices. This is only for the bulk load of a KB without truth
+     * maintenance.
+     * 
+     * @param runSize
+     *            The maximum #of tuples per statement index in each sorted
+     *            run.
+     * @param tmpDir
+     *            The directory for the run files (optional).
+     * 
+     * @throws IllegalStateException
+     *             if a bulk build is already active.
+     */
+    public void beginBulkBuild(final int runSize, final File tmpDir) {
+
+        synchronized (this) {
+
+            if (bulkBuilder != null)
+                throw new IllegalStateException();
+
+            bulkBuilder = new SPOBulkBuilder(this, runSize, tmpDir);
+
+        }
+
+    }
+
+    /**
+     * Build the statement indices from the statements collected since
+     * {@link #beginBulkBuild(int, File)}.
+     * 
+     * @return The #of statements in the primary statement index.
+     * 
+     * @throws IllegalStateException
+     *             if no bulk build is active.
+     */
+    public long endBulkBuild() {
+
+        final SPOBulkBuilder tmp;
+
+        synchronized (this) {
+
+            if ((tmp = bulkBuilder) == null)
+                throw new IllegalStateException();
+
+            bulkBuilder = null;
+
+        }
+
+        return tmp.build();
+
+    }
+
+    /**
+     * Discard the statements collected since
+     * {@link #beginBulkBuild(int, File)} (if any).
+     */
+    public void abortBulkBuild() {
+
+        final SPOBulkBuilder tmp;
+
+        synchronized (this) {
+
+            tmp = bulkBuilder;
+
+            bulkBuilder = null;
+
+        }
+
+        if (tmp != null)
+            tmp.abort();
+
+    }
+
+    /**
+     * Return <code>true</code> iff a bulk build of the statement indices is
+     * active.
+     */
+    public boolean isBulkBuild() {
+
+        return bulkBuilder != null;
+
+    }
+
     /**
      * Inserts {@link SPO}s, writing on the statement indices in parallel.
      * <p>
-     * Note: The {@link ISPO#isModified()} flag is set by this method.
+     * Note: The {@link ISPO#isModified()} flag is set by this method (except
+     * during a bulk build, in which case the statements are buffered by the
+     * {@link SPOBulkBuilder}).
      * <p>
      * Note: This does NOT write on the justifications index. If justifications
      * are being maintained then the {@link ISolution}s MUST report binding sets
@@ -2140,6 +2242,15 @@ public class SPORelation extends AbstractRelation<ISPO> {
         if (numStmts == 0)
             return 0L;
 
+        final SPOBulkBuilder bulkBuilder = this.bulkBuilder;
+
+        if (bulkBuilder != null) {
+
+            // The statement indices will be built by endBulkBuild().
+            return bulkBuilder.add(a, numStmts, filter);
+
+        }
+
         final long begin = System.currentTimeMillis();
 
         if(log.isDebugEnabled()) {
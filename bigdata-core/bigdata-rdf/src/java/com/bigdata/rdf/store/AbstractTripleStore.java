@@ -76,6 +76,7 @@ import com.bigdata.btree.IndexMetadata;
 import com.bigdata.btree.IndexSegment;
 import com.bigdata.btree.keys.KeyBuilder;
 import com.bigdata.btree.keys.SuccessorUtil;
+import com.bigdata.io.DirectBufferPool;
 import com.bigdata.journal.IConcurrencyManager;
 import com.bigdata.journal.IIndexManager;
 import com.bigdata.journal.IResourceLock;
@@ -101,15 +102,23 @@ import com.bigdata.rdf.internal.NotMaterializedException;
 import com.bigdata.rdf.internal.VTE;
 import com.bigdata.rdf.internal.constraints.RangeBOp;
 import com.bigdata.rdf.internal.impl.BlobIV;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rdf.internal.impl.extensions.DateOrdinalExtension;
+import com.bigdata.rdf.internal.impl.extensions.DateTimeExtension;
+import com.bigdata.rdf.internal.impl.extensions.FixedDecimalExtension;
 import com.bigdata.rdf.internal.impl.extensions.XSDStringExtension;
 import com.bigdata.rdf.lexicon.BigdataSubjectCentricFullTextIndex;
 import com.bigdata.rdf.lexicon.BigdataValueCentricFullTextIndex;
 import com.bigdata.rdf.lexicon.ITermIndexCodes;
 import com.bigdata.rdf.lexicon.ITextIndexer;
 import com.bigdata.rdf.lexicon.IValueCentricTextIndexer;
+import com.bigdata.rdf.lexicon.FrontCodedDictionary;
 import com.bigdata.rdf.lexicon.LexiconKeyOrder;
 import com.bigdata.rdf.lexicon.LexiconRelation;
+import com.bigdata.rdf.lexicon.OffHeapTermCache;
+import com.bigdata.rdf.lexicon.TermCache;
 import com.bigdata.rdf.lexicon.TermIdEncoder;
+import com.bigdata.rdf.lexicon.TinyLFUTermCache;
 import com.bigdata.rdf.model.BigdataResource;
 import com.bigdata.rdf.model.BigdataStatement;
 import com.bigdata.rdf.model.BigdataURI;
@@ -178,6 +187,7 @@ import com.bigdata.striterator.EmptyChunkedIterator;
 import com.bigdata.striterator.IChunkedIterator;
 import com.bigdata.striterator.IChunkedOrderedIterator;
 import com.bigdata.striterator.IKeyOrder;
+import com.bigdata.util.Bytes;
 import com.bigdata.util.BytesUtil;
 import com.bigdata.util.InnerCause;
 import com.bigdata.util.PropertyUtil;
@@ -649,6 +659,78 @@ abstract public class AbstractTripleStore extends
         
         String DEFAULT_TERM_CACHE_CAPACITY = "10000";//"50000";
 
+        /**
+         * The policy used for the term cache (default
+         * {@value #DEFAULT_TERM_CACHE_TYPE}).
+         * <dl>
+         * <dt>{@value #TERM_CACHE_TYPE_WEAK}</dt>
+         * <dd>A weak value cache whose entries are retained by an LRU of
+         * {@link #TERM_CACHE_CAPACITY} entries (see {@link TermCache}).</dd>
+         * <dt>{@value #TERM_CACHE_TYPE_TINY_LFU}</dt>
+         * <dd>A lock striped cache using hard references and the W-TinyLFU
+         * admission policy, bounded by {@link #TERM_CACHE_MAX_BYTES} (see
+         * {@link TinyLFUTermCache}). This avoids the GC overhead of the weak
+         * references and the contention on the batched updates when many
+         * threads materialize terms concurrently, and reports hit rate
+         * counters.</dd>
+         * </dl>
+         */
+        String TERM_CACHE_TYPE = AbstractTripleStore.class.getName()
+                + ".termCache.type";
+
+        String TERM_CACHE_TYPE_WEAK = "weak";
+
+        String TERM_CACHE_TYPE_TINY_LFU = "tinyLFU";
+
+        String DEFAULT_TERM_CACHE_TYPE = TERM_CACHE_TYPE_WEAK;
+
+        /**
+         * The maximum estimated #of bytes of the entries in the term cache
+         * when the {@link #TERM_CACHE_TYPE} is
+         * {@value #TERM_CACHE_TYPE_TINY_LFU} (default
+         * {@value #DEFAULT_TERM_CACHE_MAX_BYTES}).
+         */
+        String TERM_CACHE_MAX_BYTES = AbstractTripleStore.class.getName()
+                + ".termCache.maxBytes";
+
+        String DEFAULT_TERM_CACHE_MAX_BYTES = "" + (64 * Bytes.megabyte);
+
+        /**
+         * The maximum #of bytes of native memory for a cache of the
+         * serialized values of the ID2TERM index (default
+         * {@value #DEFAULT_OFF_HEAP_TERM_CACHE_MAX_BYTES}, which disables the
+         * cache). The memory is allocated on demand from the
+         * {@link DirectBufferPool} and is not counted against the Java heap,
+         * so this may be sized in GBs. The cache is shared by the read-only
+         * views of the lexicon and is consulted before the ID2TERM index
+         * when {@link TermId}s are materialized in batch.
+         * 
+         * @see OffHeapTermCache
+         */
+        String OFF_HEAP_TERM_CACHE_MAX_BYTES = AbstractTripleStore.class
+                .getName() + ".offHeapTermCache.maxBytes";
+
+        String DEFAULT_OFF_HEAP_TERM_CACHE_MAX_BYTES = "0";
+
+        /**
+         * The directory containing the compiled dictionaries for the TERM2ID
+         * and ID2TERM indices (default
+         * {@value #DEFAULT_COMPILED_DICTIONARY_DIR}, which disables them).
+         * The dictionaries are built from a commit point of the lexicon by
+         * {@link com.bigdata.rdf.util.CompileLexicon} and are memory-mapped
+         * read-only. They are consulted before the indices when terms are
+         * resolved to {@link IV}s and when {@link TermId}s are materialized
+         * in batch. The indices continue to hold all terms, including those
+         * added since the dictionaries were built. A dictionary which was not
+         * built from the indices of this KB instance is ignored.
+         * 
+         * @see FrontCodedDictionary
+         */
+        String COMPILED_DICTIONARY_DIR = AbstractTripleStore.class.getName()
+                + ".compiledDictionaryDir";
+
+        String DEFAULT_COMPILED_DICTIONARY_DIR = "";
+
         /**
          * The name of the class that will establish the pre-defined
          * {@link Vocabulary} for the database (default
@@ -1205,6 +1287,57 @@ abstract public class AbstractTripleStore extends
         String DEFAULT_INLINE_DATE_TIMES_TIMEZONE = 
 //        	TimeZone.getDefault().getID();
         	"GMT";
+
+        /**
+         * When <code>true</code>, <code>xsd:date</code> and
+         * <code>xsd:gYear</code> literals are inlined as packed ordinals (days
+         * since the epoch and the year) by the {@link DateOrdinalExtension}
+         * rather than as milliseconds since the epoch by the
+         * {@link DateTimeExtension} (default
+         * {@value #DEFAULT_INLINE_DATE_ORDINALS}). Only literals in their
+         * canonical lexical form and without a time zone are inlined, so the
+         * lexical form is preserved exactly. Other <code>xsd:date</code> and
+         * <code>xsd:gYear</code> literals are stored in the lexicon.
+         * <p>
+         * Note: This option may only be specified when the KB is created.
+         */
+        String INLINE_DATE_ORDINALS = AbstractTripleStore.class.getName()
+                + ".inlineDateOrdinals";
+
+        String DEFAULT_INLINE_DATE_ORDINALS = "false";
+
+        /**
+         * When GT ZERO (0), <code>xsd:decimal</code> literals having at most
+         * this many digits to the right of the decimal point (and which fit
+         * into a long at that scale) are inlined as fixed-point values by the
+         * {@link FixedDecimalExtension} (default
+         * {@value #DEFAULT_INLINE_DECIMAL_SCALE}). Other
+         * <code>xsd:decimal</code> literals are inlined as before. The scale
+         * may not exceed {@link FixedDecimalExtension#MAX_SCALE}.
+         * <p>
+         * Note: This option may only be specified when the KB is created.
+         */
+        String INLINE_DECIMAL_SCALE = AbstractTripleStore.class.getName()
+                + ".inlineDecimalScale";
+
+        String DEFAULT_INLINE_DECIMAL_SCALE = "0";
+
+        /**
+         * When GT ZERO (0), language tagged literals whose total length
+         * (label and language code) is LTE this value are fully inlined into
+         * the statement indices (default
+         * {@value #DEFAULT_MAX_INLINE_LANG_LITERAL_LENGTH}). Unlike
+         * {@link #INLINE_TEXT_LITERALS}, this only applies to language tagged
+         * literals, which are often short labels. The same concerns with
+         * respect to the {@link #TEXT_INDEX} apply, so this should be kept
+         * small.
+         * <p>
+         * Note: This option may only be specified when the KB is created.
+         */
+        String MAX_INLINE_LANG_LITERAL_LENGTH = AbstractTripleStore.class
+                .getName() + ".maxInlineLangLiteralLength";
+
+        String DEFAULT_MAX_INLINE_LANG_LITERAL_LENGTH = "0";
         
         /**
          * The name of the {@link IExtensionFactory} class. The implementation 
@@ -2499,6 +2632,9 @@ abstract public class AbstractTripleStore extends
 
         if (tmp != null) {
 
+            // Discard any statements collected by a bulk build.
+            tmp.abortBulkBuild();
+
             locator.discard(tmp, false/* destroyed */);
 
         }
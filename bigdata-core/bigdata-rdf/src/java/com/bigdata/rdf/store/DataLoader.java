@@ -29,6 +29,7 @@ package com.bigdata.rdf.store;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -41,9 +42,11 @@ import java.io.PrintWriter;
 import java.io.Reader;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
@@ -65,6 +68,7 @@ import com.bigdata.rdf.inf.ClosureStats;
 import com.bigdata.rdf.inf.TruthMaintenance;
 import com.bigdata.rdf.lexicon.LexiconRelation;
 import com.bigdata.rdf.load.IStatementBufferFactory;
+import com.bigdata.rdf.model.BigdataBNode;
 import com.bigdata.rdf.rio.LoadStats;
 import com.bigdata.rdf.rio.PresortRioLoader;
 import com.bigdata.rdf.rio.RDFParserOptions;
@@ -73,6 +77,7 @@ import com.bigdata.rdf.rio.RioLoaderListener;
 import com.bigdata.rdf.rio.StatementBuffer;
 import com.bigdata.rdf.rules.InferenceEngine;
 import com.bigdata.rdf.spo.SPO;
+import com.bigdata.rdf.spo.SPOBulkBuilder;
 
 /**
  * A utility class to load RDF data into an {@link AbstractTripleStore}. This
@@ -155,6 +160,20 @@ public class DataLoader {
      * @see #getAssertionBuffer()
      */
     private StatementBuffer<?> buffer;
+
+    /**
+     * The canonicalizing mapping for the blank nodes of the
+     * {@link ServiceProviderHook#BLAZEGRAPH_BINARY} sources. The blank node
+     * IDs of those sources are scoped by the export which wrote them rather
+     * than by the file (see {@link ParallelBinaryExport}), so this mapping is
+     * shared by the {@link #buffer} across the sources in order to
+     * co-reference the blank nodes of different files. It is discarded when a
+     * load fails since the IVs assigned to its blank nodes may not have been
+     * committed.
+     * 
+     * @see StatementBuffer#setBNodeMap(Map)
+     */
+    private Map<String, BigdataBNode> scopedBNodes = null;
     
     /**
      * Return the assertion buffer.
@@ -200,6 +219,14 @@ public class DataLoader {
             }
 
         }
+
+        if (bulkBuild && tm == null
+                && !database.getSPORelation().isBulkBuild()) {
+
+            database.getSPORelation().beginBulkBuild(
+                    SPOBulkBuilder.DEFAULT_RUN_SIZE, null/* tmpDir */);
+
+        }
         
         return buffer;
         
@@ -246,6 +273,21 @@ public class DataLoader {
 	 *      cause rio to throw a fatal exception)
 	 */
     private final boolean ignoreInvalidFiles;
+
+    /**
+     * The #of files which are parsed concurrently.
+     * 
+     * @see Options#PARSER_THREADS
+     */
+    private final int parserThreads;
+
+    /**
+     * When true, the statement indices are built bottom-up from the sorted
+     * statements rather than by inserts.
+     * 
+     * @see Options#BULK_BUILD
+     */
+    private final boolean bulkBuild;
     
 //    public boolean setFlush(boolean newValue) {
 //        
@@ -301,10 +343,54 @@ public class DataLoader {
                 log.debug("Flushing the buffer.");
             
             buffer.flush();
+
+            endBulkBuild();
             
         }
         
     }
+
+    /**
+     * Build the statement indices if a bulk build is active.
+     * 
+     * @see Options#BULK_BUILD
+     */
+    private void endBulkBuild() {
+
+        if (bulkBuild && database.getSPORelation().isBulkBuild()) {
+
+            final long begin = System.currentTimeMillis();
+
+            final long n = database.getSPORelation().endBulkBuild();
+
+            if (log.isInfoEnabled())
+                log.info("Built statement indices: nstmts=" + n
+                        + ", elapsed=" + (System.currentTimeMillis() - begin)
+                        + "ms");
+
+        }
+
+    }
+
+    /**
+     * Discard the statements collected by the bulk build (if one is active)
+     * together with any sorted runs which were written onto temporary files.
+     * This is invoked when a load fails. The caller must still discard the
+     * writes already on the backing store.
+     * 
+     * @see Options#BULK_BUILD
+     */
+    private void abortBulkBuild() {
+
+        if (bulkBuild) {
+
+            database.getSPORelation().abortBulkBuild();
+
+        }
+
+        scopedBNodes = null;
+
+    }
     
     /**
      * How the {@link DataLoader} will maintain closure on the database.
@@ -591,6 +677,49 @@ public class DataLoader {
 		 */
 		static final String DEFAULT_VERBOSE = "0";
 
+		/**
+		 * The #of files which are parsed concurrently when loading files and
+		 * directories (default {@value #DEFAULT_PARSER_THREADS}). When GT
+		 * ONE, the files are parsed by a pool of threads and the parsed
+		 * statements are fed through a bounded queue into the
+		 * {@link StatementBuffer}, overlapping the parsers with the term and
+		 * statement index writes. Per-stage counters are reported when
+		 * {@link #VERBOSE} is non-zero. This only applies when neither the
+		 * {@link #COMMIT} nor the {@link #CLOSURE} is
+		 * {@link CommitEnum#Incremental incremental}. The buffer is flushed
+		 * periodically while the files are parsed (unless {@link #FLUSH} is
+		 * <code>false</code>) and once all files have been parsed, so its
+		 * mapping for blank nodes does not grow with the size of the load.
+		 * Large N-Triples and N-Quads files
+		 * are also split into blocks which are parsed concurrently, so this
+		 * applies to the load of a single file as well.
+		 * 
+		 * @see ParallelFileLoader
+		 */
+		static final String PARSER_THREADS = DataLoader.class.getName() + ".parserThreads";
+
+		static final String DEFAULT_PARSER_THREADS = "1";
+
+		/**
+		 * When <code>true</code>, the statements are not inserted into the
+		 * statement indices as they are flushed from the
+		 * {@link StatementBuffer}. Instead they are collected, sorted
+		 * (spilling sorted runs onto temporary files as necessary) and each
+		 * empty statement index is built bottom-up with full leaves before the
+		 * commit (default {@value #DEFAULT_BULK_BUILD}). A statement index
+		 * which is not empty receives the sorted statements as batched
+		 * writes. This is designed for the initial bulk load of a KB. It is
+		 * ignored when truth maintenance
+		 * is enabled and is only supported for a KB on a journal or a
+		 * temporary store. The statements are not visible in the statement
+		 * indices until the buffer is flushed at the end of the load.
+		 * 
+		 * @see SPOBulkBuilder
+		 */
+		static final String BULK_BUILD = DataLoader.class.getName() + ".bulkBuild";
+
+		static final String DEFAULT_BULK_BUILD = "false";
+
     }
 
     /**
@@ -757,6 +886,29 @@ public class DataLoader {
 
 		}
 		
+		{ // parserThreads.
+
+			parserThreads = Integer.parseInt(
+					properties.getProperty(Options.PARSER_THREADS, Options.DEFAULT_PARSER_THREADS));
+
+			if (parserThreads < 1)
+				throw new IllegalArgumentException(Options.PARSER_THREADS + "=" + parserThreads);
+
+			if (log.isInfoEnabled())
+				log.info(Options.PARSER_THREADS + "=" + parserThreads);
+
+		}
+
+		{ // bulkBuild.
+
+			bulkBuild = Boolean.parseBoolean(
+					properties.getProperty(Options.BULK_BUILD, Options.DEFAULT_BULK_BUILD));
+
+			if (log.isInfoEnabled())
+				log.info(Options.BULK_BUILD + "=" + bulkBuild);
+
+		}
+
 		{ // dumpJournal. See BLZG-1535
 			
 			dumpJournal = Boolean
@@ -969,6 +1121,9 @@ public class DataLoader {
 
 		}
 
+		// The statement indices must be built before the commit.
+		endBulkBuild();
+
 		if (commitEnum == CommitEnum.Batch) {
 
 			if (log.isInfoEnabled())
@@ -1280,6 +1435,17 @@ public class DataLoader {
             final boolean endOfBatch)
             throws IOException {
 
+        if (depth == 0 && parserThreads > 1
+                && commitEnum != CommitEnum.Incremental
+                && closureEnum != ClosureEnum.Incremental) {
+
+            loadFilesParallel(totals, file, baseURI, rdfFormat, defaultGraph,
+                    filter, endOfBatch);
+
+            return;
+
+        }
+
         if (file.isDirectory()) {
 
             if (log.isDebugEnabled())
@@ -1307,20 +1473,7 @@ public class DataLoader {
             
         }
         
-        final String n = file.getName();
-        
-        RDFFormat fmt = RDFFormat.forFileName(n);
-
-        if (fmt == null && n.endsWith(".zip")) {
-            fmt = RDFFormat.forFileName(n.substring(0, n.length() - 4));
-        }
-
-        if (fmt == null && n.endsWith(".gz")) {
-            fmt = RDFFormat.forFileName(n.substring(0, n.length() - 3));
-        }
-
-        if (fmt == null) // fallback
-            fmt = rdfFormat;
+        final RDFFormat fmt = getRDFFormat(file, rdfFormat);
                 
         InputStream is = null;
         
@@ -1329,25 +1482,16 @@ public class DataLoader {
 
         try {
 
-            is = new FileInputStream(file);
-
-            if (n.endsWith(".gz")) {
-
-                is = new GZIPInputStream(is, getGzipBuffer());
-
-            } else if (n.endsWith(".zip")) {
-
-				is = new ZipInputStream(new BufferedInputStream(is,
-						getGzipBuffer()));
-
-            }
+            is = openInputStream(file);
 
             /*
-             * Obtain a buffered reader on the input stream.
+             * Obtain a buffered reader on the input stream (unless this is a
+             * binary format, in which case the stream is used directly).
              */
 
             // @todo reuse the backing buffer to minimize heap churn.
-            final Reader reader = new BufferedReader(new InputStreamReader(is)
+            final Closeable source = fmt != null && !fmt.hasCharset() ? is
+                    : new BufferedReader(new InputStreamReader(is)
             // , 20*Bytes.kilobyte32 // use a large buffer (default is 8k)
             );
 
@@ -1356,7 +1500,7 @@ public class DataLoader {
 				// baseURI for this file.
 				final String s = baseURI != null ? baseURI : file.toURI().toString();
 
-				loadData4_ParserErrors_Not_Trapped(totals, reader, file.toString()/* label */,
+				loadData4_ParserErrors_Not_Trapped(totals, source, file.toString()/* label */,
 						file/* fileIfSourceIfFile */, s, fmt, defaultGraph, endOfBatch);
                 
                 return;
@@ -1391,7 +1535,7 @@ public class DataLoader {
             } finally {
 
             	// Note: Must close() before renameTo().
-                reader.close();
+                source.close();
 
             }
 
@@ -1404,6 +1548,155 @@ public class DataLoader {
 
     }
 
+	/**
+	 * Load a file or directory using several parser threads.
+	 * 
+	 * @see Options#PARSER_THREADS
+	 */
+	private void loadFilesParallel(final MyLoadStats totals, final File file,
+			final String baseURI, final RDFFormat rdfFormat,
+			final String defaultGraph, final FilenameFilter filter,
+			final boolean endOfBatch) throws IOException {
+
+		final List<File> files = ParallelFileLoader.getFiles(file, filter);
+
+		if (log.isInfoEnabled())
+			log.info("Loading " + files.size() + " files using "
+					+ parserThreads + " parser threads: " + file);
+
+		final long begin = System.currentTimeMillis();
+
+		/*
+		 * When flush:=false the buffer is left to the caller and it retains
+		 * its own mapping for the blank nodes until then.
+		 */
+		if (flush && scopedBNodes == null)
+			scopedBNodes = new HashMap<String, BigdataBNode>();
+
+		final ParallelFileLoader loader = new ParallelFileLoader(this,
+				getAssertionBuffer(), parserOptions, parserThreads,
+				ignoreInvalidFiles,
+				flush ? ParallelFileLoader.DEFAULT_FLUSH_SIZE : 0,
+				flush ? scopedBNodes : new HashMap<String, BigdataBNode>());
+
+		try {
+
+			loader.loadFiles(totals, files, baseURI, rdfFormat, defaultGraph);
+
+			if (flush) {
+
+				buffer.flush();
+
+			}
+
+		} catch (Throwable t) {
+
+			/*
+			 * Discard the buffered statements. The caller must still discard
+			 * the writes already on the backing store (abort()).
+			 */
+
+			abortBulkBuild();
+
+			if (buffer != null) {
+
+				buffer.reset();
+
+				if (tm != null) {
+
+					// delete the tempStore if truth maintenance is enabled.
+					buffer.getStatementStore().close();
+
+				}
+
+				buffer = null;
+
+			}
+
+			if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+
+			if (t instanceof IOException)
+				throw (IOException) t;
+
+			throw new RuntimeException("While loading: " + file, t);
+
+		}
+
+		if (verbose > 0)
+			output.println(loader.getCounters().toString());
+
+		if (log.isInfoEnabled())
+			log.info("Loaded " + files.size() + " files in "
+					+ (System.currentTimeMillis() - begin) + "ms: " + totals
+					+ "\n" + loader.getCounters());
+
+		if (endOfBatch && closureEnum == ClosureEnum.Batch) {
+
+			if (log.isInfoEnabled())
+				log.info("Computing closure.");
+
+			totals.closureStats.add(doClosure());
+
+		}
+
+	}
+
+	/**
+	 * Return the {@link RDFFormat} for the file based on its name, ignoring a
+	 * <code>.gz</code> or <code>.zip</code> extension.
+	 * 
+	 * @param file
+	 *            The file.
+	 * @param fallback
+	 *            The format to use if it can not be determined from the file
+	 *            name.
+	 */
+	static RDFFormat getRDFFormat(final File file, final RDFFormat fallback) {
+
+		final String n = file.getName();
+
+		RDFFormat fmt = RDFFormat.forFileName(n);
+
+		if (fmt == null && n.endsWith(".zip")) {
+			fmt = RDFFormat.forFileName(n.substring(0, n.length() - 4));
+		}
+
+		if (fmt == null && n.endsWith(".gz")) {
+			fmt = RDFFormat.forFileName(n.substring(0, n.length() - 3));
+		}
+
+		if (fmt == null) // fallback
+			fmt = fallback;
+
+		return fmt;
+
+	}
+
+	/**
+	 * Open the file, decompressing it if it has a <code>.gz</code> or
+	 * <code>.zip</code> extension.
+	 */
+	static InputStream openInputStream(final File file) throws IOException {
+
+		final String n = file.getName();
+
+		InputStream is = new FileInputStream(file);
+
+		if (n.endsWith(".gz")) {
+
+			is = new GZIPInputStream(is, getGzipBuffer());
+
+		} else if (n.endsWith(".zip")) {
+
+			is = new ZipInputStream(new BufferedInputStream(is, getGzipBuffer()));
+
+		}
+
+		return is;
+
+	}
+
     /**
 	 * Loads data from the <i>source</i>. The caller is responsible for closing
 	 * the <i>source</i> if there is an error.
@@ -1519,6 +1812,22 @@ public class DataLoader {
         
         // Note: allocates a new buffer iff the [buffer] is null.
         getAssertionBuffer();
+
+		if (flush && ServiceProviderHook.BLAZEGRAPH_BINARY.equals(rdfFormat)) {
+
+			/*
+			 * Share the blank nodes across the binary sources. The buffer was
+			 * reset when the previous source was flushed. (When flush:=false
+			 * the buffer retains its own mapping across the sources until it
+			 * is flushed.)
+			 */
+
+			if (scopedBNodes == null)
+				scopedBNodes = new HashMap<String, BigdataBNode>();
+
+			buffer.setBNodeMap(scopedBNodes);
+
+		}
         
         /*
 		 * Nope! We do not call reset() here. The buffer is non-empty when
@@ -1658,6 +1967,9 @@ public class DataLoader {
 
                 final long beginCommit = System.currentTimeMillis();
 
+                // The statement indices must be built before the commit.
+                endBulkBuild();
+
                 database.commit(); // database commit.
 
                 stats.commit(); // Note: durable queues pattern.
@@ -1704,6 +2016,8 @@ public class DataLoader {
              * (that is, by calling abort()).
              */
 
+			abortBulkBuild();
+
 			if (buffer != null) {
 
                 // clear any buffer statements.
@@ -1859,6 +2173,8 @@ public class DataLoader {
              * needs to first delete all entailments from the database.
              */
 
+            endBulkBuild();
+
             stats = inferenceEngine.computeClosure(null/* focusStore */);
             
             break;
@@ -1903,7 +2219,7 @@ public class DataLoader {
 	 * support multiple data files within a single archive.
 	 * 
 	 * @param args
-	 *            <code>[-quiet][-closure][-verbose][-durableQueues][-namespace <i>namespace</i>] propertyFile (fileOrDir)*</code>
+	 *            <code>[-quiet][-closure][-verbose][-durableQueues][-parserThreads <i>n</i>][-namespace <i>namespace</i>] propertyFile (fileOrDir)*</code>
 	 *            where
 	 *            <dl>
 	 *            <dt>-quiet</dt>
@@ -1925,6 +2241,9 @@ public class DataLoader {
 	 *            <code>false</code>. Failures can be detected by looking for
 	 *            ".fail" files. (This is a shorthand for
 	 *            {@link Options#DURABLE_QUEUES}.)</dd>
+	 *            <dt>-parserThreads</dt>
+	 *            <dd>The #of files which are parsed concurrently. (This is a
+	 *            shorthand for {@link Options#PARSER_THREADS}.)</dd>
 	 *            <dt>-namespace</dt>
 	 *            <dd>The namespace of the KB instance.</dd>
 	 *            <dt>propertyFile</dt>
@@ -1950,6 +2269,7 @@ public class DataLoader {
         RDFFormat rdfFormat = null;
         String defaultGraph = null;
         String baseURI = null;
+        String parserThreads = null;
         
         int i = 0;
 
@@ -1985,6 +2305,10 @@ public class DataLoader {
 
                     durableQueues = true;
                     
+                } else if (arg.equals("-parserThreads")) {
+
+                    parserThreads = args[++i];
+                    
                 } else if (arg.equals("-verbose")) {
 
                     verbose++;
@@ -2028,6 +2352,13 @@ public class DataLoader {
         final List<File> files = new LinkedList<File>();
 		
 		final Properties properties = processProperties(propertyFileName, quiet, verbose, durableQueues);
+
+		if (parserThreads != null) {
+
+			// Shorthand for the parserThreads option.
+			properties.setProperty(Options.PARSER_THREADS, parserThreads);
+
+		}
         
 		while (i < args.length) {
 
@@ -2246,7 +2577,7 @@ public class DataLoader {
 
     private static void usage() {
         
-        System.err.println("usage: [-closure][-verbose][-durableQueues][-namespace namespace] propertyFile (fileOrDir)+");
+        System.err.println("usage: [-closure][-verbose][-durableQueues][-parserThreads n][-namespace namespace] propertyFile (fileOrDir)+");
 
         System.exit(1);
         
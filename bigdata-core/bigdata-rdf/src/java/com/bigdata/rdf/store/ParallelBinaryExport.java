@@ -0,0 +1,541 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.ILinearList;
+import com.bigdata.btree.IRangeQuery;
+import com.bigdata.btree.ITuple;
+import com.bigdata.btree.ITupleIterator;
+import com.bigdata.btree.keys.IKeyBuilder;
+import com.bigdata.btree.keys.KeyBuilder;
+import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedure.ResultBufferHandler;
+import com.bigdata.btree.proc.BatchLookup.BatchLookupConstructor;
+import com.bigdata.btree.raba.IRaba;
+import com.bigdata.io.ByteArrayBuffer;
+import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.mdi.PartitionLocator;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.impl.BlobIV;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rdf.lexicon.LexiconRelation;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueSerializer;
+import com.bigdata.rdf.rio.binary.BigdataBinaryRDFWriter;
+import com.bigdata.rdf.spo.ISPO;
+import com.bigdata.service.ndx.IScaleOutClientIndex;
+import com.bigdata.util.DaemonThreadFactory;
+
+/**
+ * Exports the statements of a KB in the binary interchange format of the
+ * {@link BigdataBinaryRDFWriter}. Unlike an export using an
+ * {@link org.openrdf.rio.RDFWriter}, the values are not materialized as
+ * {@link BigdataValue}s and formatted. The serialized values are read from the
+ * <code>ID2TERM</code> and <code>BLOBS</code> indices and copied directly into
+ * the dictionary of each block. Only inline values are materialized (and then
+ * serialized).
+ * <p>
+ * The primary statement index is divided into key ranges and each key range
+ * is exported concurrently onto its own (gzip compressed) file. For a
+ * scale-out index there is one key range per shard. Otherwise the key ranges
+ * are chosen such that they have roughly the same #of tuples (when the index
+ * is a B+Tree) or there is a single key range. Within each key range, the
+ * statements are read in key order and the values for each block are read
+ * from the lexicon indices in key order.
+ * <p>
+ * The files may be loaded using the {@link DataLoader} (for example, by
+ * loading the directory into which they were written).
+ * <p>
+ * Blank nodes are scoped by the export rather than by the file. Each file
+ * carries the same scope in its header, so the blank nodes used by statements
+ * in different key ranges are co-referenced when the files are loaded by the
+ * same {@link DataLoader}.
+ * <p>
+ * Note: Statement identifiers are not supported.
+ */
+public class ParallelBinaryExport {
+
+    private static final transient Logger log = Logger
+            .getLogger(ParallelBinaryExport.class);
+
+    private final AbstractTripleStore kb;
+
+    private final File dir;
+
+    private final int nparts;
+
+    private final int blockSize;
+
+    private final boolean includeInferred;
+
+    /**
+     * @param kb
+     *            The KB (normally a read-only view).
+     * @param dir
+     *            The directory on which the files will be written.
+     * @param nparts
+     *            The desired #of key ranges (and hence files and threads). For
+     *            a scale-out index there is always one key range per shard.
+     * @param blockSize
+     *            The #of statements in each block.
+     * @param includeInferred
+     *            When <code>true</code>, the inferences and axioms are also
+     *            exported. Otherwise only the explicit statements are
+     *            exported.
+     */
+    public ParallelBinaryExport(final AbstractTripleStore kb, final File dir,
+            final int nparts, final int blockSize,
+            final boolean includeInferred) {
+
+        if (kb == null)
+            throw new IllegalArgumentException();
+
+        if (dir == null)
+            throw new IllegalArgumentException();
+
+        if (nparts <= 0)
+            throw new IllegalArgumentException();
+
+        if (blockSize <= 0)
+            throw new IllegalArgumentException();
+
+        if (kb.isStatementIdentifiers())
+            throw new IllegalArgumentException(
+                    "Statement identifiers are not supported.");
+
+        this.kb = kb;
+
+        this.dir = dir;
+
+        this.nparts = nparts;
+
+        this.blockSize = blockSize;
+
+        this.includeInferred = includeInferred;
+
+    }
+
+    /**
+     * Export the statements.
+     * 
+     * @return The files which were written, in key order.
+     */
+    public List<File> export() throws IOException, InterruptedException,
+            ExecutionException {
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Could not create directory: " + dir);
+
+        final IIndex ndx = kb.getSPORelation().getPrimaryIndex();
+
+        final List<byte[]> keys = getSeparatorKeys(ndx);
+
+        final int n = keys.size() - 1;
+
+        final List<File> files = new ArrayList<File>(n);
+
+        final List<Callable<Long>> tasks = new ArrayList<Callable<Long>>(n);
+
+        // The scope of the blank nodes in the exported files.
+        final UUID scope = UUID.randomUUID();
+
+        for (int i = 0; i < n; i++) {
+
+            final File file = new File(dir, "data-" + i + "."
+                    + ServiceProviderHook.BLAZEGRAPH_BINARY
+                            .getDefaultFileExtension() + ".gz");
+
+            files.add(file);
+
+            tasks.add(new ExportTask(ndx, keys.get(i), keys.get(i + 1), file,
+                    scope));
+
+        }
+
+        final long begin = System.currentTimeMillis();
+
+        final ExecutorService service = Executors.newFixedThreadPool(
+                Math.min(n, nparts), new DaemonThreadFactory(getClass()
+                        .getName()));
+
+        long nstmts = 0;
+
+        try {
+
+            for (Future<Long> f : service.invokeAll(tasks)) {
+
+                nstmts += f.get();
+
+            }
+
+        } finally {
+
+            service.shutdownNow();
+
+        }
+
+        if (log.isInfoEnabled())
+            log.info("Exported " + nstmts + " statements onto " + n
+                    + " files in " + (System.currentTimeMillis() - begin)
+                    + "ms");
+
+        return files;
+
+    }
+
+    /**
+     * Return the separator keys for the key ranges. The first and last keys
+     * are <code>null</code>, so there are N+1 keys for N key ranges.
+     */
+    private List<byte[]> getSeparatorKeys(final IIndex ndx) {
+
+        final List<byte[]> keys = new LinkedList<byte[]>();
+
+        keys.add(null);
+
+        if (ndx instanceof IScaleOutClientIndex) {
+
+            // One key range per shard.
+            final Iterator<PartitionLocator> itr = ((IScaleOutClientIndex) ndx)
+                    .locatorScan(kb.getTimestamp(), null/* fromKey */,
+                            null/* toKey */, false/* reverseScan */);
+
+            while (itr.hasNext()) {
+
+                final byte[] rightSeparatorKey = itr.next()
+                        .getRightSeparatorKey();
+
+                if (rightSeparatorKey != null)
+                    keys.add(rightSeparatorKey);
+
+            }
+
+        } else if (ndx instanceof ILinearList) {
+
+            // Key ranges with (about) the same #of tuples.
+            final ILinearList list = (ILinearList) ndx;
+
+            final long rangeCount = ndx.rangeCount();
+
+            byte[] lastKey = null;
+
+            for (int i = 1; i < nparts; i++) {
+
+                final long index = rangeCount * i / nparts;
+
+                if (index == 0)
+                    continue;
+
+                final byte[] key = list.keyAt(index);
+
+                if (lastKey != null && Arrays.equals(key, lastKey))
+                    continue;
+
+                keys.add(key);
+
+                lastKey = key;
+
+            }
+
+        }
+
+        keys.add(null);
+
+        return new ArrayList<byte[]>(keys);
+
+    }
+
+    /**
+     * Export the statements in a key range onto a file.
+     */
+    private class ExportTask implements Callable<Long> {
+
+        private final IIndex ndx;
+
+        private final byte[] fromKey;
+
+        private final byte[] toKey;
+
+        private final File file;
+
+        private final UUID scope;
+
+        private final LexiconRelation lex = kb.getLexiconRelation();
+
+        private final BigdataValueSerializer<BigdataValue> valueSer = lex
+                .getValueFactory().getValueSerializer();
+
+        private final DataOutputBuffer buf = new DataOutputBuffer(256);
+
+        private final ByteArrayBuffer tmp = new ByteArrayBuffer(256);
+
+        private final IKeyBuilder keyBuilder = KeyBuilder.newInstance();
+
+        private final ISPO[] stmts = new ISPO[blockSize];
+
+        private final int[] refs = new int[blockSize * 4];
+
+        /**
+         * The dictionary for the current block.
+         */
+        private final Map<IV<?, ?>, Integer> dict = new LinkedHashMap<IV<?, ?>, Integer>();
+
+        private int nstmts = 0;
+
+        ExportTask(final IIndex ndx, final byte[] fromKey,
+                final byte[] toKey, final File file, final UUID scope) {
+
+            this.ndx = ndx;
+
+            this.fromKey = fromKey;
+
+            this.toKey = toKey;
+
+            this.file = file;
+
+            this.scope = scope;
+
+        }
+
+        @Override
+        public Long call() throws Exception {
+
+            long n = 0;
+
+            final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(
+                            new FileOutputStream(file))));
+
+            try {
+
+                BigdataBinaryRDFWriter.writeHeader(out, scope);
+
+                final ITupleIterator<?> itr = ndx.rangeIterator(fromKey,
+                        toKey, 0/* capacity */, IRangeQuery.DEFAULT, null/* filter */);
+
+                while (itr.hasNext()) {
+
+                    final ITuple<?> tuple = itr.next();
+
+                    final ISPO spo = (ISPO) tuple.getObject();
+
+                    if (!includeInferred && !spo.isExplicit())
+                        continue;
+
+                    stmts[nstmts++] = spo;
+
+                    if (nstmts == blockSize) {
+
+                        writeBlock(out);
+
+                    }
+
+                    n++;
+
+                }
+
+                writeBlock(out);
+
+                BigdataBinaryRDFWriter.writeEnd(out);
+
+            } finally {
+
+                out.close();
+
+            }
+
+            if (log.isInfoEnabled())
+                log.info("Wrote " + n + " statements on " + file);
+
+            return n;
+
+        }
+
+        private int addValue(final IV<?, ?> iv) {
+
+            final Integer idx = dict.get(iv);
+
+            if (idx != null)
+                return idx.intValue();
+
+            final int n = dict.size();
+
+            dict.put(iv, n);
+
+            return n;
+
+        }
+
+        /**
+         * Write the buffered statements (if any) as a block.
+         */
+        private void writeBlock(final DataOutputStream out) throws IOException {
+
+            if (nstmts == 0)
+                return;
+
+            for (int i = 0; i < nstmts; i++) {
+
+                final ISPO spo = stmts[i];
+
+                final int off = i * 4;
+
+                refs[off + 0] = addValue(spo.s());
+                refs[off + 1] = addValue(spo.p());
+                refs[off + 2] = addValue(spo.o());
+                refs[off + 3] = spo.c() == null ? 0 : addValue(spo.c()) + 1;
+
+                stmts[i] = null;
+
+            }
+
+            final int nvalues = dict.size();
+
+            final byte[][] values = new byte[nvalues][];
+
+            final List<TermId<?>> termIds = new ArrayList<TermId<?>>();
+
+            final List<BlobIV<?>> blobIVs = new ArrayList<BlobIV<?>>();
+
+            for (Map.Entry<IV<?, ?>, Integer> e : dict.entrySet()) {
+
+                final IV<?, ?> iv = e.getKey();
+
+                if (iv.isInline()) {
+
+                    final BigdataValue v = iv.asValue(lex);
+
+                    buf.reset();
+
+                    values[e.getValue()] = valueSer.serialize(v, buf, tmp);
+
+                } else if (iv instanceof TermId<?>) {
+
+                    termIds.add((TermId<?>) iv);
+
+                } else if (iv instanceof BlobIV<?>) {
+
+                    blobIVs.add((BlobIV<?>) iv);
+
+                } else {
+
+                    throw new UnsupportedOperationException("iv=" + iv);
+
+                }
+
+            }
+
+            // Copy the serialized values from the lexicon indices.
+            lookup(lex.getId2TermIndex(),
+                    termIds.toArray(new TermId[termIds.size()]), values);
+
+            lookup(lex.getBlobsIndex(),
+                    blobIVs.toArray(new BlobIV[blobIVs.size()]), values);
+
+            BigdataBinaryRDFWriter.writeBlock(out, values, nvalues, refs,
+                    nstmts);
+
+            dict.clear();
+
+            nstmts = 0;
+
+        }
+
+        /**
+         * Read the serialized values for the IVs from an index of the lexicon
+         * in key order, placing them into the dictionary for the block.
+         */
+        private void lookup(final IIndex ndx, final IV<?, ?>[] ivs,
+                final byte[][] values) {
+
+            final int n = ivs.length;
+
+            if (n == 0)
+                return;
+
+            // Sort IVs into index order.
+            Arrays.sort(ivs);
+
+            final byte[][] keys = new byte[n][];
+
+            for (int i = 0; i < n; i++) {
+
+                keys[i] = ivs[i].encode(keyBuilder.reset()).getKey();
+
+            }
+
+            // aggregates results if lookup split across index partitions.
+            final ResultBufferHandler resultHandler = new ResultBufferHandler(
+                    n, ndx.getIndexMetadata().getTupleSerializer()
+                            .getLeafValuesCoder());
+
+            ndx.submit(0/* fromIndex */, n/* toIndex */, keys, null/* vals */,
+                    BatchLookupConstructor.INSTANCE, resultHandler);
+
+            final IRaba vals = resultHandler.getResult().getValues();
+
+            for (int i = 0; i < n; i++) {
+
+                final byte[] data = vals.get(i);
+
+                if (data == null)
+                    throw new IllegalStateException("No such term: " + ivs[i]);
+
+                values[dict.get(ivs[i])] = data;
+
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,928 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.store;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.log4j.Logger;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.Value;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+
+import com.bigdata.counters.CAT;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.rio.BasicRioLoader;
+import com.bigdata.rdf.rio.RDFParserOptions;
+import com.bigdata.rdf.rio.StatementBuffer;
+import com.bigdata.rdf.rio.ntriples.NTriplesSplitter;
+import com.bigdata.rdf.store.DataLoader.MyLoadStats;
+import com.bigdata.util.DaemonThreadFactory;
+
+/**
+ * Loads a set of files using a pipeline in which several files are parsed
+ * concurrently. The stages are:
+ * <dl>
+ * <dt>parse</dt>
+ * <dd>N parser threads, each of which parses one file at a time. The parsed
+ * statements are placed onto a bounded queue in chunks.</dd>
+ * <dt>buffer</dt>
+ * <dd>The calling thread drains the queue into the {@link StatementBuffer}.
+ * This is where the terms are made canonical within each batch.</dd>
+ * <dt>write</dt>
+ * <dd>The {@link StatementBuffer} hands off full batches to its own writer
+ * (see {@link DataLoader.Options#QUEUE_CAPACITY}). The writer resolves the
+ * terms against TERM2ID in one batch, then writes on ID2TERM, BLOBS and the
+ * full text index concurrently and finally writes on each of the statement
+ * indices concurrently.</dd>
+ * </dl>
+ * The indices have a single writer, so the parallelism is in the parse stage
+ * and within the write stage.
+ * <p>
+ * Large files in a line based format are split into blocks which are parsed
+ * concurrently by a second pool of parser threads (see
+ * {@link NTriplesSplitter}). The parse task for such a file just reads the
+ * blocks, so a single large file is parsed by all of the threads.
+ * <p>
+ * Note: The statements of different files are interleaved in the
+ * {@link StatementBuffer}. The buffer is flushed (which discards its
+ * canonicalizing mapping for blank nodes) each time the flush size is
+ * reached, so that mapping does not grow with the size of the load. The blank
+ * nodes of each file are instead made canonical by a mapping which is
+ * discarded once the file is done. After a flush, the canonical blank nodes
+ * already carry their IVs, so their later statements in the same file still
+ * co-reference them. The blank nodes of
+ * {@link ServiceProviderHook#BLAZEGRAPH_BINARY} files are scoped by the export
+ * rather than by the file, so they use the mapping shared across the sources
+ * by the {@link DataLoader}.
+ * <p>
+ * Note: When {@link DataLoader.Options#IGNORE_INVALID_FILES} is specified,
+ * statements parsed from an invalid file before the parser error was detected
+ * may have already been written.
+ *
+ * @see DataLoader.Options#PARSER_THREADS
+ */
+class ParallelFileLoader implements ICounterSetAccess {
+
+    private static final transient Logger log = Logger
+            .getLogger(ParallelFileLoader.class);
+
+    /**
+     * The #of statements in each chunk placed onto the queue by a parser.
+     */
+    static final int CHUNK_SIZE = 10000;
+
+    /**
+     * The default #of statements buffered between flushes of the
+     * {@link StatementBuffer}. Each flush waits for the writer to catch up,
+     * so this is much larger than the capacity of the buffer.
+     */
+    static final int DEFAULT_FLUSH_SIZE = 1000000;
+
+    private final DataLoader dataLoader;
+
+    private final StatementBuffer<?> buffer;
+
+    private final RDFParserOptions parserOptions;
+
+    private final int parserThreads;
+
+    private final boolean ignoreInvalidFiles;
+
+    /**
+     * The #of statements buffered between flushes of the
+     * {@link StatementBuffer} (zero to never flush the buffer).
+     */
+    private final int flushSize;
+
+    /**
+     * The canonicalizing mapping for the blank nodes of the
+     * {@link ServiceProviderHook#BLAZEGRAPH_BINARY} files.
+     */
+    private final Map<String, BigdataBNode> scopedBNodes;
+
+    /**
+     * The canonicalizing mapping for the blank nodes of each file which is
+     * being parsed. Only accessed by the thread which drains the
+     * {@link #queue}.
+     */
+    private final Map<File, Map<String, BigdataBNode>> fileBNodes =
+            new HashMap<File, Map<String, BigdataBNode>>();
+
+    /**
+     * The chunks of parsed statements.
+     */
+    private final BlockingQueue<Chunk> queue;
+
+    /**
+     * Parses the blocks of files which are split (set by
+     * {@link #loadFiles(MyLoadStats, List, String, RDFFormat, String)}).
+     */
+    private ExecutorService blockService;
+
+    /*
+     * Counters.
+     */
+
+    private final CAT filesParsed = new CAT();
+
+    private final CAT filesFailed = new CAT();
+
+    private final CAT statementsParsed = new CAT();
+
+    private final CAT parseMillis = new CAT();
+
+    private final CAT statementsBuffered = new CAT();
+
+    private final CAT bufferMillis = new CAT();
+
+    private final CAT bufferWaitMillis = new CAT();
+
+    private final CAT flushCount = new CAT();
+
+    private final CAT flushMillis = new CAT();
+
+    /**
+     * A chunk of statements parsed from a file. The last chunk for a file
+     * reports the outcome for that file.
+     */
+    private static class Chunk {
+
+        final Statement[] stmts;
+
+        final int n;
+
+        /**
+         * Non-<code>null</code> iff this is the last chunk for the file.
+         */
+        final MyLoadStats stats;
+
+        /**
+         * The error (if any) for the file. Only set on the last chunk.
+         */
+        final Throwable cause;
+
+        final File file;
+
+        Chunk(final File file, final Statement[] stmts, final int n,
+                final MyLoadStats stats, final Throwable cause) {
+
+            this.file = file;
+            this.stmts = stmts;
+            this.n = n;
+            this.stats = stats;
+            this.cause = cause;
+
+        }
+
+    }
+
+    /**
+     * @param dataLoader
+     *            The {@link DataLoader}.
+     * @param buffer
+     *            The buffer onto which the statements will be written.
+     * @param parserOptions
+     *            The parser options.
+     * @param parserThreads
+     *            The #of files which will be parsed concurrently.
+     * @param ignoreInvalidFiles
+     *            When <code>true</code> files with parser errors are skipped.
+     * @param flushSize
+     *            The #of statements buffered between flushes of the buffer
+     *            (zero to leave the buffer to the caller).
+     * @param scopedBNodes
+     *            The canonicalizing mapping for the blank nodes of the
+     *            {@link ServiceProviderHook#BLAZEGRAPH_BINARY} files.
+     */
+    ParallelFileLoader(final DataLoader dataLoader,
+            final StatementBuffer<?> buffer,
+            final RDFParserOptions parserOptions, final int parserThreads,
+            final boolean ignoreInvalidFiles, final int flushSize,
+            final Map<String, BigdataBNode> scopedBNodes) {
+
+        if (parserThreads < 1)
+            throw new IllegalArgumentException();
+
+        if (flushSize < 0)
+            throw new IllegalArgumentException();
+
+        if (scopedBNodes == null)
+            throw new IllegalArgumentException();
+
+        this.dataLoader = dataLoader;
+        this.buffer = buffer;
+        this.parserOptions = parserOptions;
+        this.parserThreads = parserThreads;
+        this.ignoreInvalidFiles = ignoreInvalidFiles;
+        this.flushSize = flushSize;
+        this.scopedBNodes = scopedBNodes;
+        this.queue = new LinkedBlockingQueue<Chunk>(2 * parserThreads);
+
+    }
+
+    /**
+     * Collect the files to be loaded. Directories are processed recursively.
+     * The files are returned in descending order by their size so the large
+     * files are started first.
+     */
+    static List<File> getFiles(final File file, final FilenameFilter filter) {
+
+        final List<File> files = new ArrayList<File>();
+
+        collectFiles(file, filter, files);
+
+        Collections.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File o1, final File o2) {
+                final long a = o1.length(), b = o2.length();
+                return a > b ? -1 : a < b ? 1 : o1.compareTo(o2);
+            }
+        });
+
+        return files;
+
+    }
+
+    private static void collectFiles(final File file,
+            final FilenameFilter filter, final List<File> files) {
+
+        if (file.isDirectory()) {
+
+            final File[] a = (filter != null ? file.listFiles(filter) : file
+                    .listFiles());
+
+            Arrays.sort(a);
+
+            for (File f : a) {
+
+                collectFiles(f, filter, files);
+
+            }
+
+            return;
+
+        }
+
+        files.add(file);
+
+    }
+
+    /**
+     * Load the files.
+     *
+     * @param totals
+     *            The statistics for each file are added to the totals.
+     * @param files
+     *            The files.
+     * @param baseURI
+     *            The baseURI (optional, defaults to the URL of each file).
+     * @param rdfFormat
+     *            The fallback format.
+     * @param defaultGraph
+     *            The default graph (optional).
+     */
+    void loadFiles(final MyLoadStats totals, final List<File> files,
+            final String baseURI, final RDFFormat rdfFormat,
+            final String defaultGraph) throws InterruptedException {
+
+        final ExecutorService service = Executors.newFixedThreadPool(
+                parserThreads, new DaemonThreadFactory(getClass().getName()));
+
+        blockService = Executors.newFixedThreadPool(parserThreads,
+                new DaemonThreadFactory(getClass().getName() + ".blocks"));
+
+        try {
+
+            for (File file : files) {
+
+                service.execute(new ParseTask(file, baseURI, rdfFormat,
+                        defaultGraph));
+
+            }
+
+            int remaining = files.size();
+
+            // #of statements buffered since the last flush.
+            long nbuffered = 0;
+
+            while (remaining > 0) {
+
+                final long beginWait = System.currentTimeMillis();
+
+                final Chunk chunk = queue.take();
+
+                final long begin = System.currentTimeMillis();
+
+                bufferWaitMillis.add(begin - beginWait);
+
+                if (chunk.n > 0) {
+
+                    final Map<String, BigdataBNode> bnodes = getBNodes(
+                            chunk.file, rdfFormat);
+
+                    for (int i = 0; i < chunk.n; i++) {
+
+                        final Statement stmt = chunk.stmts[i];
+
+                        buffer.add(canonical(bnodes, stmt.getSubject()),
+                                stmt.getPredicate(),
+                                canonical(bnodes, stmt.getObject()),
+                                canonical(bnodes, stmt.getContext()));
+
+                    }
+
+                }
+
+                statementsBuffered.add(chunk.n);
+
+                bufferMillis.add(System.currentTimeMillis() - begin);
+
+                nbuffered += chunk.n;
+
+                if (flushSize > 0 && nbuffered >= flushSize) {
+
+                    flush();
+
+                    nbuffered = 0;
+
+                }
+
+                if (chunk.stats == null)
+                    continue;
+
+                // The last chunk for a file.
+                remaining--;
+
+                fileBNodes.remove(chunk.file);
+
+                if (chunk.cause != null) {
+
+                    filesFailed.increment();
+
+                    chunk.stats.didFail(chunk.file);
+
+                    totals.add(chunk.stats);
+
+                    if (ignoreInvalidFiles
+                            && chunk.cause instanceof RDFParseException) {
+
+                        log.error("Parser error - skipping source: source="
+                                + chunk.file, chunk.cause);
+
+                        continue;
+
+                    }
+
+                    throw new RuntimeException("Could not parse file: "
+                            + chunk.file, chunk.cause);
+
+                }
+
+                filesParsed.increment();
+
+                chunk.stats.didGood(chunk.file);
+
+                totals.add(chunk.stats);
+
+                if (log.isInfoEnabled())
+                    log.info("file:: " + chunk.stats + "; totals:: " + totals
+                            + ", file=" + chunk.file);
+
+            }
+
+        } finally {
+
+            // Interrupts any parsers blocked on the queue.
+            service.shutdownNow();
+
+            blockService.shutdownNow();
+
+            queue.clear();
+
+            fileBNodes.clear();
+
+        }
+
+    }
+
+    /**
+     * Flush the buffer. This writes the buffered statements and discards the
+     * canonicalizing mapping for blank nodes of the buffer.
+     */
+    private void flush() {
+
+        final long begin = System.currentTimeMillis();
+
+        buffer.flush();
+
+        flushCount.increment();
+
+        flushMillis.add(System.currentTimeMillis() - begin);
+
+    }
+
+    /**
+     * Return the canonicalizing mapping for the blank nodes of the file.
+     */
+    private Map<String, BigdataBNode> getBNodes(final File file,
+            final RDFFormat rdfFormat) {
+
+        if (ServiceProviderHook.BLAZEGRAPH_BINARY.equals(DataLoader
+                .getRDFFormat(file, rdfFormat))) {
+
+            // Scoped by the export rather than by the file.
+            return scopedBNodes;
+
+        }
+
+        Map<String, BigdataBNode> bnodes = fileBNodes.get(file);
+
+        if (bnodes == null) {
+
+            bnodes = new HashMap<String, BigdataBNode>();
+
+            fileBNodes.put(file, bnodes);
+
+        }
+
+        return bnodes;
+
+    }
+
+    /**
+     * Return the canonical blank node for the value if it is a blank node and
+     * otherwise the value itself. The first blank node reported for an ID is
+     * the canonical blank node for that ID.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Value> T canonical(
+            final Map<String, BigdataBNode> bnodes, final T v) {
+
+        if (!(v instanceof BigdataBNode))
+            return v;
+
+        final BigdataBNode bnode = (BigdataBNode) v;
+
+        if (bnode.isStatementIdentifier()) {
+
+            // A statement about a statement, not a labeled blank node.
+            return v;
+
+        }
+
+        final BigdataBNode t = bnodes.get(bnode.getID());
+
+        if (t != null)
+            return (T) t;
+
+        bnodes.put(bnode.getID(), bnode);
+
+        return v;
+
+    }
+
+    /**
+     * The #of times the buffer was flushed.
+     */
+    long getFlushCount() {
+
+        return flushCount.get();
+
+    }
+
+    /**
+     * Parses one file onto the queue.
+     */
+    private class ParseTask implements Runnable {
+
+        private final File file;
+
+        private final String baseURI;
+
+        private final RDFFormat rdfFormat;
+
+        private final String defaultGraph;
+
+        ParseTask(final File file, final String baseURI,
+                final RDFFormat rdfFormat, final String defaultGraph) {
+
+            this.file = file;
+            this.baseURI = baseURI;
+            this.rdfFormat = rdfFormat;
+            this.defaultGraph = defaultGraph;
+
+        }
+
+        @Override
+        public void run() {
+
+            final long begin = System.currentTimeMillis();
+
+            final MyLoadStats stats = dataLoader.newLoadStats();
+
+            final String s = baseURI != null ? baseURI : file.toURI()
+                    .toString();
+
+            final RDFFormat fmt = DataLoader.getRDFFormat(file, rdfFormat);
+
+            Throwable cause = null;
+
+            long nstmts = 0;
+
+            try {
+
+                if (NTriplesSplitter.isSplittable(fmt)
+                        && file.length() > 2 * NTriplesSplitter.DEFAULT_BLOCK_SIZE) {
+
+                    nstmts = parseSplit(s, fmt);
+
+                } else {
+
+                    final QueueingRioLoader loader = new QueueingRioLoader(
+                            file, defaultGraph);
+
+                    final InputStream is = DataLoader.openInputStream(file);
+
+                    try {
+
+                        if (fmt != null && !fmt.hasCharset()) {
+
+                            // Binary format.
+                            loader.loadRdf(is, s, fmt, defaultGraph,
+                                    parserOptions);
+
+                        } else {
+
+                            final Reader reader = new BufferedReader(
+                                    new InputStreamReader(is));
+
+                            loader.loadRdf(reader, s, fmt, defaultGraph,
+                                    parserOptions);
+
+                        }
+
+                    } finally {
+
+                        nstmts = loader.getStatementsAdded();
+
+                        is.close();
+
+                    }
+
+                }
+
+            } catch (InterruptedException ex) {
+
+                // Load was cancelled.
+                return;
+
+            } catch (Throwable t) {
+
+                if (t.getCause() instanceof InterruptedException)
+                    return;
+
+                cause = t;
+
+            }
+
+            final long elapsed = System.currentTimeMillis() - begin;
+
+            parseMillis.add(elapsed);
+
+            statementsParsed.add(nstmts);
+
+            stats.toldTriples.set(nstmts);
+
+            stats.loadTime.set(elapsed);
+
+            stats.totalTime.set(elapsed);
+
+            try {
+
+                queue.put(new Chunk(file, new Statement[0], 0, stats, cause));
+
+            } catch (InterruptedException ex) {
+
+                // Load was cancelled.
+
+            }
+
+        }
+
+        /**
+         * Read the file in blocks which are parsed by the
+         * {@link ParallelFileLoader#blockService}.
+         *
+         * @return The #of statements parsed.
+         */
+        private long parseSplit(final String baseURI, final RDFFormat fmt)
+                throws Exception {
+
+            final NTriplesSplitter splitter = new NTriplesSplitter(buffer
+                    .getDatabase().getValueFactory(), fmt, parserOptions,
+                    NTriplesSplitter.DEFAULT_BLOCK_SIZE) {
+
+                @Override
+                protected RDFHandler newRDFHandler() {
+
+                    return new QueueingRioLoader(file, defaultGraph)
+                            .newRDFHandler();
+
+                }
+
+            };
+
+            final InputStream is = DataLoader.openInputStream(file);
+
+            try {
+
+                return splitter.parse(is, baseURI, blockService,
+                        parserThreads + 1/* maxBlocks */);
+
+            } finally {
+
+                is.close();
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Places the parsed statements onto the {@link ParallelFileLoader#queue}
+     * in chunks.
+     */
+    private class QueueingRioLoader extends BasicRioLoader implements
+            RDFHandler {
+
+        private final File file;
+
+        private Statement[] stmts = new Statement[CHUNK_SIZE];
+
+        private int n = 0;
+
+        /**
+         * The value that will be used for the graph/context co-ordinate when
+         * loading data represented in a triple format into a quad store.
+         */
+        private BigdataURI defaultGraphURI = null;
+
+        QueueingRioLoader(final File file, final String defaultGraph) {
+
+            super(buffer.getDatabase().getValueFactory());
+
+            this.file = file;
+
+            // Note: also set by loadRdf().
+            this.defaultGraph = defaultGraph;
+
+        }
+
+        @Override
+        public RDFHandler newRDFHandler() {
+
+            defaultGraphURI = null != defaultGraph
+                    && buffer.getDatabase().isQuads() ? buffer.getDatabase()
+                    .getValueFactory().createURI(defaultGraph) : null;
+
+            return this;
+
+        }
+
+        @Override
+        public void handleStatement(final Statement stmt)
+                throws RDFHandlerException {
+
+            final Resource graph = stmt.getContext();
+
+            stmts[n++] = graph == null && defaultGraphURI != null ? buffer
+                    .getDatabase()
+                    .getValueFactory()
+                    .createStatement(stmt.getSubject(), stmt.getPredicate(),
+                            stmt.getObject(), defaultGraphURI) : stmt;
+
+            stmtsAdded++;
+
+            if (n == stmts.length) {
+
+                try {
+
+                    sendChunk();
+
+                } catch (InterruptedException ex) {
+
+                    throw new RDFHandlerException(ex);
+
+                }
+
+            }
+
+        }
+
+        void sendChunk() throws InterruptedException {
+
+            if (n == 0)
+                return;
+
+            queue.put(new Chunk(file, stmts, n, null/* stats */, null/* cause */));
+
+            stmts = new Statement[CHUNK_SIZE];
+
+            n = 0;
+
+        }
+
+        @Override
+        public void startRDF() throws RDFHandlerException {
+        }
+
+        /**
+         * Send the last partial chunk.
+         */
+        @Override
+        public void endRDF() throws RDFHandlerException {
+
+            try {
+
+                sendChunk();
+
+            } catch (InterruptedException ex) {
+
+                throw new RDFHandlerException(ex);
+
+            }
+
+        }
+
+        @Override
+        public void handleNamespace(final String prefix, final String uri)
+                throws RDFHandlerException {
+        }
+
+        @Override
+        public void handleComment(final String comment)
+                throws RDFHandlerException {
+        }
+
+    }
+
+    /**
+     * Reports the throughput of the parse and buffer stages. The counters for
+     * the write stage are reported by the {@link StatementBuffer}.
+     */
+    @Override
+    public CounterSet getCounters() {
+
+        final CounterSet root = new CounterSet();
+
+        final CounterSet parse = root.makePath("parse");
+
+        parse.addCounter("parserThreads", new Instrument<Integer>() {
+            @Override
+            public void sample() {
+                setValue(parserThreads);
+            }
+        });
+
+        parse.addCounter("filesParsed", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(filesParsed.get());
+            }
+        });
+
+        parse.addCounter("filesFailed", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(filesFailed.get());
+            }
+        });
+
+        parse.addCounter("statementsParsed", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(statementsParsed.get());
+            }
+        });
+
+        parse.addCounter("parseMillis", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(parseMillis.get());
+            }
+        });
+
+        // Statements per second per parser thread.
+        parse.addCounter("statementsPerSecondPerThread", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                final long ms = parseMillis.get();
+                setValue(ms == 0 ? 0L : statementsParsed.get() * 1000 / ms);
+            }
+        });
+
+        parse.addCounter("queueSize", new Instrument<Integer>() {
+            @Override
+            public void sample() {
+                setValue(queue.size());
+            }
+        });
+
+        final CounterSet buf = root.makePath("buffer");
+
+        buf.addCounter("statementsBuffered", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(statementsBuffered.get());
+            }
+        });
+
+        // Includes the time blocked on the StatementBuffer's writer.
+        buf.addCounter("bufferMillis", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(bufferMillis.get());
+            }
+        });
+
+        // Time waiting for the parsers.
+        buf.addCounter("waitMillis", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(bufferWaitMillis.get());
+            }
+        });
+
+        buf.addCounter("flushCount", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(flushCount.get());
+            }
+        });
+
+        // Time waiting for the writer to catch up on each flush.
+        buf.addCounter("flushMillis", new Instrument<Long>() {
+            @Override
+            public void sample() {
+                setValue(flushMillis.get());
+            }
+        });
+        root.makePath("write").attach(buffer.getCounters());
+
+        return root;
+
+    }
+
+}
@@ -0,0 +1,343 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.util;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Properties;
+
+import org.openrdf.model.Statement;
+
+import com.bigdata.journal.IIndexManager;
+import com.bigdata.journal.IJournal;
+import com.bigdata.journal.ITx;
+import com.bigdata.journal.TimestampUtility;
+import com.bigdata.rdf.internal.IInlineURIFactory;
+import com.bigdata.rdf.internal.InlineURIAnalyzer;
+import com.bigdata.rdf.model.BigdataStatement;
+import com.bigdata.rdf.rio.StatementBuffer;
+import com.bigdata.rdf.spo.ExplicitSPOFilter;
+import com.bigdata.rdf.spo.ISPO;
+import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.store.BigdataStatementIterator;
+import com.bigdata.rdf.store.LocalTripleStore;
+import com.bigdata.rdf.vocab.Vocabulary;
+import com.bigdata.striterator.IChunkedOrderedIterator;
+
+/**
+ * Utility to find the {@link org.openrdf.model.URI} namespaces in a KB whose
+ * local names could be inlined, to generate a {@link Vocabulary} and
+ * {@link IInlineURIFactory} which inline them, and to rewrite the KB into a
+ * new KB instance using that configuration.
+ * <p>
+ * The work is done in two steps since the generated classes must be compiled
+ * and placed on the classpath before the new KB instance can be created.
+ * <ol>
+ * <li>Analyze the KB and (optionally) generate the sources. The analysis is
+ * reported on stdout together with the properties which select the generated
+ * classes.</li>
+ * <li>Rewrite the KB into a new KB instance on the same journal using the
+ * compiled classes. The explicit statements are copied and the entailments (if
+ * any) are recomputed.</li>
+ * </ol>
+ *
+ * @see InlineURIAnalyzer
+ */
+public class AnalyzeInlineURIs extends DumpLexicon {
+
+    protected AnalyzeInlineURIs() {
+    }
+
+    protected static void usage() {
+
+        System.err.println("usage: (-minCount n) (-generate dir package className)"
+                + " (-rewrite targetNamespace vocabularyClass inlineURIFactoryClass)"
+                + " <namespace> <filename>");
+
+    }
+
+    /**
+     * Copy the explicit statements from one KB instance into another and then
+     * compute the closure of the target KB (unless it does not use
+     * inference). The {@link org.openrdf.model.Value}s are materialized from
+     * the source and re-encoded by the lexicon of the target, so the target
+     * may use a different lexicon configuration.
+     *
+     * @param src
+     *            The source KB.
+     * @param dst
+     *            The target KB.
+     *
+     * @return The #of statements which were copied.
+     */
+    public static long rewrite(final AbstractTripleStore src,
+            final AbstractTripleStore dst) {
+
+        if (src == dst)
+            throw new IllegalArgumentException();
+
+        final StatementBuffer<Statement> sb = new StatementBuffer<Statement>(
+                dst, 100000/* capacity */, 10/* queueCapacity */);
+
+        final IChunkedOrderedIterator<ISPO> itr1 = src.getAccessPath(
+                src.getSPORelation().getPrimaryKeyOrder(),
+                ExplicitSPOFilter.INSTANCE).iterator();
+
+        final BigdataStatementIterator itr2 = src.asStatementIterator(itr1);
+
+        long n = 0;
+
+        try {
+
+            while (itr2.hasNext()) {
+
+                final BigdataStatement stmt = itr2.next();
+
+                sb.add(stmt);
+
+                n++;
+
+            }
+
+        } finally {
+
+            itr2.close();
+
+        }
+
+        sb.flush();
+
+        if (!dst.getAxioms().isNone()) {
+
+            dst.getInferenceEngine().computeClosure(null/* focusStore */);
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * @param args
+     *            <code>(-minCount n) (-generate dir package className) (-rewrite targetNamespace vocabularyClass inlineURIFactoryClass) &lt;namespace&gt; &lt;filename&gt;</code>
+     *            <br/>
+     *            where <i>namespace</i> is the namespace of the
+     *            {@link AbstractTripleStore}. Use <code>kb</code> if you have
+     *            not overridden the namespace. <br/>
+     *            where <i>filename</i> is the name of the properties file for
+     *            the journal.
+     *            <dl>
+     *            <dt>-minCount</dt>
+     *            <dd>The minimum #of URIs which a handler must inline (default
+     *            1000).</dd>
+     *            <dt>-generate</dt>
+     *            <dd>Write the sources for the generated classes into the
+     *            given source directory and package.</dd>
+     *            <dt>-rewrite</dt>
+     *            <dd>Create a new KB instance using the given (compiled)
+     *            classes and copy the data into it. No analysis is
+     *            performed.</dd>
+     *            </dl>
+     */
+    public static void main(final String[] args) {
+
+        long minCount = 1000;
+        File dir = null;
+        String packageName = null;
+        String className = null;
+        String targetNamespace = null;
+        String vocabularyClass = null;
+        String inlineURIFactoryClass = null;
+
+        int i = 0;
+
+        try {
+
+            for (; i < args.length; i++) {
+
+                final String arg = args[i];
+
+                if (!arg.startsWith("-")) {
+
+                    // End of options.
+                    break;
+
+                }
+
+                if (arg.equals("-minCount")) {
+
+                    minCount = Long.parseLong(args[++i]);
+
+                } else if (arg.equals("-generate")) {
+
+                    dir = new File(args[++i]);
+                    packageName = args[++i];
+                    className = args[++i];
+
+                } else if (arg.equals("-rewrite")) {
+
+                    targetNamespace = args[++i];
+                    vocabularyClass = args[++i];
+                    inlineURIFactoryClass = args[++i];
+
+                } else
+
+                    throw new RuntimeException("Unknown argument: " + arg);
+
+            }
+
+        } catch (ArrayIndexOutOfBoundsException ex) {
+
+            usage();
+            System.exit(1);
+
+        }
+
+        if (i + 2 != args.length) {
+            usage();
+            System.exit(1);
+        }
+
+        final String namespace = args[i++];
+
+        final String propertyFile = args[i++];
+
+        final PrintWriter w = new PrintWriter(System.out);
+
+        IIndexManager indexManager = null;
+        try {
+
+            w.println("namespace: " + namespace);
+
+            w.println("filename : " + propertyFile);
+
+            indexManager = openIndexManager(propertyFile);
+
+            final long timestamp = targetNamespace == null ? ITx.READ_COMMITTED
+                    : ITx.UNISOLATED;
+
+            final AbstractTripleStore tripleStore = (AbstractTripleStore) indexManager
+                    .getResourceLocator().locate(namespace, timestamp);
+
+            if (tripleStore == null) {
+
+                throw new RuntimeException("Not found: namespace=" + namespace
+                        + ", timestamp=" + TimestampUtility.toString(timestamp));
+
+            }
+
+            if (targetNamespace != null) {
+
+                if (indexManager.getResourceLocator().locate(targetNamespace,
+                        ITx.UNISOLATED) != null) {
+
+                    throw new RuntimeException("Exists: namespace="
+                            + targetNamespace);
+
+                }
+
+                final Properties properties = tripleStore.getProperties();
+
+                properties.setProperty(
+                        AbstractTripleStore.Options.VOCABULARY_CLASS,
+                        vocabularyClass);
+
+                properties.setProperty(
+                        AbstractTripleStore.Options.INLINE_URI_FACTORY_CLASS,
+                        inlineURIFactoryClass);
+
+                final AbstractTripleStore target = new LocalTripleStore(
+                        indexManager, targetNamespace,
+                        Long.valueOf(ITx.UNISOLATED), properties);
+
+                target.create();
+
+                final long n = rewrite(tripleStore, target);
+
+                target.commit();
+
+                w.println("Copied " + n + " statements into " + targetNamespace);
+
+                return;
+
+            }
+
+            final InlineURIAnalyzer analyzer = new InlineURIAnalyzer(minCount);
+
+            analyzer.analyze(tripleStore);
+
+            analyzer.writeReport(w);
+
+            if (dir != null) {
+
+                final Properties p = tripleStore.getProperties();
+
+                final String props = analyzer.writeSources(dir, packageName,
+                        className, p.getProperty(
+                                AbstractTripleStore.Options.VOCABULARY_CLASS,
+                                AbstractTripleStore.Options.DEFAULT_VOCABULARY_CLASS),
+                        p.getProperty(
+                                AbstractTripleStore.Options.INLINE_URI_FACTORY_CLASS,
+                                AbstractTripleStore.Options.DEFAULT_INLINE_URI_FACTORY_CLASS));
+
+                w.println("Wrote sources to " + dir
+                        + ". Create the new KB with:");
+
+                w.print(props);
+
+            }
+
+        } catch (Exception ex) {
+
+            ex.printStackTrace();
+
+            System.err.println("Error: " + ex + " on file: " + propertyFile);
+
+            System.exit(2);
+
+        } finally {
+
+            w.flush();
+
+            w.close();
+
+            if (indexManager != null && indexManager instanceof IJournal) {
+
+                if (((IJournal) indexManager).isOpen()) {
+
+                    ((IJournal) indexManager).shutdown();
+
+                }
+
+            }
+
+        }
+
+    }
+
+}
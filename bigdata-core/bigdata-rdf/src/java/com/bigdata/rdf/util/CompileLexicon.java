@@ -0,0 +1,224 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import com.bigdata.btree.IIndex;
+import com.bigdata.journal.IIndexManager;
+import com.bigdata.journal.IJournal;
+import com.bigdata.journal.TimestampUtility;
+import com.bigdata.rdf.lexicon.FrontCodedDictionary;
+import com.bigdata.rdf.lexicon.LexiconKeyOrder;
+import com.bigdata.rdf.lexicon.LexiconRelation;
+import com.bigdata.rdf.store.AbstractTripleStore;
+
+/**
+ * Utility builds the compiled dictionaries for the TERM2ID and ID2TERM
+ * indices of a KB instance from its last commit point.
+ * 
+ * @see AbstractTripleStore.Options#COMPILED_DICTIONARY_DIR
+ * @see FrontCodedDictionary
+ */
+public class CompileLexicon extends DumpLexicon {
+
+    protected CompileLexicon() {
+    }
+
+    protected static void usage() {
+
+        System.err.println("usage: (-dir dir) <namespace> <filename>");
+
+    }
+
+    /**
+     * Build the compiled dictionaries for the lexicon. The lexicon SHOULD be
+     * a read-only view of a commit point so the two dictionaries are
+     * consistent.
+     * 
+     * @param lex
+     *            The lexicon.
+     * @param dir
+     *            The directory in which the dictionaries will be written.
+     * 
+     * @return The #of entries in the TERM2ID dictionary.
+     */
+    public static long compile(final LexiconRelation lex, final File dir)
+            throws IOException {
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Could not create: " + dir);
+
+        long n = 0;
+
+        for (LexiconKeyOrder keyOrder : new LexiconKeyOrder[] {
+                LexiconKeyOrder.TERM2ID, LexiconKeyOrder.ID2TERM }) {
+
+            final IIndex ndx = keyOrder == LexiconKeyOrder.TERM2ID ? lex
+                    .getTerm2IdIndex() : lex.getId2TermIndex();
+
+            final long m = FrontCodedDictionary.build(
+                    FrontCodedDictionary.getFile(dir, lex.getFQN(keyOrder)),
+                    ndx.getIndexMetadata().getIndexUUID(),
+                    ndx.rangeIterator());
+
+            if (keyOrder == LexiconKeyOrder.TERM2ID)
+                n = m;
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * @param args
+     *            <code>(-dir dir) &lt;namespace&gt; &lt;filename&gt;</code>
+     *            <br/>
+     *            where <i>dir</i> is the directory for the dictionaries
+     *            (defaults to the
+     *            {@link AbstractTripleStore.Options#COMPILED_DICTIONARY_DIR}
+     *            of the KB). <br/>
+     *            where <i>namespace</i> is the namespace of the
+     *            {@link AbstractTripleStore}. Use <code>kb</code> if you have
+     *            not overridden the namespace. <br/>
+     *            where <i>filename</i> is the name of the properties file for
+     *            the journal.
+     */
+    public static void main(final String[] args) {
+
+        File dir = null;
+
+        int i = 0;
+
+        for (; i < args.length; i++) {
+
+            final String arg = args[i];
+
+            if (!arg.startsWith("-")) {
+
+                // End of options.
+                break;
+
+            }
+
+            if (arg.equals("-dir") && i + 1 < args.length) {
+
+                dir = new File(args[++i]);
+
+            } else
+
+                throw new RuntimeException("Unknown argument: " + arg);
+
+        }
+
+        if (i + 2 != args.length) {
+            usage();
+            System.exit(1);
+        }
+
+        final String namespace = args[i++];
+
+        final String propertyFile = args[i++];
+
+        final PrintWriter w = new PrintWriter(System.out);
+
+        IIndexManager indexManager = null;
+        try {
+
+            w.println("namespace: " + namespace);
+
+            w.println("filename : " + propertyFile);
+
+            indexManager = openIndexManager(propertyFile);
+
+            final long timestamp = indexManager.getLastCommitTime();
+
+            final AbstractTripleStore tripleStore = timestamp == 0L ? null
+                    : (AbstractTripleStore) indexManager.getResourceLocator()
+                            .locate(namespace, timestamp);
+
+            if (tripleStore == null) {
+
+                throw new RuntimeException("Not found: namespace=" + namespace
+                        + ", timestamp=" + TimestampUtility.toString(timestamp));
+
+            }
+
+            if (dir == null) {
+
+                final String s = tripleStore.getProperties().getProperty(
+                        AbstractTripleStore.Options.COMPILED_DICTIONARY_DIR,
+                        AbstractTripleStore.Options.DEFAULT_COMPILED_DICTIONARY_DIR);
+
+                if (s.trim().length() == 0)
+                    throw new RuntimeException("Specify -dir or "
+                            + AbstractTripleStore.Options.COMPILED_DICTIONARY_DIR);
+
+                dir = new File(s.trim());
+
+            }
+
+            w.println("dir      : " + dir);
+
+            final long n = compile(tripleStore.getLexiconRelation(), dir);
+
+            w.println("Compiled " + n + " terms as of commitTime=" + timestamp);
+
+        } catch (Exception ex) {
+
+            ex.printStackTrace();
+
+            System.err.println("Error: " + ex + " on file: " + propertyFile);
+
+            System.exit(2);
+
+        } finally {
+
+            w.flush();
+
+            w.close();
+
+            if (indexManager != null && indexManager instanceof IJournal) {
+
+                if (((IJournal) indexManager).isOpen()) {
+
+                    ((IJournal) indexManager).shutdown();
+
+                }
+
+            }
+
+        }
+
+    }
+
+}
@@ -68,6 +68,7 @@ import java.util.Properties;
 import java.util.Vector;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -3924,6 +3925,8 @@ public class BigdataSail extends SailBase implements Sail {
             
             flushStatementBuffers(true/* assertions */, true/* retractions */);
 
+            firePreCommit();
+
             if (changeLog != null) {
              
                 changeLog.transactionPrepare();
@@ -4740,6 +4743,73 @@ public class BigdataSail extends SailBase implements Sail {
          */
         protected DelegatingChangeLog changeLog;
 
+        /*
+         * PRE-COMMIT HOOK API
+         */
+
+        /** Registered pre-commit hooks. */
+        private final CopyOnWriteArrayList<IPreCommitHook> preCommitHooks = new CopyOnWriteArrayList<IPreCommitHook>();
+
+        /**
+         * Add a hook which will be run before each commit of this connection.
+         * See {@link IPreCommitHook}.
+         * 
+         * @param hook
+         *            the hook
+         */
+        public void addPreCommitHook(final IPreCommitHook hook) {
+
+            if (isReadOnly())
+                throw new UnsupportedOperationException();
+
+            if (hook == null)
+                throw new IllegalArgumentException();
+
+            preCommitHooks.addIfAbsent(hook);
+
+        }
+
+        /**
+         * Remove a pre-commit hook from this connection.
+         * 
+         * @param hook
+         *            the hook
+         */
+        public void removePreCommitHook(final IPreCommitHook hook) {
+
+            preCommitHooks.remove(hook);
+
+        }
+
+        /**
+         * Run the registered {@link IPreCommitHook}s. This is invoked by
+         * {@link #commit2()} once the statement buffers have been flushed and
+         * before the commit. It is NOT invoked by {@link #rollback()}. If a
+         * hook fails, then the commit fails and the caller must
+         * {@link #rollback()}.
+         */
+        protected void firePreCommit() throws SailException {
+
+            for (IPreCommitHook hook : preCommitHooks) {
+
+                try {
+
+                    hook.preCommit(this);
+
+                } catch (SailException ex) {
+
+                    throw ex;
+
+                } catch (Exception ex) {
+
+                    throw new SailException(ex);
+
+                }
+
+            }
+
+        }
+
         /*
          * SPARQL UPDATE LISTENER API
          */
@@ -5078,6 +5148,8 @@ public class BigdataSail extends SailBase implements Sail {
             
             flushStatementBuffers(true/* assertions */, true/* retractions */);
             
+            firePreCommit();
+            
             try {
             
                 if (changeLog != null) {
@@ -8,6 +8,7 @@ import org.openrdf.query.TupleQueryResult;
 import org.openrdf.query.algebra.evaluation.QueryBindingSet;
 import org.openrdf.repository.sail.SailTupleQuery;
 
+import com.bigdata.bop.IBindingSet;
 import com.bigdata.rdf.sparql.ast.ASTContainer;
 import com.bigdata.rdf.sparql.ast.BindingsClause;
 import com.bigdata.rdf.sparql.ast.DatasetNode;
@@ -16,6 +17,8 @@ import com.bigdata.rdf.sparql.ast.eval.AST2BOpContext;
 import com.bigdata.rdf.sparql.ast.eval.ASTEvalHelper;
 import com.bigdata.rdf.store.AbstractTripleStore;
 
+import cutthecrap.utils.striterators.ICloseableIterator;
+
 public class BigdataSailTupleQuery extends SailTupleQuery 
         implements BigdataSailQuery {
 
@@ -83,6 +86,28 @@ public class BigdataSailTupleQuery extends SailTupleQuery
         return queryResult;
 
     }
+
+    /**
+     * Evaluate the query without materializing the projected variables. The
+     * solutions will contain {@link com.bigdata.rdf.internal.IV}s which may
+     * not have a cached RDF Value. Closing the iterator cancels the query.
+     */
+    public ICloseableIterator<IBindingSet[]> evaluateUnmaterialized()
+            throws QueryEvaluationException {
+
+        final QueryRoot originalQuery = astContainer.getOriginalAST();
+
+        if (getMaxQueryTime() > 0)
+            originalQuery.setTimeout(TimeUnit.SECONDS
+                    .toMillis(getMaxQueryTime()));
+
+        originalQuery.setIncludeInferred(getIncludeInferred());
+
+        return ASTEvalHelper.evaluateUnmaterializedTupleQuery(
+                getTripleStore(), astContainer, new QueryBindingSet(
+                        getBindings()), getDataset());
+
+    }
     
     public QueryRoot optimize() throws QueryEvaluationException {
 
@@ -42,6 +42,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.log4j.Logger;
@@ -57,8 +58,11 @@ import com.bigdata.Banner;
 import com.bigdata.journal.IIndexManager;
 import com.bigdata.journal.Journal;
 import com.bigdata.rawstore.IRawStore;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.rio.binary.BigdataBinaryRDFWriter;
 import com.bigdata.rdf.sail.BigdataSail.BigdataSailConnection;
 import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.store.ParallelBinaryExport;
 import com.bigdata.relation.RelationSchema;
 import com.bigdata.relation.locator.ILocatableResource;
 import com.bigdata.sparse.ITPS;
@@ -262,6 +266,19 @@ public class ExportKB {
     public void exportData() throws IOException, SailException,
             RDFHandlerException {
         prepare();
+        if (ServiceProviderHook.BLAZEGRAPH_BINARY.equals(format)) {
+            // Parallel export of the native binary format.
+            System.out.println("Writing " + kbdir);
+            try {
+                new ParallelBinaryExport(conn.getTripleStore(), kbdir, Runtime
+                        .getRuntime().availableProcessors(),
+                        BigdataBinaryRDFWriter.DEFAULT_BLOCK_SIZE,
+                        includeInferred).export();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+            return;
+        }
 //        final BigdataSail sail = new BigdataSail(kb);
 //        try {
 //            sail.initialize();
@@ -435,7 +452,10 @@ public class ExportKB {
      *            data. If not specified then an appropriate format will be
      *            selected based on the KB configuration. The default for
      *            triples or SIDs is {@link RDFFormat#RDFXML}. The default for
-     *            quads is {@link RDFFormat#TRIX}.</dd>
+     *            quads is {@link RDFFormat#TRIX}. The native binary format
+     *            ({@link ServiceProviderHook#BLAZEGRAPH_BINARY}) is exported
+     *            in parallel onto one file per key range of the statement
+     *            index (see {@link ParallelBinaryExport}).</dd>
      *            <dt>-includeInferred</dt>
      *            <dd>Normally only the told triples/quads will be exported.
      *            This option may be given to export the axioms and inferences
@@ -457,6 +477,9 @@ public class ExportKB {
 
         Banner.banner();
 
+        // Ensure that our RDFFormats are registered.
+        ServiceProviderHook.forceLoad();
+
         /*
          * Defaults for options.
          */
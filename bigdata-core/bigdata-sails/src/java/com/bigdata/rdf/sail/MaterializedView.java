@@ -0,0 +1,361 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sail;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+
+import com.bigdata.bop.BOp;
+import com.bigdata.bop.BOpUtility;
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IConstant;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.sail.sparql.Bigdata2ASTSPARQLParser;
+import com.bigdata.rdf.sparql.ast.ASTContainer;
+import com.bigdata.rdf.sparql.ast.PropertyPathNode;
+import com.bigdata.rdf.sparql.ast.QueryType;
+import com.bigdata.rdf.sparql.ast.StatementPatternNode;
+import com.bigdata.rdf.sparql.ast.TermNode;
+import com.bigdata.rdf.sparql.ast.eval.ASTDeferredIVResolution;
+import com.bigdata.rdf.sparql.ast.eval.ASTEvalHelper;
+import com.bigdata.rdf.sparql.ast.service.ServiceNode;
+import com.bigdata.rdf.sparql.ast.ssets.ISolutionSetManager;
+import com.bigdata.rdf.spo.ISPO;
+import com.bigdata.rdf.store.AbstractTripleStore;
+
+import cutthecrap.utils.striterators.ICloseableIterator;
+
+/**
+ * The declaration of a materialized view. A materialized view is a named
+ * solution set whose solutions are defined by a SPARQL SELECT query. The
+ * {@link MaterializedViewServiceFactory} keeps the named solution set current
+ * as the KB is updated so queries can read the precomputed solutions using
+ * <code>INCLUDE %name</code>.
+ * 
+ * @see MaterializedViewServiceFactory
+ */
+public class MaterializedView {
+
+    /**
+     * The namespace of the KB on which the view is defined.
+     */
+    private final String namespace;
+    
+    /**
+     * The name of the solution set in which the view is materialized.
+     */
+    private final String solutionSet;
+    
+    /**
+     * The SPARQL SELECT query which defines the view.
+     */
+    private final String queryStr;
+    
+    /**
+     * The base URI for that query (optional).
+     */
+    private final String baseURI;
+
+    /**
+     * 
+     * @param namespace
+     *            The namespace of the KB on which the view is defined.
+     * @param solutionSet
+     *            The name of the solution set in which the view is
+     *            materialized.
+     * @param queryStr
+     *            The SPARQL SELECT query which defines the view.
+     * @param baseURI
+     *            The base URI for that query (optional).
+     */
+    public MaterializedView(final String namespace, final String solutionSet,
+            final String queryStr, final String baseURI) {
+
+        if (namespace == null)
+            throw new IllegalArgumentException();
+
+        if (solutionSet == null)
+            throw new IllegalArgumentException();
+
+        if (queryStr == null)
+            throw new IllegalArgumentException();
+
+        this.namespace = namespace;
+        this.solutionSet = solutionSet;
+        this.queryStr = queryStr;
+        this.baseURI = baseURI;
+
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getSolutionSet() {
+        return solutionSet;
+    }
+
+    public String getQuery() {
+        return queryStr;
+    }
+
+    public String getBaseURI() {
+        return baseURI;
+    }
+
+    @Override
+    public String toString() {
+
+        return getClass().getSimpleName() + "{namespace=" + namespace
+                + ",solutionSet=" + solutionSet + ",query=" + queryStr + "}";
+
+    }
+
+    /**
+     * Parse the view definition.
+     * 
+     * @throws MalformedQueryException
+     *             if the query can not be parsed or is not a SELECT query.
+     */
+    ASTContainer parse() throws MalformedQueryException {
+
+        final ASTContainer astContainer = new Bigdata2ASTSPARQLParser()
+                .parseQuery2(queryStr, baseURI);
+
+        if (astContainer.getOriginalAST().getQueryType() != QueryType.SELECT) {
+
+            throw new MalformedQueryException(
+                    "View must be defined by a SELECT query: " + this);
+
+        }
+
+        return astContainer;
+
+    }
+
+    /**
+     * Return the {@link Dependencies} of the view against the KB. Constants
+     * in the view definition which are not yet known to the lexicon are
+     * treated as wildcards since statements using those terms could be
+     * written within the same transaction.
+     * 
+     * @param db
+     *            The KB view.
+     * 
+     * @throws MalformedQueryException
+     */
+    Dependencies getDependencies(final AbstractTripleStore db)
+            throws MalformedQueryException {
+
+        final ASTContainer astContainer = parse();
+
+        ASTDeferredIVResolution.resolveQuery(db, astContainer);
+
+        final List<IV<?, ?>[]> patterns = new LinkedList<IV<?, ?>[]>();
+
+        final Iterator<BOp> itr = BOpUtility
+                .preOrderIteratorWithAnnotations(astContainer.getOriginalAST());
+
+        while (itr.hasNext()) {
+
+            final BOp op = itr.next();
+
+            if (op instanceof PropertyPathNode || op instanceof ServiceNode) {
+
+                /*
+                 * We can not (cheaply) decide which statements could change
+                 * the solutions for a property path or a SERVICE call, so any
+                 * change will be assumed to affect the view.
+                 */
+                return Dependencies.ANY;
+
+            }
+
+            if (op instanceof StatementPatternNode) {
+
+                final StatementPatternNode sp = (StatementPatternNode) op;
+
+                final IV<?, ?>[] pattern = new IV[4];
+
+                for (int i = 0; i < 4; i++) {
+
+                    pattern[i] = getIV(sp.get(i));
+
+                }
+
+                patterns.add(pattern);
+
+            }
+
+        }
+
+        return new Dependencies(patterns);
+
+    }
+
+    /**
+     * Return the {@link IV} for a constant term and <code>null</code> for a
+     * variable, an absent term, or a constant which is not known to the
+     * lexicon.
+     */
+    @SuppressWarnings("rawtypes")
+    static private IV<?, ?> getIV(final TermNode term) {
+
+        if (term == null || !term.isConstant())
+            return null;
+
+        @SuppressWarnings("unchecked")
+        final IV iv = ((IConstant<IV>) term.getValueExpression()).get();
+
+        if (iv == null || iv.isNullIV())
+            return null;
+
+        return iv;
+
+    }
+
+    /**
+     * Recompute the view and write the solutions onto the named solution set,
+     * replacing any existing solutions.
+     * <p>
+     * Note: The view is always recomputed in full rather than maintained from
+     * the changed statements. A named solution set is a write-once stream
+     * ({@link ISolutionSetManager} can only put or clear a solution set), so
+     * applying a delta would still rewrite the entire solution set. Also, a
+     * general SELECT query (DISTINCT, aggregates, OPTIONAL, MINUS, ORDER BY or
+     * LIMIT) is not self-maintainable from the changed statements alone, and
+     * retractions would require a support count for each solution. Instead,
+     * only those views whose {@link Dependencies} match a changed statement
+     * are recomputed.
+     * 
+     * @param db
+     *            The KB view from which the solutions will be read. This must
+     *            be the view associated with the connection on which the
+     *            solution set is written.
+     * @param solutionSetManager
+     *            The manager for the named solution sets of that KB view.
+     * 
+     * @throws MalformedQueryException
+     * @throws QueryEvaluationException
+     */
+    void refresh(final AbstractTripleStore db,
+            final ISolutionSetManager solutionSetManager)
+            throws MalformedQueryException, QueryEvaluationException {
+
+        final ASTContainer astContainer = parse();
+
+        ASTDeferredIVResolution.resolveQuery(db, astContainer);
+
+        // Run as a SELECT query : Do NOT materialize IVs.
+        final ICloseableIterator<IBindingSet[]> result = ASTEvalHelper
+                .evaluateTupleQuery2(db, astContainer, new QueryBindingSet(),
+                        false/* materialize */);
+
+        try {
+
+            solutionSetManager.putSolutions(solutionSet, result);
+
+        } finally {
+
+            result.close();
+
+        }
+
+    }
+
+    /**
+     * The statement patterns on which a view depends. A changed statement can
+     * affect the solutions of the view iff it matches at least one of those
+     * patterns.
+     */
+    static class Dependencies {
+
+        /**
+         * Used when any change could affect the view.
+         */
+        static final Dependencies ANY = new Dependencies(null);
+
+        /**
+         * The patterns in {s,p,o,c} order using <code>null</code> as a
+         * wildcard -or- <code>null</code> if any change could affect the
+         * view.
+         */
+        private final List<IV<?, ?>[]> patterns;
+
+        Dependencies(final List<IV<?, ?>[]> patterns) {
+
+            this.patterns = patterns;
+
+        }
+
+        /**
+         * Return <code>true</code> if a change to the given statement could
+         * affect the solutions of the view.
+         */
+        boolean isAffectedBy(final ISPO spo) {
+
+            if (patterns == null)
+                return true;
+
+            for (IV<?, ?>[] pattern : patterns) {
+
+                if (matches(pattern, spo))
+                    return true;
+
+            }
+
+            return false;
+
+        }
+
+        static private boolean matches(final IV<?, ?>[] pattern, final ISPO spo) {
+
+            for (int i = 0; i < 4; i++) {
+
+                if (pattern[i] == null)
+                    continue;
+
+                final IV<?, ?> iv = spo.get(i);
+
+                if (iv != null && !pattern[i].equals(iv))
+                    return false;
+
+            }
+
+            return true;
+
+        }
+
+    }
+
+}
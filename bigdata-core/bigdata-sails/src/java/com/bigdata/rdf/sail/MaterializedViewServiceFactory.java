@@ -0,0 +1,804 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.query.MalformedQueryException;
+
+import com.bigdata.bop.Constant;
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IVariable;
+import com.bigdata.bop.bindingSet.ListBindingSet;
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.ITuple;
+import com.bigdata.btree.ITupleIterator;
+import com.bigdata.btree.IndexMetadata;
+import com.bigdata.io.SerializerUtil;
+import com.bigdata.journal.IBTreeManager;
+import com.bigdata.journal.IIndexManager;
+import com.bigdata.journal.ITx;
+import com.bigdata.journal.TimestampUtility;
+import com.bigdata.rdf.changesets.IChangeLog;
+import com.bigdata.rdf.changesets.IChangeRecord;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.sail.BigdataSail.BigdataSailConnection;
+import com.bigdata.rdf.sail.MaterializedView.Dependencies;
+import com.bigdata.rdf.sparql.ast.ConstantNode;
+import com.bigdata.rdf.sparql.ast.DummyConstantNode;
+import com.bigdata.rdf.sparql.ast.GraphPatternGroup;
+import com.bigdata.rdf.sparql.ast.IGroupMemberNode;
+import com.bigdata.rdf.sparql.ast.StatementPatternNode;
+import com.bigdata.rdf.sparql.ast.TermNode;
+import com.bigdata.rdf.sparql.ast.VarNode;
+import com.bigdata.rdf.sparql.ast.eval.CustomServiceFactoryBase;
+import com.bigdata.rdf.sparql.ast.service.BigdataNativeServiceOptions;
+import com.bigdata.rdf.sparql.ast.service.IServiceOptions;
+import com.bigdata.rdf.sparql.ast.service.MockIVReturningServiceCall;
+import com.bigdata.rdf.sparql.ast.service.ServiceCallCreateParams;
+import com.bigdata.rdf.sparql.ast.service.ServiceRegistry;
+import com.bigdata.rdf.sparql.ast.ssets.ISolutionSetManager;
+import com.bigdata.rdf.sparql.ast.ssets.SolutionSetManager;
+import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.store.BD;
+import com.bigdata.relation.accesspath.ThickCloseableIterator;
+
+import cutthecrap.utils.striterators.ICloseableIterator;
+
+/**
+ * This service maintains registered {@link MaterializedView}s. Each view is a
+ * named solution set defined by a SPARQL SELECT query. An {@link IChangeLog}
+ * listener is registered on each unisolated connection for a KB having
+ * materialized views. The listener notes which views could be affected by
+ * the {@link IChangeRecord}s for that connection (a changed statement must
+ * match one of the statement patterns of the view) and recomputes only those
+ * views from an {@link IPreCommitHook} when the connection commits. The named
+ * solution sets are therefore written in the same commit as the statements
+ * which caused them to change, and queries using <code>INCLUDE %name</code>
+ * always read solutions which are consistent with the KB. Nothing is
+ * recomputed when the connection is rolled back.
+ * <p>
+ * The view registrations are stored in a B+Tree on the journal (see
+ * {@link #getIndexName(String)}). They are written by the unisolated
+ * connection and become durable when that connection commits, so the views
+ * continue to be maintained after a restart.
+ * <p>
+ * The registered views may be listed using:
+ * 
+ * <pre>
+ * PREFIX bd: &lt;http://www.bigdata.com/rdf#&gt;
+ * SELECT ?name ?query WHERE {
+ *   SERVICE bd:materializedViews {
+ *     ?view bd:solutionSet ?name ;
+ *           bd:query ?query .
+ *   }
+ * }
+ * </pre>
+ * <p>
+ * Note: Only views on KBs which support named solution sets (that is, KBs
+ * which do not use isolatable indices) can be maintained.
+ * 
+ * @see MaterializedView
+ */
+public class MaterializedViewServiceFactory extends CustomServiceFactoryBase {
+
+    static private transient final Logger log = Logger
+            .getLogger(MaterializedViewServiceFactory.class);
+
+    /**
+     * The URI under which this service is registered with the
+     * {@link ServiceRegistry}.
+     */
+    public static final URI SERVICE_KEY = new URIImpl(BD.NAMESPACE
+            + "materializedViews");
+
+    /**
+     * The predicate used to bind the name of the solution set of each view
+     * when listing the views.
+     */
+    public static final URI SOLUTION_SET = new URIImpl(BD.NAMESPACE
+            + "solutionSet");
+
+    /**
+     * The predicate used to bind the SPARQL SELECT query of each view when
+     * listing the views.
+     */
+    public static final URI QUERY = new URIImpl(BD.NAMESPACE + "query");
+
+    private final IServiceOptions serviceOptions;
+
+    public MaterializedViewServiceFactory() {
+
+        final BigdataNativeServiceOptions serviceOptions = new BigdataNativeServiceOptions();
+
+        serviceOptions.setRunFirst(true);
+
+        this.serviceOptions = serviceOptions;
+
+    }
+
+    /**
+     * Return the instance registered with the {@link ServiceRegistry}.
+     */
+    public static MaterializedViewServiceFactory getInstance() {
+
+        return (MaterializedViewServiceFactory) ServiceRegistry.getInstance()
+                .get(SERVICE_KEY);
+
+    }
+
+    @Override
+    public IServiceOptions getServiceOptions() {
+
+        return serviceOptions;
+
+    }
+
+    /**
+     * Return the name of the index in which the views registered for a KB are
+     * stored.
+     * 
+     * @param namespace
+     *            The namespace of the KB.
+     */
+    public static String getIndexName(final String namespace) {
+
+        return namespace + ".materializedViews";
+
+    }
+
+    /**
+     * The materialized views are read with <code>INCLUDE</code>. Invoked as a
+     * SERVICE, this lists the views registered for the KB. Each statement
+     * pattern in the service group must have the same variable as its
+     * subject, either {@link #SOLUTION_SET} or {@link #QUERY} as its
+     * predicate, and a variable as its object.
+     */
+    @Override
+    public MockIVReturningServiceCall create(
+            final ServiceCallCreateParams params) {
+
+        if (params == null)
+            throw new IllegalArgumentException();
+
+        final GraphPatternGroup<IGroupMemberNode> group = params
+                .getServiceNode().getGraphPattern();
+
+        IVariable<?> viewVar = null;
+        IVariable<IV> nameVar = null;
+        IVariable<IV> queryVar = null;
+
+        for (IGroupMemberNode child : group) {
+
+            if (!(child instanceof StatementPatternNode))
+                throw new IllegalArgumentException(
+                        "Expecting statement patterns: " + child);
+
+            final StatementPatternNode sp = (StatementPatternNode) child;
+
+            if (!sp.s().isVariable() || !sp.p().isConstant()
+                    || !sp.o().isVariable())
+                throw new IllegalArgumentException(
+                        "Expecting ?view predicate ?var: " + sp);
+
+            final IVariable<?> s = ((VarNode) sp.s()).getValueExpression();
+
+            if (viewVar != null && !viewVar.equals(s))
+                throw new IllegalArgumentException(
+                        "Expecting one subject variable: " + sp);
+
+            viewVar = s;
+
+            @SuppressWarnings("unchecked")
+            final IVariable<IV> o = (IVariable<IV>) ((VarNode) sp.o())
+                    .getValueExpression();
+
+            final URI p = (URI) ((ConstantNode) sp.p()).getValue();
+
+            if (SOLUTION_SET.equals(p)) {
+
+                nameVar = o;
+
+            } else if (QUERY.equals(p)) {
+
+                queryVar = o;
+
+            } else {
+
+                throw new IllegalArgumentException("Unknown predicate: " + sp);
+
+            }
+
+        }
+
+        if (viewVar == null)
+            throw new IllegalArgumentException("No statement patterns: "
+                    + group);
+
+        return new MaterializedViewServiceCall(params.getTripleStore(),
+                serviceOptions, nameVar, queryVar);
+
+    }
+
+    /**
+     * Lists the views registered for a KB.
+     */
+    private static class MaterializedViewServiceCall implements
+            MockIVReturningServiceCall {
+
+        private final AbstractTripleStore db;
+
+        private final IServiceOptions serviceOptions;
+
+        /**
+         * The variables to which the solution set name and the query of each
+         * view are bound (optional).
+         */
+        private final IVariable<IV> nameVar, queryVar;
+
+        MaterializedViewServiceCall(final AbstractTripleStore db,
+                final IServiceOptions serviceOptions,
+                final IVariable<IV> nameVar, final IVariable<IV> queryVar) {
+
+            this.db = db;
+            this.serviceOptions = serviceOptions;
+            this.nameVar = nameVar;
+            this.queryVar = queryVar;
+
+        }
+
+        @Override
+        public IServiceOptions getServiceOptions() {
+
+            return serviceOptions;
+
+        }
+
+        @Override
+        public List<IVariable<IV>> getMockVariables() {
+
+            final List<IVariable<IV>> vars = new LinkedList<IVariable<IV>>();
+
+            if (nameVar != null)
+                vars.add(nameVar);
+
+            if (queryVar != null)
+                vars.add(queryVar);
+
+            return vars;
+
+        }
+
+        @Override
+        public ICloseableIterator<IBindingSet> call(
+                final IBindingSet[] bindingSets) throws Exception {
+
+            final BigdataValueFactory vf = db.getValueFactory();
+
+            final List<IBindingSet> out = new LinkedList<IBindingSet>();
+
+            for (MaterializedView view : getViews(db)) {
+
+                for (IBindingSet in : bindingSets) {
+
+                    final IBindingSet bs = new ListBindingSet();
+
+                    if (nameVar != null)
+                        bs.set(nameVar, new Constant<IV>(DummyConstantNode
+                                .toDummyIV(vf.createLiteral(view
+                                        .getSolutionSet()))));
+
+                    if (queryVar != null)
+                        bs.set(queryVar, new Constant<IV>(DummyConstantNode
+                                .toDummyIV(vf.createLiteral(view
+                                        .getQuery()))));
+
+                    @SuppressWarnings("rawtypes")
+                    final Iterator<IVariable> itr = in.vars();
+
+                    while (itr.hasNext()) {
+
+                        @SuppressWarnings("unchecked")
+                        final IVariable<IV> var = itr.next();
+
+                        if (bs.isBound(var))
+                            throw new IllegalArgumentException("Variable ?"
+                                    + var + " must not be bound from outside.");
+
+                        bs.set(var, in.get(var));
+
+                    }
+
+                    out.add(bs);
+
+                }
+
+            }
+
+            final IBindingSet[] a = out.toArray(new IBindingSet[out.size()]);
+
+            return new ThickCloseableIterator<IBindingSet>(a, a.length);
+
+        }
+
+    }
+
+    /**
+     * Register a materialized view and compute its solutions on the given
+     * connection. The registration and the solutions will be visible once the
+     * connection is committed. If a view is already registered for the
+     * solution set, then it is replaced.
+     * 
+     * @param conn
+     *            The unisolated connection.
+     * @param solutionSet
+     *            The name of the solution set in which the view is
+     *            materialized.
+     * @param queryStr
+     *            The SPARQL SELECT query which defines the view.
+     * @param baseURI
+     *            The base URI for that query (optional).
+     * 
+     * @return The view.
+     * 
+     * @throws MalformedQueryException
+     *             if the query can not be parsed or is not a SELECT query.
+     * @throws IllegalArgumentException
+     *             if the connection is not the unisolated connection.
+     */
+    public MaterializedView registerView(final BigdataSailConnection conn,
+            final String solutionSet, final String queryStr,
+            final String baseURI) throws Exception {
+
+        if (conn == null || !conn.isUnisolated())
+            throw new IllegalArgumentException();
+
+        final AbstractTripleStore db = conn.getTripleStore();
+
+        final MaterializedView view = new MaterializedView(db.getNamespace(),
+                solutionSet, queryStr, baseURI);
+
+        // Verify that the view can be parsed.
+        view.parse();
+
+        // Compute the view on the caller's connection.
+        conn.flushStatementBuffers(true/* assertions */, true/* retractions */);
+
+        view.refresh(db, getSolutionSetManager(conn));
+
+        // Record the registration. Durable when the connection commits.
+        getIndex(db, true/* create */).insert(toKey(solutionSet),
+                SerializerUtil.serialize(new String[] { solutionSet,
+                        queryStr, baseURI }));
+
+        /*
+         * Maintain the view for any further changes on the caller's
+         * connection. (The connection was started before the view was
+         * registered so it is not otherwise listening for this view.)
+         */
+        addListener(conn, Collections.singleton(view));
+
+        if (log.isInfoEnabled())
+            log.info("Registered: " + view);
+
+        return view;
+
+    }
+
+    /**
+     * Drop a materialized view and clear its named solution set. The view is
+     * dropped once the connection is committed.
+     * 
+     * @param conn
+     *            The unisolated connection.
+     * @param solutionSet
+     *            The name of the solution set in which the view is
+     *            materialized.
+     * 
+     * @return <code>true</code> iff a view was registered for that solution
+     *         set.
+     */
+    public boolean dropView(final BigdataSailConnection conn,
+            final String solutionSet) {
+
+        if (conn == null || !conn.isUnisolated())
+            throw new IllegalArgumentException();
+
+        final AbstractTripleStore db = conn.getTripleStore();
+
+        final IIndex ndx = getIndex(db, false/* create */);
+
+        if (ndx == null || ndx.remove(toKey(solutionSet)) == null)
+            return false;
+
+        getSolutionSetManager(conn).clearSolutions(solutionSet);
+
+        if (log.isInfoEnabled())
+            log.info("Dropped: namespace=" + db.getNamespace()
+                    + ", solutionSet=" + solutionSet);
+
+        return true;
+
+    }
+
+    /**
+     * Return the views registered for a KB.
+     * 
+     * @param db
+     *            The KB view. The views are read as of the timestamp of this
+     *            KB view.
+     * 
+     * @return The views (never <code>null</code>).
+     */
+    public static Collection<MaterializedView> getViews(
+            final AbstractTripleStore db) {
+
+        final IIndex ndx = getIndex(db, false/* create */);
+
+        if (ndx == null)
+            return Collections.emptyList();
+
+        final List<MaterializedView> views = new LinkedList<MaterializedView>();
+
+        final ITupleIterator<?> itr = ndx.rangeIterator();
+
+        while (itr.hasNext()) {
+
+            final ITuple<?> tuple = itr.next();
+
+            final String[] a = (String[]) SerializerUtil.deserialize(tuple
+                    .getValue());
+
+            views.add(new MaterializedView(db.getNamespace(), a[0], a[1],
+                    a[2]));
+
+        }
+
+        return views;
+
+    }
+
+    /**
+     * Return <code>true</code> iff the view is (still) registered with the
+     * same definition on the connection.
+     */
+    static private boolean isRegistered(final BigdataSailConnection conn,
+            final MaterializedView view) {
+
+        final IIndex ndx = getIndex(conn.getTripleStore(), false/* create */);
+
+        if (ndx == null)
+            return false;
+
+        final byte[] val = ndx.lookup(toKey(view.getSolutionSet()));
+
+        if (val == null)
+            return false;
+
+        final String[] a = (String[]) SerializerUtil.deserialize(val);
+
+        return view.getQuery().equals(a[1])
+                && (view.getBaseURI() == null ? a[2] == null : view
+                        .getBaseURI().equals(a[2]));
+
+    }
+
+    /**
+     * Return the index in which the views for the KB are registered.
+     * 
+     * @param db
+     *            The KB view.
+     * @param create
+     *            When <code>true</code> the index will be created if it does
+     *            not exist. This is only permitted for the unisolated KB view.
+     * 
+     * @return The index -or- <code>null</code> if it does not exist.
+     */
+    static private IIndex getIndex(final AbstractTripleStore db,
+            final boolean create) {
+
+        final IIndexManager indexManager = db.getIndexManager();
+
+        final String name = getIndexName(db.getNamespace());
+
+        long timestamp = db.getTimestamp();
+
+        if (timestamp == ITx.UNISOLATED) {
+
+            IIndex ndx = ((IBTreeManager) indexManager).getIndex(name);
+
+            if (ndx == null && create) {
+
+                ndx = ((IBTreeManager) indexManager).registerIndex(name,
+                        new IndexMetadata(name, UUID.randomUUID()));
+
+            }
+
+            return ndx;
+
+        }
+
+        if (create)
+            throw new UnsupportedOperationException();
+
+        if (timestamp == ITx.READ_COMMITTED
+                || TimestampUtility.isReadWriteTx(timestamp)) {
+
+            /*
+             * The views are only written by the unisolated connection, so
+             * read them from the last commit point.
+             */
+            timestamp = indexManager.getLastCommitTime();
+
+            if (timestamp == 0L) {
+
+                // Nothing committed yet.
+                return null;
+
+            }
+
+        }
+
+        return indexManager.getIndex(name, timestamp);
+
+    }
+
+    /**
+     * Return the key under which a view is registered.
+     */
+    static private byte[] toKey(final String solutionSet) {
+
+        return solutionSet.getBytes(StandardCharsets.UTF_8);
+
+    }
+
+    /**
+     * Return a manager for the named solution sets of the KB view associated
+     * with the connection.
+     */
+    static private ISolutionSetManager getSolutionSetManager(
+            final BigdataSailConnection conn) {
+
+        final AbstractTripleStore db = conn.getTripleStore();
+
+        return new SolutionSetManager((IBTreeManager) conn.getBigdataSail()
+                .getQueryEngine().getIndexManager(), db.getNamespace(),
+                db.getTimestamp());
+
+    }
+
+    /**
+     * Register a listener on the connection which will maintain the given
+     * views.
+     */
+    static private void addListener(final BigdataSailConnection conn,
+            final Collection<MaterializedView> views) {
+
+        final MaterializedViewChangeLog listener = new MaterializedViewChangeLog(
+                conn, views);
+
+        conn.addChangeLog(listener);
+
+        conn.addPreCommitHook(listener);
+
+    }
+
+    /**
+     * Register an {@link IChangeLog} listener that will maintain the
+     * materialized views for the KB (if any).
+     */
+    @Override
+    public void startConnection(final BigdataSailConnection conn) {
+
+        if (!conn.isUnisolated() || conn.isReadOnly()) {
+
+            // Views are only maintained by the unisolated connection.
+            return;
+
+        }
+
+        final Collection<MaterializedView> tmp = getViews(conn
+                .getTripleStore());
+
+        if (tmp.isEmpty()) {
+
+            // No views for this KB.
+            return;
+
+        }
+
+        addListener(conn, tmp);
+
+    }
+
+    /**
+     * Notes the views which are affected by the changes on a connection and
+     * recomputes them before the connection commits.
+     */
+    static private class MaterializedViewChangeLog implements IChangeLog,
+            IPreCommitHook {
+
+        private final BigdataSailConnection conn;
+
+        /**
+         * The views maintained by this listener and their dependencies.
+         */
+        private final Map<MaterializedView, Dependencies> deps;
+
+        /**
+         * The views which have been affected by the changes on the
+         * connection since the last commit or abort.
+         */
+        private final Set<MaterializedView> dirty = new LinkedHashSet<MaterializedView>();
+
+        MaterializedViewChangeLog(final BigdataSailConnection conn,
+                final Collection<MaterializedView> views) {
+
+            this.conn = conn;
+
+            this.deps = new LinkedHashMap<MaterializedView, Dependencies>();
+
+            for (MaterializedView view : views) {
+
+                Dependencies d;
+                try {
+                    d = view.getDependencies(conn.getTripleStore());
+                } catch (MalformedQueryException ex) {
+                    // Should not happen since parsed when registered.
+                    log.error(view, ex);
+                    d = Dependencies.ANY;
+                }
+
+                deps.put(view, d);
+
+            }
+
+        }
+
+        @Override
+        public void changeEvent(final IChangeRecord record) {
+
+            if (dirty.size() == deps.size()) {
+
+                // All views are already known to be affected.
+                return;
+
+            }
+
+            for (Map.Entry<MaterializedView, Dependencies> e : deps.entrySet()) {
+
+                final MaterializedView view = e.getKey();
+
+                if (!dirty.contains(view)
+                        && e.getValue().isAffectedBy(record.getStatement())) {
+
+                    if (log.isDebugEnabled())
+                        log.debug("Affected: " + view + ", record=" + record);
+
+                    dirty.add(view);
+
+                }
+
+            }
+
+        }
+
+        @Override
+        public void transactionBegin() {
+
+        }
+
+        /**
+         * Recompute the affected views. This writes on the named solution
+         * sets within the same commit as the changes to the statement indices.
+         * If a view can not be recomputed, then the commit fails.
+         */
+        @Override
+        public void preCommit(final BigdataSailConnection conn)
+                throws Exception {
+
+            if (dirty.isEmpty())
+                return;
+
+            final ISolutionSetManager solutionSetManager = getSolutionSetManager(conn);
+
+            try {
+
+                for (MaterializedView view : dirty) {
+
+                    if (!isRegistered(conn, view)) {
+
+                        // The view was dropped or redefined.
+                        continue;
+
+                    }
+
+                    if (log.isInfoEnabled())
+                        log.info("Refresh: " + view);
+
+                    view.refresh(conn.getTripleStore(), solutionSetManager);
+
+                }
+
+            } finally {
+
+                dirty.clear();
+
+            }
+
+        }
+
+        /**
+         * NOP. This message is also issued before an abort, so the views are
+         * recomputed by {@link #preCommit(BigdataSailConnection)} instead.
+         */
+        @Override
+        public void transactionPrepare() {
+
+        }
+
+        @Override
+        public void transactionCommited(final long commitTime) {
+
+            dirty.clear();
+
+        }
+
+        @Override
+        public void transactionAborted() {
+
+            dirty.clear();
+
+        }
+
+        @Override
+        public void close() {
+
+            dirty.clear();
+
+            conn.removePreCommitHook(this);
+
+        }
+
+    }
+
+}
@@ -177,6 +177,33 @@ public class PrefixDeclProcessor {
         return prefixMap;
     }
 
+    /**
+     * Return the prefix declarations in SPARQL format for the data block of an
+     * INSERT DATA or DELETE DATA operation which is parsed directly from the
+     * request rather than from the query model.
+     * 
+     * @param declared
+     *        The prefixes that are declared by the operation (key) and the
+     *        namespace they map to (value).
+     * 
+     * @return The declared prefixes together with the default prefixes which
+     *         they do not override.
+     * 
+     * @see StreamingUpdateDataParser
+     */
+    static String getPrefixDecls(final Map<String, String> declared) {
+
+        final Map<String, String> prefixMap = new LinkedHashMap<String, String>(
+                declared);
+
+        for (Map.Entry<String, String> e : defaultDecls.entrySet()) {
+            insertDefaultPrefix(prefixMap, e.getKey(), e.getValue());
+        }
+
+        return createPrefixesInSPARQLFormat(prefixMap);
+
+    }
+
     private static void insertDefaultPrefix(Map<String, String> prefixMap, String prefix, String namespace) {
         if (!prefixMap.containsKey(prefix) && !prefixMap.containsValue(namespace)) {
             prefixMap.put(prefix, namespace);
@@ -0,0 +1,732 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.sail.sparql;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openrdf.model.ValueFactory;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.helpers.BasicParserSettings;
+
+/**
+ * Incremental parser for a SPARQL UPDATE request which consists of INSERT DATA
+ * and DELETE DATA operations. {@link Bigdata2ASTSPARQLParser} requires the
+ * entire request as a {@link String} and materializes the quad data of each
+ * operation as an array of statements before that operation is executed. This
+ * class reads the request from a {@link Reader} instead and passes the quad
+ * data of each operation to an {@link RDFHandler} as it is parsed, so the
+ * memory demand does not depend on the size of the request.
+ * <p>
+ * Only the prologue and the operation keywords are scanned here. The data
+ * block is parsed by the same {@link SPARQLStarUpdateDataBlockParser} which
+ * is used for the query model, with the same prefix and base declarations.
+ * Parsing stops at the first operation which is not INSERT DATA or DELETE
+ * DATA. The remainder of the request can then be evaluated using the query
+ * model.
+ * 
+ * <pre>
+ * while (parser.next()) {
+ *     parser.parse(valueFactory, parser.isInsert() ? addHandler : removeHandler);
+ * }
+ * if (!parser.isExhausted()) {
+ *     // Evaluate parser.getRemainder() using the query model.
+ * }
+ * </pre>
+ * 
+ * @see Bigdata2ASTSPARQLParser#parseUpdate2(String, String)
+ */
+public class StreamingUpdateDataParser {
+
+    /**
+     * The source. Up to two characters may be pushed back.
+     */
+    private final PushbackReader r;
+
+    /**
+     * The base URI of the request.
+     */
+    private final String baseURI;
+
+    /**
+     * The characters consumed by the current invocation of {@link #next()}.
+     */
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * The prefix declarations of the current operation.
+     */
+    private final Map<String, String> prefixes = new LinkedHashMap<String, String>();
+
+    /**
+     * The prefix declarations of the last operation which declared any
+     * prefixes. As for the query model, these are used by the following
+     * operations which do not declare their own prefixes.
+     */
+    private Map<String, String> sharedPrefixes = null;
+
+    /**
+     * The base declaration of the current operation (if any).
+     */
+    private String base = null;
+
+    /**
+     * The base declaration of the last operation which declared a base. This
+     * is used by the following operations which do not declare their own
+     * base.
+     */
+    private String sharedBase = null;
+
+    /**
+     * <code>true</code> iff the current operation is INSERT DATA.
+     */
+    private boolean insert;
+
+    /**
+     * <code>true</code> iff {@link #next()} located an operation whose data
+     * block has not yet been parsed.
+     */
+    private boolean ready = false;
+
+    /**
+     * <code>true</code> iff the request has been consumed.
+     */
+    private boolean exhausted = false;
+
+    /**
+     * The #of data blocks which have been parsed.
+     */
+    private long nparsed = 0L;
+
+    /**
+     * @param r
+     *            The request.
+     * @param baseURI
+     *            The base URI of the request (optional).
+     */
+    public StreamingUpdateDataParser(final Reader r, final String baseURI) {
+
+        if (r == null)
+            throw new IllegalArgumentException();
+
+        this.r = new PushbackReader(
+                r instanceof BufferedReader ? r : new BufferedReader(r), 2);
+
+        this.baseURI = baseURI;
+
+    }
+
+    /**
+     * Advance to the next operation.
+     * 
+     * @return <code>true</code> iff the next operation is INSERT DATA or
+     *         DELETE DATA. <code>false</code> if the request has been consumed
+     *         or if the next operation is of some other kind.
+     * 
+     * @throws MalformedQueryException
+     *             if the previous data block is not followed by a
+     *             <code>;</code> or the end of the request.
+     */
+    public boolean next() throws IOException, MalformedQueryException {
+
+        if (ready)
+            throw new IllegalStateException();
+
+        if (exhausted)
+            return false;
+
+        pending.setLength(0);
+
+        prefixes.clear();
+
+        base = null;
+
+        if (nparsed > 0) {
+
+            final int c = skipWS();
+
+            if (c == -1) {
+                exhausted = true;
+                return false;
+            }
+
+            if (c != ';')
+                throw new MalformedQueryException(
+                        "Expecting ';' after data block, not '" + (char) c
+                                + "'");
+
+            pending.setLength(0);
+
+        }
+
+        while (true) {
+
+            final int c = skipWS();
+
+            if (c == -1) {
+
+                /*
+                 * Nothing follows the last operation. If nothing has been
+                 * parsed, then the request is handed over to the query model
+                 * which reports any error.
+                 */
+                exhausted = nparsed > 0;
+
+                return false;
+
+            }
+
+            unread(c);
+
+            final String word = readWord();
+
+            if ("PREFIX".equalsIgnoreCase(word)) {
+
+                if (!readPrefixDecl())
+                    return false;
+
+            } else if ("BASE".equalsIgnoreCase(word)) {
+
+                if ((base = readIRI()) == null)
+                    return false;
+
+            } else if ("INSERT".equalsIgnoreCase(word)
+                    || "DELETE".equalsIgnoreCase(word)) {
+
+                final int c1 = skipWS();
+
+                unread(c1);
+
+                if (!"DATA".equalsIgnoreCase(readWord())) {
+                    // INSERT/DELETE WHERE, DELETE WHERE, etc.
+                    return false;
+                }
+
+                if (skipWS() != '{')
+                    return false;
+
+                insert = "INSERT".equalsIgnoreCase(word);
+
+                if (base == null)
+                    base = sharedBase;
+                else
+                    sharedBase = base;
+
+                if (prefixes.isEmpty()) {
+                    if (sharedPrefixes != null)
+                        prefixes.putAll(sharedPrefixes);
+                } else {
+                    sharedPrefixes = new LinkedHashMap<String, String>(
+                            prefixes);
+                }
+
+                ready = true;
+
+                return true;
+
+            } else {
+
+                // Some other operation.
+                return false;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Return <code>true</code> iff the current operation is INSERT DATA and
+     * <code>false</code> if it is DELETE DATA.
+     */
+    public boolean isInsert() {
+
+        if (!ready)
+            throw new IllegalStateException();
+
+        return insert;
+
+    }
+
+    /**
+     * Return <code>true</code> iff the request has been consumed.
+     */
+    public boolean isExhausted() {
+
+        return exhausted;
+
+    }
+
+    /**
+     * Parse the data block of the current operation.
+     * 
+     * @param valueFactory
+     *            The factory used to create the statements.
+     * @param handler
+     *            The handler which receives the statements as they are parsed.
+     * 
+     * @throws MalformedQueryException
+     *             if the data block is malformed or truncated.
+     * @throws RDFHandlerException
+     *             if the handler fails.
+     */
+    public void parse(final ValueFactory valueFactory,
+            final RDFHandler handler) throws IOException,
+            MalformedQueryException, RDFHandlerException {
+
+        if (!ready)
+            throw new IllegalStateException();
+
+        ready = false;
+
+        /*
+         * Prefix the data block with the declarations in the same manner as
+         * the PrefixDeclProcessor and the BaseDeclProcessor.
+         */
+        final StringBuilder sb = new StringBuilder(
+                PrefixDeclProcessor.getPrefixDecls(prefixes));
+
+        final String b = base != null ? base : baseURI;
+
+        if (b != null)
+            sb.append("BASE <").append(b).append(">");
+
+        sb.append(' ');
+
+        final DataBlockReader block = new DataBlockReader(sb.toString());
+
+        final SPARQLStarUpdateDataBlockParser parser = new SPARQLStarUpdateDataBlockParser(
+                valueFactory);
+
+        parser.setRDFHandler(handler);
+        parser.getParserConfig().addNonFatalError(
+                BasicParserSettings.VERIFY_DATATYPE_VALUES);
+        parser.getParserConfig().addNonFatalError(
+                BasicParserSettings.FAIL_ON_UNKNOWN_DATATYPES);
+
+        try {
+
+            parser.parse(block, "");
+
+            // Consume anything which the parser did not read.
+            while (block.read() != -1) {
+            }
+
+        } catch (RDFParseException e) {
+
+            throw new MalformedQueryException(e);
+
+        } finally {
+
+            if (block.truncated)
+                throw new MalformedQueryException(
+                        "Unexpected end of data block");
+
+        }
+
+        nparsed++;
+
+    }
+
+    /**
+     * Return the remainder of the request, starting with the operation for
+     * which {@link #next()} returned <code>false</code>. The prefix and base
+     * declarations of the previous operations are prepended if that operation
+     * does not declare its own prefixes or base.
+     */
+    public String getRemainder() throws IOException {
+
+        if (ready || exhausted)
+            throw new IllegalStateException();
+
+        final StringBuilder sb = new StringBuilder();
+
+        if (base == null && sharedBase != null) {
+
+            sb.append("BASE <").append(sharedBase).append(">\n");
+
+        }
+
+        if (prefixes.isEmpty() && sharedPrefixes != null) {
+
+            for (Map.Entry<String, String> e : sharedPrefixes.entrySet()) {
+
+                sb.append("PREFIX ").append(e.getKey()).append(": <")
+                        .append(e.getValue()).append(">\n");
+
+            }
+
+        }
+
+        sb.append(pending);
+
+        final char[] buf = new char[8192];
+
+        int n;
+
+        while ((n = r.read(buf)) != -1) {
+
+            sb.append(buf, 0, n);
+
+        }
+
+        return sb.toString();
+
+    }
+
+    /*
+     * Scanner for the prologue and the operation keywords.
+     */
+
+    private int read() throws IOException {
+
+        final int c = r.read();
+
+        if (c != -1)
+            pending.append((char) c);
+
+        return c;
+
+    }
+
+    private void unread(final int c) throws IOException {
+
+        if (c != -1) {
+
+            r.unread(c);
+
+            pending.setLength(pending.length() - 1);
+
+        }
+
+    }
+
+    /**
+     * Skip whitespace and comments.
+     * 
+     * @return The next character -or- <code>-1</code> if the request has been
+     *         consumed.
+     */
+    private int skipWS() throws IOException {
+
+        while (true) {
+
+            int c = read();
+
+            if (c == '#') {
+
+                while ((c = read()) != -1 && c != '\n' && c != '\r') {
+                }
+
+            }
+
+            if (c == -1 || !Character.isWhitespace(c))
+                return c;
+
+        }
+
+    }
+
+    private String readWord() throws IOException {
+
+        final StringBuilder sb = new StringBuilder();
+
+        int c;
+
+        while ((c = read()) != -1
+                && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+
+            sb.append((char) c);
+
+        }
+
+        unread(c);
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Read <code>&lt;iri&gt;</code>, skipping any leading whitespace.
+     * 
+     * @return The IRI -or- <code>null</code> if the input is not an IRI.
+     */
+    private String readIRI() throws IOException {
+
+        if (skipWS() != '<')
+            return null;
+
+        final StringBuilder sb = new StringBuilder();
+
+        int c;
+
+        while ((c = read()) != '>') {
+
+            if (c == -1 || Character.isWhitespace(c))
+                return null;
+
+            sb.append((char) c);
+
+        }
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Read <code>prefix: &lt;iri&gt;</code> following <code>PREFIX</code>.
+     * 
+     * @return <code>false</code> if the declaration is malformed.
+     */
+    private boolean readPrefixDecl() throws IOException {
+
+        final StringBuilder sb = new StringBuilder();
+
+        int c = skipWS();
+
+        while (c != ':') {
+
+            if (c == -1 || Character.isWhitespace(c))
+                return false;
+
+            sb.append((char) c);
+
+            c = read();
+
+        }
+
+        final String iri = readIRI();
+
+        if (iri == null)
+            return false;
+
+        prefixes.put(sb.toString(), iri);
+
+        return true;
+
+    }
+
+    /**
+     * Visits the given declarations followed by the characters of the data
+     * block up to (but excluding) the matching closing brace. Braces are
+     * matched outside of IRIs, string literals, comments and escapes.
+     */
+    private class DataBlockReader extends Reader {
+
+        private final String decls;
+
+        private int pos = 0;
+
+        /**
+         * The nesting depth of the braces.
+         */
+        private int depth = 1;
+
+        /**
+         * The #of following characters which are not interpreted.
+         */
+        private int verbatim = 0;
+
+        /**
+         * The quote character of the current string literal -or- zero.
+         */
+        private int quote = 0;
+
+        private boolean longString;
+
+        /**
+         * The #of consecutive quote characters in a long string literal.
+         */
+        private int nquotes;
+
+        private boolean iri = false;
+
+        private boolean comment = false;
+
+        private boolean eof = false;
+
+        /**
+         * <code>true</code> if the request ended inside of the data block.
+         */
+        boolean truncated = false;
+
+        DataBlockReader(final String decls) {
+
+            this.decls = decls;
+
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            if (pos < decls.length())
+                return decls.charAt(pos++);
+
+            if (eof)
+                return -1;
+
+            final int c = r.read();
+
+            if (c == -1) {
+                truncated = eof = true;
+                return -1;
+            }
+
+            if (verbatim > 0) {
+                verbatim--;
+                return c;
+            }
+
+            if (comment) {
+                if (c == '\n' || c == '\r')
+                    comment = false;
+                return c;
+            }
+
+            if (iri) {
+                if (c == '>')
+                    iri = false;
+                return c;
+            }
+
+            if (quote != 0) {
+                if (c == '\\') {
+                    verbatim = 1;
+                    nquotes = 0;
+                } else if (c != quote) {
+                    nquotes = 0;
+                } else if (!longString || ++nquotes == 3) {
+                    quote = 0;
+                }
+                return c;
+            }
+
+            switch (c) {
+            case '\\':
+                verbatim = 1;
+                break;
+            case '#':
+                comment = true;
+                break;
+            case '<': {
+                final int c1 = peek();
+                if (c1 == '<') {
+                    // Embedded statement (SPARQL*).
+                    verbatim = 1;
+                } else {
+                    iri = true;
+                }
+                break;
+            }
+            case '"':
+            case '\'': {
+                final int c1 = r.read();
+                final int c2 = c1 == c ? r.read() : -1;
+                if (c2 != -1)
+                    r.unread(c2);
+                if (c1 != -1)
+                    r.unread(c1);
+                if (c1 != c) {
+                    quote = c;
+                    longString = false;
+                } else if (c2 == c) {
+                    quote = c;
+                    longString = true;
+                    nquotes = 0;
+                    // Skip the rest of the opening quotes.
+                    verbatim = 2;
+                } else {
+                    // Empty string.
+                    verbatim = 1;
+                }
+                break;
+            }
+            case '{':
+                depth++;
+                break;
+            case '}':
+                if (--depth == 0) {
+                    eof = true;
+                    return -1;
+                }
+                break;
+            }
+
+            return c;
+
+        }
+
+        private int peek() throws IOException {
+
+            final int c = r.read();
+
+            if (c != -1)
+                r.unread(c);
+
+            return c;
+
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len)
+                throws IOException {
+
+            if (len == 0)
+                return 0;
+
+            int n = 0;
+
+            int c;
+
+            while (n < len && (c = read()) != -1) {
+
+                cbuf[off + n++] = (char) c;
+
+            }
+
+            return n == 0 ? -1 : n;
+
+        }
+
+        @Override
+        public void close() {
+
+            // NOP. The request is closed by the caller.
+
+        }
+
+    }
+
+}
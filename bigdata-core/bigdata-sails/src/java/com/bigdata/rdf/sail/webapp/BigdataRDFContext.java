@@ -72,10 +72,13 @@ import org.openrdf.query.resultio.TupleQueryResultWriterRegistry;
 import org.openrdf.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
 import org.openrdf.repository.sail.SailQuery;
 import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
 import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.RDFWriterRegistry;
 
 import com.bigdata.BigdataStatics;
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IVariable;
 import com.bigdata.bop.engine.IRunningQuery;
 import com.bigdata.bop.engine.QueryEngine;
 import com.bigdata.bop.fed.QueryEngineFactory;
@@ -102,6 +105,7 @@ import com.bigdata.rdf.sail.ISPARQLUpdateListener;
 import com.bigdata.rdf.sail.SPARQLUpdateEvent;
 import com.bigdata.rdf.sail.SPARQLUpdateEvent.DeleteInsertWhereStats;
 import com.bigdata.rdf.sail.sparql.Bigdata2ASTSPARQLParser;
+import com.bigdata.rdf.sail.sparql.StreamingUpdateDataParser;
 import com.bigdata.rdf.sail.webapp.XMLBuilder.Node;
 import com.bigdata.rdf.sail.webapp.client.StringUtil;
 import com.bigdata.rdf.sparql.ast.ASTContainer;
@@ -110,6 +114,7 @@ import com.bigdata.rdf.sparql.ast.QueryOptimizerEnum;
 import com.bigdata.rdf.sparql.ast.QueryRoot;
 import com.bigdata.rdf.sparql.ast.QueryType;
 import com.bigdata.rdf.sparql.ast.Update;
+import com.bigdata.rdf.sparql.ast.UpdateRoot;
 import com.bigdata.rdf.store.AbstractTripleStore;
 import com.bigdata.relation.RelationSchema;
 import com.bigdata.service.IBigdataFederation;
@@ -118,6 +123,8 @@ import com.bigdata.sparse.SparseRowStore;
 import com.bigdata.util.DaemonThreadFactory;
 import com.bigdata.util.concurrent.ThreadPoolExecutorBaseStatisticsTask;
 
+import cutthecrap.utils.striterators.ICloseableIterator;
+
 import info.aduna.xml.XMLWriter;
 
 /**
@@ -157,6 +164,27 @@ public class BigdataRDFContext extends BigdataBaseContext {
      */
     protected static final String RTO = "RTO";
     
+    /**
+     * URL Query parameter used to request that the solutions of a SELECT
+     * query are written directly from their internal values using a
+     * {@link StreamingSolutionWriter} rather than being converted into openrdf
+     * solutions first. This is only supported for the SPARQL JSON, TSV, CSV
+     * and XML result formats and is ignored for the other formats and for
+     * {@link #XHTML} responses.
+     * 
+     * @see #DEFAULT_STREAMING_RESULTS
+     */
+    protected static final String STREAMING_RESULTS = "streamingResults";
+    
+    /**
+     * The default for {@link #STREAMING_RESULTS} (<code>false</code> unless
+     * overridden by a system property having the same name as this field,
+     * qualified by the name of this class).
+     */
+    protected static final boolean DEFAULT_STREAMING_RESULTS = Boolean
+            .getBoolean(BigdataRDFContext.class.getName()
+                    + ".streamingResults");
+    
     /**
      * URL Query parameter used to request an XHTML response for SPARQL
      * QUERY or SPARQL UPDATE.  For SPARQL QUERY, this provides an XHTML
@@ -1250,6 +1278,39 @@ public class BigdataRDFContext extends BigdataBaseContext {
             
         }
 
+        /**
+         * Apply the data set and binding protocol parameters and the
+         * analytic and RTO options to the update.
+         * 
+         * @param update
+         *            The update.
+         */
+        final void configureUpdate(final BigdataSailUpdate update) {
+
+            // Override query if data set protocol parameters were used.
+            overrideDataset(update);
+
+			// Set bindings if protocol parameters were used.
+			setBindings(update);
+
+            if (analytic) {
+
+                // Turn analytic query on/off as requested.
+                update.getASTContainer().setQueryHint(QueryHints.ANALYTIC,
+                        "true");
+
+            }
+
+            if (rto) {
+
+                // Turn analytic query on/off as requested.
+                update.getASTContainer().setQueryHint(QueryHints.OPTIMIZER,
+                        QueryOptimizerEnum.Runtime.toString());
+                
+            }
+
+        }
+
         /**
          * 
          * <p>
@@ -1273,26 +1334,8 @@ public class BigdataRDFContext extends BigdataBaseContext {
             final UUID queryId2 = setQueryId(((BigdataSailUpdate) update)
                     .getASTContainer());
             
-            // Override query if data set protocol parameters were used.
-            overrideDataset(update);
-
-			// Set bindings if protocol parameters were used.
-			setBindings(update);
-
-            if (analytic) {
-
-                // Turn analytic query on/off as requested.
-                astContainer.setQueryHint(QueryHints.ANALYTIC, "true");
-
-            }
-
-            if (rto) {
-
-                // Turn analytic query on/off as requested.
-                astContainer.setQueryHint(QueryHints.OPTIMIZER,
-                        QueryOptimizerEnum.Runtime.toString());
-                
-            }
+            // Apply the protocol parameters.
+            configureUpdate(update);
 
             // Set the query object.
             this.sailQueryOrUpdate = update;
@@ -1656,6 +1699,14 @@ public class BigdataRDFContext extends BigdataBaseContext {
      */
     private class TupleQueryTask extends AbstractQueryTask {
 
+        /**
+         * When <code>true</code>, the solutions are written by a
+         * {@link StreamingSolutionWriter} if the result format is supported.
+         * 
+         * @see BigdataRDFContext#STREAMING_RESULTS
+         */
+        private final boolean streamingResults;
+
         public TupleQueryTask(final BigdataSailRepositoryConnection cxn,
         		final String namespace, final long timestamp,
                 final String baseURI, final boolean includeInferred,
@@ -1669,6 +1720,10 @@ public class BigdataRDFContext extends BigdataBaseContext {
             super(cxn, namespace, timestamp, baseURI, includeInferred, bindings, astContainer, queryType,
                     mimeType, charset, fileExt, req, resp, os);
 
+            this.streamingResults = getEffectiveBooleanValue(
+                    req.getParameter(STREAMING_RESULTS),
+                    DEFAULT_STREAMING_RESULTS);
+
 		}
 
         @Override
@@ -1677,6 +1732,36 @@ public class BigdataRDFContext extends BigdataBaseContext {
 
             final BigdataSailTupleQuery query = (BigdataSailTupleQuery) setupQuery(cxn);
 
+            if (streamingResults && !xhtml) {
+
+                final StreamingSolutionWriter sw = StreamingSolutionWriter
+                        .newInstance(TupleQueryResultWriterRegistry
+                                .getInstance().getFileFormatForMIMEType(
+                                        mimeType), os);
+
+                if (sw != null) {
+
+                    /*
+                     * Write the solutions directly from their IVs, resolving
+                     * only those IVs which are not inline against the lexicon.
+                     */
+
+                    final ICloseableIterator<IBindingSet[]> itr = query
+                            .evaluateUnmaterialized();
+
+                    final IVariable<?>[] vars = query.getASTContainer()
+                            .getOptimizedAST().getProjection()
+                            .getProjectionVars();
+
+                    sw.write(cxn.getTripleStore().getLexiconRelation(), vars,
+                            itr);
+
+                    return;
+
+                }
+
+            }
+
             final TupleQueryResultWriter w;
 
 
@@ -1791,6 +1876,19 @@ public class BigdataRDFContext extends BigdataBaseContext {
 
 	}
 
+	UpdateTask getStreamingUpdateTask(
+			final BigdataSailRepositoryConnection cxn, final String namespace,
+			final long timestamp, final String baseURI,
+			final Map<String, Value> bindings,
+			final StreamingUpdateDataParser parser,
+			final HttpServletRequest req, final HttpServletResponse resp,
+			final OutputStream os) {
+
+		return new StreamingUpdateTask(cxn, namespace, timestamp, baseURI,
+				bindings, parser, req, resp, os);
+
+	}
+
     /**
      * Executes a SPARQL UPDATE.
      */
@@ -1803,7 +1901,13 @@ public class BigdataRDFContext extends BigdataBaseContext {
         public final AtomicLong commitTime = new AtomicLong(-1);
         
         private boolean echoBack = false;
-        private final CAT mutationCount = new CAT();
+        protected final CAT mutationCount = new CAT();
+
+        /**
+         * When <code>false</code>, the change events are not reflected in the
+         * {@link #mutationCount}.
+         */
+        protected volatile boolean countChangeEvents = true;
         
         public UpdateTask(final BigdataSailRepositoryConnection cxn, 
         		final String namespace, final long timestamp,
@@ -1827,7 +1931,8 @@ public class BigdataRDFContext extends BigdataBaseContext {
             
                 @Override
                 public void changeEvent(final IChangeRecord record) {
-                    mutationCount.increment();
+                    if (countChangeEvents)
+                        mutationCount.increment();
                 }
                 
                 @Override
@@ -1965,7 +2070,7 @@ public class BigdataRDFContext extends BigdataBaseContext {
                 cxn.getSailConnection().addListener(listener);
 
                 // Execute the SPARQL UPDATE.
-                this.commitTime.set(update.execute2());
+                this.commitTime.set(execute(cxn, update));
 
                 // Write out the response.
                 listener.commit(this.commitTime.get());
@@ -2018,6 +2123,147 @@ public class BigdataRDFContext extends BigdataBaseContext {
 			return this.mutationCount.get();
 		}
 
+        /**
+         * Execute the SPARQL UPDATE. The caller has registered the request and
+         * set up the response listener.
+         * 
+         * @param cxn
+         *            The connection.
+         * @param update
+         *            The SPARQL UPDATE.
+         * 
+         * @return The commit time.
+         */
+        protected long execute(final BigdataSailRepositoryConnection cxn,
+                final BigdataSailUpdate update) throws Exception {
+
+            return update.execute2();
+
+        }
+
+    }
+
+    /**
+     * Executes a SPARQL UPDATE whose leading INSERT DATA and DELETE DATA
+     * operations are parsed incrementally from the request body by a
+     * {@link StreamingUpdateDataParser}. The statements are written onto the
+     * connection as they are parsed. Any remaining operations are parsed and
+     * evaluated by the query model on the same connection and the entire
+     * request is committed in one transaction.
+     * <p>
+     * The request is registered and reported in the same manner as any other
+     * {@link UpdateTask}, so it is visible on the status page and may be
+     * cancelled. The mutation count reported for the data operations is the
+     * #of statements which they inserted or removed, as for the REST API
+     * INSERT and DELETE methods.
+     */
+    class StreamingUpdateTask extends UpdateTask {
+
+        private final StreamingUpdateDataParser parser;
+
+        public StreamingUpdateTask(final BigdataSailRepositoryConnection cxn,
+                final String namespace, final long timestamp,
+                final String baseURI, final Map<String, Value> bindings,
+                final StreamingUpdateDataParser parser,
+                final HttpServletRequest req, final HttpServletResponse resp,
+                final OutputStream os) {
+
+            super(cxn, namespace, timestamp, baseURI, bindings,
+                    newStreamingASTContainer(), req, resp, os);
+
+            this.parser = parser;
+
+        }
+
+        @Override
+        protected long execute(final BigdataSailRepositoryConnection cxn,
+                final BigdataSailUpdate update) throws Exception {
+
+            final BigdataSailConnection sailConn = cxn.getSailConnection();
+
+            final AtomicLong nmodified = new AtomicLong(0L);
+
+            /*
+             * The change events for the data operations are not counted since
+             * they are reported by [nmodified].
+             */
+            countChangeEvents = false;
+
+            try {
+
+                while (parser.next()) {
+
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+
+                    final RDFHandler handler = parser.isInsert() ? new InsertServlet.AddStatementHandler(
+                            sailConn, nmodified)
+                            : new DeleteServlet.RemoveStatementHandler(
+                                    sailConn, nmodified);
+
+                    parser.parse(cxn.getTripleStore().getValueFactory(),
+                            new QueryServlet.UpdateDataHandler(handler,
+                                    parser.isInsert(), cxn.getTripleStore()
+                                            .isQuads()));
+
+                }
+
+                /*
+                 * Flush the statement buffers so the mutations are visible to
+                 * the remaining operations.
+                 */
+                sailConn.flush();
+
+            } finally {
+
+                countChangeEvents = true;
+
+            }
+
+            mutationCount.add(nmodified.get());
+
+            if (parser.isExhausted()) {
+
+                // Commit the mutations.
+                return cxn.commit2();
+
+            }
+
+            /*
+             * Evaluate the remaining operations using the query model. This
+             * also commits the mutations made above.
+             */
+
+            final ASTContainer astContainer = new Bigdata2ASTSPARQLParser()
+                    .parseUpdate2(parser.getRemainder(), baseURI);
+
+            // Run under the UUID of this request.
+            astContainer.setQueryHint(QueryHints.QUERYID, queryId2.toString());
+
+            final BigdataSailUpdate remainder = new BigdataSailUpdate(
+                    astContainer, cxn);
+
+            configureUpdate(remainder);
+
+            return remainder.execute2();
+
+        }
+
+    }
+
+    /**
+     * Return the {@link ASTContainer} under which a
+     * {@link StreamingUpdateTask} is registered and reported. The operations
+     * of the request are not known until its body has been parsed.
+     */
+    private static ASTContainer newStreamingASTContainer() {
+
+        final ASTContainer astContainer = new ASTContainer(new UpdateRoot());
+
+        astContainer.setQueryString("# Streaming SPARQL UPDATE request body");
+
+        return astContainer;
+
     }
 
     /**
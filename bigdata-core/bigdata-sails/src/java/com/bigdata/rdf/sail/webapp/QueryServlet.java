@@ -47,16 +47,21 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.log4j.Logger;
+import org.openrdf.model.BNode;
 import org.openrdf.model.Graph;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.query.MalformedQueryException;
 import org.openrdf.repository.RepositoryResult;
 import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.RDFWriterRegistry;
+import org.openrdf.rio.helpers.RDFHandlerBase;
 
 import com.bigdata.bop.BOp;
 import com.bigdata.bop.BOpUtility;
@@ -75,10 +80,13 @@ import com.bigdata.journal.ITransactionService;
 import com.bigdata.journal.ITx;
 import com.bigdata.journal.TimestampUtility;
 import com.bigdata.mdi.PartitionLocator;
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.rio.StatementBuffer;
 import com.bigdata.rdf.sail.BigdataSail;
 import com.bigdata.rdf.sail.BigdataSailQuery;
 import com.bigdata.rdf.sail.BigdataSailRepositoryConnection;
 import com.bigdata.rdf.sail.sparql.Bigdata2ASTSPARQLParser;
+import com.bigdata.rdf.sail.sparql.StreamingUpdateDataParser;
 import com.bigdata.rdf.sail.sparql.ast.SimpleNode;
 import com.bigdata.rdf.sail.webapp.BigdataRDFContext.AbstractQueryTask;
 import com.bigdata.rdf.sail.webapp.BigdataRDFContext.RunningQuery;
@@ -87,6 +95,7 @@ import com.bigdata.rdf.sail.webapp.client.ConnectOptions;
 import com.bigdata.rdf.sail.webapp.client.EncodeDecodeValue;
 import com.bigdata.rdf.sparql.ast.ASTBase.Annotations;
 import com.bigdata.rdf.sparql.ast.ASTContainer;
+import com.bigdata.rdf.sparql.ast.QuadsOperationInTriplesModeException;
 import com.bigdata.rdf.sparql.ast.QueryRoot;
 import com.bigdata.rdf.sparql.ast.explainhints.ExplainHints;
 import com.bigdata.rdf.sparql.ast.explainhints.IExplainHint;
@@ -423,6 +432,11 @@ public class QueryServlet extends BigdataRDFServlet {
             return;
         }
         
+        if (isStreamingUpdate(req)) {
+            doStreamingSparqlUpdate(req, resp);
+            return;
+        }
+
         // The SPARQL update
         final String updateStr = getUpdateString(req);
 
@@ -469,6 +483,115 @@ public class QueryServlet extends BigdataRDFServlet {
 
     }
 
+    /**
+     * Return <code>true</code> iff the SPARQL UPDATE request is sent as the
+     * request body and may be evaluated by {@link StreamingSparqlUpdateTask}.
+     * The "monitor" and echo back options require the query model and are
+     * not supported by that task.
+     */
+    static private boolean isStreamingUpdate(final HttpServletRequest req) {
+
+        return RESTServlet.hasMimeType(req, MIME_SPARQL_UPDATE)
+                && req.getParameter(ATTR_UPDATE) == null
+                && !BigdataRDFContext.getEffectiveBooleanValue(
+                        req.getParameter(BigdataRDFContext.MONITOR), false)
+                && req.getHeader(BigdataRDFContext.HTTP_HEADER_ECHO_BACK_QUERY) == null;
+
+    }
+
+    /**
+     * Handles a SPARQL UPDATE which is sent as the request body. Leading
+     * INSERT DATA and DELETE DATA operations are evaluated as the request body
+     * is parsed. Any other operations are evaluated by the query model.
+     * 
+     * @see StreamingSparqlUpdateTask
+     */
+    private void doStreamingSparqlUpdate(final HttpServletRequest req,
+            final HttpServletResponse resp) throws IOException {
+
+        final Map<String, Value> bindings = parseBindings(req, resp);
+        if (bindings == null) {
+            // There was an error in the bindings. The response was already
+            // committed.
+            return;
+        }
+
+        try {
+
+            final String namespace = getNamespace(req);
+
+            final long timestamp = ITx.UNISOLATED;// getTimestamp(req);
+
+            submitApiTask(
+                    new StreamingSparqlUpdateTask(req, resp, namespace,
+                            timestamp, bindings, getBigdataRDFContext()))
+                    .get();
+
+        } catch (Throwable t) {
+
+            launderThrowable(t, resp, "SPARQL-UPDATE: streaming");
+
+        }
+
+    }
+
+    /**
+     * Evaluate a SPARQL UPDATE request using the query model.
+     * <p>
+     * Note: The update is committed by the {@link UpdateTask}.
+     * 
+     * @param conn
+     *            The mutable connection.
+     * @param astContainer
+     *            The parsed update.
+     */
+    static private void runUpdate(final BigdataRDFContext context,
+            final BigdataSailRepositoryConnection conn,
+            final String namespace, final long timestamp,
+            final String baseURI, final Map<String, Value> bindings,
+            final ASTContainer astContainer, final HttpServletRequest req,
+            final HttpServletResponse resp) throws Exception {
+
+        /*
+         * Attempt to construct a task which we can use to evaluate the query.
+         */
+
+        final UpdateTask updateTask = context.getUpdateTask(conn, namespace,
+                timestamp, baseURI, bindings, astContainer, req, resp,
+                resp.getOutputStream());
+
+        if (log.isTraceEnabled())
+            log.trace("Will run update: " + astContainer.getQueryString());
+
+        runUpdate(context, updateTask);
+
+    }
+
+    /**
+     * Run the {@link UpdateTask} on the query service and wait for it. The
+     * {@link FutureTask} is made available to the task so the update may be
+     * cancelled.
+     */
+    static private void runUpdate(final BigdataRDFContext context,
+            final UpdateTask updateTask) throws Exception {
+
+        final FutureTask<Void> ft = new FutureTask<Void>(updateTask);
+
+        updateTask.updateFuture = ft;
+
+        /*
+         * Begin executing the query (asynchronous).
+         * 
+         * Note: UPDATEs currently contend with QUERYs against the same thread
+         * pool.
+         */
+        context.queryService.execute(ft);
+
+        // Wait for the Future.
+        ft.get();
+
+    }
+
     static class SparqlUpdateTask extends AbstractRestApiTask<Void> {
 
         private final String updateStr;
@@ -541,38 +664,10 @@ public class QueryServlet extends BigdataRDFServlet {
 
 				conn = getConnection();
 
-				{
-
-					/*
-					 * Attempt to construct a task which we can use to evaluate
-					 * the query.
-					 */
-
-					final UpdateTask updateTask = context.getUpdateTask(conn,
-							namespace, timestamp, baseURI, bindings, astContainer, req,
-							resp, resp.getOutputStream());
-
-					final FutureTask<Void> ft = new FutureTask<Void>(updateTask);
-
-					if (log.isTraceEnabled())
-						log.trace("Will run update: " + updateStr);
-
-					updateTask.updateFuture = ft;
+				runUpdate(context, conn, namespace, timestamp, baseURI,
+						bindings, astContainer, req, resp);
 
-					/*
-					 * Begin executing the query (asynchronous).
-					 * 
-					 * Note: UPDATEs currently contend with QUERYs against the
-					 * same thread pool.
-					 */
-					context.queryService.execute(ft);
-
-					// Wait for the Future.
-					ft.get();
-
-	                success = true;
-	                
-				}
+				success = true;
 
 				/**
 				 * Note: The SPARQL UPDATE is already committed. This is done in
@@ -612,6 +707,147 @@ public class QueryServlet extends BigdataRDFServlet {
 
 	}
 
+    /**
+     * Evaluates a SPARQL UPDATE request which is sent as the request body. The
+     * leading INSERT DATA and DELETE DATA operations are parsed incrementally
+     * by a {@link StreamingUpdateDataParser} and their statements are written
+     * onto the connection as they are parsed. The connection buffers the
+     * statements in a bounded {@link StatementBuffer}, so neither the request
+     * nor its quad data is held in memory. Any remaining operations are
+     * evaluated by the query model on the same connection and the entire
+     * request is committed in one transaction.
+     * <p>
+     * The request is evaluated by a {@link UpdateTask} so that it is
+     * registered, reported and may be cancelled in the same manner as any
+     * other SPARQL UPDATE request. The response is the same SPARQL UPDATE
+     * response document.
+     */
+    static class StreamingSparqlUpdateTask extends AbstractRestApiTask<Void> {
+
+        private final BigdataRDFContext context;
+        private final Map<String, Value> bindings;
+
+        /**
+         * 
+         * @param namespace
+         *            The namespace of the target KB instance.
+         * @param timestamp
+         *            The timestamp used to obtain a mutable connection.
+         */
+        public StreamingSparqlUpdateTask(//
+                final HttpServletRequest req,//
+                final HttpServletResponse resp,//
+                final String namespace, //
+                final long timestamp,//
+                final Map<String, Value> bindings,//
+                final BigdataRDFContext context//
+                ) {
+            super(req, resp, namespace, timestamp);
+            this.context = context;
+            this.bindings = bindings;
+        }
+
+        @Override
+        final public boolean isReadOnly() {
+            return false;
+        }
+
+        @Override
+        public Void call() throws Exception {
+
+            final String baseURI = req.getRequestURL().toString();
+
+            BigdataSailRepositoryConnection conn = null;
+            boolean success = false;
+            try {
+
+                conn = getConnection();
+
+                final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                        req.getReader(), baseURI);
+
+                /*
+                 * Note: The request is committed by the UpdateTask.
+                 */
+                runUpdate(context, context.getStreamingUpdateTask(conn,
+                        namespace, timestamp, baseURI, bindings, parser, req,
+                        resp, resp.getOutputStream()));
+
+                success = true;
+
+                return null;
+
+            } finally {
+
+                if (conn != null) {
+
+                    if (!success)
+                        conn.rollback();
+
+                    conn.close();
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Applies the constraints which the query model imposes on the quad data
+     * of INSERT DATA and DELETE DATA operations.
+     */
+    static class UpdateDataHandler extends RDFHandlerBase {
+
+        private final RDFHandler delegate;
+        private final boolean insert;
+        private final boolean quads;
+
+        public UpdateDataHandler(final RDFHandler delegate,
+                final boolean insert, final boolean quads) {
+            this.delegate = delegate;
+            this.insert = insert;
+            this.quads = quads;
+        }
+
+        @Override
+        public void handleStatement(final Statement stmt)
+                throws RDFHandlerException {
+
+            if (!quads && stmt.getContext() != null) {
+                throw new RDFHandlerException(
+                        new QuadsOperationInTriplesModeException(
+                                "Quads in SPARQL update data block are not supported "
+                                        + "in triples mode."));
+            }
+
+            if (!insert
+                    && (isBlankNode(stmt.getSubject())
+                            || isBlankNode(stmt.getObject()) || stmt
+                                .getContext() instanceof BNode)) {
+                throw new RDFHandlerException(new MalformedQueryException(
+                        "Blank nodes are not permitted in DELETE DATA"));
+            }
+
+            delegate.handleStatement(stmt);
+
+        }
+
+        /**
+         * Return <code>true</code> iff the value is a blank node other than a
+         * statement identifier.
+         */
+        private static boolean isBlankNode(final Value v) {
+            if (v instanceof BigdataBNode
+                    && ((BigdataBNode) v).isStatementIdentifier()) {
+                return false;
+            }
+            return v instanceof BNode;
+        }
+
+    }
+
     /**
      * Check whether the service is overloaded.
      * @see ConfigParams#EXECUTOR_SERVICE_MAX_THREADS
@@ -0,0 +1,799 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sail.webapp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.query.resultio.TupleQueryResultFormat;
+
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IConstant;
+import com.bigdata.bop.IVariable;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.impl.literal.AbstractLiteralIV;
+import com.bigdata.rdf.internal.impl.literal.FullyInlineTypedLiteralIV;
+import com.bigdata.rdf.internal.impl.literal.XSDBooleanIV;
+import com.bigdata.rdf.internal.impl.literal.XSDDecimalIV;
+import com.bigdata.rdf.internal.impl.literal.XSDIntegerIV;
+import com.bigdata.rdf.internal.impl.literal.XSDNumericIV;
+import com.bigdata.rdf.internal.impl.literal.XSDUnsignedByteIV;
+import com.bigdata.rdf.internal.impl.literal.XSDUnsignedIntIV;
+import com.bigdata.rdf.internal.impl.literal.XSDUnsignedLongIV;
+import com.bigdata.rdf.internal.impl.literal.XSDUnsignedShortIV;
+import com.bigdata.rdf.internal.impl.uri.FullyInlineURIIV;
+import com.bigdata.rdf.lexicon.LexiconRelation;
+import com.bigdata.rdf.model.BigdataValue;
+
+import cutthecrap.utils.striterators.ICloseableIterator;
+
+/**
+ * Writes SPARQL solutions directly from the {@link IV}s in the native bigdata
+ * solutions. This avoids the per-solution conversion into openrdf
+ * {@link org.openrdf.query.BindingSet}s done by the
+ * {@link org.openrdf.query.resultio.TupleQueryResultWriter}s.
+ * <p>
+ * Inline {@link IV}s whose lexical form is fully determined by the {@link IV}
+ * (numerics, booleans, fully inline URIs and literals) are written without
+ * creating a {@link BigdataValue}. All other {@link IV}s are resolved against
+ * the lexicon one chunk of solutions at a time, which uses the term caches of
+ * the {@link LexiconRelation}.
+ * <p>
+ * This supports the SPARQL JSON, TSV, CSV and XML result formats.
+ *
+ * @see BigdataRDFContext#STREAMING_RESULTS
+ */
+abstract public class StreamingSolutionWriter {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The writer for the output.
+     */
+    protected final Writer w;
+
+    protected StreamingSolutionWriter(final OutputStream os) {
+
+        if (os == null)
+            throw new IllegalArgumentException();
+
+        this.w = new BufferedWriter(new OutputStreamWriter(os, UTF8));
+
+    }
+
+    /**
+     * Return a writer for the format.
+     *
+     * @param format
+     *            The result format.
+     * @param os
+     *            Where to write the solutions.
+     *
+     * @return The writer -or- <code>null</code> if the format is not
+     *         supported.
+     */
+    public static StreamingSolutionWriter newInstance(
+            final TupleQueryResultFormat format, final OutputStream os) {
+
+        if (TupleQueryResultFormat.JSON.equals(format))
+            return new JSONWriter(os);
+
+        if (TupleQueryResultFormat.TSV.equals(format))
+            return new TSVWriter(os);
+
+        if (TupleQueryResultFormat.CSV.equals(format))
+            return new CSVWriter(os);
+
+        if (TupleQueryResultFormat.SPARQL.equals(format))
+            return new XMLWriter(os);
+
+        return null;
+
+    }
+
+    /**
+     * Drain the solutions and write them onto the output. The iterator is
+     * closed by this method.
+     *
+     * @param lex
+     *            The lexicon used to resolve the {@link IV}s.
+     * @param vars
+     *            The projected variables.
+     * @param itr
+     *            The native solutions.
+     *
+     * @return The #of solutions written.
+     */
+    public long write(final LexiconRelation lex, final IVariable<?>[] vars,
+            final ICloseableIterator<IBindingSet[]> itr) throws IOException {
+
+        long nsolutions = 0L;
+
+        try {
+
+            startQueryResult(vars);
+
+            while (itr.hasNext()) {
+
+                final IBindingSet[] chunk = itr.next();
+
+                final Map<IV<?, ?>, BigdataValue> terms = resolve(lex, vars,
+                        chunk);
+
+                for (IBindingSet bset : chunk) {
+
+                    startSolution();
+
+                    for (int i = 0; i < vars.length; i++) {
+
+                        final IConstant<?> c = bset.get(vars[i]);
+
+                        if (c == null) {
+
+                            unbound(i);
+
+                            continue;
+
+                        }
+
+                        writeTerm(i, vars[i].getName(), (IV<?, ?>) c.get(),
+                                terms);
+
+                    }
+
+                    endSolution();
+
+                    nsolutions++;
+
+                }
+
+            }
+
+            endQueryResult();
+
+            w.flush();
+
+        } finally {
+
+            itr.close();
+
+        }
+
+        return nsolutions;
+
+    }
+
+    /**
+     * Return <code>true</code> iff the lexical form of the {@link IV} may be
+     * written without materializing a {@link BigdataValue}.
+     */
+    static boolean isDirect(final IV<?, ?> iv) {
+
+        if (!iv.isInline())
+            return false;
+
+        if (iv instanceof FullyInlineURIIV)
+            return true;
+
+        return iv instanceof XSDNumericIV || iv instanceof XSDBooleanIV
+                || iv instanceof XSDIntegerIV || iv instanceof XSDDecimalIV
+                || iv instanceof XSDUnsignedByteIV
+                || iv instanceof XSDUnsignedShortIV
+                || iv instanceof XSDUnsignedIntIV
+                || iv instanceof XSDUnsignedLongIV
+                || iv instanceof FullyInlineTypedLiteralIV;
+
+    }
+
+    /**
+     * Batch resolve the {@link IV}s in the chunk which are neither
+     * {@link #isDirect(IV) direct} nor have a cached {@link BigdataValue}.
+     */
+    private static Map<IV<?, ?>, BigdataValue> resolve(
+            final LexiconRelation lex, final IVariable<?>[] vars,
+            final IBindingSet[] chunk) {
+
+        final Set<IV<?, ?>> ivs = new LinkedHashSet<IV<?, ?>>();
+
+        for (IBindingSet bset : chunk) {
+
+            for (IVariable<?> var : vars) {
+
+                final IConstant<?> c = bset.get(var);
+
+                if (c == null)
+                    continue;
+
+                final IV<?, ?> iv = (IV<?, ?>) c.get();
+
+                if (iv.hasValue() || isDirect(iv))
+                    continue;
+
+                ivs.add(iv);
+
+            }
+
+        }
+
+        if (ivs.isEmpty())
+            return Collections.emptyMap();
+
+        return lex.getTerms(ivs);
+
+    }
+
+    private void writeTerm(final int i, final String name,
+            final IV<?, ?> iv, final Map<IV<?, ?>, BigdataValue> terms)
+            throws IOException {
+
+        if (iv.hasValue()) {
+
+            writeValue(i, name, iv.getValue());
+
+        } else if (iv instanceof FullyInlineURIIV) {
+
+            uri(i, name, ((FullyInlineURIIV<?>) iv).stringValue());
+
+        } else if (isDirect(iv)) {
+
+            final AbstractLiteralIV<?, ?> lit = (AbstractLiteralIV<?, ?>) iv;
+
+            final URI datatype = lit.getDatatype();
+
+            literal(i, name, lit.stringValue(),
+                    datatype == null ? null : datatype.stringValue(),
+                    lit.getLanguage());
+
+        } else {
+
+            final BigdataValue value = terms.get(iv);
+
+            if (value == null)
+                throw new RuntimeException("Could not resolve: iv=" + iv);
+
+            writeValue(i, name, value);
+
+        }
+
+    }
+
+    private void writeValue(final int i, final String name, final Value value)
+            throws IOException {
+
+        if (value instanceof URI) {
+
+            uri(i, name, value.stringValue());
+
+        } else if (value instanceof BNode) {
+
+            bnode(i, name, ((BNode) value).getID());
+
+        } else {
+
+            final Literal lit = (Literal) value;
+
+            final URI datatype = lit.getDatatype();
+
+            literal(i, name, lit.getLabel(),
+                    datatype == null ? null : datatype.stringValue(),
+                    lit.getLanguage());
+
+        }
+
+    }
+
+    abstract protected void startQueryResult(IVariable<?>[] vars)
+            throws IOException;
+
+    abstract protected void endQueryResult() throws IOException;
+
+    abstract protected void startSolution() throws IOException;
+
+    abstract protected void endSolution() throws IOException;
+
+    /**
+     * Invoked for the i<sup>th</sup> variable when it is not bound in a
+     * solution.
+     */
+    abstract protected void unbound(int i) throws IOException;
+
+    abstract protected void uri(int i, String name, String uri)
+            throws IOException;
+
+    abstract protected void bnode(int i, String name, String id)
+            throws IOException;
+
+    /**
+     * @param datatype
+     *            The datatype URI (optional).
+     * @param language
+     *            The language code (optional).
+     */
+    abstract protected void literal(int i, String name, String label,
+            String datatype, String language) throws IOException;
+
+    /**
+     * SPARQL 1.1 Query Results TSV format.
+     */
+    static class TSVWriter extends StreamingSolutionWriter {
+
+        TSVWriter(final OutputStream os) {
+            super(os);
+        }
+
+        @Override
+        protected void startQueryResult(final IVariable<?>[] vars)
+                throws IOException {
+            for (int i = 0; i < vars.length; i++) {
+                if (i > 0)
+                    w.write('\t');
+                w.write('?');
+                w.write(vars[i].getName());
+            }
+            w.write('\n');
+        }
+
+        @Override
+        protected void endQueryResult() {
+        }
+
+        @Override
+        protected void startSolution() {
+        }
+
+        @Override
+        protected void endSolution() throws IOException {
+            w.write('\n');
+        }
+
+        @Override
+        protected void unbound(final int i) throws IOException {
+            if (i > 0)
+                w.write('\t');
+        }
+
+        @Override
+        protected void uri(final int i, final String name, final String uri)
+                throws IOException {
+            unbound(i);
+            w.write('<');
+            w.write(uri);
+            w.write('>');
+        }
+
+        @Override
+        protected void bnode(final int i, final String name, final String id)
+                throws IOException {
+            unbound(i);
+            w.write("_:");
+            w.write(id);
+        }
+
+        @Override
+        protected void literal(final int i, final String name,
+                final String label, final String datatype,
+                final String language) throws IOException {
+            unbound(i);
+            w.write('"');
+            for (int j = 0; j < label.length(); j++) {
+                final char ch = label.charAt(j);
+                switch (ch) {
+                case '\\':
+                    w.write("\\\\");
+                    break;
+                case '"':
+                    w.write("\\\"");
+                    break;
+                case '\n':
+                    w.write("\\n");
+                    break;
+                case '\r':
+                    w.write("\\r");
+                    break;
+                case '\t':
+                    w.write("\\t");
+                    break;
+                default:
+                    w.write(ch);
+                }
+            }
+            w.write('"');
+            if (language != null) {
+                w.write('@');
+                w.write(language);
+            } else if (datatype != null) {
+                w.write("^^<");
+                w.write(datatype);
+                w.write('>');
+            }
+        }
+
+    }
+
+    /**
+     * SPARQL 1.1 Query Results CSV format.
+     */
+    static class CSVWriter extends StreamingSolutionWriter {
+
+        CSVWriter(final OutputStream os) {
+            super(os);
+        }
+
+        @Override
+        protected void startQueryResult(final IVariable<?>[] vars)
+                throws IOException {
+            for (int i = 0; i < vars.length; i++) {
+                if (i > 0)
+                    w.write(',');
+                write(vars[i].getName());
+            }
+            w.write("\r\n");
+        }
+
+        @Override
+        protected void endQueryResult() {
+        }
+
+        @Override
+        protected void startSolution() {
+        }
+
+        @Override
+        protected void endSolution() throws IOException {
+            w.write("\r\n");
+        }
+
+        @Override
+        protected void unbound(final int i) throws IOException {
+            if (i > 0)
+                w.write(',');
+        }
+
+        @Override
+        protected void uri(final int i, final String name, final String uri)
+                throws IOException {
+            unbound(i);
+            write(uri);
+        }
+
+        @Override
+        protected void bnode(final int i, final String name, final String id)
+                throws IOException {
+            unbound(i);
+            write("_:" + id);
+        }
+
+        @Override
+        protected void literal(final int i, final String name,
+                final String label, final String datatype,
+                final String language) throws IOException {
+            unbound(i);
+            write(label);
+        }
+
+        /**
+         * Write a field, quoting it if necessary.
+         */
+        private void write(final String s) throws IOException {
+            boolean quote = false;
+            for (int j = 0; j < s.length() && !quote; j++) {
+                final char ch = s.charAt(j);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                w.write(s);
+                return;
+            }
+            w.write('"');
+            for (int j = 0; j < s.length(); j++) {
+                final char ch = s.charAt(j);
+                if (ch == '"')
+                    w.write('"');
+                w.write(ch);
+            }
+            w.write('"');
+        }
+
+    }
+
+    /**
+     * SPARQL 1.1 Query Results JSON format.
+     */
+    static class JSONWriter extends StreamingSolutionWriter {
+
+        /**
+         * <code>true</code> until the first solution has been written.
+         */
+        private boolean firstSolution = true;
+
+        /**
+         * <code>true</code> until the first binding of the current solution
+         * has been written.
+         */
+        private boolean firstBinding;
+
+        JSONWriter(final OutputStream os) {
+            super(os);
+        }
+
+        @Override
+        protected void startQueryResult(final IVariable<?>[] vars)
+                throws IOException {
+            w.write("{\n  \"head\" : {\n    \"vars\" : [ ");
+            for (int i = 0; i < vars.length; i++) {
+                if (i > 0)
+                    w.write(", ");
+                write(vars[i].getName());
+            }
+            w.write(" ]\n  },\n  \"results\" : {\n    \"bindings\" : [");
+        }
+
+        @Override
+        protected void endQueryResult() throws IOException {
+            w.write(" ]\n  }\n}\n");
+        }
+
+        @Override
+        protected void startSolution() throws IOException {
+            w.write(firstSolution ? " {" : ", {");
+            firstSolution = false;
+            firstBinding = true;
+        }
+
+        @Override
+        protected void endSolution() throws IOException {
+            w.write(" }");
+        }
+
+        @Override
+        protected void unbound(final int i) {
+        }
+
+        private void startBinding(final String name, final String type)
+                throws IOException {
+            w.write(firstBinding ? "\n      " : ",\n      ");
+            firstBinding = false;
+            write(name);
+            w.write(" : { \"type\" : ");
+            write(type);
+            w.write(", \"value\" : ");
+        }
+
+        @Override
+        protected void uri(final int i, final String name, final String uri)
+                throws IOException {
+            startBinding(name, "uri");
+            write(uri);
+            w.write(" }");
+        }
+
+        @Override
+        protected void bnode(final int i, final String name, final String id)
+                throws IOException {
+            startBinding(name, "bnode");
+            write(id);
+            w.write(" }");
+        }
+
+        @Override
+        protected void literal(final int i, final String name,
+                final String label, final String datatype,
+                final String language) throws IOException {
+            startBinding(name, "literal");
+            write(label);
+            if (language != null) {
+                w.write(", \"xml:lang\" : ");
+                write(language);
+            } else if (datatype != null) {
+                w.write(", \"datatype\" : ");
+                write(datatype);
+            }
+            w.write(" }");
+        }
+
+        /**
+         * Write a quoted JSON string.
+         */
+        private void write(final String s) throws IOException {
+            w.write('"');
+            for (int j = 0; j < s.length(); j++) {
+                final char ch = s.charAt(j);
+                switch (ch) {
+                case '"':
+                    w.write("\\\"");
+                    break;
+                case '\\':
+                    w.write("\\\\");
+                    break;
+                case '\n':
+                    w.write("\\n");
+                    break;
+                case '\r':
+                    w.write("\\r");
+                    break;
+                case '\t':
+                    w.write("\\t");
+                    break;
+                case '\b':
+                    w.write("\\b");
+                    break;
+                case '\f':
+                    w.write("\\f");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        w.write(String.format("\\u%04x", (int) ch));
+                    } else {
+                        w.write(ch);
+                    }
+                }
+            }
+            w.write('"');
+        }
+
+    }
+
+    /**
+     * SPARQL Query Results XML format.
+     */
+    static class XMLWriter extends StreamingSolutionWriter {
+
+        XMLWriter(final OutputStream os) {
+            super(os);
+        }
+
+        @Override
+        protected void startQueryResult(final IVariable<?>[] vars)
+                throws IOException {
+            w.write("<?xml version='1.0' encoding='UTF-8'?>\n");
+            w.write("<sparql xmlns='http://www.w3.org/2005/sparql-results#'>\n");
+            w.write("\t<head>\n");
+            for (IVariable<?> var : vars) {
+                w.write("\t\t<variable name='");
+                write(var.getName());
+                w.write("'/>\n");
+            }
+            w.write("\t</head>\n\t<results>\n");
+        }
+
+        @Override
+        protected void endQueryResult() throws IOException {
+            w.write("\t</results>\n</sparql>\n");
+        }
+
+        @Override
+        protected void startSolution() throws IOException {
+            w.write("\t\t<result>\n");
+        }
+
+        @Override
+        protected void endSolution() throws IOException {
+            w.write("\t\t</result>\n");
+        }
+
+        @Override
+        protected void unbound(final int i) {
+        }
+
+        private void startBinding(final String name) throws IOException {
+            w.write("\t\t\t<binding name='");
+            write(name);
+            w.write("'>\n\t\t\t\t");
+        }
+
+        private void endBinding() throws IOException {
+            w.write("\n\t\t\t</binding>\n");
+        }
+
+        @Override
+        protected void uri(final int i, final String name, final String uri)
+                throws IOException {
+            startBinding(name);
+            w.write("<uri>");
+            write(uri);
+            w.write("</uri>");
+            endBinding();
+        }
+
+        @Override
+        protected void bnode(final int i, final String name, final String id)
+                throws IOException {
+            startBinding(name);
+            w.write("<bnode>");
+            write(id);
+            w.write("</bnode>");
+            endBinding();
+        }
+
+        @Override
+        protected void literal(final int i, final String name,
+                final String label, final String datatype,
+                final String language) throws IOException {
+            startBinding(name);
+            if (language != null) {
+                w.write("<literal xml:lang='");
+                write(language);
+                w.write("'>");
+            } else if (datatype != null) {
+                w.write("<literal datatype='");
+                write(datatype);
+                w.write("'>");
+            } else {
+                w.write("<literal>");
+            }
+            write(label);
+            w.write("</literal>");
+            endBinding();
+        }
+
+        /**
+         * Write escaped character data or attribute value.
+         */
+        private void write(final String s) throws IOException {
+            for (int j = 0; j < s.length(); j++) {
+                final char ch = s.charAt(j);
+                switch (ch) {
+                case '&':
+                    w.write("&amp;");
+                    break;
+                case '<':
+                    w.write("&lt;");
+                    break;
+                case '>':
+                    w.write("&gt;");
+                    break;
+                case '\'':
+                    w.write("&apos;");
+                    break;
+                case '"':
+                    w.write("&quot;");
+                    break;
+                case '\r':
+                    w.write("&#xD;");
+                    break;
+                default:
+                    w.write(ch);
+                }
+            }
+        }
+
+    }
+
+}
@@ -27,7 +27,11 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.bop.controller;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.FutureTask;
@@ -40,6 +44,7 @@ import com.bigdata.bop.BOpUtility;
 import com.bigdata.bop.Constant;
 import com.bigdata.bop.IBindingSet;
 import com.bigdata.bop.IConstraint;
+import com.bigdata.bop.IQueryAttributes;
 import com.bigdata.bop.IVariable;
 import com.bigdata.bop.NV;
 import com.bigdata.bop.PipelineOp;
@@ -106,6 +111,19 @@ import cutthecrap.utils.striterators.ICloseableIterator;
  * subquery. However, there can still be cases where the vectored sub-plan is
  * more efficient.
  * 
+ * <h3>Memoization</h3>
+ * 
+ * Correlated subqueries and EXISTS are frequently presented with many source
+ * solutions which agree on the projected variables. Since the subquery only
+ * sees those variables, its results are a function of that projection and can
+ * be reused. The operator therefore maintains a bounded, per-query memo (see
+ * {@link Annotations#MEMO_CAPACITY}) keyed by the projected binding set. For
+ * an ASK subquery the memo records whether a solution exists. Otherwise it
+ * records the subquery solutions (see {@link Annotations#MEMO_MAX_SOLUTIONS})
+ * and replays them for each source solution having the same projection. The
+ * memo lives in the {@link IQueryAttributes} of the running query and is
+ * discarded with that query.
+ * 
  * @see AbstractSubqueryOp
  * @see JVMNamedSubqueryOp
  * @see HTreeNamedSubqueryOp
@@ -174,6 +192,29 @@ public class SubqueryOp extends PipelineOp {
         String IS_AGGREGATE = Annotations.class.getName() + ".isAggregate";
 
         boolean DEFAULT_IS_AGGREGATE = false;
+
+        /**
+         * The maximum #of distinct projected binding sets whose subquery
+         * results will be memoized for reuse within the same query (default
+         * {@value #DEFAULT_MEMO_CAPACITY}). The memo is evicted in LRU order
+         * once this capacity is reached. When ZERO (0), the subquery is
+         * evaluated for each source solution.
+         */
+        String MEMO_CAPACITY = Annotations.class.getName() + ".memoCapacity";
+
+        int DEFAULT_MEMO_CAPACITY = 1000;
+
+        /**
+         * The maximum #of subquery solutions which will be memoized for a given
+         * projected binding set (default {@value #DEFAULT_MEMO_MAX_SOLUTIONS}).
+         * Subqueries producing more solutions than this are not memoized. This
+         * is ignored for an {@link #ASK_VAR} subquery, which memoizes a single
+         * boolean.
+         */
+        String MEMO_MAX_SOLUTIONS = Annotations.class.getName()
+                + ".memoMaxSolutions";
+
+        int DEFAULT_MEMO_MAX_SOLUTIONS = 100;
         
     }
 
@@ -257,6 +298,13 @@ public class SubqueryOp extends PipelineOp {
         private final IVariable<?>[] selectVars;
         /** The optional constraints on the join. */
         private final IConstraint[] constraints;
+        /**
+         * The memo of subquery results for this operator (<code>null</code> if
+         * memoization is disabled).
+         */
+        private final SubqueryMemo memo;
+        /** The maximum #of solutions memoized per projected binding set. */
+        private final int memoMaxSolutions;
         
         public ControllerTask(final SubqueryOp controllerOp,
                 final BOpContext<IBindingSet> context) {
@@ -291,6 +339,47 @@ public class SubqueryOp extends PipelineOp {
             this.constraints = (IConstraint[]) controllerOp
                     .getProperty(Annotations.CONSTRAINTS);
             
+            final int memoCapacity = controllerOp.getProperty(
+                    Annotations.MEMO_CAPACITY,
+                    Annotations.DEFAULT_MEMO_CAPACITY);
+
+            this.memoMaxSolutions = controllerOp.getProperty(
+                    Annotations.MEMO_MAX_SOLUTIONS,
+                    Annotations.DEFAULT_MEMO_MAX_SOLUTIONS);
+
+            if (memoCapacity > 0) {
+
+                /*
+                 * The memo is shared by all invocations of this operator for
+                 * the same query.
+                 */
+
+                final IQueryAttributes attrs = context.getQueryAttributes();
+
+                final String key = Integer.toString(controllerOp.getId())
+                        + ".memo";
+
+                SubqueryMemo tmp = (SubqueryMemo) attrs.get(key);
+
+                if (tmp == null) {
+
+                    final SubqueryMemo newMemo = new SubqueryMemo(memoCapacity);
+
+                    tmp = (SubqueryMemo) attrs.putIfAbsent(key, newMemo);
+
+                    if (tmp == null)
+                        tmp = newMemo;
+
+                }
+
+                this.memo = tmp;
+
+            } else {
+
+                this.memo = null;
+
+            }
+
         }
 
         /**
@@ -313,6 +402,13 @@ public class SubqueryOp extends PipelineOp {
 						final IRunningQuery runningSubquery = new SubqueryTask(
 								bset, subquery, context).call();
 
+						if (runningSubquery == null) {
+
+							// Answered from the memo.
+							continue;
+
+						}
+
 						if (!runningSubquery.isDone()) {
 
 							throw new AssertionError("Future not done: "
@@ -406,6 +502,27 @@ public class SubqueryOp extends PipelineOp {
                 final IBindingSet childSolutionIn = parentSolutionIn
                         .copy(selectVars);
 
+                /*
+                 * The memo key. This is a distinct copy since the query engine
+                 * takes ownership of the childSolutionIn.
+                 */
+                final IBindingSet memoKey = memo == null ? null
+                        : parentSolutionIn.copy(selectVars);
+
+                if (memoKey != null) {
+
+                    final Object memoized = memo.get(memoKey);
+
+                    if (memoized != null) {
+
+                        replay(memoized);
+
+                        return null;
+
+                    }
+
+                }
+
             	// The subquery
                 IRunningQuery runningSubquery = null;
             	// The iterator draining the subquery
@@ -437,6 +554,8 @@ public class SubqueryOp extends PipelineOp {
                             childSolutionIn);
 
 					long ncopied = 0L;
+					// Records the subquery solutions for the memo (optional).
+					RecordingIterator recorder = null;
 					try {
 
                         // Declare the child query to the parent.
@@ -453,7 +572,12 @@ public class SubqueryOp extends PipelineOp {
                              * in whether or not at least one solution exists.
                              */
                             
-                            final IV<BigdataLiteral, Boolean> success = XSDBooleanIV.valueOf(subquerySolutionItr.hasNext());
+                            final boolean hasSolution = subquerySolutionItr.hasNext();
+
+                            final IV<BigdataLiteral, Boolean> success = XSDBooleanIV.valueOf(hasSolution);
+                            
+                            if (memoKey != null)
+                                memo.put(memoKey, Boolean.valueOf(hasSolution));
                             
 //                            System.err
 //                                    .println("in="
@@ -477,9 +601,22 @@ public class SubqueryOp extends PipelineOp {
 
                         } else {
 
+                            /*
+                             * Record the subquery solutions for the memo as
+                             * they are copied (unless there are too many).
+                             * 
+                             * Note: Without selectVars, copy() merges the
+                             * parent bindings into the subquery solutions in
+                             * place, so those solutions can not be reused.
+                             */
+                            if (memoKey != null && selectVars != null)
+                                recorder = new RecordingIterator(
+                                        subquerySolutionItr, memoMaxSolutions);
+
                             // Copy solutions from the subquery to the query.
                             ncopied = BOpUtility.copy(//
-                                    subquerySolutionItr,// subquery solutions.
+                                    recorder == null ? subquerySolutionItr
+                                            : recorder,// subquery solutions.
                                     parentContext.getSink(), //
                                     null, // sink2
                                     parentSolutionIn,// original bindings from
@@ -489,10 +626,20 @@ public class SubqueryOp extends PipelineOp {
                                     constraints, //
                                     parentContext.getStats()//
                                     );
+
                         }
 
 						// wait for the subquery to halt / test for errors.
 						runningSubquery.get();
+
+                        if (recorder != null && !recorder.overflow) {
+
+                            // Memoize only a complete result.
+                            memo.put(memoKey, recorder.chunks
+                                    .toArray(new IBindingSet[recorder.chunks
+                                            .size()][]));
+
+                        }
 						
 					} catch (InterruptedException ex) {
 
@@ -569,8 +716,183 @@ public class SubqueryOp extends PipelineOp {
 
             }
 
+            /**
+             * Replay a memoized subquery result for the parent solution.
+             * 
+             * @param memoized
+             *            Either a {@link Boolean} (ASK subquery) or the
+             *            <code>IBindingSet[][]</code> solutions produced by the
+             *            subquery for the same projected binding set.
+             */
+            private void replay(final Object memoized) {
+
+                long ncopied;
+
+                if (askVar != null) {
+
+                    final IV<BigdataLiteral, Boolean> success = XSDBooleanIV
+                            .valueOf(((Boolean) memoized).booleanValue());
+
+                    parentSolutionIn.set(askVar,
+                            new Constant<IV<BigdataLiteral, Boolean>>(success));
+
+                    parentContext.getSink().add(
+                            new IBindingSet[] { parentSolutionIn });
+
+                    ncopied = 1;
+
+                } else {
+
+                    // Note: copy() does not modify the memoized solutions.
+                    ncopied = BOpUtility.copy(//
+                            Arrays.asList((IBindingSet[][]) memoized).iterator(),//
+                            parentContext.getSink(), //
+                            null, // sink2
+                            parentSolutionIn,//
+                            selectVars, //
+                            constraints, //
+                            parentContext.getStats()//
+                            );
+
+                }
+
+                if (ncopied == 0L && joinType.isOptional()) {
+
+                    final IBlockingBuffer<IBindingSet[]> optionalSink = parentContext
+                            .getSink2() != null ? parentContext.getSink2()
+                            : parentContext.getSink();
+
+                    optionalSink.add(new IBindingSet[] { parentSolutionIn });
+
+                }
+
+            }
+
         } // SubqueryTask
 
     } // ControllerTask
 
+    /**
+     * A bounded LRU memo of subquery results keyed by the binding set projected
+     * into the subquery. The memo is shared by the concurrent invocations of a
+     * {@link SubqueryOp} within a query.
+     */
+    static class SubqueryMemo {
+
+        private final LinkedHashMap<IBindingSet, Object> map;
+
+        SubqueryMemo(final int capacity) {
+
+            if (capacity <= 0)
+                throw new IllegalArgumentException();
+
+            this.map = new LinkedHashMap<IBindingSet, Object>(16/* initialCapacity */,
+                    .75f/* loadFactor */, true/* accessOrder */) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<IBindingSet, Object> eldest) {
+
+                    return size() > capacity;
+
+                }
+
+            };
+
+        }
+
+        synchronized Object get(final IBindingSet key) {
+
+            return map.get(key);
+
+        }
+
+        synchronized void put(final IBindingSet key, final Object value) {
+
+            map.put(key, value);
+
+        }
+
+        synchronized int size() {
+
+            return map.size();
+
+        }
+
+    }
+
+    /**
+     * Passes through the chunks visited by the subquery while recording them
+     * until more than a given #of solutions have been observed.
+     */
+    private static class RecordingIterator implements Iterator<IBindingSet[]> {
+
+        private final Iterator<IBindingSet[]> src;
+
+        private final int maxSolutions;
+
+        private final List<IBindingSet[]> chunks = new ArrayList<IBindingSet[]>();
+
+        private int nsolutions = 0;
+
+        /**
+         * <code>true</code> iff the subquery produced more solutions than will
+         * be recorded.
+         */
+        private boolean overflow = false;
+
+        RecordingIterator(final Iterator<IBindingSet[]> src,
+                final int maxSolutions) {
+
+            this.src = src;
+
+            this.maxSolutions = maxSolutions;
+
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            return src.hasNext();
+
+        }
+
+        @Override
+        public IBindingSet[] next() {
+
+            final IBindingSet[] chunk = src.next();
+
+            if (!overflow) {
+
+                nsolutions += chunk.length;
+
+                if (nsolutions > maxSolutions) {
+
+                    overflow = true;
+
+                    chunks.clear();
+
+                } else {
+
+                    chunks.add(chunk);
+
+                }
+
+            }
+
+            return chunk;
+
+        }
+
+        @Override
+        public void remove() {
+
+            throw new UnsupportedOperationException();
+
+        }
+
+    }
+
 }
@@ -1397,8 +1397,11 @@ abstract public class AbstractRunningQuery implements IRunningQuery {
                 // mark done time.
                 doneTime.set(System.currentTimeMillis());
                 // log summary statistics for the query.
-                if (isController())
+                if (isController()) {
                     QueryLog.log(this);
+                    // record the observed join cardinalities (if requested).
+                    CardinalityFeedback.observe(this);
+                }
 //                final String tag = getQuery().getProperty(QueryHints.TAG,
 //                        QueryHints.DEFAULT_TAG);
 //                final Counters c = tag == null ? null : queryEngine
@@ -0,0 +1,459 @@
+/*
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.bop.engine;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.bop.BOp;
+import com.bigdata.bop.BOpUtility;
+import com.bigdata.bop.IPredicate;
+import com.bigdata.bop.join.AccessPathJoinAnnotations;
+import com.bigdata.bop.join.BaseJoinStats;
+import com.bigdata.bop.solutions.SliceOp;
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.ILocalBTreeView;
+import com.bigdata.btree.IndexMetadata;
+import com.bigdata.btree.keys.KeyBuilder;
+import com.bigdata.journal.AbstractTask;
+import com.bigdata.journal.IConcurrencyManager;
+import com.bigdata.journal.IIndexManager;
+import com.bigdata.journal.ITx;
+import com.bigdata.journal.Journal;
+
+/**
+ * Statistics observed for the joins of completed queries. The query planner
+ * tags each predicate whose statistics it wants to learn with a
+ * {@link Annotations#FEEDBACK_KEY}. When a query which carries such
+ * predicates runs to completion, the selectivity of each of those joins is
+ * recorded. The next time the same query is planned, the planner can
+ * {@link #get(String) look up} the observed selectivity and use it to refine
+ * the range count of the access path.
+ * <p>
+ * The selectivity of a join is the #of solutions which it output divided by
+ * the #of elements which it read from its access paths. This is mostly a
+ * measure of the FILTERs attached to the join, and which FILTERs are attached
+ * depends on the query and on the join order. The planner therefore keys the
+ * statistics by the shape of the query and the position of the statement
+ * pattern within it, so they are never shared with other queries. When the
+ * join order changes as a result of the feedback, the decayed average
+ * converges on the selectivity for the new order. Only joins which read at
+ * least one element and which are not optional are recorded. Queries which
+ * were cancelled, which failed, or which have a LIMIT are ignored since their
+ * joins may not have consumed all of their inputs.
+ * <p>
+ * The store keeps an exponentially decayed average of the observations for
+ * each key, so the recorded selectivity tracks changes in the data. The
+ * statistics are cached in memory (by the {@link QueryEngine}) and the cache
+ * is bounded by an LRU policy. When the index manager is a {@link Journal}
+ * using group commit, the statistics are also written onto the
+ * {@link #NAME} index by an {@link AbstractTask} which holds the write lock
+ * for that index, so they are durable and are read back on a cache miss.
+ * Without group commit, the application decides when the journal commits and
+ * the statistics are only kept in memory.
+ *
+ * @see QueryEngine#getCardinalityFeedback()
+ * @see QueryLog
+ */
+public class CardinalityFeedback {
+
+    private static final transient Logger log = Logger
+            .getLogger(CardinalityFeedback.class);
+
+    public interface Annotations {
+
+        /**
+         * Annotation placed on an {@link IPredicate} whose join selectivity
+         * should be recorded when the query completes. The value is the key
+         * under which the observed selectivity is stored.
+         */
+        String FEEDBACK_KEY = CardinalityFeedback.class.getName()
+                + ".feedbackKey";
+
+    }
+
+    /**
+     * The name of the index on the journal.
+     */
+    public static final String NAME = "__cardinalityFeedback";
+
+    /**
+     * The default maximum #of keys for which statistics are cached.
+     */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    /**
+     * The weight of a new observation in the decayed average.
+     */
+    public static final double DEFAULT_DECAY = 0.5d;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final double decay;
+
+    /**
+     * The journal on which the statistics are persisted -or-
+     * <code>null</code> if they are only kept in memory.
+     */
+    private final Journal journal;
+
+    /**
+     * The observed selectivity for each key. Guarded by synchronized(this).
+     */
+    private final LinkedHashMap<String, Double> map;
+
+    /**
+     * The selectivities which have not been written onto the journal yet.
+     * Guarded by synchronized(this).
+     */
+    private Map<String, Double> dirty = new LinkedHashMap<String, Double>();
+
+    /**
+     * Statistics which are only kept in memory.
+     */
+    public CardinalityFeedback() {
+
+        this(null/* indexManager */, DEFAULT_CAPACITY, DEFAULT_DECAY);
+
+    }
+
+    /**
+     * @param indexManager
+     *            The index manager on which the statistics are persisted (a
+     *            {@link Journal} using group commit) -or- <code>null</code>.
+     */
+    public CardinalityFeedback(final IIndexManager indexManager) {
+
+        this(indexManager, DEFAULT_CAPACITY, DEFAULT_DECAY);
+
+    }
+
+    /**
+     * @param indexManager
+     *            The index manager on which the statistics are persisted (a
+     *            {@link Journal} using group commit) -or- <code>null</code>.
+     *            The statistics are only kept in memory for any other index
+     *            manager.
+     * @param capacity
+     *            The maximum #of keys for which statistics are cached.
+     * @param decay
+     *            The weight of a new observation in the decayed average in
+     *            <code>(0:1]</code>.
+     */
+    public CardinalityFeedback(final IIndexManager indexManager,
+            final int capacity, final double decay) {
+
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+
+        if (decay <= 0d || decay > 1d)
+            throw new IllegalArgumentException();
+
+        if (indexManager instanceof Journal && indexManager.isGroupCommit()
+                && !((Journal) indexManager).isReadOnly()) {
+
+            this.journal = (Journal) indexManager;
+
+        } else {
+
+            this.journal = null;
+
+        }
+
+        this.decay = decay;
+
+        this.map = new LinkedHashMap<String, Double>(16/* initialCapacity */,
+                .75f/* loadFactor */, true/* accessOrder */) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, Double> eldest) {
+
+                return size() > capacity;
+
+            }
+
+        };
+
+    }
+
+    /**
+     * Return <code>true</code> iff the statistics are written onto the
+     * journal.
+     */
+    public boolean isPersistent() {
+
+        return journal != null;
+
+    }
+
+    /**
+     * Return the selectivity observed for the key.
+     *
+     * @param key
+     *            The key.
+     *
+     * @return The observed selectivity in <code>[0:1]</code> -or-
+     *         <code>-1</code> if nothing has been observed for that key.
+     */
+    public synchronized double get(final String key) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        Double val = map.get(key);
+
+        if (val == null && journal != null) {
+
+            /*
+             * Cache miss: read through to the last commit point. The index
+             * does not exist until the first observations were written.
+             */
+            final ILocalBTreeView ndx = journal.getIndex(NAME,
+                    ITx.READ_COMMITTED);
+
+            final byte[] b = ndx == null ? null : ndx.lookup(key
+                    .getBytes(UTF8));
+
+            if (b != null) {
+
+                val = KeyBuilder.decodeDouble(b, 0/* off */);
+
+                map.put(key, val);
+
+            }
+
+        }
+
+        return val == null ? -1d : val.doubleValue();
+
+    }
+
+    /**
+     * Record an observed selectivity. The first observation for a key is
+     * stored as given. Later observations are folded into an exponentially
+     * decayed average. The new value is cached and is written onto the
+     * journal by the next {@link #flush()}.
+     *
+     * @param key
+     *            The key.
+     * @param selectivity
+     *            The observed selectivity in <code>[0:1]</code>.
+     */
+    public synchronized void observe(final String key,
+            final double selectivity) {
+
+        if (selectivity < 0d || selectivity > 1d)
+            throw new IllegalArgumentException();
+
+        // Note: checks the key and reads through on a cache miss.
+        final double old = get(key);
+
+        final double val = old < 0d ? selectivity : decay * selectivity
+                + (1d - decay) * old;
+
+        map.put(key, val);
+
+        if (journal != null)
+            dirty.put(key, val);
+
+    }
+
+    /**
+     * Write the selectivities recorded since the last flush onto the journal.
+     * The write is performed asynchronously by an {@link AbstractTask} which
+     * holds the write lock for the {@link #NAME} index and becomes durable
+     * with the group commit which follows that task.
+     *
+     * @return The {@link Future} of that task -or- <code>null</code> if there
+     *         was nothing to write or the statistics are not persistent.
+     */
+    public Future<Void> flush() {
+
+        final Map<String, Double> values;
+
+        synchronized (this) {
+
+            if (journal == null || dirty.isEmpty())
+                return null;
+
+            values = dirty;
+
+            dirty = new LinkedHashMap<String, Double>();
+
+        }
+
+        return journal.submit(new WriteTask(journal.getConcurrencyManager(),
+                values));
+
+    }
+
+    /**
+     * Writes the given selectivities onto the {@link #NAME} index,
+     * registering the index if necessary.
+     */
+    private static class WriteTask extends AbstractTask<Void> {
+
+        private final Map<String, Double> values;
+
+        WriteTask(final IConcurrencyManager concurrencyManager,
+                final Map<String, Double> values) {
+
+            super(concurrencyManager, ITx.UNISOLATED, NAME);
+
+            this.values = values;
+
+        }
+
+        @Override
+        protected Void doTask() throws Exception {
+
+            IIndex ndx = getJournal().getIndex(NAME);
+
+            if (ndx == null) {
+
+                ndx = getJournal().registerIndex(NAME,
+                        new IndexMetadata(NAME, UUID.randomUUID()));
+
+            }
+
+            final KeyBuilder keyBuilder = new KeyBuilder(8/* capacity */);
+
+            for (Map.Entry<String, Double> e : values.entrySet()) {
+
+                ndx.insert(e.getKey().getBytes(UTF8), keyBuilder.reset()
+                        .append(e.getValue().doubleValue()).getKey());
+
+            }
+
+            return null;
+
+        }
+
+    }
+
+    /**
+     * Record the selectivities observed for a completed query. This is a NOP
+     * unless the query plan has predicates annotated with a
+     * {@link Annotations#FEEDBACK_KEY}. Errors are logged and otherwise
+     * ignored.
+     *
+     * @param q
+     *            The query.
+     */
+    static void observe(final IRunningQuery q) {
+
+        try {
+
+            if (q.isCancelled() || q.getCause() != null)
+                return;
+
+            final BOp query = q.getQuery();
+
+            if (query == null)
+                return;
+
+            final Iterator<BOp> itr = BOpUtility.preOrderIterator(query);
+
+            while (itr.hasNext()) {
+
+                final BOp op = itr.next();
+
+                if (op instanceof SliceOp
+                        && ((SliceOp) op).getLimit() != SliceOp.Annotations.DEFAULT_LIMIT) {
+
+                    // The joins might not have run to completion.
+                    return;
+
+                }
+
+            }
+
+            final Map<Integer, BOpStats> stats = q.getStats();
+
+            final CardinalityFeedback feedback = q.getQueryEngine()
+                    .getCardinalityFeedback();
+
+            final Iterator<BOp> itr2 = BOpUtility.preOrderIterator(query);
+
+            while (itr2.hasNext()) {
+
+                final BOp op = itr2.next();
+
+                final IPredicate<?> pred = (IPredicate<?>) op
+                        .getProperty(AccessPathJoinAnnotations.PREDICATE);
+
+                if (pred == null || pred.isOptional())
+                    continue;
+
+                final String key = (String) pred
+                        .getProperty(Annotations.FEEDBACK_KEY);
+
+                if (key == null)
+                    continue;
+
+                final BOpStats s = stats.get(op.getId());
+
+                if (!(s instanceof BaseJoinStats))
+                    continue;
+
+                final long in = ((BaseJoinStats) s).accessPathUnitsIn.get();
+
+                if (in == 0L)
+                    continue;
+
+                final long out = s.unitsOut.get();
+
+                feedback.observe(key, Math.min(1d, ((double) out) / in));
+
+            }
+
+            /*
+             * Note: The write is handed off to the write service. The query
+             * completion thread does not touch the unisolated index.
+             */
+            feedback.flush();
+
+        } catch (Throwable t) {
+
+            log.warn("Could not record cardinality feedback: " + t, t);
+
+        }
+
+    }
+
+}
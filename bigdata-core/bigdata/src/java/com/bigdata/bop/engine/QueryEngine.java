@@ -287,6 +287,10 @@ public class QueryEngine implements IQueryPeer, IQueryClient, ICounterSetAccess
         // geospatial counters
         final CounterSet geoSpatial = root.makePath("GeoSpatial");
         geoSpatial.attach(geoSpatialCounters.getCounters());
+
+        // static analysis (optimizer) counters
+        final CounterSet staticAnalysis = root.makePath("StaticAnalysis");
+        staticAnalysis.attach(staticAnalysisCounters.getCounters());
         
 //        // counters per tagged query group.
 //        {
@@ -326,6 +330,16 @@ public class QueryEngine implements IQueryPeer, IQueryClient, ICounterSetAccess
      */
     final protected GeoSpatialCounters geoSpatialCounters = newGeoSpatialCounters();
 
+    /**
+     * Static analysis (optimizer) counters.
+     */
+    final protected StaticAnalysisCounters staticAnalysisCounters = new StaticAnalysisCounters();
+
+    /**
+     * The join selectivities observed for completed queries.
+     */
+    final private CardinalityFeedback cardinalityFeedback;
+
 //    /**
 //     * Statistics for queries which are "tagged" so we can recognize their
 //     * instances as members of some group.
@@ -406,6 +420,25 @@ public class QueryEngine implements IQueryPeer, IQueryClient, ICounterSetAccess
         return geoSpatialCounters;
         
     }
+
+    /**
+     * The {@link StaticAnalysisCounters} object for this {@link QueryEngine}.
+     */
+    public StaticAnalysisCounters getStaticAnalysisCounters() {
+        
+        return staticAnalysisCounters;
+        
+    }
+
+    /**
+     * The join selectivities observed for the queries run by this
+     * {@link QueryEngine}.
+     */
+    public CardinalityFeedback getCardinalityFeedback() {
+
+        return cardinalityFeedback;
+
+    }
     
     /**
      * Access to the <strong>local</strong> indices.
@@ -929,6 +962,8 @@ public class QueryEngine implements IQueryPeer, IQueryClient, ICounterSetAccess
 
         this.localIndexManager = localIndexManager;
 
+        this.cardinalityFeedback = new CardinalityFeedback(localIndexManager);
+
 //        this.iopool = new LatchedExecutor(indexManager.getExecutorService(),
 //                nThreads);
 //        this.iopool = Executors.newFixedThreadPool(nThreads,
@@ -0,0 +1,351 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.bop.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.bigdata.counters.CAT;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
+import com.bigdata.rdf.sparql.ast.optimizers.ASTOptimizerList;
+
+/**
+ * {@link QueryEngine} performance counters for the static analysis phase.
+ * Unlike {@link StaticAnalysisStats}, which is scoped to a single query, these
+ * counters aggregate over all queries evaluated by the {@link QueryEngine} and
+ * report a latency histogram for the optimizer loop, for the range counts
+ * obtained during static analysis, and for each AST optimizer (by its simple
+ * class name).
+ * 
+ * @see ASTOptimizerList
+ */
+public class StaticAnalysisCounters implements ICounterSetAccess {
+
+    /**
+     * Latency histogram for the optimizer loop.
+     */
+    private final LatencyHistogram optimizerLoop = new LatencyHistogram();
+
+    /**
+     * Latency histogram for the range counts taken during static analysis.
+     */
+    private final LatencyHistogram rangeCount = new LatencyHistogram();
+
+    /**
+     * Latency histograms for the individual AST optimizers.
+     */
+    private final ConcurrentHashMap<String, LatencyHistogram> optimizers = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    /**
+     * Registers a call for the optimizer loop in {@link ASTOptimizerList}.
+     * 
+     * @param elapsedNanoSec
+     *            The elapsed time for the optimizer loop.
+     */
+    public void registerOptimizerLoopCall(final long elapsedNanoSec) {
+
+        optimizerLoop.add(elapsedNanoSec);
+
+    }
+
+    /**
+     * Registers a batch of range counts taken during static analysis.
+     * 
+     * @param elapsedNanoSec
+     *            The elapsed time for the range count(s).
+     */
+    public void registerRangeCountCall(final long elapsedNanoSec) {
+
+        rangeCount.add(elapsedNanoSec);
+
+    }
+
+    /**
+     * Registers a call to a specific AST optimizer.
+     * 
+     * @param optimizerName
+     *            The name of the optimizer.
+     * @param elapsedNanoSec
+     *            The elapsed time for the optimizer.
+     */
+    public void registerOptimizerCall(final String optimizerName,
+            final long elapsedNanoSec) {
+
+        if (optimizerName == null)
+            throw new IllegalArgumentException();
+
+        LatencyHistogram h = optimizers.get(optimizerName);
+
+        if (h == null) {
+
+            h = new LatencyHistogram();
+
+            final LatencyHistogram tmp = optimizers.putIfAbsent(optimizerName,
+                    h);
+
+            if (tmp != null) {
+
+                // someone else won the data race.
+                h = tmp;
+
+            }
+
+        }
+
+        h.add(elapsedNanoSec);
+
+    }
+
+    /**
+     * Return the latency histogram for the named optimizer (if any).
+     * 
+     * @param optimizerName
+     *            The name of the optimizer.
+     * 
+     * @return The histogram -or- <code>null</code> if that optimizer has not
+     *         been run.
+     */
+    public LatencyHistogram getOptimizerHistogram(final String optimizerName) {
+
+        return optimizers.get(optimizerName);
+
+    }
+
+    /**
+     * Return the latency histogram for the optimizer loop.
+     */
+    public LatencyHistogram getOptimizerLoopHistogram() {
+
+        return optimizerLoop;
+
+    }
+
+    /**
+     * Return the latency histogram for the range counts.
+     */
+    public LatencyHistogram getRangeCountHistogram() {
+
+        return rangeCount;
+
+    }
+
+    @Override
+    public CounterSet getCounters() {
+
+        final CounterSet root = new CounterSet();
+
+        root.makePath("optimizerLoop").attach(optimizerLoop.getCounters());
+
+        root.makePath("rangeCount").attach(rangeCount.getCounters());
+
+        final CounterSet tmp = root.makePath("optimizers");
+
+        for (Map.Entry<String, LatencyHistogram> e : optimizers.entrySet()) {
+
+            tmp.makePath(e.getKey()).attach(e.getValue().getCounters());
+
+        }
+
+        return root;
+
+    }
+
+    /**
+     * A latency histogram using decimal (power of ten) buckets from 10
+     * microseconds up to 1 second. The last bucket collects everything
+     * which is slower than one second.
+     */
+    public static class LatencyHistogram implements ICounterSetAccess {
+
+        /**
+         * The upper bound (exclusive) of each bucket other than the last, in
+         * microseconds.
+         */
+        private static final long[] BOUNDS = new long[] { 10L, 100L, 1000L,
+                10000L, 100000L, 1000000L };
+
+        /**
+         * The names of the buckets. These are used as counter names and must
+         * be valid path components.
+         */
+        private static final String[] NAMES = new String[] { "lt10us",
+                "lt100us", "lt1ms", "lt10ms", "lt100ms", "lt1s", "ge1s" };
+
+        /**
+         * The #of samples.
+         */
+        private final CAT nrCalls = new CAT();
+
+        /**
+         * The total elapsed nanoseconds over all samples.
+         */
+        private final CAT elapsedNanos = new CAT();
+
+        /**
+         * The #of samples in each bucket.
+         */
+        private final CAT[] buckets;
+
+        public LatencyHistogram() {
+
+            buckets = new CAT[NAMES.length];
+
+            for (int i = 0; i < buckets.length; i++) {
+
+                buckets[i] = new CAT();
+
+            }
+
+        }
+
+        /**
+         * Return the index of the bucket for the given latency.
+         * 
+         * @param elapsedNanoSec
+         *            The latency.
+         */
+        static int bucket(final long elapsedNanoSec) {
+
+            final long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanoSec);
+
+            for (int i = 0; i < BOUNDS.length; i++) {
+
+                if (micros < BOUNDS[i])
+                    return i;
+
+            }
+
+            return BOUNDS.length;
+
+        }
+
+        /**
+         * Add a sample.
+         * 
+         * @param elapsedNanoSec
+         *            The latency of the sample.
+         */
+        public void add(final long elapsedNanoSec) {
+
+            nrCalls.increment();
+
+            elapsedNanos.add(elapsedNanoSec);
+
+            buckets[bucket(elapsedNanoSec)].increment();
+
+        }
+
+        /**
+         * The #of samples.
+         */
+        public long getNrCalls() {
+
+            return nrCalls.get();
+
+        }
+
+        /**
+         * The total elapsed nanoseconds over all samples.
+         */
+        public long getElapsedNanos() {
+
+            return elapsedNanos.get();
+
+        }
+
+        /**
+         * Return the #of samples in each bucket.
+         */
+        public long[] getBucketCounts() {
+
+            final long[] a = new long[buckets.length];
+
+            for (int i = 0; i < a.length; i++) {
+
+                a[i] = buckets[i].get();
+
+            }
+
+            return a;
+
+        }
+
+        @Override
+        public CounterSet getCounters() {
+
+            final CounterSet root = new CounterSet();
+
+            root.addCounter("nrCalls", new Instrument<Long>() {
+                @Override
+                public void sample() {
+                    setValue(nrCalls.get());
+                }
+            });
+
+            root.addCounter("elapsedMillis", new Instrument<Long>() {
+                @Override
+                public void sample() {
+                    setValue(TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get()));
+                }
+            });
+
+            // average latency in microseconds.
+            root.addCounter("averageMicros", new Instrument<Double>() {
+                @Override
+                public void sample() {
+                    final long n = nrCalls.get();
+                    final long nanos = elapsedNanos.get();
+                    setValue(n == 0 ? 0d : (nanos / 1000d) / n);
+                }
+            });
+
+            final CounterSet histogram = root.makePath("histogram");
+
+            for (int i = 0; i < buckets.length; i++) {
+
+                final CAT c = buckets[i];
+
+                histogram.addCounter(NAMES[i], new Instrument<Long>() {
+                    @Override
+                    public void sample() {
+                        setValue(c.get());
+                    }
+                });
+
+            }
+
+            return root;
+
+        }
+
+    }
+
+}
@@ -78,7 +78,6 @@ import com.bigdata.cache.IHardReferenceQueue;
 import com.bigdata.cache.RingBuffer;
 import com.bigdata.counters.CounterSet;
 import com.bigdata.counters.OneShotInstrument;
-import com.bigdata.io.AbstractFixedByteArrayBuffer;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DirectBufferPool;
 import com.bigdata.io.compression.IRecordCompressorFactory;
@@ -281,6 +280,21 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
     @Deprecated
     protected final ConcurrentMap<Long, Object> storeCache;
 
+    /**
+     * The JVM-wide cache for the decoded {@link INodeData} and
+     * {@link ILeafData} records and <code>null</code> if that cache is
+     * disabled or if the B+Tree is transient.
+     * 
+     * @see PageCache
+     */
+    private final PageCache pageCache;
+
+    /**
+     * The {@link UUID} of the backing store iff the {@link #pageCache} is
+     * used.
+     */
+    private final UUID storeUUID;
+
     /**
      * Hard reference iff the index is mutable (aka unisolated) allows us to
      * avoid patterns that create short life time versions of the object to
@@ -1085,6 +1099,10 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
 
             this.storeCache = null;
             
+            this.pageCache = null;
+
+            this.storeUUID = null;
+
 //            this.globalLRU = null;
             
 //            this.readRetentionQueue = null;
@@ -1116,6 +1134,14 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
 //            this.storeCache = LRUNexus.getCache(store);
             this.storeCache = null;
             
+            /*
+             * The JVM-wide page cache (if enabled) replaces the per-store
+             * caches of the LRUNexus.
+             */
+            this.pageCache = PageCache.getPageCache(store);
+
+            this.storeUUID = pageCache == null ? null : store.getUUID();
+
 //            this.readRetentionQueue = newReadRetentionQueue();
         
         }
@@ -4334,8 +4360,6 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
         if (debug)
             node.assertInvariants();
         
-        // the coded data record.
-        final AbstractFixedByteArrayBuffer slice;
         {
 
             final long beginNanos = System.nanoTime();
@@ -4362,9 +4386,6 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
                 // code data record and _replace_ the data ref.
                 ((Leaf) node).data = nodeSer.encodeLive(((Leaf) node).data);
 
-                // slice onto the coded data record.
-                slice = ((Leaf) node).data();
-
                 btreeCounters.leavesWritten.increment();;
 
             } else {
@@ -4372,9 +4393,6 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
                 // code data record and _replace_ the data ref.
                 ((Node) node).data = nodeSer.encodeLive(((Node) node).data);
 
-                // slice onto the coded data record.
-                slice = ((Node) node).data();
-
                 btreeCounters.nodesWritten.increment();;
 
             }
@@ -4406,31 +4424,10 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
         }
         
         // write the serialized node or leaf onto the store.
-        final long addr;
-        final long oldAddr;
-        {
+        final long addr = writeCodedRecord(node.getDelegate());
 
-            final long beginNanos = System.nanoTime();
-            
-            // wrap as ByteBuffer and write on the store.
-            addr = store.write(slice.asByteBuffer());
-            
-            // now we have a new address, delete previous identity if any
-            if (node.isPersistent()) {
-            	oldAddr = node.getIdentity();
-            } else {
-            	oldAddr = 0;
-            }
-
-            final int nbytes = store.getByteCount(addr);
-            
-            btreeCounters.writeNanos.add(System.nanoTime() - beginNanos);
-    
-            btreeCounters.bytesWritten.add(nbytes);
-
-            btreeCounters.bytesOnStore_nodesAndLeaves.addAndGet(nbytes);
-
-        }
+        // now we have a new address, delete previous identity if any
+        final long oldAddr = node.isPersistent() ? node.getIdentity() : 0L;
 
         /*
          * The node or leaf now has a persistent identity and is marked as
@@ -4502,6 +4499,43 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
 
     }
 
+    /**
+     * Write a coded node or leaf data record onto the backing store. This is
+     * the common write path for the node and leaf records of this index,
+     * including those written by the {@link BTreeBuilder}. It updates the
+     * write counters and puts the record into the {@link PageCache}, replacing
+     * any record cached for an address which was recycled by the RW store.
+     * 
+     * @param data
+     *            The coded data record.
+     * 
+     * @return The address of the record on the store.
+     */
+    final long writeCodedRecord(final IAbstractNodeData data) {
+
+        final long beginNanos = System.nanoTime();
+
+        // wrap as ByteBuffer and write on the store.
+        final long addr = store.write(data.data().asByteBuffer());
+
+        final int nbytes = store.getByteCount(addr);
+
+        btreeCounters.writeNanos.add(System.nanoTime() - beginNanos);
+
+        btreeCounters.bytesWritten.add(nbytes);
+
+        btreeCounters.bytesOnStore_nodesAndLeaves.addAndGet(nbytes);
+
+        if (pageCache != null) {
+
+            pageCache.put(storeUUID, addr, data);
+
+        }
+
+        return addr;
+
+    }
+
     /**
      * Read a node or leaf from the store.
      * <p>
@@ -4524,6 +4558,22 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
         if (addr == IRawStore.NULL)
             throw new IllegalArgumentException();
         
+        if (pageCache != null) {
+
+            final IAbstractNodeData data = pageCache.get(storeUUID, addr);
+
+            if (data != null) {
+
+                btreeCounters.pageCacheHits.increment();
+
+                // wrap the shared data record as a Node or Leaf.
+                return nodeSer.wrap(this, addr, data);
+
+            }
+
+            btreeCounters.pageCacheMisses.increment();
+
+        }
         
         final ByteBuffer tmp;
         {
@@ -4580,6 +4630,13 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
 
             }
 
+            if (pageCache != null) {
+
+                // share the decoded data record.
+                pageCache.put(storeUUID, addr, data);
+
+            }
+
             // wrap as Node or Leaf.
             final AbstractNode<?> node = nodeSer.wrap(this, addr, data);
 
@@ -4919,6 +4976,13 @@ abstract public class AbstractBTree implements IIndex, IAutoboxBTree,
         
         getBtreeCounters().bytesReleased.add(nbytes);
         
+        if (pageCache != null) {
+
+            // The address may be reissued by the store.
+            pageCache.remove(storeUUID, addr);
+
+        }
+
         store.delete(addr);
         
         return nbytes;
@@ -28,15 +28,24 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.btree;
 
+import java.lang.ref.Reference;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.log4j.Logger;
 
 import com.bigdata.btree.Leaf.ILeafListener;
 import com.bigdata.btree.isolation.IsolatedFusedView;
+import com.bigdata.btree.raba.IRaba;
 import com.bigdata.btree.view.FusedView;
 import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.journal.Journal;
 import com.bigdata.mdi.LocalPartitionMetadata;
+import com.bigdata.rawstore.IRawStore;
 import com.bigdata.util.BytesUtil;
 
 /**
@@ -90,6 +99,22 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
     /** true iff the cursor was provisioned to visit deleted tuples. */
     final protected boolean visitDeleted;
 
+    /**
+     * The #of leaves to read ahead of the cursor position and ZERO (0) if
+     * read-ahead is disabled.
+     * 
+     * @see Journal.Options#READ_AHEAD_LEAVES
+     */
+    private final int readAheadLeaves;
+
+    /**
+     * The addresses of the leaves most recently read ahead (lazily allocated).
+     * This keeps the cursor from reading the same leaf ahead again as it
+     * advances. Only the leaves just ahead of the cursor matter, so the set
+     * is bounded.
+     */
+    private Set<Long> readAheadAddrs = null;
+
     @Override
     final public I getIndex() {
 
@@ -227,6 +252,8 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
         
         this.visitDeleted = ((tuple.flags() & IRangeQuery.DELETED) != 0);
 
+        this.readAheadLeaves = getReadAheadLeaves(btree);
+
         // Note: the cursor position is NOT defined!
         currentPosition = null;
 //        nextPosition = priorPosition = null;
@@ -241,6 +268,241 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
         
     }
 
+    /**
+     * Return the #of leaves to read ahead. Read-ahead is only performed for a
+     * {@link BTree} backed by a {@link Journal} having a
+     * {@link Journal#getReadExecutor()}.
+     */
+    private static int getReadAheadLeaves(final AbstractBTree btree) {
+
+        if (!(btree instanceof BTree) || !(btree.store instanceof Journal))
+            return 0;
+
+        final Journal jnl = (Journal) btree.store;
+
+        if (jnl.getReadExecutor() == null)
+            return 0;
+
+        return jnl.getReadAheadLeaves();
+
+    }
+
+    /**
+     * Issue asynchronous reads for the next leaves which the cursor will visit
+     * (non-blocking). This considers the next {@link #readAheadLeaves}
+     * siblings of the given leaf in the direction of the scan and within the
+     * optional key-range constraint. When the scan reaches the edge of the
+     * parent {@link Node}, it continues into the adjacent child of the
+     * grandparent (the parent's right sibling for a forward scan and its left
+     * sibling for a reverse scan). The reads are issued in parallel using the
+     * {@link Journal#getReadExecutor()}. Leaves which are already
+     * materialized and leaves which were recently read ahead are skipped.
+     * <p>
+     * Note: The tasks only read the records from the backing store. They do
+     * not materialize the leaves, which would not be safe for a mutable
+     * {@link BTree}. Their side effect on the caches of the backing store (and
+     * of the file system) is all that we are seeking. When the cursor visits
+     * the leaf, its record is read again without waiting on the disk. Errors
+     * in the tasks are ignored since the cursor will read the record itself.
+     * <p>
+     * Note: The sibling of the parent is materialized by the caller's thread
+     * in order to learn the addresses of its children. The cursor would
+     * materialize that node anyway within the next few leaves, and there are
+     * far fewer nodes than leaves.
+     * 
+     * @param leaf
+     *            The current leaf.
+     * @param forward
+     *            <code>true</code> iff the scan is moving forward.
+     */
+    final void readAhead(final Leaf leaf, final boolean forward) {
+
+        if (readAheadLeaves <= 0)
+            return;
+
+        /*
+         * Note: The parent and grandparent are strongly reachable since the
+         * leaf cursor holds hard references to the ancestors of the current
+         * leaf.
+         */
+        Node p = leaf.getParent();
+
+        if (p == null) {
+
+            // The leaf is the root.
+            return;
+
+        }
+
+        final Executor s = ((Journal) btree.store).getReadExecutor();
+
+        int j = p.getIndexOf(leaf);
+
+        /*
+         * The separator key in the grandparent between the parent and its
+         * sibling -or- null until the scan continues into that sibling.
+         */
+        byte[] separator = null;
+
+        for (int n = 0; n < readAheadLeaves; n++) {
+
+            j = forward ? j + 1 : j - 1;
+
+            if (j < 0 || j >= p.getChildCount()) {
+
+                if (separator != null) {
+
+                    // Already in the sibling of the parent.
+                    break;
+
+                }
+
+                final Node gp = p.getParent();
+
+                if (gp == null) {
+
+                    // The parent is the root.
+                    break;
+
+                }
+
+                final int k = gp.getIndexOf(p);
+
+                final int k2 = forward ? k + 1 : k - 1;
+
+                if (k2 < 0 || k2 >= gp.getChildCount()) {
+
+                    // The parent is at the edge of the grandparent.
+                    break;
+
+                }
+
+                separator = gp.getKeys().get(forward ? k : k2);
+
+                p = (Node) gp.getChild(k2);
+
+                j = forward ? 0 : p.getChildCount() - 1;
+
+            }
+
+            final IRaba keys = p.getKeys();
+
+            if (forward) {
+
+                if (toKey != null
+                        && BytesUtil.compareBytes(j == 0 ? separator : keys
+                                .get(j - 1), toKey) >= 0) {
+
+                    // The child lies beyond the toKey.
+                    break;
+
+                }
+
+            } else {
+
+                if (fromKey != null
+                        && BytesUtil.compareBytes(
+                                j == p.getChildCount() - 1 ? separator : keys
+                                        .get(j), fromKey) <= 0) {
+
+                    // The child lies before the fromKey.
+                    break;
+
+                }
+
+            }
+
+            readChild(s, p, j);
+
+        }
+
+    }
+
+    /**
+     * Submit a task which will read the record for the child at the given
+     * index unless that child is already materialized or was recently read
+     * ahead.
+     */
+    private void readChild(final Executor s, final Node p, final int index) {
+
+        final Reference<AbstractNode<?>> ref = p.getChildRef(index);
+
+        if (ref != null && ref.get() != null) {
+
+            // Already materialized.
+            return;
+
+        }
+
+        final long addr = p.getChildAddr(index);
+
+        if (addr == IRawStore.NULL) {
+
+            // Not yet written onto the store.
+            return;
+
+        }
+
+        if (readAheadAddrs == null) {
+
+            readAheadAddrs = Collections
+                    .newSetFromMap(new LinkedHashMap<Long, Boolean>() {
+
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        protected boolean removeEldestEntry(
+                                final Map.Entry<Long, Boolean> eldest) {
+
+                            return size() > 2 * readAheadLeaves;
+
+                        }
+
+                    });
+
+        }
+
+        if (!readAheadAddrs.add(addr)) {
+
+            // Already read ahead.
+            return;
+
+        }
+
+        final AbstractBTree btree = this.btree;
+
+        btree.getBtreeCounters().readAheadLeaves.increment();
+
+        s.execute(new Runnable() {
+
+            @Override
+            public void run() {
+
+                if (!btree.isOpen()) {
+
+                    // No longer open.
+                    return;
+
+                }
+
+                try {
+
+                    btree.getStore().read(addr);
+
+                } catch (Throwable t) {
+
+                    // Ignored. The cursor will read the record itself.
+                    if (INFO)
+                        log.info(t, t);
+
+                }
+
+            }
+
+        });
+
+    }
+
     @Override
     public String toString() {
         
@@ -448,7 +710,7 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
         
         final ILeafCursor<L> leafCursor = btree.newLeafCursor(key);
         
-        final int index = leafCursor.leaf().getKeys().search(key);
+        final int index = leafCursor.leaf().searchKeys(key);
         
         return newPosition(leafCursor, index, key);
         
@@ -486,7 +748,7 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
 
         final ILeafCursor<L> leafCursor = btree.newLeafCursor(key);
 
-        final int index = leafCursor.leaf().getKeys().search(key);
+        final int index = leafCursor.leaf().searchKeys(key);
 
         return newPosition(leafCursor, index, key);
         
@@ -563,7 +825,7 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
              * leaf.
              */
 
-            index = leaf.getKeys().search(key);
+            index = leaf.searchKeys(key);
 
             if (index == 0 || index == -1) {
 
@@ -1395,6 +1657,16 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
             this.kbuf = new DataOutputBuffer(key.length);
             
             this.kbuf.put( key );
+
+            if (cursor instanceof AbstractBTreeTupleCursor) {
+
+                // Read ahead in the direction of the scan.
+                final AbstractBTreeTupleCursor<?, ?, E> c = (AbstractBTreeTupleCursor<?, ?, E>) cursor;
+
+                c.readAhead(leafCursor.leaf(),
+                        (c.tuple.flags() & IRangeQuery.REVERSE) == 0);
+
+            }
             
         }
 
@@ -1592,6 +1864,13 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
 
             }
 
+            if (cursor instanceof AbstractBTreeTupleCursor) {
+
+                ((AbstractBTreeTupleCursor<?, ?, E>) cursor).readAhead(
+                        leafCursor.leaf(), true/* forward */);
+
+            }
+
             return true;
             
         }
@@ -1615,6 +1894,13 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
                 return false;
 
             }
+
+            if (cursor instanceof AbstractBTreeTupleCursor) {
+
+                ((AbstractBTreeTupleCursor<?, ?, E>) cursor).readAhead(
+                        leafCursor.leaf(), false/* forward */);
+
+            }
             
             return true;
             
@@ -2171,7 +2457,7 @@ abstract public class AbstractBTreeTupleCursor<I extends AbstractBTree, L extend
             leafCursor.seek(key).addLeafListener(this);
 
             // Re-locate the tuple index for the key in that leaf.
-            index = leafCursor.leaf().getKeys().search(key);
+            index = leafCursor.leaf().searchKeys(key);
             
             final boolean tupleDeleted;
             
@@ -38,6 +38,8 @@ import com.bigdata.btree.keys.SuccessorUtil;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataInputBuffer;
 import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.io.IByteArraySlice;
+import com.bigdata.io.MutableByteArraySlice;
 import com.bigdata.journal.IIndexStore;
 import com.bigdata.journal.ITx;
 import com.bigdata.journal.TimestampUtility;
@@ -580,6 +582,18 @@ abstract public class AbstractChunkedTupleIterator<E> implements ITupleIterator<
             return new DataInputBuffer(getKeyBuffer());
             
         }
+
+        public IByteArraySlice getKeySlice() {
+
+            final ByteArrayBuffer b = getKeyBuffer();
+
+            if (keySlice == null)
+                keySlice = new MutableByteArraySlice();
+
+            return keySlice.set(b.array(), 0/* off */, b.limit());
+
+        }
+        private MutableByteArraySlice keySlice = null;
         
         public byte[] getValue() {
 
@@ -628,6 +642,18 @@ abstract public class AbstractChunkedTupleIterator<E> implements ITupleIterator<
             return new DataInputBuffer(getValueBuffer());
             
         }
+
+        public IByteArraySlice getValueSlice() {
+
+            final ByteArrayBuffer b = getValueBuffer();
+
+            if (valueSlice == null)
+                valueSlice = new MutableByteArraySlice();
+
+            return valueSlice.set(b.array(), 0/* off */, b.limit());
+
+        }
+        private MutableByteArraySlice valueSlice = null;
         
         public E getObject() {
             
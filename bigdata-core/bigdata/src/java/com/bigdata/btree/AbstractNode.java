@@ -38,6 +38,7 @@ import com.bigdata.btree.data.IAbstractNodeData;
 import com.bigdata.btree.data.IKeysData;
 import com.bigdata.btree.filter.EmptyTupleIterator;
 import com.bigdata.btree.raba.IRaba;
+import com.bigdata.btree.raba.KeyPrefixSearch;
 import com.bigdata.btree.raba.MutableKeyBuffer;
 import com.bigdata.cache.HardReferenceQueue;
 import com.bigdata.util.BytesUtil;
@@ -143,6 +144,20 @@ public abstract class AbstractNode<T extends AbstractNode
      */
     transient protected int referenceCount = 0;
 
+    /**
+     * Used to search the keys once they are read-only (lazily initialized).
+     * 
+     * @see #searchKeys(byte[])
+     */
+    private transient volatile KeyPrefixSearch keyPrefixSearch = null;
+
+    /**
+     * Set by the first search of read-only keys.
+     * 
+     * @see #searchKeys(byte[])
+     */
+    private transient volatile boolean searchedKeys = false;
+
     /**
      * The minimum #of keys. For a {@link Node}, the minimum #of children is
      * <code>minKeys + 1</code>. For a {@link Leaf}, the minimum #of values
@@ -834,6 +849,52 @@ public abstract class AbstractNode<T extends AbstractNode
         
     }
 
+    /**
+     * Search the keys of this node. The semantics are those of
+     * {@link IRaba#search(byte[])}.
+     * <p>
+     * Once the keys are read-only (the node has been coded), they are searched
+     * using a {@link KeyPrefixSearch}. That is created on the second search
+     * of the keys so a node which is only visited once does not pay to decode
+     * all of its keys. Concurrent readers may race to create it, which is
+     * harmless. Mutable keys and small nodes are searched directly.
+     * 
+     * @param searchKey
+     *            The probe key.
+     * 
+     * @return The index of the key if found, otherwise
+     *         <code>(-(insertion point) - 1)</code>.
+     */
+    final protected int searchKeys(final byte[] searchKey) {
+
+        final IRaba keys = getKeys();
+
+        if (!keys.isReadOnly() || keys.size() < KeyPrefixSearch.MIN_KEYS) {
+
+            return keys.search(searchKey);
+
+        }
+
+        KeyPrefixSearch tmp = keyPrefixSearch;
+
+        if (tmp == null || tmp.getKeys() != keys) {
+
+            if (!searchedKeys) {
+
+                searchedKeys = true;
+
+                return keys.search(searchKey);
+
+            }
+
+            keyPrefixSearch = tmp = new KeyPrefixSearch(keys);
+
+        }
+
+        return tmp.search(searchKey);
+
+    }
+
     abstract public boolean isLeaf();
 
     final public int getBranchingFactor() {
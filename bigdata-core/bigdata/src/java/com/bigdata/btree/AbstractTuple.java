@@ -32,9 +32,13 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.bigdata.btree.data.ILeafData;
+import com.bigdata.btree.raba.IRaba;
+import com.bigdata.btree.raba.codec.IZeroCopyRaba;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataInputBuffer;
 import com.bigdata.io.DataOutputBuffer;
+import com.bigdata.io.IByteArraySlice;
+import com.bigdata.io.MutableByteArraySlice;
 import com.bigdata.rawstore.IBlock;
 import com.bigdata.rawstore.IRawStore;
 
@@ -77,18 +81,136 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
      * data for the current key are simply copied from the leaf into the
      * {@link #kbuf} and the application can either examine the data in the
      * {@link #kbuf} or copy it into its own buffers.
+     * <p>
+     * Note: When the key is coded by an {@link IZeroCopyRaba}, the copy is
+     * deferred until the {@link #kbuf} is requested. Use {@link #kbuf()} to
+     * access the {@link #kbuf}.
      */
     final private DataOutputBuffer kbuf;
-    
+
+    /**
+     * The coded keys from which the current key has not yet been copied into
+     * the {@link #kbuf} and <code>null</code> if the {@link #kbuf} is current.
+     */
+    private IZeroCopyRaba keySource = null;
+
+    /**
+     * The index of the current key in the {@link #keySource}.
+     */
+    private int keyIndex;
+
+    /**
+     * The coded values from which the current value has not yet been copied
+     * into the {@link #vbuf} and <code>null</code> if the {@link #vbuf} is
+     * current.
+     */
+    private IZeroCopyRaba valSource = null;
+
+    /**
+     * The index of the current value in the {@link #valSource}.
+     */
+    private int valIndex;
+
+    /**
+     * Reused by {@link #getKeySlice()} and {@link #getValueSlice()}.
+     */
+    private MutableByteArraySlice keySlice = null, valSlice = null;
+
+    /**
+     * Return the {@link #kbuf}, first copying the current key into it if that
+     * copy was deferred.
+     */
+    private DataOutputBuffer kbuf() {
+
+        if (keySource != null) {
+
+            kbuf.reset();
+
+            keySource.copy(keyIndex, kbuf);
+
+            keySource = null;
+
+        }
+
+        return kbuf;
+
+    }
+
+    /**
+     * Return the {@link #vbuf}, first copying the current value into it if
+     * that copy was deferred.
+     */
+    private DataOutputBuffer vbuf() {
+
+        if (valSource != null) {
+
+            vbuf.reset();
+
+            valSource.copy(valIndex, vbuf);
+
+            valSource = null;
+
+        }
+
+        return vbuf;
+
+    }
+
     final public ByteArrayBuffer getKeyBuffer() {
         
         if (!needKeys)
             throw new UnsupportedOperationException();
         
-        return kbuf;
+        return kbuf();
         
     }
 
+    final public IByteArraySlice getKeySlice() {
+
+        if (!needKeys)
+            throw new UnsupportedOperationException();
+
+        if (keySlice == null)
+            keySlice = new MutableByteArraySlice();
+
+        if (keySource != null) {
+
+            // Read in place from the coded record.
+            return keySlice.set(keySource.data().array(),
+                    keySource.offset(keyIndex), keySource.length(keyIndex));
+
+        }
+
+        return keySlice.set(kbuf.array(), 0/* off */, kbuf.limit());
+
+    }
+
+    final public IByteArraySlice getValueSlice() {
+
+        if (!needVals)
+            throw new UnsupportedOperationException();
+
+        if (isNull)
+            throw new UnsupportedOperationException();
+
+        if (versionDeleted)
+            throw new UnsupportedOperationException();
+
+        if (valSlice == null)
+            valSlice = new MutableByteArraySlice();
+
+        if (valSource != null) {
+
+            // Read in place from the coded record.
+            return valSlice.set(valSource.data().array(),
+                    valSource.offset(valIndex), valSource.length(valIndex));
+
+        }
+
+        return valSlice.set(vbuf.array(), 0/* off */, vbuf.limit());
+
+    }
+
     /**
      * Return a stream from which the key may be read.
      * 
@@ -100,6 +222,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         if (!needKeys)
             throw new UnsupportedOperationException();
 
+        final DataOutputBuffer kbuf = kbuf();
+
         if (keyStream == null) {
 
             // setup the input stream.
@@ -138,6 +262,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         if (versionDeleted)
             throw new UnsupportedOperationException();
 
+        final DataOutputBuffer vbuf = vbuf();
+
         if (valStream == null) {
 
             // setup the input stream.
@@ -247,7 +373,7 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         if (!needKeys)
             throw new UnsupportedOperationException();
 
-        return kbuf.toByteArray();
+        return kbuf().toByteArray();
 
     }
 
@@ -265,7 +391,7 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         if (versionDeleted || isNull)
             return null;
 
-        return vbuf.toByteArray();
+        return vbuf().toByteArray();
 
     }
 
@@ -277,7 +403,7 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         if (isNull)
             throw new UnsupportedOperationException();
         
-        return vbuf;
+        return vbuf == null ? null : vbuf();
         
     }
 
@@ -357,11 +483,26 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         versionTimestamp = leaf.hasVersionTimestamps() ? leaf
                 .getVersionTimestamp(index) : 0L;
 
+        keySource = valSource = null;
+
         if (needKeys) {
 
             kbuf.reset();
 
-            leaf.getKeys().copy(index, kbuf);
+            final IRaba keys = leaf.getKeys();
+
+            if (keys instanceof IZeroCopyRaba) {
+
+                // defer the copy.
+                keySource = (IZeroCopyRaba) keys;
+
+                keyIndex = index;
+
+            } else {
+
+                keys.copy(index, kbuf);
+
+            }
 
         }
 
@@ -382,7 +523,7 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
 						if (addr == IRawStore.NULL) {
 
 							// copy out of the leaf.
-							leaf.getValues().copy(index, vbuf);
+							copyValue(index, leaf.getValues());
 
 						} else {
 
@@ -398,7 +539,7 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
 					} else {
 
 						// copy out of the leaf.
-						leaf.getValues().copy(index, vbuf);
+						copyValue(index, leaf.getValues());
 
 					}
 
@@ -410,6 +551,27 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
         
     }
 
+    /**
+     * Copy the value at the given index out of the leaf (or defer that copy if
+     * the value can be read in place).
+     */
+    private void copyValue(final int index, final IRaba vals) {
+
+        if (vals instanceof IZeroCopyRaba) {
+
+            // defer the copy.
+            valSource = (IZeroCopyRaba) vals;
+
+            valIndex = index;
+
+        } else {
+
+            vals.copy(index, vbuf);
+
+        }
+
+    }
+
     /**
      * Assumes that the tuple is not deleted and that timestamp information is
      * not available.
@@ -436,6 +598,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
 
         this.nvisited++;
         
+        this.keySource = this.valSource = null;
+
         this.versionDeleted = deleted;
         
         this.versionTimestamp = timestamp;
@@ -478,6 +642,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
 
         this.nvisited++;
 
+        this.keySource = this.valSource = null;
+
         this.versionDeleted = t.isDeletedVersion();
 
         this.versionTimestamp = t.getVersionTimestamp();
@@ -522,6 +688,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
      */
     protected void clear() {
         
+        this.keySource = this.valSource = null;
+
         this.versionDeleted = false;
         
         this.versionTimestamp = 0L;
@@ -542,6 +710,8 @@ public abstract class AbstractTuple<E> implements ITuple<E> {
      */
     void markDeleted() {
 
+        this.valSource = null;
+
         this.versionDeleted = true;
         
         this.versionTimestamp = 0L;
@@ -29,7 +29,9 @@ package com.bigdata.btree;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 
 import com.bigdata.BigdataStatics;
@@ -39,12 +41,14 @@ import com.bigdata.btree.data.ILeafData;
 import com.bigdata.btree.data.INodeData;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.journal.AbstractJournal;
+import com.bigdata.journal.IBufferStrategy;
 import com.bigdata.journal.IIndexManager;
 import com.bigdata.mdi.IResourceMetadata;
 import com.bigdata.mdi.JournalMetadata;
 import com.bigdata.mdi.LocalPartitionMetadata;
 import com.bigdata.rawstore.IRawStore;
 import com.bigdata.rwstore.IRWStrategy;
+import com.bigdata.rwstore.IRawTx;
 import com.bigdata.util.Bytes;
 
 /**
@@ -721,6 +725,18 @@ public class BTree extends AbstractBTree implements //ICommitter,
 
         assertNotReadOnly();
 
+        if (publishingWriter != null) {
+
+            // The view is replaced at the end of the batch.
+            publishedViewStale = true;
+
+        } else {
+
+            // The view no longer reflects the state of the index.
+            retirePublishedView();
+
+        }
+
         final IDirtyListener l = this.listener;
 
         if (l == null)
@@ -792,6 +808,237 @@ public class BTree extends AbstractBTree implements //ICommitter,
 
     }
 
+    /**
+     * A read-only view of a {@link Checkpoint} of a mutable {@link BTree}
+     * which has been published for lock-free readers of the unisolated index.
+     * The view is reference counted. The publisher holds one reference, which
+     * is released when the view is retired, and each reader holds a reference
+     * while it reads on the view.
+     * <p>
+     * On a RW store, the view holds an {@link IRawTx} until the last
+     * reference is released. This provides session protection for the records
+     * of the view, which would otherwise be recycled as soon as the mutable
+     * {@link BTree} replaces them (the same mechanism is used by the
+     * {@link com.bigdata.journal.AbstractTask} to protect the readers of its
+     * checkpoints).
+     * 
+     * @see UnisolatedReadWriteIndex
+     */
+    static final class PublishedView {
+
+        /**
+         * The read-only view.
+         */
+        final BTree btree;
+
+        /**
+         * Session protection for the records of the view (optional).
+         */
+        private final IRawTx tx;
+
+        /**
+         * The #of references. The view may not be acquired once this is ZERO.
+         */
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private PublishedView(final BTree btree, final IRawTx tx) {
+
+            this.btree = btree;
+
+            this.tx = tx;
+
+        }
+
+        /**
+         * Acquire a reference.
+         * 
+         * @return <code>false</code> iff the view was concurrently released.
+         */
+        private boolean acquire() {
+
+            while (true) {
+
+                final int n = refs.get();
+
+                if (n == 0)
+                    return false;
+
+                if (refs.compareAndSet(n, n + 1))
+                    return true;
+
+            }
+
+        }
+
+        /**
+         * Release a reference.
+         */
+        void release() {
+
+            if (refs.decrementAndGet() == 0 && tx != null) {
+
+                try {
+
+                    tx.close();
+
+                } catch (Throwable t) {
+
+                    log.error(t, t);
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * The view (if any) which has been published for lock-free readers.
+     * 
+     * @see #publishView()
+     */
+    private final AtomicReference<PublishedView> publishedView = new AtomicReference<PublishedView>();
+
+    /**
+     * The thread writing a batch for a publisher (if any). The
+     * {@link #publishedView} is retained until the end of the batch rather
+     * than being retired when the index becomes dirty.
+     */
+    private volatile Thread publishingWriter = null;
+
+    /**
+     * Set when the index becomes dirty while the {@link #publishedView} is
+     * retained.
+     */
+    private boolean publishedViewStale = false;
+
+    /**
+     * Acquire the view (if any) which has been published for lock-free
+     * readers. The caller MUST {@link PublishedView#release()} the view when
+     * it is done reading.
+     * 
+     * @return The view -or- <code>null</code> if there is no published view
+     *         or if the caller is writing a batch for a publisher (and must
+     *         therefore read its own writes).
+     */
+    PublishedView acquirePublishedView() {
+
+        if (publishingWriter == Thread.currentThread())
+            return null;
+
+        while (true) {
+
+            final PublishedView view = publishedView.get();
+
+            if (view == null || view.acquire())
+                return view;
+
+            // The view was concurrently retired.
+
+        }
+
+    }
+
+    /**
+     * Retire the published view (if any).
+     */
+    private void retirePublishedView() {
+
+        final PublishedView view = publishedView.getAndSet(null);
+
+        if (view != null)
+            view.release();
+
+    }
+
+    /**
+     * Notify the index that a batch will be written by a publisher. The
+     * published view (if any) remains visible to readers until
+     * {@link #endPublishedWrite(boolean)}. The caller MUST hold the write
+     * lock.
+     */
+    void beginPublishedWrite() {
+
+        publishingWriter = Thread.currentThread();
+
+    }
+
+    /**
+     * Notify the index that a batch has been written by a publisher. The
+     * caller MUST hold the write lock.
+     * 
+     * @param publish
+     *            When <code>true</code> the index is checkpointed and a view
+     *            of that checkpoint is published unless the published view is
+     *            current. Otherwise the published view is retired if the
+     *            index was modified.
+     */
+    void endPublishedWrite(final boolean publish) {
+
+        publishingWriter = null;
+
+        if (!publishedViewStale && (publishedView.get() != null || !publish)) {
+
+            // The published view (if any) is current.
+            return;
+
+        }
+
+        publishedViewStale = false;
+
+        retirePublishedView();
+
+        if (!publish || store == null) {
+
+            // Note: A view can not be published for a transient BTree.
+            return;
+
+        }
+
+        if (needsCheckpoint())
+            writeCheckpoint();
+
+        final IRawTx tx = newRawTx(store);
+
+        try {
+
+            publishedView.set(new PublishedView(asReadOnly(), tx));
+
+        } catch (RuntimeException ex) {
+
+            if (tx != null)
+                tx.close();
+
+            throw ex;
+
+        }
+
+    }
+
+    /**
+     * Return an {@link IRawTx} providing session protection for the records
+     * on the store (if required).
+     */
+    private static IRawTx newRawTx(final IRawStore store) {
+
+        if (store instanceof AbstractJournal) {
+
+            final IBufferStrategy bufferStrategy = ((AbstractJournal) store)
+                    .getBufferStrategy();
+
+            if (bufferStrategy instanceof IRWStrategy) {
+
+                return ((IRWStrategy) bufferStrategy).newTx();
+
+            }
+
+        }
+
+        return null;
+
+    }
+
 //    /**
 //     * Converts this {@link BTree} to a read-only {@link BTree}, stealing its
 //     * cached nodes and leaves. If {@link BTree} is already read-only, then
@@ -1320,7 +1567,15 @@ public class BTree extends AbstractBTree implements //ICommitter,
     @Override
     public long handleCommit(final long commitTime) {
 
-    	return writeCheckpoint2().getCheckpointAddr();
+        final long addr = writeCheckpoint2().getCheckpointAddr();
+
+        /*
+         * Note: The published view is retired at the commit so the session
+         * protection for its records does not span commit points.
+         */
+        retirePublishedView();
+
+    	return addr;
     	
     }
     
@@ -1333,6 +1588,8 @@ public class BTree extends AbstractBTree implements //ICommitter,
         if (error == null)
             error = t;
 
+        retirePublishedView();
+
     }
 
     /**
@@ -1497,6 +1754,88 @@ public class BTree extends AbstractBTree implements //ICommitter,
    
     }
 
+    /**
+     * Replace the root leaf of an empty {@link BTree} with a root which was
+     * written bottom-up onto the backing store. This is a low level method
+     * used by the {@link BTreeBuilder}.
+     * 
+     * @param rootAddr
+     *            The address of the new root node or leaf.
+     * @param height
+     *            The height of the new tree.
+     * @param nnodes
+     *            The #of nodes in the new tree.
+     * @param nleaves
+     *            The #of leaves in the new tree.
+     * @param nentries
+     *            The #of tuples in the new tree.
+     * @param disableBloomFilter
+     *            When <code>true</code> the bloom filter (if any) is disabled
+     *            since it would not have an acceptable error rate for that
+     *            many tuples. Otherwise the caller has already added the keys
+     *            to the bloom filter.
+     * 
+     * @throws IllegalStateException
+     *             if the {@link BTree} is not empty.
+     */
+    void setBuiltRoot(final long rootAddr, final int height,
+            final long nnodes, final long nleaves, final long nentries,
+            final boolean disableBloomFilter) {
+
+        assertNotReadOnly();
+
+        if (rootAddr == IRawStore.NULL)
+            throw new IllegalArgumentException();
+
+        if (getEntryCount() != 0)
+            throw new IllegalStateException();
+
+        final AbstractNode<?> oldRoot = getRoot();
+
+        final boolean wasDirty = oldRoot.isDirty();
+
+        // Note: The write retention queue only holds the empty root leaf.
+        writeRetentionQueue.clear(true/* clearRefs */);
+
+        ndistinctOnWriteRetentionQueue = 0;
+
+        if (oldRoot.isPersistent()) {
+
+            // delete the empty root leaf.
+            deleteNodeOrLeaf(oldRoot.getIdentity());
+
+        }
+
+        if (disableBloomFilter) {
+
+            final BloomFilter filter = getBloomFilter();
+
+            if (filter != null) {
+
+                recycle(filter.disable());
+
+            }
+
+        }
+
+        this.height = height;
+
+        this.nnodes = nnodes;
+
+        this.nleaves = nleaves;
+
+        this.nentries = nentries;
+
+        root = readNodeOrLeaf(rootAddr);
+
+        if (!wasDirty) {
+
+            fireDirtyEvent();
+
+        }
+
+    }
+
     /**
      * Create a new checkpoint for a mutable {@link BTree} in which the view is
      * redefined to include the previous view of the {@link BTree} (the one from
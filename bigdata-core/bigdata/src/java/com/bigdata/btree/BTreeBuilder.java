@@ -0,0 +1,427 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.data.IAbstractNodeData;
+import com.bigdata.btree.data.ILeafData;
+import com.bigdata.btree.data.INodeData;
+import com.bigdata.rawstore.IRawStore;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * Builds the nodes and leaves of an empty {@link BTree} bottom-up from an
+ * ordered sequence of tuples and then installs the new root on that
+ * {@link BTree}. This is the analogue of the {@link IndexSegmentBuilder} for a
+ * mutable {@link BTree}: the same {@link IndexSegmentPlan} decides how many
+ * tuples go into each leaf and how many children into each node, but the
+ * nodes and leaves are coded with the {@link BTree}'s {@link NodeSerializer}
+ * and written directly onto its backing store as they are closed. There is no
+ * node splitting, no copy-on-write and the leaves are full, so this is much
+ * faster than inserting the tuples and the resulting {@link BTree} is
+ * compact.
+ * <p>
+ * The #of tuples must be known in advance since it determines the shape of
+ * the tree. The tuples must be presented in strictly ascending key order.
+ * Nothing is changed on the {@link BTree} until {@link #build()} and the new
+ * nodes and leaves become restart safe with the next checkpoint of the
+ * {@link BTree} (e.g., the next commit for an index registered on a journal).
+ * <p>
+ * Note: The caller must have exclusive access to the {@link BTree}, as for any
+ * other write on a mutable {@link BTree}.
+ * <p>
+ * Note: Indices with version timestamps are not supported.
+ * 
+ * @see IndexSegmentPlan
+ */
+public class BTreeBuilder {
+
+    private static final transient Logger log = Logger
+            .getLogger(BTreeBuilder.class);
+
+    private final BTree btree;
+
+    private final IndexSegmentPlan plan;
+
+    private final int m;
+
+    private final boolean deleteMarkers;
+
+    private final boolean rawRecords;
+
+    private final int maxRecLen;
+
+    /**
+     * The bloom filter (if any) and whether the keys are added to it. The
+     * filter is disabled when the #of tuples exceeds its capacity.
+     */
+    private final BloomFilter filter;
+
+    private final boolean addToFilter;
+
+    /**
+     * The node being filled at each level of the output tree other than the
+     * leaf level. The root is at level zero.
+     */
+    private final MutableNodeData[] nodes;
+
+    /**
+     * The #of children assigned to the node being filled at each level.
+     */
+    private final int[] nchildren;
+
+    /**
+     * The index of the node (or leaf) being filled within each level of the
+     * output tree, including the leaf level.
+     */
+    private final int[] col;
+
+    /**
+     * The leaf being filled.
+     */
+    private MutableLeafData leaf;
+
+    private long ntuples = 0;
+
+    private byte[] lastKey = null;
+
+    private long rootAddr = IRawStore.NULL;
+
+    private boolean done = false;
+
+    /**
+     * @param btree
+     *            The {@link BTree}, which must be empty.
+     * @param nentries
+     *            The exact #of tuples which will be added.
+     * 
+     * @throws IllegalStateException
+     *             if the {@link BTree} is read-only or not empty.
+     * @throws UnsupportedOperationException
+     *             if the {@link BTree} maintains version timestamps.
+     */
+    public BTreeBuilder(final BTree btree, final long nentries) {
+
+        if (btree == null)
+            throw new IllegalArgumentException();
+
+        if (nentries < 0)
+            throw new IllegalArgumentException();
+
+        if (btree.isReadOnly())
+            throw new IllegalStateException();
+
+        if (btree.getEntryCount() != 0)
+            throw new IllegalStateException("Not empty: "
+                    + btree.getIndexMetadata().getName());
+
+        final IndexMetadata md = btree.getIndexMetadata();
+
+        if (md.getVersionTimestamps())
+            throw new UnsupportedOperationException();
+
+        this.btree = btree;
+
+        this.m = btree.getBranchingFactor();
+
+        this.plan = new IndexSegmentPlan(m, nentries);
+
+        this.deleteMarkers = md.getDeleteMarkers();
+
+        this.rawRecords = md.getRawRecords();
+
+        this.maxRecLen = md.getMaxRecLen();
+
+        this.filter = btree.getBloomFilter();
+
+        this.addToFilter = filter != null && nentries <= filter.getMaxN();
+
+        this.nodes = new MutableNodeData[plan.height];
+
+        this.nchildren = new int[plan.height];
+
+        for (int h = 0; h < plan.height; h++) {
+
+            nodes[h] = new MutableNodeData(m, false/* hasVersionTimestamps */);
+
+        }
+
+        this.col = new int[plan.height + 1];
+
+        this.leaf = newLeaf();
+
+        if (log.isInfoEnabled())
+            log.info(plan.toString());
+
+    }
+
+    private MutableLeafData newLeaf() {
+
+        return new MutableLeafData(m, false/* hasVersionTimestamps */,
+                deleteMarkers, rawRecords);
+
+    }
+
+    /**
+     * The plan for the tree being built.
+     */
+    public IndexSegmentPlan getPlan() {
+
+        return plan;
+
+    }
+
+    /**
+     * Add a tuple.
+     * 
+     * @param key
+     *            The key, which must be GT the previous key.
+     * @param val
+     *            The value (may be <code>null</code>).
+     * 
+     * @throws IllegalArgumentException
+     *             if the keys are not strictly ascending.
+     * @throws IllegalStateException
+     *             if more tuples are added than were declared.
+     */
+    public void add(final byte[] key, final byte[] val) {
+
+        if (key == null)
+            throw new IllegalArgumentException();
+
+        if (lastKey != null && BytesUtil.compareBytes(lastKey, key) >= 0)
+            throw new IllegalArgumentException("Keys out of order: lastKey="
+                    + BytesUtil.toString(lastKey) + ", key="
+                    + BytesUtil.toString(key));
+
+        if (done || ntuples == plan.nentries)
+            throw new IllegalStateException();
+
+        final int h = plan.height;
+
+        if (leaf.keys.nkeys == plan.numInNode[h][col[h]]) {
+
+            // The current leaf is full.
+            writeLeaf();
+
+            col[h]++;
+
+            leaf = newLeaf();
+
+            /*
+             * The first key of every leaf after the first is a separator key in
+             * the parent of the leaf or (if the parent is full) in the first
+             * ancestor which is not full.
+             */
+            addSeparatorKey(h - 1, key);
+
+        }
+
+        final int j = leaf.keys.nkeys;
+
+        leaf.keys.keys[j] = key;
+
+        if (rawRecords && val != null && val.length > maxRecLen) {
+
+            // write the value on the backing store.
+            leaf.vals.values[j] = btree.encodeRecordAddr(btree
+                    .writeRawRecord(val));
+
+            leaf.rawRecords[j] = true;
+
+        } else {
+
+            leaf.vals.values[j] = val;
+
+        }
+
+        leaf.keys.nkeys++;
+
+        leaf.vals.nvalues++;
+
+        if (addToFilter)
+            filter.add(key);
+
+        lastKey = key;
+
+        ntuples++;
+
+    }
+
+    /**
+     * Write the last leaf and any open nodes and install the new root on the
+     * {@link BTree}. This is a NOP if no tuples were declared.
+     * 
+     * @return The #of tuples in the {@link BTree}.
+     * 
+     * @throws IllegalStateException
+     *             if fewer tuples were added than were declared.
+     */
+    public long build() {
+
+        if (done)
+            throw new IllegalStateException();
+
+        if (ntuples != plan.nentries)
+            throw new IllegalStateException("Expecting " + plan.nentries
+                    + " tuples, not " + ntuples);
+
+        done = true;
+
+        if (ntuples == 0) {
+
+            // Leave the empty root leaf in place.
+            return 0L;
+
+        }
+
+        writeLeaf();
+
+        // The plan is exact so every node was closed.
+        assert rootAddr != IRawStore.NULL;
+
+        btree.setBuiltRoot(rootAddr, plan.height, plan.nnodes, plan.nleaves,
+                plan.nentries, filter != null && !addToFilter);
+
+        if (log.isInfoEnabled())
+            log.info("Built " + btree.getIndexMetadata().getName() + ": "
+                    + plan);
+
+        return ntuples;
+
+    }
+
+    private void writeLeaf() {
+
+        final long addr = write(leaf);
+
+        btree.getBtreeCounters().leavesWritten.increment();
+
+        addChild(plan.height - 1, addr, leaf.keys.nkeys);
+
+    }
+
+    /**
+     * Record a child which was written on the node being filled at the given
+     * level. The node is written when its last child has been assigned.
+     */
+    private void addChild(final int h, final long childAddr,
+            final long childEntryCount) {
+
+        if (h < 0) {
+
+            // The root.
+            rootAddr = childAddr;
+
+            return;
+
+        }
+
+        if (nchildren[h] == plan.numInNode[h][col[h]]) {
+
+            /*
+             * The node at this level was full and has been written. Start the
+             * next node in this level. (The full node was retained until now
+             * so that separator keys would ascend past it.)
+             */
+
+            col[h]++;
+
+            nodes[h] = new MutableNodeData(m, false/* hasVersionTimestamps */);
+
+            nchildren[h] = 0;
+
+        }
+
+        final MutableNodeData node = nodes[h];
+
+        final int i = nchildren[h]++;
+
+        node.childAddr[i] = childAddr;
+
+        node.childEntryCounts[i] = childEntryCount;
+
+        node.nentries += childEntryCount;
+
+        if (nchildren[h] == plan.numInNode[h][col[h]]) {
+
+            assert node.keys.nkeys + 1 == nchildren[h];
+
+            final long addr = write(node);
+
+            btree.getBtreeCounters().nodesWritten.increment();
+
+            addChild(h - 1, addr, node.nentries);
+
+        }
+
+    }
+
+    /**
+     * Add a separator key to the node being filled at the given level or (if
+     * that node already has all of its keys) to the nearest ancestor which
+     * does not.
+     */
+    private void addSeparatorKey(final int h, final byte[] key) {
+
+        if (h < 0)
+            throw new AssertionError();
+
+        final MutableNodeData node = nodes[h];
+
+        if (node.keys.nkeys < plan.numInNode[h][col[h]] - 1) {
+
+            node.keys.keys[node.keys.nkeys++] = key;
+
+        } else {
+
+            addSeparatorKey(h - 1, key);
+
+        }
+
+    }
+
+    /**
+     * Code a node or leaf and write it on the backing store using the same
+     * write path as the B+Tree, so the record is also placed into the
+     * {@link PageCache}.
+     * 
+     * @return The address of the record.
+     */
+    private long write(final IAbstractNodeData data) {
+
+        final IAbstractNodeData coded = data.isLeaf() ? btree.nodeSer
+                .encodeLive((ILeafData) data) : btree.nodeSer
+                .encodeLive((INodeData) data);
+
+        return btree.writeCodedRecord(coded);
+
+    }
+
+}
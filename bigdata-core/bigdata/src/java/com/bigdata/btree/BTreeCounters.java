@@ -157,6 +157,9 @@ final public class BTreeCounters implements Cloneable, ICounterSetAccess {
         // IO reads
         cacheTests.add(o.cacheTests.get());
         cacheMisses.add(o.cacheMisses.get());
+        pageCacheHits.add(o.pageCacheHits.get());
+        pageCacheMisses.add(o.pageCacheMisses.get());
+        readAheadLeaves.add(o.readAheadLeaves.get());
         nodesRead.add(o.nodesRead.get());
         leavesRead.add(o.leavesRead.get());
         bytesRead.add(o.bytesRead.get());
@@ -229,6 +232,9 @@ final public class BTreeCounters implements Cloneable, ICounterSetAccess {
         // IO reads
         t.cacheTests.add(-o.cacheTests.get());
         t.cacheMisses.add(-o.cacheMisses.get());
+        t.pageCacheHits.add(-o.pageCacheHits.get());
+        t.pageCacheMisses.add(-o.pageCacheMisses.get());
+        t.readAheadLeaves.add(-o.readAheadLeaves.get());
         t.nodesRead.add(-o.nodesRead.get());
         t.leavesRead.add(-o.leavesRead.get());
         t.bytesRead.add(-o.bytesRead.get());
@@ -356,6 +362,12 @@ final public class BTreeCounters implements Cloneable, ICounterSetAccess {
     public final CAT cacheTests = new CAT();
     /** #of misses when testing the BTree cache (getChild()). See BLZG-1657. Should correlate to nodesRead+leavesRead. */
     public final CAT cacheMisses = new CAT();
+    /** #of nodes and leaves found in the JVM-wide {@link PageCache}. */
+    public final CAT pageCacheHits = new CAT();
+    /** #of nodes and leaves not found in the JVM-wide {@link PageCache}. */
+    public final CAT pageCacheMisses = new CAT();
+    /** #of leaf reads issued ahead of a tuple cursor (see {@link AbstractBTreeTupleCursor}). */
+    public final CAT readAheadLeaves = new CAT();
     /** #of node read operations. */
     public final CAT nodesRead = new CAT();
     /** #of leaf read operations. */
@@ -860,6 +872,41 @@ final public class BTreeCounters implements Cloneable, ICounterSetAccess {
                     }
                 });
 
+                /*
+                 * JVM-wide page cache (only when enabled).
+                 */
+
+                tmp.addCounter("pageCacheHits", new Instrument<Long>() {
+                    @Override
+                    protected void sample() {
+                        setValue(pageCacheHits.get());
+                    }
+                });
+
+                tmp.addCounter("pageCacheMisses", new Instrument<Long>() {
+                    @Override
+                    protected void sample() {
+                        setValue(pageCacheMisses.get());
+                    }
+                });
+
+                tmp.addCounter("pageCacheHitRatio", new Instrument<Double>() {
+                    @Override
+                    protected void sample() {
+                        final double hits = pageCacheHits.get();
+                        final double tests = hits + pageCacheMisses.get();
+                        if (tests == 0) return; // avoid divide-by-zero.
+                        setValue(hits / tests);
+                    }
+                });
+
+                tmp.addCounter("readAheadLeaves", new Instrument<Long>() {
+                    @Override
+                    protected void sample() {
+                        setValue(readAheadLeaves.get());
+                    }
+                });
+
                 /*
                  * bytes on store.
                  */
@@ -95,6 +95,18 @@ public class ChunkedLocalRangeIterator<E> extends AbstractChunkedTupleIterator<E
             final byte[] fromKey, final byte[] toKey, final int capacity,
             final int flags, final IFilter filter) {
 
+        return newResultSet(ndx, fromKey, toKey, capacity, flags, filter);
+
+    }
+
+    /**
+     * Return a {@link ResultSet} for the next chunk read from the given index,
+     * which is either the backing {@link #ndx} or a view of the same index.
+     */
+    protected ResultSet newResultSet(final IIndex ndx, final byte[] fromKey,
+            final byte[] toKey, final int capacity, final int flags,
+            final IFilter filter) {
+
         /*
          * Note: This turns off the REMOVEALL flag unless CURSOR was also
          * specified.
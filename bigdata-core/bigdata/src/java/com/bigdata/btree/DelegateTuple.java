@@ -30,6 +30,7 @@ package com.bigdata.btree;
 
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataInputBuffer;
+import com.bigdata.io.IByteArraySlice;
 import com.bigdata.rawstore.IBlock;
 
 /**
@@ -73,6 +74,10 @@ public class DelegateTuple<E> implements ITuple<E> {
         return delegate.getKeyStream();
     }
 
+    public IByteArraySlice getKeySlice() {
+        return delegate.getKeySlice();
+    }
+
     public byte[] getValue() {
         return delegate.getValue();
     }
@@ -93,6 +98,10 @@ public class DelegateTuple<E> implements ITuple<E> {
         return delegate.getValueStream();
     }
 
+    public IByteArraySlice getValueSlice() {
+        return delegate.getValueSlice();
+    }
+
     public long getVersionTimestamp() {
         return delegate.getVersionTimestamp();
     }
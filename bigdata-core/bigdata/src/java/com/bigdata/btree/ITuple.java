@@ -31,6 +31,7 @@ package com.bigdata.btree;
 import com.bigdata.btree.view.FusedView;
 import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.DataInputBuffer;
+import com.bigdata.io.IByteArraySlice;
 import com.bigdata.rawstore.IBlock;
 import com.bigdata.rawstore.IRawStore;
 
@@ -128,6 +129,20 @@ public interface ITuple<E extends Object> {
      *             if the keys were not requested.
      */
     public DataInputBuffer getKeyStream();
+
+    /**
+     * Return a slice containing the current key. When the key is coded in the
+     * leaf such that it can be read in place, the slice is backed by the coded
+     * record and the key is not copied. Otherwise the slice is backed by
+     * {@link #getKeyBuffer()}. The returned object is reused and the slice is
+     * only valid until the tuple is advanced.
+     * 
+     * @throws UnsupportedOperationException
+     *             if keys are not being materialized.
+     * 
+     * @see com.bigdata.btree.raba.codec.IZeroCopyRaba
+     */
+    public IByteArraySlice getKeySlice();
     
     /**
      * <code>true</code> iff the value stored under the index entry is
@@ -182,6 +197,24 @@ public interface ITuple<E extends Object> {
      */
     public DataInputBuffer getValueStream();
 
+    /**
+     * Return a slice containing the current value. When the value is coded in
+     * the leaf such that it can be read in place, the slice is backed by the
+     * coded record and the value is not copied. Otherwise the slice is backed
+     * by {@link #getValueBuffer()}. The returned object is reused and the
+     * slice is only valid until the tuple is advanced.
+     * 
+     * @throws UnsupportedOperationException
+     *             if values are not being materialized.
+     * @throws UnsupportedOperationException
+     *             if the value is <code>null</code>.
+     * @throws UnsupportedOperationException
+     *             if the index entry is <code>deleted</code>.
+     * 
+     * @see com.bigdata.btree.raba.codec.IZeroCopyRaba
+     */
+    public IByteArraySlice getValueSlice();
+
     /**
      * De-serializes the object from the key and/or value.
      * 
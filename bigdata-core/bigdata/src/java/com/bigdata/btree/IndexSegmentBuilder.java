@@ -41,6 +41,11 @@ import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
@@ -57,6 +62,7 @@ import com.bigdata.io.ByteArrayBuffer;
 import com.bigdata.io.ChecksumUtility;
 import com.bigdata.io.DataInputBuffer;
 import com.bigdata.io.FileChannelUtility;
+import com.bigdata.io.IByteArraySlice;
 import com.bigdata.io.NOPReopener;
 import com.bigdata.io.SerializerUtil;
 import com.bigdata.io.writecache.WriteCache;
@@ -72,6 +78,7 @@ import com.bigdata.rawstore.IRawStore;
 import com.bigdata.rawstore.WormAddressManager;
 import com.bigdata.util.Bytes;
 import com.bigdata.util.BytesUtil;
+import com.bigdata.util.DaemonThreadFactory;
 
 /**
  * Builds an {@link IndexSegment} given a source btree and a target branching
@@ -244,6 +251,34 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
      * Message when the index segment will be empty.
      */
     protected static final String ERR_NO_TUPLES = "No tuples";
+
+    /**
+     * Options for the {@link IndexSegmentBuilder}. These are specified as JVM
+     * system properties.
+     */
+    public interface Options {
+
+        /**
+         * The maximum #of leaves which are coded concurrently by a build
+         * (default {@value #DEFAULT_LEAF_CODING_THREADS}). The leaves are
+         * still written onto the output file in key order. When ONE (1), each
+         * leaf is coded by the thread running the build.
+         */
+        String LEAF_CODING_THREADS = IndexSegmentBuilder.class.getName()
+                + ".leafCodingThreads";
+
+        String DEFAULT_LEAF_CODING_THREADS = "4";
+
+    }
+
+    /**
+     * Used to code leaves concurrently with the build.
+     * 
+     * @see Options#LEAF_CODING_THREADS
+     */
+    private static final Executor leafCodingService = Executors
+            .newCachedThreadPool(new DaemonThreadFactory(
+                    IndexSegmentBuilder.class.getName() + ".leafCoding"));
     
     /**
      * The file mode used to open the file on which the {@link IndexSegment} is
@@ -510,6 +545,13 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
      */
     final protected boolean bufferNodes;
 
+    /**
+     * The maximum #of leaves which are coded concurrently.
+     * 
+     * @see Options#LEAF_CODING_THREADS
+     */
+    private int leafCodingThreads;
+
 	/**
 	 * The optional buffer used to hold records referenced by index entries.
 	 * This is opened if the index uses raw records -or- if the index specifies
@@ -1574,6 +1616,14 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
         this.compactingMerge = compactingMerge;
         
         this.bufferNodes = bufferNodes;
+
+        this.leafCodingThreads = Integer.parseInt(System.getProperty(
+                Options.LEAF_CODING_THREADS,
+                Options.DEFAULT_LEAF_CODING_THREADS));
+
+        if (leafCodingThreads <= 0)
+            throw new IllegalArgumentException(Options.LEAF_CODING_THREADS
+                    + "=" + leafCodingThreads);
         
         /*
          * Override the branching factor on the index segment.
@@ -1729,6 +1779,36 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
 
     }
     
+    /**
+     * The maximum #of leaves which are coded concurrently.
+     * 
+     * @see Options#LEAF_CODING_THREADS
+     */
+    public int getLeafCodingThreads() {
+
+        return leafCodingThreads;
+
+    }
+
+    /**
+     * Set the maximum #of leaves which are coded concurrently. This must be
+     * invoked before {@link #call()}.
+     * 
+     * @param leafCodingThreads
+     *            The maximum #of leaves which are coded concurrently. When ONE
+     *            (1), each leaf is coded by the thread running the build.
+     * 
+     * @see Options#LEAF_CODING_THREADS
+     */
+    public void setLeafCodingThreads(final int leafCodingThreads) {
+
+        if (leafCodingThreads <= 0)
+            throw new IllegalArgumentException();
+
+        this.leafCodingThreads = leafCodingThreads;
+
+    }
+
     /**
      * Build the {@link IndexSegment} given the parameters specified to the
      * constructor.
@@ -1976,6 +2056,14 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
             return;
             
         }
+
+        if (leafCodingThreads > 1 && plan.nleaves > 1) {
+
+            buildBTreeConcurrentLeafCoding();
+
+            return;
+
+        }
         
         // For each leaf in the plan while tuples remain.
         for (int i = 0; i < plan.nleaves && entryIterator.hasNext(); i++) {
@@ -1998,7 +2086,7 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
             for (int j = 0; j < limit && entryIterator.hasNext(); j++) {
 
                 // Copy the tuple into the leaf.
-                copyTuple(j, entryIterator.next());
+                copyTuple(leaf, j, entryIterator.next());
 
 //                needsFlush = true;
                 
@@ -2051,14 +2139,192 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
     }
     
     /**
-     * Copy a tuple into the current leaf at the given index.
+     * Variant of {@link #buildBTree()} in which the leaves are coded
+     * concurrently. Each leaf is filled in from the source iterator by the
+     * caller and then coded by the {@link #leafCodingService}, which allows
+     * the caller to fill in the next leaves while the prior leaves are being
+     * coded. The leaves are then written in key order by the caller, so the
+     * separator keys, the addresses of the leaves, the prior/next leaf links,
+     * and the nodes are exactly as generated by {@link #buildBTree()}.
+     * <p>
+     * Note: The {@link NodeSerializer} is not thread-safe, so each of the
+     * leaves which may be coded concurrently has its own instance.
+     */
+    private void buildBTreeConcurrentLeafCoding() {
+
+        final LeafCodingTask[] tasks = new LeafCodingTask[leafCodingThreads];
+
+        for (int k = 0; k < tasks.length; k++) {
+
+            tasks[k] = new LeafCodingTask(new SimpleLeafData(plan.height,
+                    plan.m, metadata), new NodeSerializer(//
+                    addressManager,//
+                    NOPNodeFactory.INSTANCE,//
+                    plan.m,// the output branching factor.
+                    0, // initialBufferCapacity - will be estimated.
+                    metadata, //
+                    false, // NOT read-only (we are using it for writing).
+                    metadata.getIndexSegmentRecordCompressorFactory()));
+
+        }
+
+        // The #of leaves which have been filled in.
+        int nfilled = 0;
+
+        try {
+
+            // For each leaf in the plan while tuples remain.
+            for (int i = 0; i < plan.nleaves && entryIterator.hasNext(); i++) {
+
+                final LeafCodingTask task = tasks[i % tasks.length];
+
+                if (i >= tasks.length) {
+
+                    // Write the leaf which was last coded by this task.
+                    flushCodedLeaf(task, i - tasks.length);
+
+                }
+
+                final SimpleLeafData leaf = task.leaf;
+
+                leaf.reset(plan.numInNode[leaf.level][i]);
+
+                final int limit = leaf.max; // #of keys to fill in this leaf.
+
+                // For each tuple allowed by the plan into the current leaf.
+                for (int j = 0; j < limit && entryIterator.hasNext(); j++) {
+
+                    // Copy the tuple into the leaf.
+                    copyTuple(leaf, j, entryIterator.next());
+
+                }
+
+                // Code the leaf.
+                final FutureTask<ILeafData> ft = new FutureTask<ILeafData>(task);
+
+                task.future = ft;
+
+                leafCodingService.execute(ft);
+
+                nfilled++;
+
+            }
+
+            // Write the leaves which are still being coded.
+            for (int i = Math.max(0, nfilled - tasks.length); i < nfilled; i++) {
+
+                flushCodedLeaf(tasks[i % tasks.length], i);
+
+            }
+
+        } finally {
+
+            for (LeafCodingTask task : tasks) {
+
+                if (task.future != null) {
+
+                    // Note: Only on error.
+                    task.future.cancel(true/* mayInterruptIfRunning */);
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Write the leaf which was coded by the task. The separator key for the
+     * leaf is recorded on its parent first (except for the first leaf), just
+     * as {@link #buildBTree()} does when it fills in the first key of a leaf.
+     * 
+     * @param task
+     *            The task.
+     * @param i
+     *            The index of the leaf in the plan.
+     */
+    private void flushCodedLeaf(final LeafCodingTask task, final int i) {
+
+        final ILeafData data;
+        try {
+
+            data = task.future.get();
+
+        } catch (InterruptedException ex) {
+
+            throw new RuntimeException(ex);
+
+        } catch (ExecutionException ex) {
+
+            throw new RuntimeException(ex);
+
+        }
+
+        task.future = null;
+
+        if (i > 0) {
+
+            addSeparatorKey(task.leaf);
+
+        }
+
+        flushNodeOrLeaf(task.leaf, data);
+
+    }
+
+    /**
+     * Codes a leaf which was filled in by
+     * {@link IndexSegmentBuilder#buildBTreeConcurrentLeafCoding()}. The leaf
+     * is not modified until the coded record has been written.
+     */
+    private static class LeafCodingTask implements Callable<ILeafData> {
+
+        /**
+         * The leaf (reused for each leaf coded by this task).
+         */
+        final SimpleLeafData leaf;
+
+        /**
+         * Used to code the leaf.
+         */
+        private final NodeSerializer nodeSer;
+
+        /**
+         * The future of the coded leaf -or- <code>null</code> if the leaf is
+         * not being coded.
+         */
+        Future<ILeafData> future;
+
+        LeafCodingTask(final SimpleLeafData leaf, final NodeSerializer nodeSer) {
+
+            this.leaf = leaf;
+
+            this.nodeSer = nodeSer;
+
+        }
+
+        @Override
+        public ILeafData call() throws Exception {
+
+            return nodeSer.encodeLive(leaf);
+
+        }
+
+    }
+
+    /**
+     * Copy a tuple into the given leaf at the given index.
      * 
+     * @param leaf
+     *            The leaf.
      * @param j
      *            The index in the leaf to which the tuple will be copied.
      * @param tuple
      *            The tuple.
      */
-    private void copyTuple(final int j, final ITuple<?> tuple) {
+    private void copyTuple(final SimpleLeafData leaf, final int j,
+            final ITuple<?> tuple) {
 
         if (ntuplesWritten == 0) {
 
@@ -2264,6 +2530,22 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
     protected void flushNodeOrLeaf(final AbstractSimpleNodeData node) {
 //            final boolean exhausted) {
 
+        flushNodeOrLeaf(node, null/* codedLeaf */);
+
+    }
+
+    /**
+     * Variant used when the leaf has already been coded.
+     * 
+     * @param node
+     *            The node to be flushed.
+     * @param codedLeaf
+     *            The coded record for the node iff it is a leaf which has
+     *            already been coded and otherwise <code>null</code>.
+     */
+    private void flushNodeOrLeaf(final AbstractSimpleNodeData node,
+            final ILeafData codedLeaf) {
+
         final int h = node.level;
 
         // The index into the level for this node or leaf.
@@ -2288,7 +2570,8 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
          * Note: The node is not reset in the stack by this method so it will
          * remain available to getParent(), which we invoke next.
          */
-        final long addr = writeNodeOrLeaf(node);//, exhausted);
+        final long addr = codedLeaf != null ? writeLeaf(codedLeaf)
+                : writeNodeOrLeaf(node);//, exhausted);
 
         // Lookup the parent of this leaf/node in the stack.
         final SimpleNodeData parent = getParent(node);
@@ -2631,6 +2914,24 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
      */
     protected long writeLeaf(final SimpleLeafData leaf) {
 
+        // code the leaf, obtaining a view onto an internal (shared) buffer.
+//        final ByteBuffer buf = nodeSer.encode(leaf).asByteBuffer();
+        // code the leaf.
+        return writeLeaf(nodeSer.encodeLive(leaf));
+
+    }
+
+    /**
+     * Variant used once the leaf has been coded.
+     * 
+     * @param thisLeafData
+     *            The coded leaf.
+     * 
+     * @return The address that may be used to read the leaf from the file
+     *         backing the {@link IndexSegmentStore}.
+     */
+    private long writeLeaf(final ILeafData thisLeafData) {
+
         /*
          * The encoded address of the leaf that we allocated here. The encoded
          * address will be relative to the BASE region.
@@ -2638,10 +2939,6 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
         final long addr;
         {
             
-            // code the leaf, obtaining a view onto an internal (shared) buffer.
-//            final ByteBuffer buf = nodeSer.encode(leaf).asByteBuffer();
-            // code the leaf.
-            final ILeafData thisLeafData = nodeSer.encodeLive(leaf);
 
             // Obtain address to be assigned to this leaf.
 //            // Allocate a record for the leaf on the temporary store.
@@ -4135,6 +4432,10 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
                 throw new UnsupportedOperationException();
             }
 
+            public IByteArraySlice getKeySlice() {
+                throw new UnsupportedOperationException();
+            }
+
             public ByteArrayBuffer getValueBuffer() {
                 throw new UnsupportedOperationException();
             }
@@ -4143,6 +4444,10 @@ public class IndexSegmentBuilder implements Callable<IndexSegmentCheckpoint> {
                 throw new UnsupportedOperationException();
             }
 
+            public IByteArraySlice getValueSlice() {
+                throw new UnsupportedOperationException();
+            }
+
             public E getObject() {
                 throw new UnsupportedOperationException();
             }
@@ -759,12 +759,11 @@ public class IndexSegmentStore extends AbstractRawStore {
 
             try {
                 
-//              @see BLZG-1501 (remove LRUNexus)
-//                if (LRUNexus.INSTANCE != null) {
-//
-//                    LRUNexus.INSTANCE.deleteCache(getUUID());
-//
-//                }
+                if (PageCache.INSTANCE != null) {
+
+                    PageCache.INSTANCE.clear(getUUID());
+
+                }
                 
             } catch (Throwable t) {
                 
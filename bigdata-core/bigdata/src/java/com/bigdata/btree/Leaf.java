@@ -578,7 +578,7 @@ public class Leaf extends AbstractNode<Leaf> implements ILeafData, IRawRecordAcc
 			 * 
 			 * See BLZG-1539
 			 */
-			entryIndex = this.getKeys().search(searchKey);
+			entryIndex = this.searchKeys(searchKey);
 			
 			if (entryIndex >= 0) {
 				
@@ -908,7 +908,7 @@ public class Leaf extends AbstractNode<Leaf> implements ILeafData, IRawRecordAcc
 
         btree.touch(this);
 
-        final int entryIndex = getKeys().search(searchKey);
+        final int entryIndex = searchKeys(searchKey);
 
         if (entryIndex < 0) {
 
@@ -931,7 +931,7 @@ public class Leaf extends AbstractNode<Leaf> implements ILeafData, IRawRecordAcc
 
         btree.touch(this);
         
-		return (long) getKeys().search(key);
+		return (long) searchKeys(key);
 
 	}
 
@@ -116,7 +116,7 @@ public class LeafTupleIterator<E> implements ITupleIterator<E> {
 
             if (fromKey != null) {
 
-                fromIndex = leaf.getKeys().search(fromKey);
+                fromIndex = leaf.searchKeys(fromKey);
 
                 if (fromIndex < 0) {
 
@@ -140,7 +140,7 @@ public class LeafTupleIterator<E> implements ITupleIterator<E> {
 
             if (toKey != null) {
 
-                toIndex = leaf.getKeys().search(toKey);
+                toIndex = leaf.searchKeys(toKey);
 
                 if (toIndex < 0) {
 
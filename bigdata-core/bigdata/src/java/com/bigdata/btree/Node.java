@@ -1179,7 +1179,7 @@ public class Node extends AbstractNode<Node> implements INodeData {
      */
     final protected int findChild(final byte[] searchKey) {
 
-        int childIndex = this.getKeys().search(searchKey);
+        int childIndex = this.searchKeys(searchKey);
 
         if (childIndex >= 0) {
 
@@ -3167,7 +3167,8 @@ public class Node extends AbstractNode<Node> implements INodeData {
      * 
      * @todo PREFETCH : Only journal is supported right now.
      * 
-     * @todo PREFETCH : The {@link IRangeQuery#CURSOR} mode is not supported yet.
+     * @todo PREFETCH : The {@link IRangeQuery#CURSOR} mode does not use this
+     *       method. See {@link AbstractBTreeTupleCursor#readAhead(Leaf, boolean)}.
      */
     protected void prefetchChildLeaves(final Node node, final byte[] fromKey,
                 final byte[] toKey) {
@@ -3182,7 +3183,7 @@ public class Node extends AbstractNode<Node> implements INodeData {
 
             if (fromKey != null) {
 
-                index = node.getKeys().search(fromKey);
+                index = node.searchKeys(fromKey);
 
                 if (index < 0) {
 
@@ -3208,7 +3209,7 @@ public class Node extends AbstractNode<Node> implements INodeData {
 
             if (toKey != null) {
 
-                index = node.getKeys().search(toKey);
+                index = node.searchKeys(toKey);
 
                 if (index < 0) {
 
@@ -0,0 +1,378 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.UUID;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.data.IAbstractNodeData;
+import com.bigdata.cache.TwoQueueCache;
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounterSetAccess;
+import com.bigdata.counters.Instrument;
+import com.bigdata.htree.AbstractHTree;
+import com.bigdata.journal.AbstractJournal;
+import com.bigdata.journal.IJournal;
+import com.bigdata.rawstore.IRawStore;
+
+/**
+ * A JVM-wide cache for the decoded node and leaf data records of the
+ * {@link AbstractBTree} and {@link AbstractHTree} instances. The cache is
+ * keyed by the {@link UUID} of the backing store and the address of the
+ * record, bounded by the #of bytes in the coded records, and uses the
+ * scan-resistant 2Q replacement policy (see {@link TwoQueueCache}). Since
+ * the data records are read-only, a record may be shared by all index
+ * instances reading on the same store, including historical views and the
+ * unisolated index.
+ * <p>
+ * The cache is disabled by default. It is enabled by setting
+ * {@link Options#MAXIMUM_BYTES} as a JVM property.
+ * <p>
+ * Coherence relies on the following:
+ * <ul>
+ * <li>A record is placed into the cache when it is written, replacing any
+ * record already cached for a recycled address.</li>
+ * <li>A record is removed from the cache when its address is recycled by the
+ * index.</li>
+ * <li>The records for a store are removed when that store is closed or
+ * destroyed and when the journal is aborted (since the addresses of the
+ * discarded writes may be reissued).</li>
+ * </ul>
+ * The cache is only used for the indices on a journal (an
+ * {@link AbstractJournal} or a view of one, which has the same {@link UUID})
+ * or an {@link IndexSegmentStore}. It is not used for a highly available
+ * journal since the records on a follower are written by replication rather
+ * than by the index.
+ *
+ * @see AbstractBTree#readNodeOrLeaf(long)
+ * @see BTreeCounters#pageCacheHits
+ */
+public class PageCache implements ICounterSetAccess {
+
+    private static final transient Logger log = Logger
+            .getLogger(PageCache.class);
+
+    /**
+     * Options for the {@link PageCache}. These options are specified as JVM
+     * properties.
+     */
+    public interface Options {
+
+        /**
+         * The maximum #of bytes in the cached data records (default
+         * {@value #DEFAULT_MAXIMUM_BYTES}). The cache is disabled when this is
+         * ZERO (0).
+         */
+        String MAXIMUM_BYTES = PageCache.class.getName() + ".maximumBytes";
+
+        String DEFAULT_MAXIMUM_BYTES = "0";
+
+        /**
+         * The #of independently locked segments of the cache (default
+         * {@value #DEFAULT_CONCURRENCY_LEVEL}).
+         */
+        String CONCURRENCY_LEVEL = PageCache.class.getName()
+                + ".concurrencyLevel";
+
+        String DEFAULT_CONCURRENCY_LEVEL = "16";
+
+    }
+
+    /**
+     * The JVM-wide instance -or- <code>null</code> if the cache is disabled.
+     */
+    public static final PageCache INSTANCE;
+
+    static {
+
+        final long maximumBytes = Long.parseLong(System.getProperty(
+                Options.MAXIMUM_BYTES, Options.DEFAULT_MAXIMUM_BYTES));
+
+        final int concurrencyLevel = Integer.parseInt(System.getProperty(
+                Options.CONCURRENCY_LEVEL, Options.DEFAULT_CONCURRENCY_LEVEL));
+
+        if (log.isInfoEnabled())
+            log.info(Options.MAXIMUM_BYTES + "=" + maximumBytes + ", "
+                    + Options.CONCURRENCY_LEVEL + "=" + concurrencyLevel);
+
+        INSTANCE = maximumBytes > 0L ? new PageCache(maximumBytes,
+                concurrencyLevel) : null;
+
+    }
+
+    /**
+     * Return the cache to be used for the indices on the store.
+     *
+     * @param store
+     *            The backing store (optional).
+     *
+     * @return The cache -or- <code>null</code> if the cache is disabled, if
+     *         the index is transient, if the store is not a journal or an
+     *         {@link IndexSegmentStore}, or if the store is a highly available
+     *         journal.
+     */
+    public static PageCache getPageCache(final IRawStore store) {
+
+        if (INSTANCE == null || !isCacheable(store))
+            return null;
+
+        return INSTANCE;
+
+    }
+
+    /**
+     * Return <code>true</code> iff the records of the indices on the store may
+     * be cached.
+     */
+    static boolean isCacheable(final IRawStore store) {
+
+        if (store instanceof IndexSegmentStore)
+            return true;
+
+        if (!(store instanceof IJournal)) {
+
+            /*
+             * Only the durable stores clear their records when they are
+             * closed, destroyed or aborted (e.g., not a MemStore or a
+             * TemporaryRawStore).
+             */
+            return false;
+
+        }
+
+        if (((IJournal) store).getQuorum() != null) {
+
+            // Records on a follower are written by replication.
+            return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * The key for a data record.
+     */
+    private static final class Key {
+
+        final UUID storeUUID;
+
+        final long addr;
+
+        private final int hash;
+
+        Key(final UUID storeUUID, final long addr) {
+
+            this.storeUUID = storeUUID;
+
+            this.addr = addr;
+
+            this.hash = storeUUID.hashCode() * 31
+                    + (int) (addr ^ (addr >>> 32));
+
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o)
+                return true;
+
+            if (!(o instanceof Key))
+                return false;
+
+            final Key t = (Key) o;
+
+            return addr == t.addr && storeUUID.equals(t.storeUUID);
+
+        }
+
+    }
+
+    private final TwoQueueCache<Key, IAbstractNodeData> cache;
+
+    /**
+     * @param maximumBytes
+     *            The maximum #of bytes in the cached data records.
+     * @param concurrencyLevel
+     *            The #of independently locked segments.
+     */
+    public PageCache(final long maximumBytes, final int concurrencyLevel) {
+
+        this.cache = new TwoQueueCache<Key, IAbstractNodeData>(maximumBytes,
+                concurrencyLevel);
+
+    }
+
+    /**
+     * Return the data record at the address on the store.
+     *
+     * @return The data record -or- <code>null</code> if it is not cached.
+     */
+    public IAbstractNodeData get(final UUID storeUUID, final long addr) {
+
+        return cache.get(new Key(storeUUID, addr));
+
+    }
+
+    /**
+     * Insert (or replace) the data record at the address on the store. Only
+     * coded (read-only) data records are cached.
+     */
+    public void put(final UUID storeUUID, final long addr,
+            final IAbstractNodeData data) {
+
+        if (data == null)
+            throw new IllegalArgumentException();
+
+        final Key key = new Key(storeUUID, addr);
+
+        if (!data.isCoded()) {
+
+            // Not cached, but do not leave a stale record for the address.
+            cache.remove(key);
+
+            return;
+
+        }
+
+        cache.put(key, data, data.data().len());
+
+    }
+
+    /**
+     * Remove the data record at the address on the store (if any).
+     */
+    public void remove(final UUID storeUUID, final long addr) {
+
+        cache.remove(new Key(storeUUID, addr));
+
+    }
+
+    /**
+     * Remove all data records for the store.
+     *
+     * @return The #of data records which were removed.
+     */
+    public int clear(final UUID storeUUID) {
+
+        if (storeUUID == null)
+            throw new IllegalArgumentException();
+
+        final int n = cache.removeAll(new TwoQueueCache.IKeyFilter<Key>() {
+            @Override
+            public boolean accept(final Key key) {
+                return storeUUID.equals(key.storeUUID);
+            }
+        });
+
+        if (log.isInfoEnabled())
+            log.info("storeUUID=" + storeUUID + ", removed=" + n);
+
+        return n;
+
+    }
+
+    @Override
+    public CounterSet getCounters() {
+
+        final CounterSet counterSet = new CounterSet();
+
+        counterSet.addCounter("maximumBytes", new Instrument<Long>() {
+            @Override
+            protected void sample() {
+                setValue(cache.getMaximumBytes());
+            }
+        });
+
+        counterSet.addCounter("bytes", new Instrument<Long>() {
+            @Override
+            protected void sample() {
+                setValue(cache.getBytes());
+            }
+        });
+
+        counterSet.addCounter("size", new Instrument<Integer>() {
+            @Override
+            protected void sample() {
+                setValue(cache.size());
+            }
+        });
+
+        counterSet.addCounter("hitCount", new Instrument<Long>() {
+            @Override
+            protected void sample() {
+                setValue(cache.getHitCount());
+            }
+        });
+
+        counterSet.addCounter("missCount", new Instrument<Long>() {
+            @Override
+            protected void sample() {
+                setValue(cache.getMissCount());
+            }
+        });
+
+        counterSet.addCounter("hitRatio", new Instrument<Double>() {
+            @Override
+            protected void sample() {
+                final double hits = cache.getHitCount();
+                final double tests = hits + cache.getMissCount();
+                if (tests == 0)
+                    return; // avoid divide-by-zero.
+                setValue(hits / tests);
+            }
+        });
+
+        counterSet.addCounter("evictionCount", new Instrument<Long>() {
+            @Override
+            protected void sample() {
+                setValue(cache.getEvictionCount());
+            }
+        });
+
+        return counterSet;
+
+    }
+
+    @Override
+    public String toString() {
+
+        return getClass().getSimpleName() + "{" + cache + "}";
+
+    }
+
+}
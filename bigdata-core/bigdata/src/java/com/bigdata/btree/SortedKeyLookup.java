@@ -0,0 +1,346 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.btree;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.raba.IRaba;
+import com.bigdata.util.BytesUtil;
+import com.bigdata.util.DaemonThreadFactory;
+
+/**
+ * Merge style point lookup of an ordered set of keys. Rather than descending
+ * from the root for each key, the keys are matched against the current leaf of
+ * an {@link ILeafCursor} and the cursor is advanced to the next leaf when the
+ * keys move past the current leaf. A new descent is only required when the
+ * keys skip over more than one leaf (or when they are not in fact ordered).
+ * <p>
+ * For a read-only B+Tree, the leaf spanning the next key which lies beyond
+ * the current leaf is faulted in by a background thread while the keys on the
+ * current leaf are being matched. This overlaps the IO for the next leaf with
+ * the work on the current leaf. The mutable {@link BTree} is not safe for
+ * concurrent readers which drive evictions, so no read-ahead is done for that
+ * case.
+ * <p>
+ * The results are the same as if {@link AbstractBTree#lookup(byte[])} had been
+ * invoked for each key, including the handling of delete markers and raw
+ * records.
+ *
+ * @see com.bigdata.btree.proc.BatchLookup
+ */
+public class SortedKeyLookup {
+
+    private static final transient Logger log = Logger
+            .getLogger(SortedKeyLookup.class);
+
+    /**
+     * Used to fault in leaves for read-only B+Trees.
+     */
+    private static final Executor readAheadService = Executors
+            .newCachedThreadPool(new DaemonThreadFactory(SortedKeyLookup.class
+                    .getName()));
+
+    private final AbstractBTree btree;
+
+    private final boolean readAhead;
+
+    @SuppressWarnings("rawtypes")
+    private ILeafCursor cursor = null;
+
+    /**
+     * The last key which was located by the {@link #cursor}. The current leaf
+     * spans this key.
+     */
+    private byte[] lastKey = null;
+
+    /**
+     * The index of the key for which a read-ahead was last requested.
+     */
+    private int readAheadIndex = -1;
+
+    /**
+     * The read-ahead task (if any).
+     */
+    private Future<Void> readAheadFuture = null;
+
+    /**
+     * @param btree
+     *            The B+Tree.
+     */
+    public SortedKeyLookup(final AbstractBTree btree) {
+
+        if (btree == null)
+            throw new IllegalArgumentException();
+
+        this.btree = btree;
+
+        this.readAhead = btree.isReadOnly();
+
+    }
+
+    /**
+     * Lookup the keys.
+     *
+     * @param btree
+     *            The B+Tree.
+     * @param keys
+     *            The keys, which SHOULD be in ascending order.
+     *
+     * @return The value for each key. The value is <code>null</code> if there
+     *         is no entry for the key (or if the entry is deleted).
+     */
+    public static byte[][] lookup(final AbstractBTree btree, final IRaba keys) {
+
+        return new SortedKeyLookup(btree).lookup(keys);
+
+    }
+
+    /**
+     * Lookup the keys.
+     *
+     * @param keys
+     *            The keys, which SHOULD be in ascending order.
+     *
+     * @return The value for each key. The value is <code>null</code> if there
+     *         is no entry for the key (or if the entry is deleted).
+     */
+    public byte[][] lookup(final IRaba keys) {
+
+        final int n = keys.size();
+
+        final byte[][] vals = new byte[n][];
+
+        final BloomFilter filter = btree.getBloomFilter();
+
+        final Tuple<?> tuple = btree.getLookupTuple();
+
+        for (int i = 0; i < n; i++) {
+
+            final byte[] key = keys.get(i);
+
+            if (key == null)
+                throw new IllegalArgumentException();
+
+            if (filter != null && !filter.contains(key)) {
+
+                // rejected by the bloom filter.
+                continue;
+
+            }
+
+            final Leaf leaf = findLeaf(key);
+
+            if (leaf == null) {
+
+                // Not found.
+                continue;
+
+            }
+
+            readAhead(keys, i, leaf);
+
+            final Tuple<?> t = leaf.lookup(key, tuple);
+
+            if (t != null && !t.isDeletedVersion()) {
+
+                vals[i] = t.getValue();
+
+            }
+
+        }
+
+        return vals;
+
+    }
+
+    /**
+     * Return the leaf which would span the key.
+     *
+     * @return The leaf -or- <code>null</code> if it is known that there is no
+     *         entry for the key.
+     */
+    private Leaf findLeaf(final byte[] key) {
+
+        if (cursor == null || BytesUtil.compareBytes(key, lastKey) < 0) {
+
+            // First key or keys are out of order.
+            return seek(key);
+
+        }
+
+        final Leaf leaf = cursor.leaf();
+
+        if (spans(leaf, key)) {
+
+            lastKey = key;
+
+            return leaf;
+
+        }
+
+        /*
+         * The key is GT the last key in the current leaf. Try the next leaf.
+         */
+        final Leaf next = cursor.next();
+
+        if (next == null) {
+
+            // The key is GT the last key in the index.
+            return null;
+
+        }
+
+        if (next.getKeyCount() > 0
+                && BytesUtil.compareBytes(key, next.getKeys().get(0)) < 0) {
+
+            // The key lies between two leaves.
+            lastKey = key;
+
+            return null;
+
+        }
+
+        if (spans(next, key)) {
+
+            lastKey = key;
+
+            return next;
+
+        }
+
+        // The key lies beyond the next leaf.
+        return seek(key);
+
+    }
+
+    /**
+     * Return <code>true</code> iff the key is LTE the last key in the leaf.
+     * Since the leaf spans {@link #lastKey} and the key is GTE
+     * {@link #lastKey}, the leaf must span the key.
+     */
+    private static boolean spans(final Leaf leaf, final byte[] key) {
+
+        final int nkeys = leaf.getKeyCount();
+
+        return nkeys > 0
+                && BytesUtil.compareBytes(key, leaf.getKeys().get(nkeys - 1)) <= 0;
+
+    }
+
+    private Leaf seek(final byte[] key) {
+
+        if (cursor == null) {
+
+            cursor = btree.newLeafCursor(key);
+
+        } else {
+
+            cursor.seek(key);
+
+        }
+
+        lastKey = key;
+
+        return cursor.leaf();
+
+    }
+
+    /**
+     * Fault in the leaf spanning the first key after the i<sup>th</sup> key
+     * which is not spanned by the current leaf.
+     */
+    private void readAhead(final IRaba keys, final int i, final Leaf leaf) {
+
+        if (!readAhead)
+            return;
+
+        if (readAheadFuture != null && !readAheadFuture.isDone()) {
+
+            // Only one read-ahead at a time.
+            return;
+
+        }
+
+        final int nkeys = leaf.getKeyCount();
+
+        if (nkeys == 0)
+            return;
+
+        final byte[] lastLeafKey = leaf.getKeys().get(nkeys - 1);
+
+        final int n = keys.size();
+
+        int j = Math.max(i + 1, readAheadIndex + 1);
+
+        while (j < n && BytesUtil.compareBytes(keys.get(j), lastLeafKey) <= 0) {
+
+            j++;
+
+        }
+
+        if (j >= n)
+            return;
+
+        readAheadIndex = j;
+
+        final byte[] key = keys.get(j);
+
+        final FutureTask<Void> ft = new FutureTask<Void>(new Runnable() {
+
+            @Override
+            public void run() {
+
+                try {
+
+                    // Descend to the leaf, reading any nodes which are not
+                    // in memory.
+                    btree.newLeafCursor(key);
+
+                } catch (Throwable t) {
+
+                    // Ignored. The lookup will read the leaf itself.
+                    if (log.isInfoEnabled())
+                        log.info(t, t);
+
+                }
+
+            }
+
+        }, null/* result */);
+
+        readAheadFuture = ft;
+
+        readAheadService.execute(ft);
+
+    }
+
+}
@@ -34,8 +34,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 import com.bigdata.bop.cost.BTreeCostModel;
 import com.bigdata.bop.cost.DiskCostModel;
 import com.bigdata.bop.cost.ScanCostReport;
+import com.bigdata.btree.BTree.PublishedView;
+import com.bigdata.btree.keys.KVO;
 import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedureConstructor;
 import com.bigdata.btree.proc.IIndexProcedure;
+import com.bigdata.btree.proc.IKeyArrayIndexProcedure;
 import com.bigdata.btree.proc.IKeyRangeIndexProcedure;
 import com.bigdata.btree.proc.IResultHandler;
 import com.bigdata.btree.proc.ISimpleIndexProcedure;
@@ -45,7 +48,11 @@ import com.bigdata.journal.ConcurrencyManager;
 import com.bigdata.journal.IConcurrencyManager;
 import com.bigdata.mdi.IResourceMetadata;
 import com.bigdata.rawstore.IRawStore;
+import com.bigdata.relation.accesspath.IRunnableBuffer;
 import com.bigdata.service.Split;
+import com.bigdata.service.ndx.IAsynchronousWriteBufferFactory;
+import com.bigdata.service.ndx.pipeline.IDuplicateRemover;
+import com.bigdata.service.ndx.pipeline.LocalIndexWriteTask;
 
 import cutthecrap.utils.striterators.IFilter;
 
@@ -110,10 +117,23 @@ import cutthecrap.utils.striterators.IFilter;
  * would still block until the next commit so the throughput (e.g., when
  * computing the fix point of a rule set) is significantly lower.
  * 
+ * <h2>Published views</h2>
+ * 
+ * When {@link Options#PUBLISH_VIEWS} is enabled, each batch written by an
+ * {@link IIndexProcedure} ends by checkpointing the index and publishing a
+ * read-only view of that checkpoint. Readers use the published view (if any)
+ * without acquiring the lock, so they do not wait for writers and writers do
+ * not wait for readers to drain. The published view remains visible while the
+ * next batch is being written and is replaced when that batch is done. Any
+ * other write on the index retires the published view immediately, and the
+ * view is always retired when the index is committed, in which case readers
+ * fall back on the read lock until the next batch is written. The published
+ * view is shared by all instances of this class for the same index.
+ * 
  * @author <a href="mailto:thompsonbry@users.sourceforge.net">Bryan Thompson</a>
  */
 public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
-        IReadWriteLockManager
+        IReadWriteLockManager, IAsynchronousWriteBufferFactory
         // NOT ILocalBTreeView 
         {
 
@@ -171,6 +191,29 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
         lock.unlock();
         
     }
+
+    /**
+     * If views are published and the procedure is not read-only, notify the
+     * index that a batch will be written by a publisher. The caller MUST hold
+     * the write lock.
+     * 
+     * @param proc
+     *            The procedure.
+     * 
+     * @return <code>true</code> iff the caller MUST invoke
+     *         {@link BTree#endPublishedWrite(boolean)} once the procedure is
+     *         done.
+     */
+    private boolean beginPublishedWrite(final IIndexProcedure<?> proc) {
+
+        if (!publishViews || proc.isReadOnly())
+            return false;
+
+        ndx.beginPublishedWrite();
+
+        return true;
+
+    }
     
     /**
      * The unisolated index partition. This is either a {@link BTree} or a
@@ -192,6 +235,33 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
      */
     final static protected int DEFAULT_CAPACITY = 1000;// 10000;
 
+    /**
+     * Options for the {@link UnisolatedReadWriteIndex}. These are specified as
+     * JVM system properties.
+     */
+    public interface Options {
+
+        /**
+         * When <code>true</code>, a read-only view of the index is published
+         * at the end of each batch written by an {@link IIndexProcedure} and
+         * readers use that view rather than acquiring the read lock (default
+         * {@value #DEFAULT_PUBLISH_VIEWS}). This requires the index to be
+         * checkpointed for each batch.
+         */
+        String PUBLISH_VIEWS = UnisolatedReadWriteIndex.class.getName()
+                + ".publishViews";
+
+        String DEFAULT_PUBLISH_VIEWS = "false";
+
+    }
+
+    /**
+     * When <code>true</code>, views are published by the writers.
+     * 
+     * @see Options#PUBLISH_VIEWS
+     */
+    final private boolean publishViews;
+
     /**
      * Creates a view of an unisolated index that will enforce the concurrency
      * constraints of the {@link BTree} class, but only among other instances of
@@ -227,6 +297,33 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
      */
     public UnisolatedReadWriteIndex(final BTree ndx, final int defaultCapacity) {
 
+        this(ndx, defaultCapacity, Boolean.parseBoolean(System.getProperty(
+                Options.PUBLISH_VIEWS, Options.DEFAULT_PUBLISH_VIEWS)));
+
+    }
+
+    /**
+     * Creates a view of an unisolated index that will enforce the concurrency
+     * constraints of the {@link BTree} class, but only among other instances of
+     * this class for the same underlying index.
+     * 
+     * @param ndx
+     *            The underlying unisolated index.
+     * @param defaultCapacity
+     *            The capacity for iterator reads against the underlying index.
+     * @param publishViews
+     *            When <code>true</code>, a read-only view of the index is
+     *            published for readers at the end of each batch written by an
+     *            {@link IIndexProcedure}.
+     * 
+     * @throws IllegalArgumentException
+     *             if the index is <code>null</code>.
+     * 
+     * @see Options#PUBLISH_VIEWS
+     */
+    public UnisolatedReadWriteIndex(final BTree ndx, final int defaultCapacity,
+            final boolean publishViews) {
+
         if (ndx == null)
             throw new IllegalArgumentException();
 
@@ -237,6 +334,8 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
 
         this.defaultCapacity = defaultCapacity;
 
+        this.publishViews = publishViews;
+
         this.lockManager = ReadWriteLockManager.getLockManager(ndx);
         
     }
@@ -285,6 +384,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public boolean contains(final Object key) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.contains(key);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();        
         try {
@@ -319,6 +434,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public Object lookup(final Object key) {
         
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.lookup(key);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -353,6 +484,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public boolean contains(final byte[] key) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.contains(key);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();        
         try {
@@ -370,6 +517,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public byte[] lookup(final byte[] key) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.lookup(key);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -438,6 +601,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public long rangeCount() {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.rangeCount();
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -455,6 +634,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public long rangeCount(final byte[] fromKey, final byte[] toKey) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.rangeCount(fromKey, toKey);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -472,6 +667,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public long rangeCountExact(final byte[] fromKey, final byte[] toKey) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.rangeCountExact(fromKey, toKey);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -489,6 +700,22 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public long rangeCountExactWithDeleted(final byte[] fromKey, final byte[] toKey) {
 
+        final PublishedView view = ndx.acquirePublishedView();
+
+        if (view != null) {
+
+            try {
+
+                return view.btree.rangeCountExactWithDeleted(fromKey, toKey);
+
+            } finally {
+
+                view.release();
+
+            }
+
+        }
+
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -627,8 +854,9 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
         }
 
         /**
-         * Extended to acquire the shared read lock (or the exclusive write lock
-         * if {@link IRangeQuery#REMOVEALL} was specified for the iterator).
+         * Extended to read on the published view (if any) or to acquire the
+         * shared read lock (or the exclusive write lock if
+         * {@link IRangeQuery#REMOVEALL} was specified for the iterator).
          */
         @Override
         protected ResultSet getResultSet(final long timestamp, final byte[] fromKey,
@@ -636,6 +864,28 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
 
             final boolean mutation = (flags & IRangeQuery.REMOVEALL) != 0;
 
+            if (!mutation) {
+
+                final PublishedView view = UnisolatedReadWriteIndex.this.ndx
+                        .acquirePublishedView();
+
+                if (view != null) {
+
+                    try {
+
+                        return newResultSet(view.btree, fromKey, toKey,
+                                capacity, flags, filter);
+
+                    } finally {
+
+                        view.release();
+
+                    }
+
+                }
+
+            }
+
             final Lock lock = mutation ? writeLock() : readLock();
             lock.lock();
             try {
@@ -656,16 +906,53 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     @Override
     public <T> T submit(final byte[] key, final ISimpleIndexProcedure<T> proc) {
 
+        if (proc.isReadOnly()) {
+
+            final PublishedView view = ndx.acquirePublishedView();
+
+            if (view != null) {
+
+                try {
+
+                    return view.btree.submit(key, proc);
+
+                } finally {
+
+                    view.release();
+
+                }
+
+            }
+
+        }
+
         final Lock lock = lock(proc);
         lock.lock();
         try {
 
-            /*
-             * Apply the procedure to the underlying index now that we are
-             * holding the appropriate lock.
-             */
+            final boolean publish = beginPublishedWrite(proc);
+
+            boolean ok = false;
+
+            try {
+
+                /*
+                 * Apply the procedure to the underlying index now that we are
+                 * holding the appropriate lock.
+                 */
+
+                final T ret = ndx.submit(key, proc);
+
+                ok = true;
+
+                return ret;
+
+            } finally {
+
+                if (publish)
+                    ndx.endPublishedWrite(ok);
 
-            return ndx.submit(key, proc);
+            }
 
         } finally {
 
@@ -680,16 +967,53 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
     public void submit(final byte[] fromKey, final byte[] toKey,
             final IKeyRangeIndexProcedure proc, final IResultHandler handler) {
 
+        if (proc.isReadOnly()) {
+
+            final PublishedView view = ndx.acquirePublishedView();
+
+            if (view != null) {
+
+                try {
+
+                    view.btree.submit(fromKey, toKey, proc, handler);
+
+                    return;
+
+                } finally {
+
+                    view.release();
+
+                }
+
+            }
+
+        }
+
         final Lock lock = lock(proc);
         lock.lock();
         try {
 
-            /*
-             * Apply the procedure to the underlying index now that we are
-             * holding the appropriate lock.
-             */
+            final boolean publish = beginPublishedWrite(proc);
+
+            boolean ok = false;
+
+            try {
+
+                /*
+                 * Apply the procedure to the underlying index now that we are
+                 * holding the appropriate lock.
+                 */
+
+                ndx.submit(fromKey, toKey, proc, handler);
 
-            ndx.submit(fromKey, toKey, proc, handler);
+                ok = true;
+
+            } finally {
+
+                if (publish)
+                    ndx.endPublishedWrite(ok);
+
+            }
 
         } finally {
 
@@ -711,16 +1035,62 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
         final IIndexProcedure proc = ctor.newInstance(this, fromIndex, toIndex,
                 keys, vals);
 
+        if (proc.isReadOnly()) {
+
+            final PublishedView view = ndx.acquirePublishedView();
+
+            if (view != null) {
+
+                try {
+
+                    final Object result = proc.apply(view.btree);
+
+                    if (aggregator != null) {
+
+                        aggregator.aggregate(result, new Split(null,
+                                fromIndex, toIndex));
+
+                    }
+
+                    return;
+
+                } finally {
+
+                    view.release();
+
+                }
+
+            }
+
+        }
+
         final Lock lock = lock(proc);
         lock.lock();
         try {
             
-            /*
-			 * Apply the procedure to the underlying index now that we are
-			 * holding the appropriate lock.
-			 */
-            
-            final Object result = proc.apply(ndx);
+            final boolean publish = beginPublishedWrite(proc);
+
+            final Object result;
+
+            boolean ok = false;
+
+            try {
+
+                /*
+                 * Apply the procedure to the underlying index now that we are
+                 * holding the appropriate lock.
+                 */
+
+                result = proc.apply(ndx);
+
+                ok = true;
+
+            } finally {
+
+                if (publish)
+                    ndx.endPublishedWrite(ok);
+
+            }
 
             if (aggregator != null) {
 
@@ -736,6 +1106,25 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
         
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The chunks are drained by a {@link LocalIndexWriteTask} and each chunk
+     * is written on the index while holding the write lock. The
+     * {@link IRunnableBuffer#getFuture()} evaluates to the #of elements
+     * written on the index.
+     */
+    @Override
+    public <T extends IKeyArrayIndexProcedure, O, R, A> IRunnableBuffer<KVO<O>[]> newWriteBuffer(
+            final IResultHandler<R, A> resultHandler,
+            final IDuplicateRemover<O> duplicateRemover,
+            final AbstractKeyArrayIndexProcedureConstructor<T> ctor) {
+
+        return LocalIndexWriteTask.newWriteBuffer(this, resultHandler,
+                duplicateRemover, ctor);
+
+    }
+
     /**
      * Estimate the cost of a range scan.
      * 
@@ -763,6 +1152,14 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
 
     @Override
     public long indexOf(final byte[] key) {
+        final PublishedView view = ndx.acquirePublishedView();
+        if (view != null) {
+            try {
+                return view.btree.indexOf(key);
+            } finally {
+                view.release();
+            }
+        }
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -774,6 +1171,14 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
 
     @Override
     public byte[] keyAt(final long index) {
+        final PublishedView view = ndx.acquirePublishedView();
+        if (view != null) {
+            try {
+                return view.btree.keyAt(index);
+            } finally {
+                view.release();
+            }
+        }
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -785,6 +1190,14 @@ public class UnisolatedReadWriteIndex implements IIndex, ILinearList,
 
     @Override
     public byte[] valueAt(final long index) {
+        final PublishedView view = ndx.acquirePublishedView();
+        if (view != null) {
+            try {
+                return view.btree.valueAt(index);
+            } finally {
+                view.release();
+            }
+        }
         final Lock lock = readLock();
         lock.lock();
         try {
@@ -27,8 +27,10 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.btree.proc;
 
+import com.bigdata.btree.AbstractBTree;
 import com.bigdata.btree.Errors;
 import com.bigdata.btree.IIndex;
+import com.bigdata.btree.SortedKeyLookup;
 import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedure.ResultBuffer;
 import com.bigdata.btree.raba.IRaba;
 import com.bigdata.btree.raba.codec.IRabaCoder;
@@ -116,22 +118,38 @@ public class BatchLookup extends AbstractKeyArrayIndexProcedure<ResultBuffer> im
     
     /**
      * @return {@link ResultBuffer}
+     * 
+     * @see SortedKeyLookup
      */
     @Override
     public ResultBuffer applyOnce(final IIndex ndx, final IRaba keys, final IRaba vals) {
 
         final int n = keys.size();
         
-        final byte[][] ret = new byte[n][];
-        
-        int i = 0;
+        final byte[][] ret;
         
-        while (i < n) {
-
-            ret[i] = ndx.lookup(keys.get(i));
+        if (ndx instanceof AbstractBTree) {
 
-            i++;
+            /*
+             * The keys are ordered, so walk them against a leaf cursor rather
+             * than descending from the root for each key.
+             */
+            ret = SortedKeyLookup.lookup((AbstractBTree) ndx, keys);
+            
+        } else {
 
+            ret = new byte[n][];
+            
+            int i = 0;
+            
+            while (i < n) {
+    
+                ret[i] = ndx.lookup(keys.get(i));
+    
+                i++;
+    
+            }
+            
         }
         
         return new ResultBuffer(n, ret, ndx.getIndexMetadata()
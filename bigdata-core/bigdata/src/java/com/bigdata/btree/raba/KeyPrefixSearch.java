@@ -0,0 +1,309 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.btree.raba;
+
+import java.util.Iterator;
+
+import com.bigdata.btree.raba.codec.ICodedRaba;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * Search helper for a read-only {@link IRaba} of B+Tree keys. The keys are
+ * decoded once and the first 8 bytes of each key following the prefix shared
+ * by all keys are packed into a <code>long[]</code>. A search first matches
+ * the shared prefix and then does a binary search on the <code>long[]</code>
+ * using primitive comparisons. The keys themselves are only consulted when
+ * the probe ties with one or more of the packed words.
+ * <p>
+ * This is most useful for coded keys (see {@link ICodedRaba}), where
+ * {@link IRaba#search(byte[])} must decode the keys as it goes, and for long
+ * keys which share a common leading prefix within a node, such as the keys of
+ * the statement indices.
+ * <p>
+ * The packed words are ordered consistently with the keys. Keys shorter than
+ * the prefix plus 8 bytes are padded with zeros, so a key and its extension
+ * with trailing zero bytes have the same word. Since the order is not strict,
+ * ties are always resolved against the keys.
+ * <p>
+ * Instances are immutable and may be shared by concurrent readers.
+ */
+public class KeyPrefixSearch {
+
+    /**
+     * The minimum #of keys for which an instance should be used. Smaller
+     * key arrays are searched directly.
+     */
+    public static final int MIN_KEYS = 16;
+
+    /**
+     * The keys.
+     */
+    private final IRaba keys;
+
+    /**
+     * The #of keys.
+     */
+    private final int nkeys;
+
+    /**
+     * The leading bytes shared by all keys.
+     */
+    private final byte[] prefix;
+
+    /**
+     * The 8 bytes following the shared prefix for each key as a big-endian
+     * long with the sign bit flipped, so signed comparison of the words is
+     * unsigned comparison of the bytes.
+     */
+    private final long[] words;
+
+    /**
+     * @param keys
+     *            The keys, which must be read-only.
+     */
+    public KeyPrefixSearch(final IRaba keys) {
+
+        if (keys == null)
+            throw new IllegalArgumentException();
+
+        if (!keys.isKeys() || !keys.isReadOnly())
+            throw new IllegalArgumentException();
+
+        this.keys = keys;
+
+        this.nkeys = keys.size();
+
+        this.words = new long[nkeys];
+
+        if (nkeys == 0) {
+
+            this.prefix = new byte[0];
+
+            return;
+
+        }
+
+        final Iterator<byte[]> itr = keys.iterator();
+
+        final byte[] first = itr.next();
+
+        final int prefixLength = nkeys == 1 ? first.length : BytesUtil
+                .getPrefixLength(first, keys.get(nkeys - 1));
+
+        this.prefix = new byte[prefixLength];
+
+        System.arraycopy(first, 0, prefix, 0, prefixLength);
+
+        words[0] = word(first, prefixLength);
+
+        for (int i = 1; i < nkeys; i++) {
+
+            words[i] = word(itr.next(), prefixLength);
+
+        }
+
+    }
+
+    /**
+     * The keys.
+     */
+    public IRaba getKeys() {
+
+        return keys;
+
+    }
+
+    /**
+     * Return the 8 bytes of the key starting at the offset as a big-endian
+     * long with the sign bit flipped. Missing bytes are treated as zeros.
+     */
+    static long word(final byte[] key, final int off) {
+
+        long w = 0L;
+
+        for (int i = off; i < off + 8; i++) {
+
+            w <<= 8;
+
+            if (i < key.length) {
+
+                w |= key[i] & 0xFF;
+
+            }
+
+        }
+
+        return w ^ Long.MIN_VALUE;
+
+    }
+
+    /**
+     * Search for the key. The semantics are those of
+     * {@link IRaba#search(byte[])}.
+     * 
+     * @param searchKey
+     *            The probe key.
+     * 
+     * @return The index of the key if found, otherwise
+     *         <code>(-(insertion point) - 1)</code>.
+     */
+    public int search(final byte[] searchKey) {
+
+        if (searchKey == null)
+            throw new IllegalArgumentException("searchKey is null");
+
+        if (nkeys == 0) {
+
+            return -1;
+
+        }
+
+        /*
+         * Match the shared prefix.
+         */
+
+        final int prefixLength = prefix.length;
+
+        final int compareLen = Math.min(searchKey.length, prefixLength);
+
+        final int ret = BytesUtil.compareBytesWithLenAndOffset(//
+                0, compareLen, searchKey,//
+                0, compareLen, prefix//
+                );
+
+        if (ret < 0) {
+
+            /* insert before the first key. */
+            return -1;
+
+        } else if (ret > 0) {
+
+            /* insert after the last key. */
+            return -(nkeys) - 1;
+
+        }
+
+        if (searchKey.length < prefixLength) {
+
+            /* a proper prefix of the first key. */
+            return -1;
+
+        }
+
+        /*
+         * Find the range of keys whose word ties with the probe.
+         */
+
+        final long w = word(searchKey, prefixLength);
+
+        // The first index whose word is GTE the probe.
+        int low = 0;
+
+        int high = nkeys;
+
+        while (low < high) {
+
+            final int mid = (low + high) >>> 1;
+
+            if (words[mid] < w) {
+
+                low = mid + 1;
+
+            } else {
+
+                high = mid;
+
+            }
+
+        }
+
+        if (low == nkeys || words[low] != w) {
+
+            // No tie, so the key is not found.
+            return -(low + 1);
+
+        }
+
+        // The first index whose word is GT the probe.
+        int end = low + 1;
+
+        high = nkeys;
+
+        while (end < high) {
+
+            final int mid = (end + high) >>> 1;
+
+            if (words[mid] == w) {
+
+                end = mid + 1;
+
+            } else {
+
+                high = mid;
+
+            }
+
+        }
+
+        // The last index whose word ties with the probe.
+        high = end - 1;
+
+        /*
+         * Binary search on the keys which tie with the probe.
+         */
+
+        while (low <= high) {
+
+            final int mid = (low + high) >>> 1;
+
+            final int cmp = BytesUtil.compareBytes(keys.get(mid), searchKey);
+
+            if (cmp < 0) {
+
+                low = mid + 1;
+
+            } else if (cmp > 0) {
+
+                high = mid - 1;
+
+            } else {
+
+                // Found: return offset.
+                return mid;
+
+            }
+
+        }
+
+        // Not found: return insertion point.
+        return -(low + 1);
+
+    }
+
+}
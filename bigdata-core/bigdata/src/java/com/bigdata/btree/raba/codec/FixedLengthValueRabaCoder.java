@@ -304,7 +304,8 @@ public class FixedLengthValueRabaCoder implements IRabaCoder, Externalizable {
      * @author <a href="mailto:thompsonbry@users.sourceforge.net">Bryan Thompson</a>
      * @version $Id$
      */
-    private static class CodedRabaImpl extends AbstractCodedRaba {
+    private static class CodedRabaImpl extends AbstractCodedRaba implements
+            IZeroCopyRaba {
 
         /**
          * The byte length of each non-null entry (from the constructor on the
@@ -463,6 +464,16 @@ public class FixedLengthValueRabaCoder implements IRabaCoder, Externalizable {
 
         }
 
+        @Override
+        public int offset(final int index) {
+
+            if (isNull(index))
+                throw new NullPointerException();
+
+            return data.off() + O_values + index * len;
+
+        }
+
         @Override
         public int copy(final int index, final OutputStream os) {
 
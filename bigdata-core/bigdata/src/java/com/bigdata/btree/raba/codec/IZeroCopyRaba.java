@@ -0,0 +1,63 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.btree.raba.codec;
+
+import com.bigdata.btree.raba.IRaba;
+
+/**
+ * Interface for an {@link ICodedRaba} whose byte[]s are stored without
+ * transformation in the coded record, so each byte[] may be read in place from
+ * the backing array of {@link #data()} rather than being copied out using
+ * {@link IRaba#get(int)} or {@link IRaba#copy(int, java.io.OutputStream)}.
+ * <p>
+ * Note: The coded record is immutable. A slice of the backing array remains
+ * valid for as long as the caller holds a reference to the coded raba.
+ * 
+ * @see com.bigdata.btree.ITuple#getKeySlice()
+ * @see com.bigdata.btree.ITuple#getValueSlice()
+ */
+public interface IZeroCopyRaba extends ICodedRaba {
+
+    /**
+     * Return the offset of the byte[] at the given index in the backing array
+     * of {@link #data()}. The length of that byte[] is reported by
+     * {@link IRaba#length(int)}.
+     * 
+     * @param index
+     *            The index.
+     * 
+     * @return The offset in <code>data().array()</code>.
+     * 
+     * @throws NullPointerException
+     *             if the byte[] at that index is <code>null</code>.
+     * @throws IndexOutOfBoundsException
+     *             if the index is out of range.
+     */
+    int offset(int index);
+
+}
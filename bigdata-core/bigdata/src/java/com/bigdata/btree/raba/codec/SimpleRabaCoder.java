@@ -281,7 +281,8 @@ public class SimpleRabaCoder implements IRabaCoder, Externalizable {
      * @author <a href="mailto:thompsonbry@users.sourceforge.net">Bryan Thompson</a>
      * @version $Id$
      */
-    private static class CodedRabaImpl extends AbstractCodedRaba {
+    private static class CodedRabaImpl extends AbstractCodedRaba implements
+            IZeroCopyRaba {
 
         /**
          * The #of entries (cached).
@@ -499,6 +500,17 @@ public class SimpleRabaCoder implements IRabaCoder, Externalizable {
 
         }
 
+        @Override
+        public int offset(final int index) {
+
+            if (isNull(index))
+                throw new NullPointerException();
+
+            return data.off()
+                    + data.getInt(O_offsets + index * SIZEOF_OFFSET);
+
+        }
+
         @Override
         public int copy(final int index, final OutputStream os) {
 
@@ -11,6 +11,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
@@ -38,6 +39,7 @@ import com.bigdata.btree.ITupleIterator;
 import com.bigdata.btree.IndexInconsistentError;
 import com.bigdata.btree.IndexMetadata;
 import com.bigdata.btree.PO;
+import com.bigdata.btree.PageCache;
 import com.bigdata.btree.ReadWriteLockManager;
 import com.bigdata.btree.UnisolatedReadWriteIndex;
 import com.bigdata.btree.data.IAbstractNodeData;
@@ -336,6 +338,21 @@ abstract public class AbstractHTree implements ICounterSetAccess,
      */
     protected final IRawStore store;
 
+    /**
+     * The JVM-wide cache for the decoded page data records and
+     * <code>null</code> if that cache is disabled or if the index is
+     * transient.
+     * 
+     * @see PageCache
+     */
+    private final PageCache pageCache;
+
+    /**
+     * The {@link UUID} of the backing store iff the {@link #pageCache} is
+     * used.
+     */
+    private final UUID storeUUID;
+
     /**
      * When <code>true</code> the {@link AbstractHTree} does not permit
      * mutation.
@@ -1269,6 +1286,11 @@ abstract public class AbstractHTree implements ICounterSetAccess,
 //        
 //        }
 
+        // The JVM-wide page cache (if enabled) replaces the LRUNexus.
+        this.pageCache = PageCache.getPageCache(store);
+
+        this.storeUUID = pageCache == null ? null : store.getUUID();
+
         lockManager = ReadWriteLockManager.getLockManager(this);
 
         // Use at most this many threads for concurrent eviction.
@@ -2326,6 +2348,20 @@ abstract public class AbstractHTree implements ICounterSetAccess,
 //            
 //        }
         
+        if (pageCache != null) {
+
+            /*
+             * Put the coded data record into the page cache. This replaces
+             * any record cached for an address which was recycled by the RW
+             * store.
+             */
+
+            pageCache.put(storeUUID, addr,
+                    node.isLeaf() ? ((BucketPage) node).data
+                            : ((DirectoryPage) node).data);
+
+        }
+
         return addr;
 
     }
@@ -2390,6 +2426,23 @@ abstract public class AbstractHTree implements ICounterSetAccess,
 //            
 //        }
         
+        if (pageCache != null) {
+
+            final IAbstractNodeData data = pageCache.get(storeUUID, addr);
+
+            if (data != null) {
+
+                btreeCounters.pageCacheHits.increment();
+
+                // wrap the shared data record as a page.
+                return nodeSer.wrap(this, addr, data);
+
+            }
+
+            btreeCounters.pageCacheMisses.increment();
+
+        }
+
         final ByteBuffer tmp;
         {
 
@@ -2460,6 +2513,13 @@ abstract public class AbstractHTree implements ICounterSetAccess,
 //                
 //            }
 
+            if (pageCache != null) {
+
+                // share the decoded data record.
+                pageCache.put(storeUUID, addr, data);
+
+            }
+
             // wrap as Node or Leaf.
             final AbstractPage node = nodeSer.wrap(this, addr, data);
 
@@ -2731,6 +2791,13 @@ abstract public class AbstractHTree implements ICounterSetAccess,
 		if (isReadOnly())
 			throw new IllegalStateException(ERROR_READ_ONLY);
 
+		if (pageCache != null) {
+
+			// The address may be reissued by the store.
+			pageCache.remove(storeUUID, addr);
+
+		}
+
 		getStore().delete(addr);
 
 		final int nbytes = getStore().getByteCount(addr);
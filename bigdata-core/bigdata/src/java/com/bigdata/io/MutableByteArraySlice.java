@@ -0,0 +1,123 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.io;
+
+import java.util.Arrays;
+
+/**
+ * A mutable {@link IByteArraySlice}. Instances are reused to expose successive
+ * slices of one or more backing byte[]s without allocating a new object for
+ * each slice. Unlike {@link ByteArrayBuffer#len()}, {@link #len()} is always
+ * the #of bytes in the slice.
+ */
+public class MutableByteArraySlice implements IByteArraySlice {
+
+    private byte[] a;
+
+    private int off;
+
+    private int len;
+
+    /**
+     * An empty slice.
+     */
+    public MutableByteArraySlice() {
+
+        this.a = new byte[0];
+
+    }
+
+    /**
+     * Set the slice.
+     * 
+     * @param a
+     *            The backing byte[].
+     * @param off
+     *            The start of the slice in that byte[].
+     * @param len
+     *            The length of the slice.
+     * 
+     * @return This slice.
+     */
+    public MutableByteArraySlice set(final byte[] a, final int off,
+            final int len) {
+
+        if (a == null)
+            throw new IllegalArgumentException();
+
+        if (off < 0 || len < 0 || off + len > a.length)
+            throw new IllegalArgumentException();
+
+        this.a = a;
+
+        this.off = off;
+
+        this.len = len;
+
+        return this;
+
+    }
+
+    @Override
+    final public byte[] array() {
+
+        return a;
+
+    }
+
+    @Override
+    final public int off() {
+
+        return off;
+
+    }
+
+    @Override
+    final public int len() {
+
+        return len;
+
+    }
+
+    @Override
+    public byte[] toByteArray() {
+
+        return Arrays.copyOfRange(a, off, off + len);
+
+    }
+
+    @Override
+    public String toString() {
+
+        return getClass().getSimpleName() + "{off=" + off + ",len=" + len
+                + "}";
+
+    }
+
+}
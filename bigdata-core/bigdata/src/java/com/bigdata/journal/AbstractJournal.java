@@ -80,6 +80,7 @@ import com.bigdata.btree.ITuple;
 import com.bigdata.btree.ITupleIterator;
 import com.bigdata.btree.IndexInconsistentError;
 import com.bigdata.btree.IndexMetadata;
+import com.bigdata.btree.PageCache;
 import com.bigdata.btree.keys.ICUVersionRecord;
 import com.bigdata.btree.view.FusedView;
 import com.bigdata.cache.ConcurrentWeakValueCache;
@@ -1936,19 +1937,20 @@ public abstract class AbstractJournal implements IJournal/* , ITimestampService
             txLog.info("CLOSE-JOURNAL: uuid=" + getUUID() + ", file="
                     + getFile());
 
-//		if (LRUNexus.INSTANCE != null) {
-//
-//			try {
-//
-//				LRUNexus.INSTANCE.deleteCache(getUUID());
-//
-//			} catch (Throwable t) {
-//
-//				log.error(t, t);
-//
-//			}
-//
-//		}
+		if (PageCache.INSTANCE != null) {
+
+			try {
+
+				// Discard the cached pages for this store.
+				PageCache.INSTANCE.clear(getUUID());
+
+			} catch (Throwable t) {
+
+				log.error(t, t);
+
+			}
+
+		}
 
 		if (deleteOnClose) {
 
@@ -1988,20 +1990,19 @@ public abstract class AbstractJournal implements IJournal/* , ITimestampService
 
 			bufferStrategy.deleteResources();
 
-//          @see BLZG-1501 (remove LRUNexus)
-//			if (LRUNexus.INSTANCE != null) {
-//
-//				try {
-//
-//					LRUNexus.INSTANCE.deleteCache(getUUID());
-//
-//				} catch (Throwable t) {
-//
-//					log.error(t, t);
-//
-//				}
-//
-//			}
+			if (PageCache.INSTANCE != null) {
+
+				try {
+
+					PageCache.INSTANCE.clear(getUUID());
+
+				} catch (Throwable t) {
+
+					log.error(t, t);
+
+				}
+
+			}
 
 		}
 
@@ -2820,29 +2821,18 @@ public abstract class AbstractJournal implements IJournal/* , ITimestampService
 
 			txLog.info("ABORT");
 
-//          @see BLZG-1501 (remove LRUNexus)
-//			if (LRUNexus.INSTANCE != null) {
-//
-//				/*
-//				 * Discard the LRU for this store. It may contain writes which
-//				 * have been discarded. The same addresses may be reissued by
-//				 * the WORM store after an abort, which could lead to incorrect
-//				 * reads from a dirty cache.
-//				 * 
-//				 * FIXME An optimization would essentially isolate the writes on
-//				 * the cache per BTree or between commits. At the commit point,
-//				 * the written records would be migrated into the "committed"
-//				 * cache for the store. The caller would read on the uncommitted
-//				 * cache, which would read through to the "committed" cache.
-//				 * This would prevent incorrect reads without requiring us to
-//				 * throw away valid records in the cache. This could be a
-//				 * significant performance gain if aborts are common on a
-//				 * machine with a lot of RAM.
-//				 */
-//
-//				LRUNexus.getCache(this).clear();
-//
-//			}
+			if (PageCache.INSTANCE != null) {
+
+				/*
+				 * Discard the cached pages for this store. The cache may
+				 * contain writes which have been discarded. The same addresses
+				 * may be reissued by the WORM store after an abort, which could
+				 * lead to incorrect reads from a dirty cache.
+				 */
+
+				PageCache.INSTANCE.clear(getUUID());
+
+			}
 			
 			invalidateCommitters();
 
@@ -255,6 +255,21 @@ public class Journal extends AbstractJournal implements IConcurrencyManager,
         String READ_POOL_SIZE = Journal.class.getName() + ".readPoolSize";
 
         String DEFAULT_READ_POOL_SIZE = "0";
+
+        /**
+         * The #of leaves which a {@link com.bigdata.btree.BTree} tuple cursor
+         * will read ahead of its current position (default
+         * {@value #DEFAULT_READ_AHEAD_LEAVES}). The reads for the next leaves
+         * in the parent node are issued in parallel using the
+         * {@link Journal#getReadExecutor()}, so this option has no effect
+         * unless {@link #READ_POOL_SIZE} is positive. Use ZERO (0) to disable
+         * read-ahead.
+         * 
+         * @see Journal#getReadAheadLeaves()
+         */
+        String READ_AHEAD_LEAVES = Journal.class.getName() + ".readAheadLeaves";
+
+        String DEFAULT_READ_AHEAD_LEAVES = "4";
         
     }
     
@@ -315,6 +330,10 @@ public class Journal extends AbstractJournal implements IConcurrencyManager,
                 
             }
 
+            readAheadLeaves = Integer.valueOf(properties.getProperty(
+                    Options.READ_AHEAD_LEAVES,
+                    Options.DEFAULT_READ_AHEAD_LEAVES));
+
         }
 
         resourceLocator = newResourceLocator();
@@ -3989,6 +4008,20 @@ public class Journal extends AbstractJournal implements IConcurrencyManager,
     }
     private final LatchedExecutor readService;
 
+    /**
+     * The #of leaves which a tuple cursor will read ahead of its current
+     * position using the {@link #getReadExecutor()} (read-ahead is disabled if
+     * there is no read executor).
+     * 
+     * @see Options#READ_AHEAD_LEAVES
+     */
+    public int getReadAheadLeaves() {
+
+        return readAheadLeaves;
+
+    }
+    private final int readAheadLeaves;
+
     /*
      * Warm-up Journal.
      */
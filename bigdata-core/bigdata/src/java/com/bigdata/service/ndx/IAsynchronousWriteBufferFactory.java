@@ -49,7 +49,8 @@ import com.bigdata.service.ndx.pipeline.KVOC;
 import com.bigdata.service.ndx.pipeline.KVOLatch;
 
 /**
- * Interface for asynchronous writes on scale-out indices. 
+ * Interface for asynchronous writes on scale-out indices and on the
+ * {@link UnisolatedReadWriteIndex} view of a local B+Tree.
  * 
  * @author <a href="mailto:thompsonbry@users.sourceforge.net">Bryan Thompson</a>
  * @version $Id$
@@ -124,16 +125,10 @@ public interface IAsynchronousWriteBufferFactory {
      * 
      * @see AbstractFederation#getIndexCounters(String)
      * 
-     * @todo The async API is only defined at this time for scale-out index
-     *       views. An asynchronous write API could be defined for local
-     *       B+Trees. It would have to ensure locks using the
-     *       {@link UnisolatedReadWriteIndex}. It would not use the same
-     *       layering since writes could not be scattered. It could be written
-     *       as a single blocking buffer which was drained by the CTOR for the
-     *       operation. If we combine the two buffer capacity parameters into a
-     *       single parameter, then this method signature could be used for both
-     *       local and scale-out index views. This method could then be moved to
-     *       an IAsynchronousIndexWriter interface.
+     * @see UnisolatedReadWriteIndex, which implements this API for local
+     *      B+Trees using a single blocking buffer which is drained by the CTOR
+     *      for the operation (writes are not scattered across index
+     *      partitions).
      */
     public <T extends IKeyArrayIndexProcedure, O, R, A> IRunnableBuffer<KVO<O>[]> newWriteBuffer(
             final IResultHandler<R, A> resultHandler,
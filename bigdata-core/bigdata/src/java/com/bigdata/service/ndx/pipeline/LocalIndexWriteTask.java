@@ -0,0 +1,294 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.service.ndx.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.bigdata.btree.AsynchronousIndexWriteConfiguration;
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.UnisolatedReadWriteIndex;
+import com.bigdata.btree.keys.KVO;
+import com.bigdata.btree.proc.AbstractKeyArrayIndexProcedureConstructor;
+import com.bigdata.btree.proc.IAsyncResultHandler;
+import com.bigdata.btree.proc.IKeyArrayIndexProcedure;
+import com.bigdata.btree.proc.IResultHandler;
+import com.bigdata.relation.accesspath.BlockingBuffer;
+import com.bigdata.relation.accesspath.IAsynchronousIterator;
+import com.bigdata.service.Split;
+import com.bigdata.util.DaemonThreadFactory;
+
+/**
+ * Drains an asynchronous write buffer onto a local index. This is the
+ * analogue of {@link IndexWriteTask} for an index which is not partitioned:
+ * there is no scatter of the chunks across index partitions and hence no
+ * sinks. The ordered chunks are combined by the {@link BlockingBuffer}, the
+ * duplicates are removed, and each chunk is applied to the index by the index
+ * procedure. The results are aggregated (including
+ * {@link IAsyncResultHandler#aggregateAsync(KVO[], Object, Split)}) and
+ * {@link KVO#done()} is invoked for each element of the chunk, exactly as for
+ * the scale-out index views.
+ * <p>
+ * Concurrent writers on an unisolated index are serialized by the write lock
+ * of the {@link UnisolatedReadWriteIndex}. Each chunk is applied while holding
+ * that lock, so the writes for different buffers on the same index interleave
+ * at chunk boundaries. The writes are not restart safe until the caller
+ * commits.
+ * 
+ * @param <T>
+ *            The generic type of the procedure used to write on the index.
+ * @param <O>
+ *            The generic type for unserialized value objects.
+ * @param <R>
+ *            The type of the result from applying the index procedure to a
+ *            chunk.
+ * @param <A>
+ *            The type of the aggregated result.
+ * 
+ * @see UnisolatedReadWriteIndex#newWriteBuffer(IResultHandler,
+ *      IDuplicateRemover, AbstractKeyArrayIndexProcedureConstructor)
+ */
+public class LocalIndexWriteTask<T extends IKeyArrayIndexProcedure, O, R, A>
+        implements Callable<Long> {
+
+    private static final transient Logger log = Logger
+            .getLogger(LocalIndexWriteTask.class);
+
+    /**
+     * Runs the consumers for the local asynchronous write buffers. There is
+     * one thread per open buffer.
+     */
+    private static final ExecutorService service = Executors
+            .newCachedThreadPool(new DaemonThreadFactory(
+                    LocalIndexWriteTask.class.getName()));
+
+    private final IIndex ndx;
+
+    private final IResultHandler<R, A> resultHandler;
+
+    private final IDuplicateRemover<O> duplicateRemover;
+
+    private final AbstractKeyArrayIndexProcedureConstructor<T> ctor;
+
+    private final BlockingBuffer<KVO<O>[]> buffer;
+
+    private final IAsynchronousIterator<KVO<O>[]> src;
+
+    /**
+     * Create and start an asynchronous write buffer for a local index.
+     * 
+     * @param ndx
+     *            The index. The index must be thread-safe for writers (e.g.,
+     *            an {@link UnisolatedReadWriteIndex}).
+     * @param resultHandler
+     *            Used to aggregate results (optional).
+     * @param duplicateRemover
+     *            Used to filter out duplicates (optional).
+     * @param ctor
+     *            Used to create the procedure which writes each chunk on the
+     *            index.
+     * 
+     * @return The buffer on which the producers write their chunks. The
+     *         {@link BlockingBuffer#getFuture()} evaluates to the #of elements
+     *         written on the index once the buffer is closed and drained.
+     */
+    public static <T extends IKeyArrayIndexProcedure, O, R, A> BlockingBuffer<KVO<O>[]> newWriteBuffer(
+            final IIndex ndx, final IResultHandler<R, A> resultHandler,
+            final IDuplicateRemover<O> duplicateRemover,
+            final AbstractKeyArrayIndexProcedureConstructor<T> ctor) {
+
+        final AsynchronousIndexWriteConfiguration conf = ndx
+                .getIndexMetadata().getAsynchronousIndexWriteConfiguration();
+
+        final BlockingBuffer<KVO<O>[]> writeBuffer = new BlockingBuffer<KVO<O>[]>(
+                new ArrayBlockingQueue<KVO<O>[]>(conf.getMasterQueueCapacity()),
+                conf.getMasterChunkSize(),//
+                conf.getMasterChunkTimeoutNanos(),//
+                TimeUnit.NANOSECONDS,//
+                true// ordered
+        );
+
+        final LocalIndexWriteTask<T, O, R, A> task = new LocalIndexWriteTask<T, O, R, A>(
+                ndx, resultHandler, duplicateRemover, ctor, writeBuffer);
+
+        final FutureTask<Long> ft = new FutureTask<Long>(task);
+
+        writeBuffer.setFuture(ft);
+
+        service.execute(ft);
+
+        return writeBuffer;
+
+    }
+
+    private LocalIndexWriteTask(final IIndex ndx,
+            final IResultHandler<R, A> resultHandler,
+            final IDuplicateRemover<O> duplicateRemover,
+            final AbstractKeyArrayIndexProcedureConstructor<T> ctor,
+            final BlockingBuffer<KVO<O>[]> buffer) {
+
+        if (ndx == null)
+            throw new IllegalArgumentException();
+
+        if (ctor == null)
+            throw new IllegalArgumentException();
+
+        this.ndx = ndx;
+
+        this.resultHandler = resultHandler;
+
+        this.duplicateRemover = duplicateRemover;
+
+        this.ctor = ctor;
+
+        this.buffer = buffer;
+
+        this.src = buffer.iterator();
+
+    }
+
+    /**
+     * Drain the buffer until it is closed and exhausted.
+     * 
+     * @return The #of elements written on the index.
+     */
+    @Override
+    public Long call() throws Exception {
+
+        long elementsOut = 0L;
+
+        try {
+
+            while (src.hasNext()) {
+
+                elementsOut += handleChunk(src.next());
+
+            }
+
+        } catch (Throwable t) {
+
+            // Prevent the producers from blocking.
+            buffer.abort(t);
+
+            if (t instanceof Exception)
+                throw (Exception) t;
+
+            throw new RuntimeException(t);
+
+        }
+
+        if (log.isInfoEnabled())
+            log.info("Done: index=" + ndx.getIndexMetadata().getName()
+                    + ", elementsOut=" + elementsOut);
+
+        return elementsOut;
+
+    }
+
+    /**
+     * Write a chunk on the index.
+     * 
+     * @return The #of elements written.
+     */
+    private int handleChunk(final KVO<O>[] sourceChunk) {
+
+        // filter out duplicates.
+        final KVO<O>[] chunk = duplicateRemover == null ? sourceChunk
+                : duplicateRemover.filter(sourceChunk);
+
+        final int chunkSize = chunk.length;
+
+        if (chunkSize == 0)
+            return 0;
+
+        final boolean sendValues = ctor.sendValues();
+
+        final byte[][] keys = new byte[chunkSize][];
+
+        final byte[][] vals = sendValues ? new byte[chunkSize][] : null;
+
+        for (int i = 0; i < chunkSize; i++) {
+
+            keys[i] = chunk[i].key;
+
+            if (sendValues)
+                vals[i] = chunk[i].val;
+
+        }
+
+        /*
+         * Note: The results are aggregated by a handler which also has access
+         * to the chunk so the IAsyncResultHandler can be notified.
+         */
+        ndx.submit(0/* fromIndex */, chunkSize/* toIndex */, keys, vals, ctor,
+                new IResultHandler<R, Void>() {
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public void aggregate(final R result, final Split split) {
+
+                        if (resultHandler == null)
+                            return;
+
+                        resultHandler.aggregate(result, split);
+
+                        if (resultHandler instanceof IAsyncResultHandler) {
+
+                            ((IAsyncResultHandler<R, A, O, KVO<O>>) resultHandler)
+                                    .aggregateAsync(chunk, result, split);
+
+                        }
+
+                    }
+
+                    @Override
+                    public Void getResult() {
+
+                        return null;
+
+                    }
+
+                });
+
+        for (int i = 0; i < chunkSize; i++) {
+
+            chunk[i].done();
+
+        }
+
+        return chunkSize;
+
+    }
+
+}
@@ -101,6 +101,9 @@ public class TestAll extends TestCase {
         
         // test suite for encode/decode of date time literals
         suite.addTestSuite(TestEncodeDecodeXSDDateIVs.class);
+
+        // test suite for xsd:date and xsd:gYear ordinals
+        suite.addTestSuite(TestEncodeDecodeDateOrdinalIVs.class);
         
         // test suite for GeoSpatial utility
         suite.addTestSuite(TestZOrderRangeScanUtility.class);
@@ -108,6 +111,9 @@ public class TestAll extends TestCase {
         // test suite for encode/decode of xsd:decimal IVs
         suite.addTestSuite(TestEncodeDecodeXSDDecimalIVs.class);
 
+        // test suite for fixed-point xsd:decimal IVs
+        suite.addTestSuite(TestEncodeDecodeFixedDecimalIVs.class);
+
         /*
          * Test suite for encode/decode of IVs which inline Unicode data.
          * 
@@ -174,6 +180,9 @@ public class TestAll extends TestCase {
         //Inline URI Handlers
         suite.addTestSuite(TestInlineURIHandlers.class);
         
+        // Analysis of the lexicon for inlinable URIs.
+        suite.addTestSuite(TestInlineURIAnalyzer.class);
+        
         //Test handlers for packing multiple inline URI handlers into a single
         //namespace.
         suite.addTestSuite(TestInlineLocalNameIntegerURIHandler.class);
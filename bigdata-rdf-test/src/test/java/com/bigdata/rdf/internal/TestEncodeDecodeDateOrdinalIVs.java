@@ -0,0 +1,208 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal;
+
+import org.openrdf.model.URI;
+
+import com.bigdata.rdf.internal.impl.extensions.DateOrdinalExtension;
+import com.bigdata.rdf.internal.impl.literal.LiteralExtensionIV;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.BigdataValueFactoryImpl;
+
+/**
+ * Unit tests for the {@link DateOrdinalExtension}.
+ */
+public class TestEncodeDecodeDateOrdinalIVs extends
+        AbstractEncodeDecodeKeysTestCase {
+
+    public TestEncodeDecodeDateOrdinalIVs() {
+    }
+
+    public TestEncodeDecodeDateOrdinalIVs(final String name) {
+        super(name);
+    }
+
+    private BigdataValueFactory vf;
+
+    private DateOrdinalExtension<BigdataValue> ext;
+
+    @Override
+    protected void setUp() throws Exception {
+
+        super.setUp();
+
+        vf = BigdataValueFactoryImpl.getInstance(getName());
+
+        ext = new DateOrdinalExtension<BigdataValue>(
+                new IDatatypeURIResolver() {
+                    @Override
+                    public BigdataURI resolve(final URI uri) {
+                        final BigdataURI buri = vf.createURI(uri.stringValue());
+                        buri.setIV(newTermId(VTE.URI));
+                        return buri;
+                    }
+                });
+
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+
+        if (vf != null) {
+            vf.remove();
+            vf = null;
+        }
+
+        ext = null;
+
+        super.tearDown();
+
+    }
+
+    /**
+     * Verify that the literals are inlined, that they are recovered exactly,
+     * that the IVs round trip through the keys and that the keys are in the
+     * same order as the values (the literals are given in ascending order).
+     */
+    private void doRoundTripTest(final BigdataLiteral[] dt) {
+
+        final IV<?, ?>[] e = new IV[dt.length];
+
+        for (int i = 0; i < dt.length; i++) {
+
+            e[i] = ext.createIV(dt[i]);
+
+            assertNotNull(dt[i].toString(), e[i]);
+
+            @SuppressWarnings("rawtypes")
+            final BigdataValue valRoundTrip = ext.asValue(
+                    (LiteralExtensionIV) e[i], vf);
+
+            assertEquals(dt[i], valRoundTrip);
+
+            if (i > 0) {
+
+                assertTrue(dt[i].toString(), ((LiteralExtensionIV<?>) e[i - 1])
+                        .getDelegate().intValue() < ((LiteralExtensionIV<?>) e[i])
+                        .getDelegate().intValue());
+
+            }
+
+        }
+
+        doEncodeDecodeTest(e);
+
+        doComparatorTest(e);
+
+    }
+
+    /**
+     * Unit test for xsd:date literals.
+     */
+    public void test_encodeDecodeDate() {
+
+        doRoundTripTest(new BigdataLiteral[] {
+                vf.createLiteral("0001-01-01", XSD.DATE),
+                vf.createLiteral("1582-10-04", XSD.DATE),
+                vf.createLiteral("1582-10-15", XSD.DATE),
+                vf.createLiteral("1969-12-31", XSD.DATE),
+                vf.createLiteral("1970-01-01", XSD.DATE),
+                vf.createLiteral("2000-02-29", XSD.DATE),
+                vf.createLiteral("2000-03-01", XSD.DATE),
+                vf.createLiteral("9999-12-31", XSD.DATE) });
+
+    }
+
+    /**
+     * The ordinal for an xsd:date is the number of days since the epoch.
+     */
+    public void test_dateOrdinal() {
+
+        assertEquals(-1, ((LiteralExtensionIV<?>) ext.createIV(vf
+                .createLiteral("1969-12-31", XSD.DATE))).getDelegate()
+                .intValue());
+
+        assertEquals(0, ((LiteralExtensionIV<?>) ext.createIV(vf
+                .createLiteral("1970-01-01", XSD.DATE))).getDelegate()
+                .intValue());
+
+        assertEquals(16861, ((LiteralExtensionIV<?>) ext.createIV(vf
+                .createLiteral("2016-03-01", XSD.DATE))).getDelegate()
+                .intValue());
+
+    }
+
+    /**
+     * Unit test for xsd:gYear literals.
+     */
+    public void test_encodeDecodeGYear() {
+
+        doRoundTripTest(new BigdataLiteral[] {
+                vf.createLiteral("-12345", XSD.GYEAR),
+                vf.createLiteral("-0044", XSD.GYEAR),
+                vf.createLiteral("0800", XSD.GYEAR),
+                vf.createLiteral("1970", XSD.GYEAR),
+                vf.createLiteral("2016", XSD.GYEAR),
+                vf.createLiteral("12345", XSD.GYEAR) });
+
+    }
+
+    /**
+     * Literals which have a time zone or which are not in the canonical form
+     * are not inlined.
+     */
+    public void test_notInlined() {
+
+        final BigdataLiteral[] dt = new BigdataLiteral[] {
+                vf.createLiteral("2016-03-01Z", XSD.DATE),
+                vf.createLiteral("2016-03-01+01:00", XSD.DATE),
+                vf.createLiteral("2016-3-1", XSD.DATE),
+                vf.createLiteral("2001-02-29", XSD.DATE),
+                vf.createLiteral("2016-13-01", XSD.DATE),
+                vf.createLiteral("0000-01-01", XSD.DATE),
+                vf.createLiteral("2016-03-01T00:00:00", XSD.DATE),
+                vf.createLiteral("abc", XSD.DATE),
+                vf.createLiteral("2016Z", XSD.GYEAR),
+                vf.createLiteral("16", XSD.GYEAR),
+                vf.createLiteral("0000", XSD.GYEAR),
+                vf.createLiteral("02016", XSD.GYEAR),
+                vf.createLiteral("+2016", XSD.GYEAR) };
+
+        for (BigdataLiteral lit : dt) {
+
+            assertNull(lit.toString(), ext.createIV(lit));
+
+        }
+
+    }
+
+}
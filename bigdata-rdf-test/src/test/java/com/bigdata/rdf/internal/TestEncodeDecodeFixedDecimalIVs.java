@@ -0,0 +1,205 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal;
+
+import org.openrdf.model.URI;
+
+import com.bigdata.rdf.internal.impl.extensions.FixedDecimalExtension;
+import com.bigdata.rdf.internal.impl.literal.LiteralExtensionIV;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.BigdataValueFactoryImpl;
+
+/**
+ * Unit tests for the {@link FixedDecimalExtension}.
+ */
+public class TestEncodeDecodeFixedDecimalIVs extends
+        AbstractEncodeDecodeKeysTestCase {
+
+    public TestEncodeDecodeFixedDecimalIVs() {
+    }
+
+    public TestEncodeDecodeFixedDecimalIVs(final String name) {
+        super(name);
+    }
+
+    private BigdataValueFactory vf;
+
+    private IDatatypeURIResolver resolver;
+
+    @Override
+    protected void setUp() throws Exception {
+
+        super.setUp();
+
+        vf = BigdataValueFactoryImpl.getInstance(getName());
+
+        resolver = new IDatatypeURIResolver() {
+            @Override
+            public BigdataURI resolve(final URI uri) {
+                final BigdataURI buri = vf.createURI(uri.stringValue());
+                buri.setIV(newTermId(VTE.URI));
+                return buri;
+            }
+        };
+
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+
+        if (vf != null) {
+            vf.remove();
+            vf = null;
+        }
+
+        resolver = null;
+
+        super.tearDown();
+
+    }
+
+    /**
+     * Verify that the values are inlined, that the canonical form is
+     * recovered, that the IVs round trip through the keys and that the keys
+     * are in the same order as the values (given in ascending order).
+     */
+    public void test_encodeDecode() {
+
+        final FixedDecimalExtension<BigdataValue> ext = new FixedDecimalExtension<BigdataValue>(
+                resolver, 2/* scale */);
+
+        final String[] labels = new String[] { "-92233720368547758.08",
+                "-12.34", "-1", "0", "0.01", "1.5", "2", "10", "99999.99",
+                "92233720368547758.07" };
+
+        final IV<?, ?>[] e = new IV[labels.length];
+
+        for (int i = 0; i < labels.length; i++) {
+
+            final BigdataLiteral lit = vf.createLiteral(labels[i], XSD.DECIMAL);
+
+            e[i] = ext.createIV(lit);
+
+            assertNotNull(labels[i], e[i]);
+
+            @SuppressWarnings("rawtypes")
+            final BigdataValue valRoundTrip = ext.asValue(
+                    (LiteralExtensionIV) e[i], vf);
+
+            assertEquals(lit, valRoundTrip);
+
+            if (i > 0) {
+
+                assertTrue(labels[i], ((LiteralExtensionIV<?>) e[i - 1])
+                        .getDelegate().longValue() < ((LiteralExtensionIV<?>) e[i])
+                        .getDelegate().longValue());
+
+            }
+
+        }
+
+        doEncodeDecodeTest(e);
+
+        doComparatorTest(e);
+
+    }
+
+    /**
+     * Values which differ only in their trailing zeros have the same
+     * {@link IV} and are materialized in their canonical form.
+     */
+    public void test_trailingZeros() {
+
+        final FixedDecimalExtension<BigdataValue> ext = new FixedDecimalExtension<BigdataValue>(
+                resolver, 2/* scale */);
+
+        final LiteralExtensionIV<?> iv1 = ext.createIV(vf.createLiteral("1.5",
+                XSD.DECIMAL));
+
+        final LiteralExtensionIV<?> iv2 = ext.createIV(vf.createLiteral(
+                "1.500", XSD.DECIMAL));
+
+        assertEquals(iv1, iv2);
+
+        final LiteralExtensionIV<?> zero = ext.createIV(vf.createLiteral(
+                "0.000", XSD.DECIMAL));
+
+        assertNotNull(zero);
+
+        assertEquals(vf.createLiteral("0", XSD.DECIMAL), ext.asValue(zero, vf));
+
+    }
+
+    /**
+     * Values which would lose precision or which do not fit into a long at
+     * the configured scale are not handled by the extension.
+     */
+    public void test_notInlined() {
+
+        final FixedDecimalExtension<BigdataValue> ext = new FixedDecimalExtension<BigdataValue>(
+                resolver, 2/* scale */);
+
+        assertNull(ext.createIV(vf.createLiteral("0.001", XSD.DECIMAL)));
+
+        assertNull(ext.createIV(vf.createLiteral("1.015", XSD.DECIMAL)));
+
+        assertNull(ext.createIV(vf.createLiteral("92233720368547758.08",
+                XSD.DECIMAL)));
+
+        assertNull(ext.createIV(vf.createLiteral("100000000000000000000",
+                XSD.DECIMAL)));
+
+    }
+
+    /**
+     * The scale must be positive and not more than the maximum scale.
+     */
+    public void test_badScale() {
+
+        try {
+            new FixedDecimalExtension<BigdataValue>(resolver, 0);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            // ignore
+        }
+
+        try {
+            new FixedDecimalExtension<BigdataValue>(resolver,
+                    FixedDecimalExtension.MAX_SCALE + 1);
+            fail("Expecting: " + IllegalArgumentException.class);
+        } catch (IllegalArgumentException ex) {
+            // ignore
+        }
+
+    }
+
+}
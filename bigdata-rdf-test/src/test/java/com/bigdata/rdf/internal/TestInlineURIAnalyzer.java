@@ -0,0 +1,314 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.List;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.impl.URIImpl;
+
+import com.bigdata.rdf.internal.InlineURIAnalyzer.Candidate;
+import com.bigdata.rdf.internal.InlineURIAnalyzer.Pattern;
+
+/**
+ * Test suite for {@link InlineURIAnalyzer}.
+ */
+public class TestInlineURIAnalyzer extends TestCase2 {
+
+    public TestInlineURIAnalyzer() {
+    }
+
+    public TestInlineURIAnalyzer(final String name) {
+        super(name);
+    }
+
+    private static final String NS_A = "http://example.com/a/";
+
+    private static final String NS_B = "http://example.com/b/";
+
+    private static final String NS_C = "http://example.com/c/";
+
+    private static final String NS_D = "http://example.com/d/";
+
+    /**
+     * Run the local names through both passes of the analyzer.
+     */
+    private InlineURIAnalyzer analyze(final long minCount,
+            final String[][] data) {
+
+        final InlineURIAnalyzer a = new InlineURIAnalyzer(minCount);
+
+        for (int pass = 0; pass < 2; pass++) {
+
+            for (String[] t : data) {
+
+                final URIImpl uri = new URIImpl(t[0] + t[1]);
+
+                if (pass == 0)
+                    a.add(uri);
+                else
+                    a.validate(uri);
+
+            }
+
+            if (pass == 0)
+                a.endFirstPass();
+
+        }
+
+        return a;
+
+    }
+
+    private static String[][] names(final String ns, final String prefix,
+            final int width, final int from, final int to) {
+
+        final String[][] a = new String[to - from][];
+
+        for (int i = from; i < to; i++) {
+
+            a[i - from] = new String[] {
+                    ns,
+                    prefix
+                            + (width == 0 ? Integer.toString(i) : String
+                                    .format("%0" + width + "d", i)) };
+
+        }
+
+        return a;
+
+    }
+
+    private static String[][] concat(final String[][]... a) {
+
+        int n = 0;
+        for (String[][] t : a)
+            n += t.length;
+
+        final String[][] b = new String[n][];
+
+        int i = 0;
+        for (String[][] t : a)
+            for (String[] s : t)
+                b[i++] = s;
+
+        return b;
+
+    }
+
+    private static Candidate find(final List<Candidate> list,
+            final String ns) {
+
+        for (Candidate c : list) {
+
+            if (c.getNamespace().equals(ns))
+                return c;
+
+        }
+
+        return null;
+
+    }
+
+    public void test_prefixedInteger() {
+
+        final InlineURIAnalyzer a = analyze(5, names(NS_B, "Q", 0, 1, 21));
+
+        final List<Candidate> selected = a.getSelected();
+
+        assertEquals(1, selected.size());
+
+        final Candidate c = selected.get(0);
+
+        assertEquals(NS_B, c.getNamespace());
+        assertEquals(Pattern.PrefixedInteger, c.getPattern());
+        assertEquals("Q", c.getPrefix());
+        assertEquals(20L, c.getMatchedCount());
+        assertEquals(20L, c.getInlinedCount());
+        assertEquals(0L, c.getUnsafeCount());
+
+    }
+
+    public void test_fixedWidthInteger() {
+
+        final InlineURIAnalyzer a = analyze(5, names(NS_C, "", 6, 1, 21));
+
+        final Candidate c = find(a.getSelected(), NS_C);
+
+        assertNotNull(c);
+        assertEquals(Pattern.FixedWidthInteger, c.getPattern());
+        assertEquals(6, c.getWidth());
+        assertEquals(20L, c.getInlinedCount());
+
+    }
+
+    /**
+     * A zero padded local name would not be recovered by an integer handler,
+     * so the integer handler must be rejected for that namespace.
+     */
+    public void test_unsafe() {
+
+        final InlineURIAnalyzer a = analyze(5, concat(
+                names(NS_A, "", 0, 1, 21),
+                new String[][] { new String[] { NS_A, "007" } }));
+
+        for (Candidate c : a.getCandidates()) {
+
+            if (c.getPattern() == Pattern.SignedInteger) {
+
+                assertEquals(1L, c.getUnsafeCount());
+
+            }
+
+        }
+
+        final Candidate c = find(a.getSelected(), NS_A);
+
+        if (c != null) {
+
+            assertEquals(0L, c.getUnsafeCount());
+
+            assertFalse(c.getPattern() == Pattern.SignedInteger);
+
+        }
+
+    }
+
+    public void test_uuid() {
+
+        final String[][] data = new String[10][];
+
+        for (int i = 0; i < data.length; i++) {
+
+            data[i] = new String[] { NS_D,
+                    java.util.UUID.randomUUID().toString() };
+
+        }
+
+        final Candidate c = find(analyze(5, data).getSelected(), NS_D);
+
+        assertNotNull(c);
+        assertEquals(Pattern.UUID, c.getPattern());
+        assertEquals(10L, c.getInlinedCount());
+
+    }
+
+    public void test_minCount() {
+
+        final InlineURIAnalyzer a = analyze(100, names(NS_B, "Q", 0, 1, 21));
+
+        assertTrue(a.getSelected().isEmpty());
+
+    }
+
+    public void test_writeSources() throws IOException {
+
+        final InlineURIAnalyzer a = analyze(5, concat(
+                names(NS_B, "Q", 0, 1, 21), names(NS_C, "", 6, 1, 21)));
+
+        final StringWriter w = new StringWriter();
+
+        a.writeReport(w);
+
+        assertTrue(w.toString(), w.toString().contains("handlers=2"));
+
+        final File dir = File.createTempFile(getName(), "");
+
+        assertTrue(dir.delete());
+
+        try {
+
+            final String props = a.writeSources(dir, "com.example", "Test",
+                    "com.bigdata.rdf.vocab.DefaultBigdataVocabulary",
+                    InlineURIFactory.class.getName());
+
+            assertTrue(props, props.contains("com.example.TestVocabulary"));
+
+            assertTrue(props,
+                    props.contains("com.example.TestInlineURIFactory"));
+
+            final File pkg = new File(dir, "com" + File.separator
+                    + "example");
+
+            assertTrue(new File(pkg, "TestVocabularyDecl.java").exists());
+
+            final String vocab = new String(Files.readAllBytes(new File(pkg,
+                    "TestVocabulary.java").toPath()), "UTF-8");
+
+            // The declarations of the base class must come first.
+            assertTrue(vocab, vocab.indexOf("super.addValues();") >= 0);
+
+            assertTrue(vocab, vocab.indexOf("super.addValues();") < vocab
+                    .indexOf("addDecl(new TestVocabularyDecl());"));
+
+            final String src = new String(Files.readAllBytes(new File(pkg,
+                    "TestInlineURIFactory.java").toPath()), "UTF-8");
+
+            assertTrue(src, src.contains("new InlinePrefixedIntegerURIHandler(\""
+                    + NS_B + "\", \"Q\")"));
+
+            assertTrue(src, src.contains("new InlineFixedWidthIntegerURIHandler(\""
+                    + NS_C + "\", 6)"));
+
+        } finally {
+
+            recursiveDelete(dir);
+
+        }
+
+    }
+
+    private static void recursiveDelete(final File f) {
+
+        final File[] children = f.listFiles();
+
+        if (children != null) {
+
+            for (File child : children)
+                recursiveDelete(child);
+
+        }
+
+        f.delete();
+
+    }
+
+    public void test_quote() {
+
+        assertEquals("\"a\\\"b\\\\c\\u00e9\"",
+                InlineURIAnalyzer.quote("a\"b\\c\u00e9"));
+
+    }
+
+}
@@ -105,6 +105,15 @@ public class TestAll extends TestCase {
         // test suite for the IV cache, including serialization of cached vals.
         suite.addTestSuite(TestIVCache.class);
 
+        // test suite for the W-TinyLFU term cache.
+        suite.addTestSuite(TestTinyLFUTermCache.class);
+
+        // test suite for the off-heap cache of serialized values.
+        suite.addTestSuite(TestOffHeapTermCache.class);
+
+        // test suite for the compiled (front-coded) dictionary.
+        suite.addTestSuite(TestFrontCodedDictionary.class);
+
         // test suite for access paths reading on the TERMS index.
         suite.addTestSuite(TestAccessPaths.class);
         
@@ -0,0 +1,265 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.btree.BTree;
+import com.bigdata.btree.IndexMetadata;
+import com.bigdata.rawstore.SimpleMemoryRawStore;
+import com.bigdata.util.BytesUtil;
+
+/**
+ * Test suite for {@link FrontCodedDictionary}.
+ */
+public class TestFrontCodedDictionary extends TestCase2 {
+
+    public TestFrontCodedDictionary() {
+    }
+
+    public TestFrontCodedDictionary(final String name) {
+        super(name);
+    }
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+
+        super.setUp();
+
+        file = File.createTempFile(getName(), FrontCodedDictionary.EXT);
+
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+
+        if (file != null) {
+
+            file.delete();
+
+            file = null;
+
+        }
+
+        super.tearDown();
+
+    }
+
+    /**
+     * Return a B+Tree containing the entries in the map.
+     */
+    private BTree getBTree(final TreeMap<byte[], byte[]> m) {
+
+        final BTree btree = BTree.create(new SimpleMemoryRawStore(),
+                new IndexMetadata(UUID.randomUUID()));
+
+        for (java.util.Map.Entry<byte[], byte[]> e : m.entrySet()) {
+
+            btree.insert(e.getKey(), e.getValue());
+
+        }
+
+        return btree;
+
+    }
+
+    /**
+     * Return random entries whose keys share prefixes.
+     */
+    private TreeMap<byte[], byte[]> getEntries(final Random r, final int n) {
+
+        final TreeMap<byte[], byte[]> m = new TreeMap<byte[], byte[]>(
+                BytesUtil.UnsignedByteArrayComparator.INSTANCE);
+
+        while (m.size() < n) {
+
+            final byte[] key = new byte[1 + r.nextInt(40)];
+
+            // A small alphabet (including 0xff) so keys share prefixes.
+            for (int i = 0; i < key.length; i++)
+                key[i] = (byte) (r.nextInt(4) * 85);
+
+            final byte[] val = new byte[r.nextInt(300)];
+
+            r.nextBytes(val);
+
+            m.put(key, val);
+
+        }
+
+        return m;
+
+    }
+
+    private void doLookupTest(final TreeMap<byte[], byte[]> m,
+            final FrontCodedDictionary d, final Random r) {
+
+        assertEquals(m.size(), d.getEntryCount());
+
+        for (java.util.Map.Entry<byte[], byte[]> e : m.entrySet()) {
+
+            assertEquals(e.getValue(), d.get(e.getKey()));
+
+        }
+
+        // Probe keys which may or may not be present.
+        for (int i = 0; i < 1000; i++) {
+
+            final byte[] key = new byte[r.nextInt(42)];
+
+            for (int j = 0; j < key.length; j++)
+                key[j] = (byte) (r.nextInt(5) * 63);
+
+            final byte[] expected = m.get(key);
+
+            final byte[] actual = d.get(key);
+
+            if (expected == null) {
+
+                assertNull(actual);
+
+            } else {
+
+                assertEquals(expected, actual);
+
+            }
+
+        }
+
+    }
+
+    public void test_lookup() throws IOException {
+
+        final Random r = new Random();
+
+        final TreeMap<byte[], byte[]> m = getEntries(r, 2000);
+
+        final BTree btree = getBTree(m);
+
+        final UUID uuid = btree.getIndexMetadata().getIndexUUID();
+
+        assertEquals(m.size(), FrontCodedDictionary.build(file, uuid,
+                btree.rangeIterator()));
+
+        final FrontCodedDictionary d = new FrontCodedDictionary(file);
+
+        assertEquals(uuid, d.getSourceUUID());
+
+        assertEquals(FrontCodedDictionary.DEFAULT_BUCKET_SIZE,
+                d.getBucketSize());
+
+        doLookupTest(m, d, r);
+
+    }
+
+    /**
+     * Small buckets and 1k chunks, so buckets are padded to the next chunk.
+     */
+    public void test_chunks() throws IOException {
+
+        final Random r = new Random();
+
+        final TreeMap<byte[], byte[]> m = getEntries(r, 1000);
+
+        final BTree btree = getBTree(m);
+
+        FrontCodedDictionary.build(file, btree.getIndexMetadata()
+                .getIndexUUID(), btree.rangeIterator(), 3/* bucketSize */,
+                10/* chunkShift */);
+
+        doLookupTest(m, new FrontCodedDictionary(file), r);
+
+    }
+
+    /**
+     * A dictionary with a partial last bucket and one with a single entry.
+     */
+    public void test_partialBucket() throws IOException {
+
+        final Random r = new Random();
+
+        for (int n : new int[] { 1, 17, 31 }) {
+
+            final TreeMap<byte[], byte[]> m = getEntries(r, n);
+
+            final BTree btree = getBTree(m);
+
+            FrontCodedDictionary.build(file, btree.getIndexMetadata()
+                    .getIndexUUID(), btree.rangeIterator());
+
+            doLookupTest(m, new FrontCodedDictionary(file), r);
+
+        }
+
+    }
+
+    public void test_empty() throws IOException {
+
+        final BTree btree = getBTree(new TreeMap<byte[], byte[]>(
+                BytesUtil.UnsignedByteArrayComparator.INSTANCE));
+
+        assertEquals(0L, FrontCodedDictionary.build(file, btree
+                .getIndexMetadata().getIndexUUID(), btree.rangeIterator()));
+
+        final FrontCodedDictionary d = new FrontCodedDictionary(file);
+
+        assertEquals(0L, d.getEntryCount());
+
+        assertNull(d.get(new byte[] { 1, 2, 3 }));
+
+        assertNull(d.get(new byte[0]));
+
+    }
+
+    public void test_notADictionary() throws IOException {
+
+        try {
+
+            new FrontCodedDictionary(file);
+
+            fail("Expecting: " + IOException.class);
+
+        } catch (IOException ex) {
+
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.rdf.internal.VTE;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rdf.model.BigdataLiteral;
+import com.bigdata.rdf.model.BigdataURI;
+
+/**
+ * Test suite for {@link OffHeapTermCache}.
+ */
+public class TestOffHeapTermCache extends TestCase2 {
+
+    public TestOffHeapTermCache() {
+    }
+
+    public TestOffHeapTermCache(final String name) {
+        super(name);
+    }
+
+    private static byte[] record(final long id, final int len) {
+        final byte[] a = new byte[len];
+        Arrays.fill(a, (byte) id);
+        a[0] = (byte) (id >>> 8);
+        return a;
+    }
+
+    /**
+     * Verify get() and put() and that the {@link VTE} is part of the key.
+     */
+    public void test_getPut() {
+
+        final OffHeapTermCache cache = new OffHeapTermCache(
+                1024 * 1024/* maximumBytes */, 4/* concurrencyLevel */);
+
+        try {
+
+            final TermId<BigdataURI> uri = new TermId<BigdataURI>(VTE.URI, 12L);
+
+            final TermId<BigdataLiteral> lit = new TermId<BigdataLiteral>(
+                    VTE.LITERAL, 12L);
+
+            assertNull(cache.get(uri));
+
+            cache.put(uri, record(1, 20));
+
+            assertEquals(record(1, 20), cache.get(uri));
+
+            assertNull(cache.get(lit));
+
+            cache.put(lit, record(2, 30));
+
+            assertEquals(record(2, 30), cache.get(lit));
+
+            // A second put for the same key is ignored.
+            cache.put(uri, record(3, 40));
+
+            assertEquals(record(1, 20), cache.get(uri));
+
+            assertEquals(2, cache.size());
+
+            assertEquals(50L, cache.bytes());
+
+            // Records which are too large are not cached.
+            final TermId<BigdataLiteral> big = new TermId<BigdataLiteral>(
+                    VTE.LITERAL, 13L);
+
+            cache.put(big, new byte[OffHeapTermCache.MAX_RECORD_SIZE + 1]);
+
+            assertNull(cache.get(big));
+
+            cache.clear();
+
+            assertEquals(0, cache.size());
+
+            assertEquals(0L, cache.bytes());
+
+            assertNull(cache.get(uri));
+
+        } finally {
+
+            cache.clear();
+
+        }
+
+    }
+
+    /**
+     * Verify that the cache remains within its bound and that the records
+     * which survive eviction are still found with the correct data.
+     */
+    public void test_eviction() {
+
+        final long maximumBytes = 64 * 1024;
+
+        final OffHeapTermCache cache = new OffHeapTermCache(maximumBytes,
+                4/* concurrencyLevel */);
+
+        try {
+
+            final int n = 20000;
+
+            for (long i = 1; i <= n; i++) {
+
+                cache.put(new TermId<BigdataURI>(VTE.URI, i), record(i, 100));
+
+                assertTrue(cache.bytes() <= maximumBytes);
+
+                if (i % 3 == 0) {
+
+                    // touch some records so CLOCK has reference bits to clear.
+                    cache.get(new TermId<BigdataURI>(VTE.URI, i / 2));
+
+                }
+
+            }
+
+            final int size = cache.size();
+
+            assertTrue(size > 0);
+
+            assertTrue(size < n);
+
+            int found = 0;
+
+            for (long i = 1; i <= n; i++) {
+
+                final byte[] data = cache.get(new TermId<BigdataURI>(VTE.URI,
+                        i));
+
+                if (data != null) {
+
+                    assertEquals(record(i, 100), data);
+
+                    found++;
+
+                }
+
+            }
+
+            assertEquals(size, found);
+
+        } finally {
+
+            cache.clear();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.lexicon;
+
+import junit.framework.TestCase2;
+
+import com.bigdata.counters.CounterSet;
+import com.bigdata.counters.ICounter;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.VTE;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.BigdataValueFactoryImpl;
+
+/**
+ * Test suite for {@link TinyLFUTermCache}.
+ */
+public class TestTinyLFUTermCache extends TestCase2 {
+
+    public TestTinyLFUTermCache() {
+    }
+
+    public TestTinyLFUTermCache(final String name) {
+        super(name);
+    }
+
+    private BigdataValueFactory vf;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        vf = BigdataValueFactoryImpl.getInstance(getName());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (vf != null) {
+            vf.remove();
+            vf = null;
+        }
+        super.tearDown();
+    }
+
+    private IV<?, ?> iv(final long id) {
+        return new TermId<BigdataURI>(VTE.URI, id);
+    }
+
+    private BigdataValue value(final long id) {
+        return vf.createURI("http://www.bigdata.com/" + id);
+    }
+
+    /**
+     * Verify get() and putIfAbsent() and the hit/miss counters.
+     */
+    public void test_getPutIfAbsent() {
+
+        final TinyLFUTermCache<IV<?, ?>, BigdataValue> cache = new TinyLFUTermCache<IV<?, ?>, BigdataValue>(
+                1024 * 1024/* maximumBytes */, 4/* concurrencyLevel */);
+
+        final BigdataValue v1 = value(1);
+
+        assertNull(cache.get(iv(1)));
+
+        assertNull(cache.putIfAbsent(iv(1), v1));
+
+        assertSame(v1, cache.get(iv(1)));
+
+        // The existing value is returned.
+        assertSame(v1, cache.putIfAbsent(iv(1), value(1)));
+
+        assertEquals(1, cache.size());
+
+        assertTrue(cache.bytes() > 0);
+
+        assertEquals(.5d, cache.getHitRate());
+
+        final CounterSet counters = cache.getCounters();
+
+        assertEquals(1L, ((ICounter<?>) counters.getPath("hitCount"))
+                .getValue());
+
+        assertEquals(1L, ((ICounter<?>) counters.getPath("missCount"))
+                .getValue());
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+
+        assertEquals(0L, cache.bytes());
+
+        assertNull(cache.get(iv(1)));
+
+    }
+
+    /**
+     * Verify that the estimated #of bytes in the cache does not exceed the
+     * maximum.
+     */
+    public void test_sizeBound() {
+
+        final long maximumBytes = 64 * 1024;
+
+        final TinyLFUTermCache<IV<?, ?>, BigdataValue> cache = new TinyLFUTermCache<IV<?, ?>, BigdataValue>(
+                maximumBytes, 4/* concurrencyLevel */);
+
+        for (long i = 0; i < 10000; i++) {
+
+            cache.putIfAbsent(iv(i), value(i));
+
+            assertTrue(cache.bytes() <= maximumBytes);
+
+        }
+
+        assertTrue(cache.size() > 0);
+
+        assertTrue(cache.size() < 10000);
+
+        assertEquals(Long.valueOf(10000 - cache.size()), ((ICounter<?>) cache
+                .getCounters().getPath("evictionCount")).getValue());
+
+    }
+
+    /**
+     * Verify that frequently used entries are not flushed from the cache by a
+     * scan of entries which are used only once.
+     */
+    public void test_scanResistance() {
+
+        final int nhot = 50;
+
+        final long maximumBytes = 100L * TinyLFUTermCache.weigh(iv(0),
+                value(0));
+
+        final TinyLFUTermCache<IV<?, ?>, BigdataValue> cache = new TinyLFUTermCache<IV<?, ?>, BigdataValue>(
+                maximumBytes, 1/* concurrencyLevel */);
+
+        for (long i = 0; i < nhot; i++) {
+
+            cache.putIfAbsent(iv(i), value(i));
+
+        }
+
+        for (int j = 0; j < 5; j++) {
+
+            for (long i = 0; i < nhot; i++) {
+
+                assertNotNull(cache.get(iv(i)));
+
+            }
+
+        }
+
+        // scan.
+        for (long i = 1000; i < 20000; i++) {
+
+            if (cache.get(iv(i)) == null)
+                cache.putIfAbsent(iv(i), value(i));
+
+        }
+
+        int found = 0;
+
+        for (long i = 0; i < nhot; i++) {
+
+            if (cache.get(iv(i)) != null)
+                found++;
+
+        }
+
+        assertEquals(nhot, found);
+
+    }
+
+}
@@ -84,8 +84,9 @@ public class TestAll extends TestCase {
         suite.addTestSuite(TestNTriplesWithSids.class);
 
         /*
-         * Correctness tests for the asynchronous bulk data loader. This
-         * requires the scale-out architecture. SIDs are not supported yet.
+         * Correctness tests for the asynchronous bulk data loader. This runs
+         * against the local triple store (and against scale-out). SIDs are not
+         * supported yet.
          */
         suite.addTestSuite(TestAsynchronousStatementBufferFactory.class);
 
@@ -63,6 +63,8 @@ public class TestAll_RIO extends TestCase {
 
         suite.addTest(com.bigdata.rdf.rio.ntriples.TestAll.suite());
 
+        suite.addTestSuite(com.bigdata.rdf.rio.binary.TestBigdataBinaryRDF.class);
+
         return suite;
     }
 
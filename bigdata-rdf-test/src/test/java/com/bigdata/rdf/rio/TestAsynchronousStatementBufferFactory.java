@@ -45,10 +45,8 @@ import com.bigdata.rdf.lexicon.LexiconRelation;
 import com.bigdata.rdf.model.BigdataStatement;
 import com.bigdata.rdf.spo.SPOKeyOrder;
 import com.bigdata.rdf.store.AbstractTripleStore;
-import com.bigdata.rdf.store.ScaleOutTripleStore;
 import com.bigdata.rdf.store.TestScaleOutTripleStoreWithEmbeddedFederation;
 import com.bigdata.rdf.util.DumpLexicon;
-import com.bigdata.service.AbstractScaleOutFederation;
 import com.bigdata.service.EmbeddedClient;
 import com.bigdata.service.IBigdataClient;
 
@@ -65,9 +63,6 @@ import com.bigdata.service.IBigdataClient;
  *          tokens).
  * 
  *          FIXME variant to test async w/ sids (once written).
- *          
- * @todo The async API is only defined at this time for scale-out index views,
- *       so maybe move this into the scale-out proxy test suite.
  * 
  * @see TestScaleOutTripleStoreWithEmbeddedFederation
  */
@@ -289,14 +284,6 @@ public class TestAsynchronousStatementBufferFactory extends
         final AbstractTripleStore store = getStore();
         try {
             
-            if(!(store.getIndexManager() instanceof AbstractScaleOutFederation)) {
-                
-                log.warn("Test requires scale-out index views.");
-                
-                return;
-                
-            }
-
             if (store.isQuads()) {
 
                 log.warn("Quads not supported yet.");
@@ -422,14 +409,6 @@ public class TestAsynchronousStatementBufferFactory extends
 
         try {
 
-            if (!(store.getIndexManager() instanceof AbstractScaleOutFederation)) {
-
-                log.warn("Test requires scale-out index views.");
-
-                return;
-
-            }
-
             doLoad(store, resource, parallel);
 
             if (log.isDebugEnabled()) {
@@ -533,7 +512,7 @@ public class TestAsynchronousStatementBufferFactory extends
         parserOptions.setVerifyData(false);
         
         final AsynchronousStatementBufferFactory<BigdataStatement,File> statementBufferFactory = new AsynchronousStatementBufferFactory<BigdataStatement,File>(
-                (ScaleOutTripleStore) store,//
+                store,//
                 chunkSize, //
                 valuesInitialCapacity,//
                 bnodesInitialCapacity,//
@@ -0,0 +1,427 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.rio.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.util.ModelUtil;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.StatementCollector;
+
+import com.bigdata.io.LongPacker;
+import com.bigdata.rdf.ServiceProviderHook;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.BigdataValueFactoryImpl;
+import com.bigdata.rdf.model.BigdataValueSerializer;
+
+/**
+ * Test suite for {@link BigdataBinaryRDFWriter} and
+ * {@link BigdataBinaryRDFParser}.
+ */
+public class TestBigdataBinaryRDF extends TestCase2 {
+
+    public TestBigdataBinaryRDF() {
+    }
+
+    public TestBigdataBinaryRDF(final String name) {
+        super(name);
+    }
+
+    private BigdataValueFactory valueFactory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ServiceProviderHook.forceLoad();
+        valueFactory = BigdataValueFactoryImpl.getInstance(getName());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (valueFactory != null) {
+            valueFactory.remove();
+            valueFactory = null;
+        }
+        super.tearDown();
+    }
+
+    private List<Statement> getData() {
+
+        final ValueFactory f = ValueFactoryImpl.getInstance();
+
+        final URI a = f.createURI("http://www.bigdata.com/a");
+        final URI b = f.createURI("http://www.bigdata.com/b");
+        final URI c = f.createURI("http://www.bigdata.com/c");
+        final URI g = f.createURI("http://www.bigdata.com/g");
+        final BNode x = f.createBNode("x");
+
+        final List<Statement> stmts = new ArrayList<Statement>();
+
+        stmts.add(f.createStatement(a, b, c));
+        stmts.add(f.createStatement(a, b, f.createLiteral("abc")));
+        stmts.add(f.createStatement(a, b, f.createLiteral("abc", "en")));
+        stmts.add(f.createStatement(a, c, f.createLiteral("12",
+                XMLSchema.INTEGER)));
+        stmts.add(f.createStatement(x, b, c, g));
+        stmts.add(f.createStatement(a, b, x, g));
+        stmts.add(f.createStatement(x, c, f.createLiteral("\u00e9t\u00e9")));
+
+        return stmts;
+
+    }
+
+    private byte[] write(final List<Statement> stmts, final int blockSize)
+            throws Exception {
+
+        return write(stmts, blockSize, null/* scope */);
+
+    }
+
+    private byte[] write(final List<Statement> stmts, final int blockSize,
+            final UUID scope) throws Exception {
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        final RDFWriter w = new BigdataBinaryRDFWriter(baos, blockSize, scope);
+
+        w.startRDF();
+
+        for (Statement stmt : stmts) {
+
+            w.handleStatement(stmt);
+
+        }
+
+        w.endRDF();
+
+        return baos.toByteArray();
+
+    }
+
+    private List<Statement> parse(final byte[] data) throws Exception {
+
+        final RDFParser p = new BigdataBinaryRDFParser(valueFactory);
+
+        final StatementCollector c = new StatementCollector();
+
+        p.setRDFHandler(c);
+
+        p.parse(new ByteArrayInputStream(data), ""/* baseURI */);
+
+        return new ArrayList<Statement>(c.getStatements());
+
+    }
+
+    private void doRoundTripTest(final int blockSize) throws Exception {
+
+        final List<Statement> expected = getData();
+
+        final List<Statement> actual = parse(write(expected, blockSize));
+
+        assertEquals(expected.size(), actual.size());
+
+        assertTrue(ModelUtil.equals(expected, actual));
+
+        // The values were created by the given value factory.
+        for (Statement stmt : actual) {
+
+            assertTrue(stmt.getObject() instanceof BigdataValue);
+
+            assertTrue(((BigdataValue) stmt.getObject())
+                    .getValueFactory() == valueFactory);
+
+        }
+
+        // The blank node is shared by the statements in different blocks.
+        assertEquals(actual.get(4).getSubject(), actual.get(5).getObject());
+
+        assertEquals(actual.get(4).getSubject(), actual.get(6).getSubject());
+
+    }
+
+    public void test_roundTrip() throws Exception {
+
+        doRoundTripTest(BigdataBinaryRDFWriter.DEFAULT_BLOCK_SIZE);
+
+    }
+
+    /**
+     * Variant in which the statements span several blocks.
+     */
+    public void test_roundTrip_smallBlocks() throws Exception {
+
+        doRoundTripTest(2/* blockSize */);
+
+    }
+
+    /**
+     * The blank nodes of streams having the same scope are the same blank
+     * nodes, even when each stream is parsed by a different parser. The blank
+     * nodes of streams without a scope are distinct.
+     */
+    public void test_scope() throws Exception {
+
+        final List<Statement> data = getData();
+
+        final List<Statement> stmts1 = new ArrayList<Statement>();
+        stmts1.add(data.get(4)); // x b c g
+
+        final List<Statement> stmts2 = new ArrayList<Statement>();
+        stmts2.add(data.get(5)); // a b x g
+
+        final UUID scope = UUID.randomUUID();
+
+        assertEquals(
+                parse(write(stmts1, 10, scope)).get(0).getSubject(),
+                parse(write(stmts2, 10, scope)).get(0).getObject());
+
+        assertFalse(parse(write(stmts1, 10)).get(0).getSubject()
+                .equals(parse(write(stmts2, 10)).get(0).getObject()));
+
+        assertFalse(parse(write(stmts1, 10, scope)).get(0).getSubject()
+                .equals(parse(write(stmts2, 10, UUID.randomUUID())).get(0)
+                        .getObject()));
+
+    }
+
+    public void test_empty() throws Exception {
+
+        assertEquals(0, parse(write(new ArrayList<Statement>(), 10)).size());
+
+    }
+
+    public void test_badMagic() throws Exception {
+
+        final byte[] data = write(getData(), 10);
+
+        data[0] = 0;
+
+        assertParseError(data);
+
+    }
+
+    private void assertParseError(final byte[] data) throws Exception {
+
+        try {
+            parse(data);
+            fail("Expecting: " + RDFParseException.class);
+        } catch (RDFParseException e) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + e);
+        }
+
+    }
+
+    /**
+     * Return a stream having the header and then whatever is written by the
+     * callback.
+     */
+    private static abstract class Stream {
+
+        abstract void writeBody(DataOutput out) throws IOException;
+
+        byte[] toByteArray() throws IOException {
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+            // Note: not buffered.
+            final DataOutput out = new DataOutputStream(baos);
+
+            BigdataBinaryRDFWriter.writeHeader(out, null/* scope */);
+
+            writeBody(out);
+
+            return baos.toByteArray();
+
+        }
+
+    }
+
+    /**
+     * A stream which ends before the end marker.
+     */
+    public void test_truncated() throws Exception {
+
+        final byte[] data = write(getData(), 2);
+
+        assertParseError(Arrays.copyOf(data, data.length - 5));
+
+    }
+
+    /**
+     * A block with more values than its statements could refer to.
+     */
+    public void test_badBlock_nvalues() throws Exception {
+
+        assertParseError(new Stream() {
+            @Override
+            void writeBody(final DataOutput out) throws IOException {
+                out.writeInt(Integer.MAX_VALUE); // nvalues
+                out.writeInt(1); // nstmts
+            }
+        }.toByteArray());
+
+    }
+
+    /**
+     * A block whose header claims more values than the stream holds. The
+     * dictionary is not allocated for the claimed #of values.
+     */
+    public void test_badBlock_truncatedValues() throws Exception {
+
+        assertParseError(new Stream() {
+            @Override
+            void writeBody(final DataOutput out) throws IOException {
+                out.writeInt(Integer.MAX_VALUE); // nvalues
+                out.writeInt(Integer.MAX_VALUE); // nstmts
+            }
+        }.toByteArray());
+
+    }
+
+    /**
+     * A value whose length is larger than any byte[].
+     */
+    public void test_badValueLength() throws Exception {
+
+        assertParseError(new Stream() {
+            @Override
+            void writeBody(final DataOutput out) throws IOException {
+                out.writeInt(1); // nvalues
+                out.writeInt(1); // nstmts
+                LongPacker.packLong(out, Integer.MAX_VALUE + 1L); // length
+                out.write(new byte[10]);
+            }
+        }.toByteArray());
+
+    }
+
+    /**
+     * A value whose length is larger than the stream. The buffer is not
+     * allocated for the claimed length.
+     */
+    public void test_truncatedValue() throws Exception {
+
+        assertParseError(new Stream() {
+            @Override
+            void writeBody(final DataOutput out) throws IOException {
+                out.writeInt(1); // nvalues
+                out.writeInt(1); // nstmts
+                LongPacker.packLong(out, Integer.MAX_VALUE); // length
+                out.write(new byte[10]);
+            }
+        }.toByteArray());
+
+    }
+
+    /**
+     * A statement which refers to a value which is not in the dictionary of
+     * the block, including a reference which would wrap around to a valid
+     * index if it were truncated to an int.
+     */
+    public void test_badValueReference() throws Exception {
+
+        // The statement (a a a) is parsed.
+        assertEquals(1, parse(newStatementStream(0L)).size());
+
+        assertParseError(newStatementStream(1L));
+
+        assertParseError(newStatementStream((1L << 32) + 0L));
+
+    }
+
+    /**
+     * Return a stream having one block whose dictionary has a single URI and
+     * whose statement has that URI as its subject and predicate and the given
+     * reference as its object.
+     */
+    private byte[] newStatementStream(final long ref) throws IOException {
+
+        return new Stream() {
+            @Override
+            void writeBody(final DataOutput out) throws IOException {
+                final byte[] val = new BigdataValueSerializer<Value>(
+                        ValueFactoryImpl.getInstance())
+                        .serialize(ValueFactoryImpl.getInstance().createURI(
+                                "http://www.bigdata.com/a"));
+                out.writeInt(1); // nvalues
+                out.writeInt(1); // nstmts
+                LongPacker.packLong(out, val.length);
+                out.write(val);
+                LongPacker.packLong(out, 0L); // s
+                LongPacker.packLong(out, 0L); // p
+                LongPacker.packLong(out, ref); // o
+                LongPacker.packLong(out, 0L); // c
+                BigdataBinaryRDFWriter.writeEnd(out);
+            }
+        }.toByteArray();
+
+    }
+
+    /**
+     * The format and its parser and writer are registered.
+     */
+    public void test_registry() throws Exception {
+
+        final RDFFormat fmt = ServiceProviderHook.BLAZEGRAPH_BINARY;
+
+        assertEquals(fmt, RDFFormat.forFileName("data.bgb"));
+
+        assertFalse(fmt.hasCharset());
+
+        assertTrue(Rio.createParser(fmt) instanceof BigdataBinaryRDFParser);
+
+        assertTrue(Rio.createWriter(fmt, new ByteArrayOutputStream())
+                instanceof BigdataBinaryRDFWriter);
+
+    }
+
+}
@@ -0,0 +1,300 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.rio.ntriples;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.BigdataValueFactoryImpl;
+import com.bigdata.rdf.rio.RDFParserOptions;
+import com.bigdata.util.DaemonThreadFactory;
+
+/**
+ * Test suite for {@link NTriplesSplitter}.
+ */
+public class TestNTriplesSplitter extends TestCase2 {
+
+    public TestNTriplesSplitter() {
+    }
+
+    public TestNTriplesSplitter(final String name) {
+        super(name);
+    }
+
+    private BigdataValueFactory valueFactory;
+
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        valueFactory = BigdataValueFactoryImpl.getInstance(getName());
+        executor = Executors.newFixedThreadPool(3, new DaemonThreadFactory(
+                getName()));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (valueFactory != null) {
+            valueFactory.remove();
+            valueFactory = null;
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Collects the statements from all blocks.
+     */
+    private static class MySplitter extends NTriplesSplitter {
+
+        final List<Statement> stmts = Collections
+                .synchronizedList(new LinkedList<Statement>());
+
+        MySplitter(final BigdataValueFactory valueFactory,
+                final int blockSize) {
+
+            this(valueFactory, new RDFParserOptions(), blockSize);
+
+        }
+
+        MySplitter(final BigdataValueFactory valueFactory,
+                final RDFParserOptions options, final int blockSize) {
+
+            super(valueFactory, RDFFormat.NTRIPLES, options, blockSize);
+
+        }
+
+        @Override
+        protected RDFHandler newRDFHandler() {
+
+            return new RDFHandlerBase() {
+                @Override
+                public void handleStatement(final Statement st) {
+                    stmts.add(st);
+                }
+            };
+
+        }
+
+    }
+
+    /**
+     * A document in which the blank nodes <code>_:b0</code> through
+     * <code>_:b9</code> are each used on many lines.
+     */
+    private static byte[] getDocument(final int nlines) throws Exception {
+
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("# comment\n");
+
+        for (int i = 0; i < nlines; i++) {
+
+            sb.append("_:b" + (i % 10) + " <http://www.bigdata.com/p> \"" + i
+                    + "\" .\n");
+
+        }
+
+        return sb.toString().getBytes("UTF-8");
+
+    }
+
+    private static Set<String> getBNodeIDs(final List<Statement> stmts) {
+
+        final Set<String> ids = new HashSet<String>();
+
+        for (Statement st : stmts) {
+
+            ids.add(((BNode) st.getSubject()).getID());
+
+        }
+
+        return ids;
+
+    }
+
+    /**
+     * Parse a document using many small blocks and verify that all statements
+     * are reported and that the blank nodes are scoped by the document.
+     */
+    public void test_split() throws Exception {
+
+        final int nlines = 1000;
+
+        final MySplitter splitter = new MySplitter(valueFactory, 200/* blockSize */);
+
+        assertEquals(nlines, splitter.parse(new ByteArrayInputStream(
+                getDocument(nlines)), "http://www.bigdata.com/", executor,
+                4/* maxBlocks */));
+
+        assertEquals(nlines, splitter.stmts.size());
+
+        final Set<String> labels = new HashSet<String>();
+
+        for (Statement st : splitter.stmts) {
+
+            labels.add(((Literal) st.getObject()).getLabel());
+
+        }
+
+        assertEquals(nlines, labels.size());
+
+        // The same label is the same blank node in every block.
+        final Set<String> ids = getBNodeIDs(splitter.stmts);
+
+        assertEquals(10, ids.size());
+
+        // But not in another document.
+        final MySplitter splitter2 = new MySplitter(valueFactory, 200/* blockSize */);
+
+        splitter2.parse(new ByteArrayInputStream(getDocument(10)),
+                "http://www.bigdata.com/", executor, 4/* maxBlocks */);
+
+        for (String id : getBNodeIDs(splitter2.stmts)) {
+
+            assertFalse(id, ids.contains(id));
+
+        }
+
+    }
+
+    /**
+     * A line which is longer than the block size.
+     */
+    public void test_longLine() throws Exception {
+
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 100; i++) {
+
+            sb.append("abcdefghij");
+
+        }
+
+        final String doc = "<http://www.bigdata.com/s> <http://www.bigdata.com/p> \""
+                + sb + "\" .\r\n<http://www.bigdata.com/s> <http://www.bigdata.com/p> \"x\" .";
+
+        final MySplitter splitter = new MySplitter(valueFactory, 64/* blockSize */);
+
+        assertEquals(2L, splitter.parse(
+                new ByteArrayInputStream(doc.getBytes("UTF-8")),
+                "http://www.bigdata.com/", executor, 2/* maxBlocks */));
+
+    }
+
+    /**
+     * A syntax error is reported.
+     */
+    public void test_parseError() throws Exception {
+
+        final byte[] a = getDocument(100);
+
+        final byte[] b = "<http://www.bigdata.com/s> <http://www.bigdata.com/p> .\n"
+                .getBytes("UTF-8");
+
+        final byte[] doc = new byte[a.length + b.length];
+
+        System.arraycopy(a, 0, doc, 0, a.length);
+
+        System.arraycopy(b, 0, doc, a.length, b.length);
+
+        final RDFParserOptions options = new RDFParserOptions();
+
+        options.setStopAtFirstError(true);
+
+        final MySplitter splitter = new MySplitter(valueFactory, options,
+                500/* blockSize */);
+
+        try {
+
+            splitter.parse(new ByteArrayInputStream(doc),
+                    "http://www.bigdata.com/", executor, 2/* maxBlocks */);
+
+            fail("Expecting: " + RDFParseException.class);
+
+        } catch (RDFParseException ex) {
+
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+
+        }
+
+    }
+
+    public void test_lastLineTerminator() {
+
+        assertEquals(-1, NTriplesSplitter.lastLineTerminator(new byte[] { 'a',
+                'b' }, 2));
+
+        assertEquals(1, NTriplesSplitter.lastLineTerminator(new byte[] { 'a',
+                '\n', 'b' }, 3));
+
+        assertEquals(2, NTriplesSplitter.lastLineTerminator(new byte[] { 'a',
+                '\r', '\n', 'b' }, 4));
+
+        // Only the first len bytes are considered.
+        assertEquals(-1, NTriplesSplitter.lastLineTerminator(new byte[] { 'a',
+                'b', '\n' }, 2));
+
+    }
+
+    public void test_isSplittable() {
+
+        assertTrue(NTriplesSplitter.isSplittable(RDFFormat.NTRIPLES));
+
+        assertTrue(NTriplesSplitter.isSplittable(RDFFormat.NQUADS));
+
+        assertFalse(NTriplesSplitter.isSplittable(RDFFormat.TURTLE));
+
+        assertFalse(NTriplesSplitter.isSplittable(RDFFormat.RDFXML));
+
+    }
+
+}
@@ -29,7 +29,7 @@ import static com.bigdata.rdf.sparql.ast.optimizers.AbstractOptimizerTestCase.He
 import static com.bigdata.rdf.sparql.ast.optimizers.AbstractOptimizerTestCase.HelperFlag.ZERO_OR_MORE;
 import static com.bigdata.rdf.sparql.ast.optimizers.AbstractOptimizerTestCase.HelperFlag.ZERO_OR_ONE;
 
-import com.bigdata.rdf.internal.IV;
+import com.bigdata.bop.IBindingSet;
 import com.bigdata.rdf.sparql.ast.ArbitraryLengthPathNode;
 import com.bigdata.rdf.sparql.ast.GroupMemberNodeBase;
 import com.bigdata.rdf.sparql.ast.StatementPatternNode;
@@ -159,15 +159,17 @@ public class TestALPPinTrac773 extends AbstractOptimizerTestCase {
 		return new ASTOptimizerList(
 				new ASTPropertyPathOptimizerInTest(),
 				new ASTRangeCountOptimizer(){
+					/*
+					 * Note: This is invoked for each statement pattern by the
+					 * batch of range count tasks for the query.
+					 */
 					@Override
-
-
-					protected void estimateCardinalities(
-							StatementPatternNode sp, final IV<?, ?> s,
-							final IV<?, ?> p, final IV<?, ?> o,
-							final IV<?, ?> c, final AST2BOpContext ctx,
-							final int exogenousBindingsAdjustmentFactor) {
-						if (o != null)
+					protected void estimateCardinality(
+							final StatementPatternNode sp,
+							final AST2BOpContext ctx,
+							final IBindingSet exogenousBindings,
+							final int nrExogeneousBindings) {
+						if (sp.o().isConstant())
 							sp.setProperty(Annotations.ESTIMATED_CARDINALITY,
 									26l);
 						else
@@ -0,0 +1,204 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sparql.ast.optimizers;
+
+import com.bigdata.rdf.sparql.ast.FunctionRegistry;
+import com.bigdata.rdf.sparql.ast.JoinGroupNode;
+import com.bigdata.rdf.sparql.ast.ValueExpressionNode;
+
+/**
+ * Test suite for {@link ASTFilterPropagationOptimizer}.
+ */
+public class TestASTFilterPropagationOptimizer extends AbstractOptimizerTestCase {
+
+    public TestASTFilterPropagationOptimizer() {
+    }
+
+    public TestASTFilterPropagationOptimizer(final String name) {
+        super(name);
+    }
+
+    @Override
+    IASTOptimizer newOptimizer() {
+        return new ASTFilterPropagationOptimizer();
+    }
+
+    /**
+     * A range FILTER on <code>?x</code> is copied into an OPTIONAL group which
+     * binds <code>?x</code>, but not into a MINUS group nor into a group which
+     * does not bind <code>?x</code>.
+     */
+    public void test_filterPropagation_optionalAndMinus() {
+
+        new Helper() {{
+
+            final JoinGroupNode minusGiven = joinGroupNode(
+                    statementPatternNode(varNode(y), constantNode(b),
+                            varNode(x)));
+            minusGiven.setMinus(true);
+
+            given = select(varNode(y), where(
+                    statementPatternNode(varNode(y), constantNode(a), varNode(z)),
+                    joinGroupNode(
+                            statementPatternNode(varNode(y), constantNode(b),
+                                    varNode(x)), HelperFlag.OPTIONAL),
+                    minusGiven,
+                    joinGroupNode(
+                            statementPatternNode(varNode(y), constantNode(c),
+                                    varNode(w))),
+                    filter(functionNode(FunctionRegistry.GT, varNode(x),
+                            (ValueExpressionNode) constantNode(d)))));
+
+            final JoinGroupNode minusExpected = joinGroupNode(
+                    statementPatternNode(varNode(y), constantNode(b),
+                            varNode(x)));
+            minusExpected.setMinus(true);
+
+            expected = select(varNode(y), where(
+                    statementPatternNode(varNode(y), constantNode(a), varNode(z)),
+                    joinGroupNode(
+                            statementPatternNode(varNode(y), constantNode(b),
+                                    varNode(x)),
+                            filter(functionNode(FunctionRegistry.GT,
+                                    varNode(x),
+                                    (ValueExpressionNode) constantNode(d))),
+                            HelperFlag.OPTIONAL),
+                    minusExpected,
+                    joinGroupNode(
+                            statementPatternNode(varNode(y), constantNode(c),
+                                    varNode(w))),
+                    filter(functionNode(FunctionRegistry.GT, varNode(x),
+                            (ValueExpressionNode) constantNode(d)))));
+
+        }}.test();
+
+    }
+
+    /**
+     * The FILTER is pushed into each UNION branch which binds the variable and
+     * transitively into the nested groups of those branches.
+     */
+    public void test_filterPropagation_union() {
+
+        new Helper() {{
+
+            given = select(varNode(x), where(
+                    unionNode(
+                            joinGroupNode(
+                                    joinGroupNode(statementPatternNode(
+                                            varNode(x), constantNode(a),
+                                            varNode(y)))),
+                            joinGroupNode(statementPatternNode(varNode(z),
+                                    constantNode(b), varNode(y)))),
+                    filter(functionNode(FunctionRegistry.EQ, varNode(x),
+                            (ValueExpressionNode) constantNode(c)))));
+
+            expected = select(varNode(x), where(
+                    unionNode(
+                            joinGroupNode(
+                                    joinGroupNode(
+                                            statementPatternNode(varNode(x),
+                                                    constantNode(a),
+                                                    varNode(y)),
+                                            filter(functionNode(
+                                                    FunctionRegistry.EQ,
+                                                    varNode(x),
+                                                    (ValueExpressionNode) constantNode(c)))),
+                                    filter(functionNode(FunctionRegistry.EQ,
+                                            varNode(x),
+                                            (ValueExpressionNode) constantNode(c)))),
+                            joinGroupNode(statementPatternNode(varNode(z),
+                                    constantNode(b), varNode(y)))),
+                    filter(functionNode(FunctionRegistry.EQ, varNode(x),
+                            (ValueExpressionNode) constantNode(c)))));
+
+        }}.test();
+
+    }
+
+    /**
+     * The FILTER is pushed into a subquery which projects the variable, but
+     * not into a subquery having a LIMIT.
+     */
+    public void test_filterPropagation_subquery() {
+
+        new Helper() {{
+
+            given = select(varNode(x), where(
+                    statementPatternNode(varNode(x), constantNode(a), varNode(y)),
+                    selectSubQuery(projection(varNode(x)),
+                            where(statementPatternNode(varNode(x),
+                                    constantNode(b), varNode(z)))),
+                    applyAnnotations(selectSubQuery(projection(varNode(x)),
+                            where(statementPatternNode(varNode(x),
+                                    constantNode(c), varNode(w)))),
+                            slice(0L, 10L)),
+                    filter(functionNode(FunctionRegistry.LT, varNode(x),
+                            (ValueExpressionNode) constantNode(d)))));
+
+            expected = select(varNode(x), where(
+                    statementPatternNode(varNode(x), constantNode(a), varNode(y)),
+                    selectSubQuery(projection(varNode(x)),
+                            where(statementPatternNode(varNode(x),
+                                    constantNode(b), varNode(z)),
+                                    filter(functionNode(FunctionRegistry.LT,
+                                            varNode(x),
+                                            (ValueExpressionNode) constantNode(d))))),
+                    applyAnnotations(selectSubQuery(projection(varNode(x)),
+                            where(statementPatternNode(varNode(x),
+                                    constantNode(c), varNode(w)))),
+                            slice(0L, 10L)),
+                    filter(functionNode(FunctionRegistry.LT, varNode(x),
+                            (ValueExpressionNode) constantNode(d)))));
+
+        }}.test();
+
+    }
+
+    /**
+     * A FILTER which may succeed for an unbound variable is not propagated.
+     */
+    public void test_filterPropagation_bound_not_propagated() {
+
+        new Helper() {{
+
+            given = select(varNode(x), where(
+                    joinGroupNode(statementPatternNode(varNode(x),
+                            constantNode(a), varNode(y)), HelperFlag.OPTIONAL),
+                    filter(bound(varNode(x)))));
+
+            expected = select(varNode(x), where(
+                    joinGroupNode(statementPatternNode(varNode(x),
+                            constantNode(a), varNode(y)), HelperFlag.OPTIONAL),
+                    filter(bound(varNode(x)))));
+
+        }}.test();
+
+    }
+
+}
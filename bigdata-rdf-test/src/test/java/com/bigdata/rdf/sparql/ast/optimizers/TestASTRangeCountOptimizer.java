@@ -0,0 +1,175 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sparql.ast.optimizers;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.rdf.sparql.ast.QueryNodeWithBindingSet;
+import com.bigdata.rdf.sparql.ast.StatementPatternNode;
+import com.bigdata.rdf.sparql.ast.eval.AST2BOpContext;
+
+/**
+ * Test suite for {@link ASTRangeCountOptimizer}.
+ */
+public class TestASTRangeCountOptimizer extends AbstractOptimizerTestCase {
+
+    public TestASTRangeCountOptimizer() {
+        super();
+    }
+
+    public TestASTRangeCountOptimizer(final String name) {
+        super(name);
+    }
+
+    /**
+     * The #of tasks in each batch of range counts.
+     */
+    private final List<Integer> batches = Collections
+            .synchronizedList(new LinkedList<Integer>());
+
+    /**
+     * The #of statement patterns for which a range count was taken.
+     */
+    private final AtomicInteger ncalls = new AtomicInteger();
+
+    /**
+     * Records each batch and attaches a fixed range count to each statement
+     * pattern in the batch.
+     */
+    @Override
+    IASTOptimizer newOptimizer() {
+
+        return new ASTRangeCountOptimizer() {
+
+            @Override
+            protected void runRangeCountTasks(final AST2BOpContext ctx,
+                    final List<Callable<Void>> tasks) {
+
+                batches.add(tasks.size());
+
+                super.runRangeCountTasks(ctx, tasks);
+
+            }
+
+            @Override
+            protected void estimateCardinality(final StatementPatternNode sp,
+                    final AST2BOpContext ctx,
+                    final IBindingSet exogenousBindings,
+                    final int nrExogeneousBindings) {
+
+                ncalls.incrementAndGet();
+
+                sp.setProperty(Annotations.ESTIMATED_CARDINALITY, 17L);
+
+            }
+
+        };
+
+    }
+
+    /**
+     * The range counts for the statement patterns in all join groups of the
+     * query (the WHERE clause, nested groups and a subquery) are taken in a
+     * single batch and attached to each statement pattern. A statement
+     * pattern which already has a range count is not part of the batch.
+     */
+    public void test_rangeCounts_singleBatch() {
+
+        new Helper() {{
+
+            final StatementPatternNode sp1 = statementPatternNode(
+                    varNode(x), constantNode(a), varNode(y));
+
+            final StatementPatternNode sp2 = statementPatternNode(
+                    varNode(y), constantNode(b), varNode(z));
+
+            final StatementPatternNode sp3 = statementPatternNode(
+                    varNode(z), constantNode(c), varNode(w));
+
+            final StatementPatternNode sp4 = statementPatternNode(
+                    varNode(x), constantNode(d), varNode(s));
+
+            final StatementPatternNode sp5 = statementPatternNode(
+                    varNode(x), constantNode(e), varNode(s), 5);
+
+            given = select(varNode(x),
+                    where(sp1,
+                          joinGroupNode(sp2, joinGroupNode(sp3)),
+                          selectSubQuery(projection(varNode(x)),
+                                  where(sp4, sp5))));
+
+            newOptimizer().optimize(getAST2BOpContext(given),
+                    new QueryNodeWithBindingSet(given, new IBindingSet[] {}));
+
+            assertEquals(Collections.singletonList(4), batches);
+
+            assertEquals(4, ncalls.get());
+
+            for (StatementPatternNode sp : new StatementPatternNode[] { sp1,
+                    sp2, sp3, sp4 }) {
+
+                assertEquals(Long.valueOf(17L),
+                        sp.getProperty(Annotations.ESTIMATED_CARDINALITY));
+
+            }
+
+            assertEquals(Long.valueOf(5L),
+                    sp5.getProperty(Annotations.ESTIMATED_CARDINALITY));
+
+        }};
+
+    }
+
+    /**
+     * No batch is run when every statement pattern already has a range count.
+     */
+    public void test_rangeCounts_noBatch() {
+
+        new Helper() {{
+
+            given = select(varNode(x),
+                    where(statementPatternNode(varNode(x), constantNode(a),
+                            varNode(y), 5)));
+
+            newOptimizer().optimize(getAST2BOpContext(given),
+                    new QueryNodeWithBindingSet(given, new IBindingSet[] {}));
+
+            assertTrue(batches.isEmpty());
+
+            assertEquals(0, ncalls.get());
+
+        }};
+
+    }
+
+}
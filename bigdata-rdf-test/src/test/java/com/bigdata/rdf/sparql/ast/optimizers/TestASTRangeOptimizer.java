@@ -27,10 +27,15 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 
 package com.bigdata.rdf.sparql.ast.optimizers;
 
+import java.util.Properties;
+
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.LiteralImpl;
 import org.openrdf.model.impl.URIImpl;
 
 import com.bigdata.bop.IBindingSet;
 import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.XSD;
 import com.bigdata.rdf.internal.constraints.RangeBOp;
 import com.bigdata.rdf.internal.impl.literal.XSDNumericIV;
 import com.bigdata.rdf.sparql.ast.ASTContainer;
@@ -52,6 +57,7 @@ import com.bigdata.rdf.sparql.ast.StatementPatternNode;
 import com.bigdata.rdf.sparql.ast.ValueExpressionNode;
 import com.bigdata.rdf.sparql.ast.VarNode;
 import com.bigdata.rdf.sparql.ast.eval.AST2BOpContext;
+import com.bigdata.rdf.store.AbstractTripleStore;
 
 /**
  * Test suite for {@link ASTRangeOptimizer}.
@@ -982,4 +988,93 @@ public class TestASTRangeOptimizer extends AbstractASTEvaluationTestCase {
 
     }
 
+    /**
+     * Return the statement pattern after running the optimizer on a range
+     * FILTER with the given (literal) bounds.
+     */
+    @SuppressWarnings("rawtypes")
+    private StatementPatternNode optimizeRange(final Value lowerVal,
+            final Value upperVal) {
+
+        final IV p = makeIV(new URIImpl("http://example/p"));
+
+        final IV lower = makeIV(lowerVal);
+
+        final IV upper = makeIV(upperVal);
+
+        final QueryRoot given = new QueryRoot(QueryType.SELECT);
+
+        final StatementPatternNode sp = new StatementPatternNode(new VarNode(
+                "x"), new ConstantNode(p), new VarNode("p"));
+        {
+
+            final ProjectionNode projection = new ProjectionNode();
+            projection.addProjectionVar(new VarNode("*"));
+
+            final JoinGroupNode where = new JoinGroupNode();
+
+            where.addChild(new FilterNode(new FunctionNode(FunctionRegistry.GT,
+                    null, new ValueExpressionNode[] { new VarNode("p"),
+                            new ConstantNode(lower) })));
+
+            where.addChild(new FilterNode(new FunctionNode(FunctionRegistry.LT,
+                    null, new ValueExpressionNode[] { new VarNode("p"),
+                            new ConstantNode(upper) })));
+
+            sp.setQueryHint(QueryHints.RANGE_SAFE, "true");
+
+            where.addChild(sp);
+
+            given.setProjection(projection);
+            given.setWhereClause(where);
+
+        }
+
+        final AST2BOpContext ctx = new AST2BOpContext(new ASTContainer(given),
+                store);
+
+        new ASTRangeOptimizer().optimize(ctx, new QueryNodeWithBindingSet(
+                given, new IBindingSet[] {}));
+
+        return sp;
+
+    }
+
+    /**
+     * A range is not attached for a datatype which has more than one key
+     * encoding: with {@link AbstractTripleStore.Options#INLINE_DATE_ORDINALS}
+     * some <code>xsd:date</code> values are inlined while others are in the
+     * lexicon, and with {@link AbstractTripleStore.Options#INLINE_DECIMAL_SCALE}
+     * <code>xsd:decimal</code> values use two inline encodings.
+     */
+    public void test_notRangeSafeDatatypes() {
+
+        final Value lowerDate = new LiteralImpl("2000-01-01", XSD.DATE);
+        final Value upperDate = new LiteralImpl("2001-01-01", XSD.DATE);
+        final Value lowerDecimal = new LiteralImpl("1.5", XSD.DECIMAL);
+        final Value upperDecimal = new LiteralImpl("2.5", XSD.DECIMAL);
+
+        // The range is attached by default.
+        assertNotNull(optimizeRange(lowerDate, upperDate).getRange());
+        assertNotNull(optimizeRange(lowerDecimal, upperDecimal).getRange());
+
+        // Replace the store (torn down by tearDown()).
+        store.__tearDownUnitTest();
+
+        final Properties properties = getProperties();
+        properties.setProperty(
+                AbstractTripleStore.Options.INLINE_DATE_ORDINALS, "true");
+        properties.setProperty(
+                AbstractTripleStore.Options.INLINE_DECIMAL_SCALE, "2");
+        store = getStore(properties);
+
+        assertNull(optimizeRange(lowerDate, upperDate).getRange());
+        assertNull(optimizeRange(lowerDecimal, upperDecimal).getRange());
+
+        // Other datatypes are not affected.
+        assertNotNull(optimizeRange(new LiteralImpl("1", XSD.INT),
+                new LiteralImpl("5", XSD.INT)).getRange());
+
+    }
+
 }
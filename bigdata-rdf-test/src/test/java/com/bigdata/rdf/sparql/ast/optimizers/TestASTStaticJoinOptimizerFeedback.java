@@ -0,0 +1,206 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sparql.ast.optimizers;
+
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.engine.CardinalityFeedback;
+import com.bigdata.bop.fed.QueryEngineFactory;
+import com.bigdata.rdf.sparql.ast.ASTContainer;
+import com.bigdata.rdf.sparql.ast.JoinGroupNode;
+import com.bigdata.rdf.sparql.ast.QueryNodeWithBindingSet;
+import com.bigdata.rdf.sparql.ast.QueryRoot;
+import com.bigdata.rdf.sparql.ast.StatementPatternNode;
+import com.bigdata.rdf.sparql.ast.eval.AST2BOpContext;
+
+/**
+ * Test suite for the join order feedback of the {@link ASTStaticJoinOptimizer}.
+ * 
+ * @see CardinalityFeedback
+ */
+public class TestASTStaticJoinOptimizerFeedback extends AbstractOptimizerTestCase {
+
+    public TestASTStaticJoinOptimizerFeedback() {
+        super();
+    }
+
+    public TestASTStaticJoinOptimizerFeedback(final String name) {
+        super(name);
+    }
+
+    @Override
+    protected ASTStaticJoinOptimizer newOptimizer() {
+        return new ASTStaticJoinOptimizer();
+    }
+
+    /**
+     * Return a new query:
+     * 
+     * <pre>
+     * SELECT ?x [?y]
+     * WHERE {
+     *   ?x :a ?y . # 1000
+     *   ?x :b ?z . # 10
+     * }
+     * </pre>
+     * 
+     * @param projectY
+     *            When <code>true</code> the query also projects
+     *            <code>?y</code>, which makes it a different query shape.
+     */
+    private QueryRoot newQuery(final boolean projectY) {
+
+        return new Helper() {{
+
+            given = select(projectY ? varNodes(x, y) : varNodes(x),
+                    where(statementPatternNode(varNode(x), constantNode(a),
+                            varNode(y), 1000),
+                          statementPatternNode(varNode(x), constantNode(b),
+                            varNode(z), 10)));
+
+        }}.given;
+
+    }
+
+    /**
+     * Run the optimizer on the query and return its main WHERE clause.
+     */
+    private JoinGroupNode optimize(final QueryRoot queryRoot,
+            final boolean joinOrderFeedback) {
+
+        final AST2BOpContext context = new AST2BOpContext(new ASTContainer(
+                queryRoot), store);
+
+        context.joinOrderFeedback = joinOrderFeedback;
+
+        final QueryRoot actual = (QueryRoot) newOptimizer().optimize(context,
+                new QueryNodeWithBindingSet(queryRoot, new IBindingSet[] {}))
+                .getQueryNode();
+
+        return (JoinGroupNode) actual.getWhereClause();
+
+    }
+
+    /**
+     * Return the predicate of the statement pattern at the given index.
+     */
+    private Object predicate(final JoinGroupNode whereClause, final int index) {
+
+        return ((StatementPatternNode) whereClause.get(index)).p()
+                .getValueExpression().get();
+
+    }
+
+    /**
+     * Verify that a selectivity learned for a statement pattern changes the
+     * join order of the same query but not of a different query using the
+     * same statement pattern.
+     */
+    public void test_feedback_changesJoinOrderOfSameQueryShape() {
+
+        final Helper h = new Helper() {};
+
+        // Without feedback the smaller range count runs first.
+        {
+            final JoinGroupNode whereClause = optimize(newQuery(false), false);
+
+            assertEquals(h.b, predicate(whereClause, 0));
+            assertNull(whereClause.get(0).getProperty(
+                    CardinalityFeedback.Annotations.FEEDBACK_KEY));
+
+        }
+
+        // The patterns are tagged, but nothing was learned yet.
+        final String key;
+        {
+            final JoinGroupNode whereClause = optimize(newQuery(false), true);
+
+            assertEquals(h.b, predicate(whereClause, 0));
+
+            final StatementPatternNode spA = (StatementPatternNode) whereClause
+                    .get(1);
+
+            final StatementPatternNode spB = (StatementPatternNode) whereClause
+                    .get(0);
+
+            key = (String) spA
+                    .getProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY);
+
+            assertNotNull(key);
+
+            assertFalse(key.equals(spB
+                    .getProperty(CardinalityFeedback.Annotations.FEEDBACK_KEY)));
+
+            assertEquals(Long.valueOf(1000L),
+                    spA.getProperty(Annotations.ESTIMATED_CARDINALITY));
+
+        }
+
+        // Learn that only one in a thousand solutions survives ?x :a ?y.
+        QueryEngineFactory.getInstance()
+                .getQueryController(store.getIndexManager())
+                .getCardinalityFeedback().observe(key, .001d);
+
+        // The same query shape now runs that pattern first.
+        {
+            final JoinGroupNode whereClause = optimize(newQuery(false), true);
+
+            assertEquals(h.a, predicate(whereClause, 0));
+
+            assertEquals(key, whereClause.get(0).getProperty(
+                    CardinalityFeedback.Annotations.FEEDBACK_KEY));
+
+            assertEquals(Long.valueOf(1L), whereClause.get(0).getProperty(
+                    Annotations.ESTIMATED_CARDINALITY));
+
+        }
+
+        // A different query shape is not affected.
+        {
+            final JoinGroupNode whereClause = optimize(newQuery(true), true);
+
+            assertEquals(h.b, predicate(whereClause, 0));
+
+            assertFalse(key.equals(whereClause.get(1).getProperty(
+                    CardinalityFeedback.Annotations.FEEDBACK_KEY)));
+
+            assertEquals(Long.valueOf(1000L), whereClause.get(1).getProperty(
+                    Annotations.ESTIMATED_CARDINALITY));
+
+        }
+
+        // Nor is the same query shape when the feedback is disabled.
+        {
+            final JoinGroupNode whereClause = optimize(newQuery(false), false);
+
+            assertEquals(h.b, predicate(whereClause, 0));
+
+        }
+
+    }
+
+}
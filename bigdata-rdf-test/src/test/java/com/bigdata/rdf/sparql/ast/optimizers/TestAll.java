@@ -144,6 +144,7 @@ public class TestAll extends TestCase {
 
         // Unit tests for static join ordering optimizer.
         suite.addTestSuite(TestASTStaticJoinOptimizer.class);
+        suite.addTestSuite(TestASTStaticJoinOptimizerFeedback.class);
 
         // Unit tests for optimizer which attaches join filters to SPs.
         suite.addTestSuite(TestASTAttachJoinFiltersOptimizer.class);
@@ -154,6 +155,12 @@ public class TestAll extends TestCase {
         // Unit tests for optimizer which attaches join filters to SPs.
         suite.addTestSuite(TestASTRangeOptimizer.class);
 
+        // Unit tests for the batch of range counts attached to SPs.
+        suite.addTestSuite(TestASTRangeCountOptimizer.class);
+
+        // Unit tests for propagation of FILTERs into child groups.
+        suite.addTestSuite(TestASTFilterPropagationOptimizer.class);
+
         // Test suite for resolving mock IVs.
         suite.addTestSuite(TestASTBatchResolveTermsOptimizer.class);
         
@@ -86,6 +86,9 @@ public class TestAll extends TestCase {
         // test suite for the access path api.
         suite.addTestSuite(TestSPOAccessPath.class);
 
+        // bulk build of the statement indices.
+        suite.addTestSuite(TestSPOBulkBuilder.class);
+
         // star joins
 //        suite.addTestSuite(TestSPOStarJoin.class);
 
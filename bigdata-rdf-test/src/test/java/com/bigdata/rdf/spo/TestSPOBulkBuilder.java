@@ -0,0 +1,703 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.spo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import com.bigdata.btree.IIndex;
+import com.bigdata.btree.ITuple;
+import com.bigdata.btree.ITupleIterator;
+import com.bigdata.rdf.axioms.NoAxioms;
+import com.bigdata.rdf.axioms.RdfsAxioms;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.model.StatementEnum;
+import com.bigdata.rdf.store.AbstractTripleStore;
+import com.bigdata.rdf.store.AbstractTripleStoreTestCase;
+import com.bigdata.rdf.store.LocalTripleStore;
+import com.bigdata.service.IBigdataFederation;
+import com.bigdata.striterator.IKeyOrder;
+
+/**
+ * Test suite for the bulk build of the statement indices using an
+ * {@link SPOBulkBuilder}. The statement indices built from the sorted runs
+ * are compared tuple by tuple with the statement indices of another KB onto
+ * which the same statements were written by
+ * {@link SPORelation#insert(ISPO[], int, com.bigdata.relation.accesspath.IElementFilter)}
+ * (i.e., by the {@link SPOIndexWriteProc}).
+ * 
+ * @see SPORelation#beginBulkBuild(int, File)
+ */
+public class TestSPOBulkBuilder extends AbstractTripleStoreTestCase {
+
+    public TestSPOBulkBuilder() {
+        super();
+    }
+
+    public TestSPOBulkBuilder(final String name) {
+        super(name);
+    }
+
+    /**
+     * Return a new KB.
+     * 
+     * @param axioms
+     *            When <code>true</code> the KB is created with the RDFS
+     *            axioms (unless it is a quad store, which does not support
+     *            inference). Otherwise the KB is empty.
+     */
+    private AbstractTripleStore newStore(final boolean axioms) {
+
+        final Properties properties = new Properties(getProperties());
+
+        final boolean quads = Boolean.parseBoolean(properties.getProperty(
+                AbstractTripleStore.Options.QUADS,
+                AbstractTripleStore.Options.DEFAULT_QUADS))
+                || Boolean.parseBoolean(properties.getProperty(
+                        AbstractTripleStore.Options.QUADS_MODE,
+                        AbstractTripleStore.Options.DEFAULT_QUADS_MODE));
+
+        properties.setProperty(AbstractTripleStore.Options.AXIOMS_CLASS,
+                (axioms && !quads ? RdfsAxioms.class : NoAxioms.class)
+                        .getName());
+
+        return getStore(properties);
+
+    }
+
+    /**
+     * The bulk build is only supported for the local indices of a journal
+     * or a temporary store.
+     */
+    private boolean isLocal(final AbstractTripleStore store) {
+
+        return !(store.getIndexManager() instanceof IBigdataFederation<?>);
+
+    }
+
+    private File newTmpDir() throws IOException {
+
+        final File tmpDir = File.createTempFile(getClass().getName(), ".tmp");
+
+        tmpDir.delete(); // delete random file name.
+        tmpDir.mkdir(); // recreate it as a directory.
+
+        return tmpDir;
+
+    }
+
+    private BigdataURI[] addTerms(final AbstractTripleStore store,
+            final String prefix, final int n) {
+
+        final BigdataValueFactory f = store.getValueFactory();
+
+        final BigdataURI[] a = new BigdataURI[n];
+
+        for (int i = 0; i < n; i++) {
+
+            a[i] = f.createURI("http://www.bigdata.com/" + prefix + i);
+
+        }
+
+        store.addTerms(a);
+
+        return a;
+
+    }
+
+    /**
+     * Return <i>n</i> distinct explicit statements in a random (but
+     * repeatable) order. The terms are resolved against the KB, so the same
+     * statements have the same {@link IV}s in KBs which were populated in the
+     * same order.
+     */
+    @SuppressWarnings("rawtypes")
+    private SPO[] newStatements(final AbstractTripleStore store, final int n) {
+
+        final BigdataURI[] s = addTerms(store, "s", 10);
+
+        final BigdataURI[] p = addTerms(store, "p", 3);
+
+        final BigdataURI[] o = addTerms(store, "o", 1 + n / 30);
+
+        final IV c = store.isQuads() ? addTerms(store, "c", 1)[0].getIV()
+                : null;
+
+        final List<SPO> a = new ArrayList<SPO>(n);
+
+        for (int i = 0; i < n; i++) {
+
+            a.add(new SPO(s[i % 10].getIV(), p[(i / 10) % 3].getIV(),
+                    o[i / 30].getIV(), c, StatementEnum.Explicit));
+
+        }
+
+        Collections.shuffle(a, new Random(n));
+
+        return a.toArray(new SPO[n]);
+
+    }
+
+    /**
+     * Write the statements onto the KB in chunks.
+     */
+    private void insert(final AbstractTripleStore store, final ISPO[] a,
+            final int chunkSize) {
+
+        for (int off = 0; off < a.length; off += chunkSize) {
+
+            final ISPO[] chunk = Arrays.copyOfRange(a, off,
+                    Math.min(a.length, off + chunkSize));
+
+            store.addStatements(chunk, chunk.length);
+
+        }
+
+    }
+
+    /**
+     * Verify that each statement index of the KBs has the same tuples (keys
+     * and values).
+     */
+    public static void assertSameStatementIndices(
+            final AbstractTripleStore expected,
+            final AbstractTripleStore actual) {
+
+        assertSameStatementIndices(expected, actual, false/* typesOnly */);
+
+    }
+
+    /**
+     * Verify that each statement index of the KBs has the same keys and
+     * either the same values or, when <i>typesOnly</i> is <code>true</code>,
+     * the same {@link StatementEnum}s.
+     */
+    private static void assertSameStatementIndices(
+            final AbstractTripleStore expected,
+            final AbstractTripleStore actual, final boolean typesOnly) {
+
+        final Iterator<IKeyOrder<ISPO>> itr = expected.getSPORelation()
+                .getKeyOrders();
+
+        while (itr.hasNext()) {
+
+            final IKeyOrder<ISPO> keyOrder = itr.next();
+
+            final IIndex expectedIndex = expected.getSPORelation().getIndex(
+                    keyOrder);
+
+            final IIndex actualIndex = actual.getSPORelation().getIndex(
+                    keyOrder);
+
+            assertEquals(keyOrder.toString(), expectedIndex.rangeCount(),
+                    actualIndex.rangeCount());
+
+            final ITupleIterator<?> eitr = expectedIndex.rangeIterator();
+
+            final ITupleIterator<?> aitr = actualIndex.rangeIterator();
+
+            long n = 0;
+
+            while (eitr.hasNext()) {
+
+                assertTrue(keyOrder + ": index=" + n, aitr.hasNext());
+
+                final ITuple<?> e = eitr.next();
+
+                final ITuple<?> a = aitr.next();
+
+                assertEquals(keyOrder + ": key @ index=" + n, e.getKey(),
+                        a.getKey());
+
+                if (typesOnly) {
+
+                    assertEquals(keyOrder + ": type @ index=" + n,
+                            StatementEnum.decode(e.getValue()[0]),
+                            StatementEnum.decode(a.getValue()[0]));
+
+                } else {
+
+                    assertEquals(keyOrder + ": val @ index=" + n,
+                            e.getValue(), a.getValue());
+
+                }
+
+                n++;
+
+            }
+
+            assertFalse(keyOrder.toString(), aitr.hasNext());
+
+        }
+
+    }
+
+    /**
+     * The bulk build is not supported for scale-out.
+     */
+    public void test_notLocal() {
+
+        final AbstractTripleStore store = getStore();
+
+        try {
+
+            if (isLocal(store))
+                return;
+
+            try {
+                store.getSPORelation().beginBulkBuild(10/* runSize */,
+                        null/* tmpDir */);
+                fail("Expecting: " + UnsupportedOperationException.class);
+            } catch (UnsupportedOperationException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+
+            assertFalse(store.getSPORelation().isBulkBuild());
+
+        } finally {
+
+            store.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * Load statements with a small run size, so that the sorted runs are
+     * written onto temporary files and then merged, and verify that the
+     * statement indices are the same as for an ordinary load. The run files
+     * are deleted once the indices were built.
+     */
+    public void test_bulkBuild_spillAndMerge() throws IOException {
+
+        final AbstractTripleStore expected = newStore(false/* axioms */);
+
+        final AbstractTripleStore actual = newStore(false/* axioms */);
+
+        final File tmpDir = newTmpDir();
+
+        try {
+
+            if (!isLocal(actual))
+                return;
+
+            final int nstmts = 500;
+
+            insert(expected, newStatements(expected, nstmts), 37/* chunkSize */);
+
+            final SPORelation r = actual.getSPORelation();
+
+            r.beginBulkBuild(50/* runSize */, tmpDir);
+
+            assertTrue(r.isBulkBuild());
+
+            insert(actual, newStatements(actual, nstmts), 37/* chunkSize */);
+
+            // Nothing is visible until the indices are built.
+            assertEquals(0L, actual.getStatementCount());
+
+            // The runs were written onto files (one per index and run).
+            assertTrue(tmpDir.list().length >= 10);
+
+            assertEquals(nstmts, r.endBulkBuild());
+
+            assertFalse(r.isBulkBuild());
+
+            // The run files were deleted.
+            assertEquals(0, tmpDir.list().length);
+
+            assertEquals(nstmts, actual.getStatementCount());
+
+            assertSameStatementIndices(expected, actual);
+
+        } finally {
+
+            recursiveDelete(tmpDir);
+
+            expected.__tearDownUnitTest();
+
+            actual.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * The values which a statement may have, except the {@link StatementEnum}
+     * for history and an explicit statement with the override bit (which is
+     * never written).
+     * 
+     * @param override
+     *            When <code>false</code>, the values with the override bit are
+     *            also excluded.
+     */
+    private static List<byte[]> getStatementValues(final boolean override) {
+
+        final List<byte[]> a = new ArrayList<byte[]>();
+
+        for (StatementEnum type : new StatementEnum[] {
+                StatementEnum.Explicit, StatementEnum.Axiom,
+                StatementEnum.Inferred }) {
+
+            for (boolean userFlag : new boolean[] { false, true }) {
+
+                for (boolean b : new boolean[] { false, true }) {
+
+                    if (b && (!override || type == StatementEnum.Explicit))
+                        continue;
+
+                    a.add(new byte[] { type.code(),
+                            (byte) (userFlag ? 1 : 0), (byte) (b ? 1 : 0) });
+
+                }
+
+            }
+
+        }
+
+        return a;
+
+    }
+
+    /**
+     * Return a copy of the statements in which statement <i>i</i> has the
+     * given value.
+     */
+    private static SPO[] withValues(final SPO[] stmts, final List<byte[]> vals) {
+
+        final SPO[] a = new SPO[stmts.length];
+
+        for (int i = 0; i < stmts.length; i++) {
+
+            final byte[] v = vals.get(i);
+
+            a[i] = new SPO(stmts[i].s(), stmts[i].p(), stmts[i].o(),
+                    stmts[i].c(), StatementEnum.decode(v[0]));
+
+            a[i].setUserFlag(v[1] == 1);
+
+            a[i].setOverride(v[2] == 1);
+
+        }
+
+        return a;
+
+    }
+
+    /**
+     * Each statement is written twice, once for each combination of two
+     * values (statement type, user flag and override bit). The two writes go
+     * into different runs (or into the same run) and the combined value must
+     * be the same as when the second write is applied by the
+     * {@link SPOIndexWriteProc} to the first.
+     * 
+     * @param axioms
+     *            When <code>true</code> the indices are not empty, so the
+     *            sorted tuples are written onto them by the
+     *            {@link SPOIndexWriteProc}.
+     * @param override
+     *            When <code>true</code> the values include the override bit.
+     *            For an index which is not empty, only the
+     *            {@link StatementEnum}s are compared in this case since the
+     *            user flag of a statement in the index whose
+     *            {@link StatementEnum} is not changed by the combined write
+     *            can differ (see {@link SPOBulkBuilder#combine(byte, byte)}).
+     * @param runSize
+     *            The run size for the bulk build.
+     */
+    private void doDuplicatesTest(final boolean axioms,
+            final boolean override, final int runSize) throws IOException {
+
+        final AbstractTripleStore expected = newStore(axioms);
+
+        final AbstractTripleStore actual = newStore(axioms);
+
+        final File tmpDir = newTmpDir();
+
+        try {
+
+            if (!isLocal(actual))
+                return;
+
+            final List<byte[]> vals = getStatementValues(override);
+
+            final List<byte[]> first = new ArrayList<byte[]>();
+
+            final List<byte[]> second = new ArrayList<byte[]>();
+
+            for (byte[] a : vals) {
+
+                for (byte[] b : vals) {
+
+                    first.add(a);
+
+                    second.add(b);
+
+                }
+
+            }
+
+            final int nstmts = first.size();
+
+            // Some statements are already in the indices when not empty.
+            final int npre = axioms ? nstmts / 3 : 0;
+
+            for (AbstractTripleStore store : new AbstractTripleStore[] {
+                    expected, actual }) {
+
+                final SPO[] stmts = newStatements(store, nstmts);
+
+                final SPO[] pre = withValues(
+                        Arrays.copyOf(stmts, npre),
+                        second.subList(nstmts - npre, nstmts));
+
+                insert(store, pre, pre.length);
+
+                store.commit();
+
+                if (axioms)
+                    assertTrue(store.getStatementCount() > 0);
+
+                if (store == actual)
+                    store.getSPORelation().beginBulkBuild(runSize, tmpDir);
+
+                insert(store, withValues(stmts, first), 17/* chunkSize */);
+
+                insert(store, withValues(stmts, second), 17/* chunkSize */);
+
+                if (store == actual)
+                    store.getSPORelation().endBulkBuild();
+
+            }
+
+            assertEquals(0, tmpDir.list().length);
+
+            assertSameStatementIndices(expected, actual, axioms && override);
+
+        } finally {
+
+            recursiveDelete(tmpDir);
+
+            expected.__tearDownUnitTest();
+
+            actual.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * Duplicate statements in different runs, which are combined by the
+     * merge.
+     */
+    public void test_bulkBuild_duplicatesAcrossRuns() throws IOException {
+
+        final int n = getStatementValues(true/* override */).size();
+
+        doDuplicatesTest(false/* axioms */, true/* override */,
+                n * n / 4/* runSize */);
+
+    }
+
+    /**
+     * Duplicate statements in the same run, which are combined by the sort.
+     */
+    public void test_bulkBuild_duplicatesWithinRun() throws IOException {
+
+        final int n = getStatementValues(true/* override */).size();
+
+        doDuplicatesTest(false/* axioms */, true/* override */,
+                2 * n * n + 1/* runSize */);
+
+    }
+
+    /**
+     * Bulk build into a KB which already has axioms and statements, so the
+     * sorted tuples are written onto the statement indices (rather than the
+     * indices being built bottom-up).
+     */
+    public void test_bulkBuild_notEmpty() throws IOException {
+
+        final int n = getStatementValues(false/* override */).size();
+
+        doDuplicatesTest(true/* axioms */, false/* override */,
+                n * n / 4/* runSize */);
+
+    }
+
+    /**
+     * Bulk build into a KB which is not empty with duplicate statements which
+     * have the override bit.
+     */
+    public void test_bulkBuild_notEmpty_override() throws IOException {
+
+        final int n = getStatementValues(true/* override */).size();
+
+        doDuplicatesTest(true/* axioms */, true/* override */,
+                n * n / 4/* runSize */);
+
+    }
+
+    /**
+     * Verify that {@link SPORelation#abortBulkBuild()} deletes the run files
+     * and leaves the statement indices unchanged.
+     */
+    public void test_abortBulkBuild() throws IOException {
+
+        final AbstractTripleStore expected = newStore(true/* axioms */);
+
+        final AbstractTripleStore actual = newStore(true/* axioms */);
+
+        final File tmpDir = newTmpDir();
+
+        try {
+
+            if (!isLocal(actual))
+                return;
+
+            final int nstmts = 300;
+
+            final SPO[] stmts = newStatements(expected, nstmts);
+
+            insert(expected, Arrays.copyOf(stmts, 100), 100/* chunkSize */);
+
+            final SPO[] stmts2 = newStatements(actual, nstmts);
+
+            insert(actual, Arrays.copyOf(stmts2, 100), 100/* chunkSize */);
+
+            final SPORelation r = actual.getSPORelation();
+
+            r.beginBulkBuild(20/* runSize */, tmpDir);
+
+            insert(actual, stmts2, 30/* chunkSize */);
+
+            assertTrue(tmpDir.list().length > 0);
+
+            r.abortBulkBuild();
+
+            assertFalse(r.isBulkBuild());
+
+            assertEquals(0, tmpDir.list().length);
+
+            assertSameStatementIndices(expected, actual);
+
+            try {
+                r.endBulkBuild();
+                fail("Expecting: " + IllegalStateException.class);
+            } catch (IllegalStateException ex) {
+                if (log.isInfoEnabled())
+                    log.info("Ignoring expected exception: " + ex);
+            }
+
+            // Statements are written onto the indices again.
+            insert(actual, Arrays.copyOfRange(stmts2, 100, nstmts), 30/* chunkSize */);
+
+            insert(expected, Arrays.copyOfRange(stmts, 100, nstmts), 30/* chunkSize */);
+
+            assertSameStatementIndices(expected, actual);
+
+        } finally {
+
+            recursiveDelete(tmpDir);
+
+            expected.__tearDownUnitTest();
+
+            actual.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * Verify that {@link AbstractTripleStore#abort()} discards an active bulk
+     * build, including its run files, and that the statement indices are
+     * those of the last commit.
+     */
+    public void test_abort() throws IOException {
+
+        final AbstractTripleStore expected = newStore(true/* axioms */);
+
+        AbstractTripleStore actual = newStore(true/* axioms */);
+
+        final File tmpDir = newTmpDir();
+
+        try {
+
+            if (!(actual instanceof LocalTripleStore)) {
+                // abort() is not supported.
+                return;
+            }
+
+            final int nstmts = 300;
+
+            insert(expected, Arrays.copyOf(newStatements(expected, nstmts),
+                    100), 100/* chunkSize */);
+
+            final SPO[] stmts = newStatements(actual, nstmts);
+
+            insert(actual, Arrays.copyOf(stmts, 100), 100/* chunkSize */);
+
+            actual.commit();
+
+            actual.getSPORelation().beginBulkBuild(20/* runSize */, tmpDir);
+
+            insert(actual, stmts, 30/* chunkSize */);
+
+            assertTrue(tmpDir.list().length > 0);
+
+            actual.abort();
+
+            assertEquals(0, tmpDir.list().length);
+
+            assertFalse(actual.getSPORelation().isBulkBuild());
+
+            assertSameStatementIndices(expected, actual);
+
+        } finally {
+
+            recursiveDelete(tmpDir);
+
+            expected.__tearDownUnitTest();
+
+            actual.__tearDownUnitTest();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.store;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.util.ModelUtil;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
+
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.model.BigdataStatement;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.rio.StatementBuffer;
+import com.bigdata.rdf.spo.ExplicitSPOFilter;
+import com.bigdata.rdf.util.AnalyzeInlineURIs;
+
+/**
+ * Test suite for {@link AnalyzeInlineURIs#rewrite(AbstractTripleStore, AbstractTripleStore)}.
+ */
+public class TestAnalyzeInlineURIs extends AbstractTripleStoreTestCase {
+
+    public TestAnalyzeInlineURIs() {
+    }
+
+    public TestAnalyzeInlineURIs(final String name) {
+        super(name);
+    }
+
+    /**
+     * A namespace which is inlined by
+     * {@link TestInlineURIs.CustomInlineURIFactory}.
+     */
+    private static final String NS = "http://example.com/int/";
+
+    /**
+     * Return the explicit statements in the KB.
+     */
+    private List<Statement> getExplicitStatements(
+            final AbstractTripleStore store) {
+
+        final List<Statement> stmts = new LinkedList<Statement>();
+
+        final BigdataStatementIterator itr = store.asStatementIterator(store
+                .getAccessPath(store.getSPORelation().getPrimaryKeyOrder(),
+                        ExplicitSPOFilter.INSTANCE).iterator());
+
+        try {
+
+            while (itr.hasNext()) {
+
+                stmts.add(itr.next());
+
+            }
+
+        } finally {
+
+            itr.close();
+
+        }
+
+        return stmts;
+
+    }
+
+    /**
+     * Rewrite a KB into a KB which inlines the URIs in {@link #NS} and verify
+     * that the explicit statements are the same and that those URIs are
+     * inlined by the target KB.
+     */
+    public void test_rewrite() throws Exception {
+
+        final AbstractTripleStore src = getStore(getProperties());
+
+        AbstractTripleStore dst = null;
+
+        try {
+
+            final BigdataValueFactory f = src.getValueFactory();
+
+            final BigdataURI thing = f.createURI("http://example.com/Thing");
+
+            final BigdataBNode x = f.createBNode("x");
+
+            final StatementBuffer<BigdataStatement> sb = new StatementBuffer<BigdataStatement>(
+                    src, 100/* capacity */);
+
+            for (int i = 0; i < 10; i++) {
+
+                final BigdataURI uri = f.createURI(NS + i);
+
+                sb.add(uri, RDF.TYPE, thing);
+
+                sb.add(uri, RDFS.SEEALSO, x);
+
+            }
+
+            sb.add(x, RDFS.LABEL, f.createLiteral("x"));
+
+            sb.flush();
+
+            src.commit();
+
+            assertFalse(src.getIV(new URIImpl(NS + "1")).isInline());
+
+            final Properties props = new Properties(getProperties());
+
+            props.setProperty(AbstractTripleStore.Options.VOCABULARY_CLASS,
+                    TestInlineURIs.CustomVocab.class.getName());
+
+            props.setProperty(
+                    AbstractTripleStore.Options.INLINE_URI_FACTORY_CLASS,
+                    TestInlineURIs.CustomInlineURIFactory.class.getName());
+
+            dst = getStore(props);
+
+            final long n = AnalyzeInlineURIs.rewrite(src, dst);
+
+            dst.commit();
+
+            final List<Statement> expected = getExplicitStatements(src);
+
+            final List<Statement> actual = getExplicitStatements(dst);
+
+            assertEquals(21, expected.size());
+
+            assertEquals(expected.size(), n);
+
+            assertEquals(expected.size(), actual.size());
+
+            assertTrue(ModelUtil.equals(expected, actual));
+
+            assertTrue(dst.getIV(new URIImpl(NS + "1")).isInline());
+
+        } finally {
+
+            src.__tearDownUnitTest();
+
+            if (dst != null)
+                dst.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * A KB may not be rewritten onto itself.
+     */
+    public void test_rewrite_sameKB() {
+
+        final AbstractTripleStore store = getStore(getProperties());
+
+        try {
+
+            AnalyzeInlineURIs.rewrite(store, store);
+
+            fail("Expecting: " + IllegalArgumentException.class);
+
+        } catch (IllegalArgumentException ex) {
+
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+
+        } finally {
+
+            store.__tearDownUnitTest();
+
+        }
+
+    }
+
+}
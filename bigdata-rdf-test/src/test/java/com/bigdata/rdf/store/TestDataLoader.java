@@ -28,13 +28,23 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFParseException;
 
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.rio.LoadStats;
+import com.bigdata.rdf.rio.RDFParserOptions;
+import com.bigdata.rdf.spo.TestSPOBulkBuilder;
 import com.bigdata.rdf.store.DataLoader.ClosureEnum;
 import com.bigdata.rdf.store.DataLoader.CommitEnum;
+import com.bigdata.service.IBigdataFederation;
 import com.bigdata.util.InnerCause;
 
 /**
@@ -359,6 +369,293 @@ public class TestDataLoader extends AbstractTripleStoreTestCase {
 
 	}
 	
+	/**
+	 * Test durable queues using {@link DataLoader.Options#PARSER_THREADS},
+	 * {@link CommitEnum#Batch} and {@link ClosureEnum#None}.
+	 */
+	public void test_durableQueues03_parallelParsers() throws IOException {
+
+		final AbstractTripleStore store = getStore();
+
+		try {
+
+			final Properties properties = new Properties(store.getProperties());
+
+			// enable durable queues.
+			properties.setProperty(DataLoader.Options.DURABLE_QUEUES, "true");
+
+			// Parse the files concurrently.
+			properties.setProperty(DataLoader.Options.PARSER_THREADS, "2");
+
+			properties.setProperty(DataLoader.Options.COMMIT, CommitEnum.Batch.name());
+
+			properties.setProperty(DataLoader.Options.CLOSURE, ClosureEnum.None.name());
+
+			final DataLoader dataLoader = new DataLoader(properties, store);
+
+			doDurableQueueTest(dataLoader);
+			
+		} finally {
+
+			store.__tearDownUnitTest();
+		}
+
+	}
+
+	/**
+	 * Test that all statements are loaded when several files are parsed
+	 * concurrently using {@link DataLoader.Options#PARSER_THREADS}.
+	 */
+	public void test_parallelParsers01() throws IOException {
+
+		final AbstractTripleStore store = getStore();
+
+		// temporary directory where we setup the test.
+		final File tmpDir = File.createTempFile(getClass().getName(), ".tmp");
+
+		try {
+
+			tmpDir.delete(); // delete random file name.
+			tmpDir.mkdir(); // recreate it as a directory.
+
+			final int nfiles = 7;
+
+			final int nstmts = 50;
+
+			for (int i = 0; i < nfiles; i++) {
+
+				final StringBuilder sb = new StringBuilder();
+
+				sb.append("@prefix bd: <http://www.bigdata.com/> .\n");
+
+				// Note: the files have different sizes.
+				for (int j = 0; j < nstmts + i; j++) {
+
+					sb.append("bd:s" + i + " bd:p bd:o" + j + " .\n");
+
+				}
+
+				// Note: this statement is present in every file.
+				sb.append("bd:s bd:p bd:o .\n");
+
+				writeOnFile(new File(tmpDir, "file" + i + ".ttl"), sb.toString());
+
+			}
+
+			final Properties properties = new Properties(store.getProperties());
+
+			properties.setProperty(DataLoader.Options.PARSER_THREADS, "3");
+
+			properties.setProperty(DataLoader.Options.CLOSURE, ClosureEnum.None.name());
+
+			final DataLoader dataLoader = new DataLoader(properties, store);
+
+			final LoadStats stats = dataLoader.loadFiles(tmpDir, null/* baseURI */, RDFFormat.TURTLE,
+					null/* defaultGraph */, null/* filter */);
+
+			final long expected = nfiles * nstmts + (nfiles * (nfiles - 1)) / 2 + 1;
+
+			assertEquals(expected + nfiles - 1, stats.toldTriples.get());
+
+			assertEquals(expected, store.getExplicitStatementCount(null/* c */));
+
+		} finally {
+
+			// destroy the temporary directory.
+			recursiveDelete(tmpDir);
+
+			store.__tearDownUnitTest();
+
+		}
+
+	}
+
+	/**
+	 * Test that a load using {@link DataLoader.Options#BULK_BUILD} produces
+	 * the same statement indices as an ordinary load. The statements of the
+	 * second file are loaded onto the statement indices built for the first
+	 * file, so this also covers a bulk build onto indices which are not empty.
+	 */
+	public void test_bulkBuild01() throws IOException {
+
+		final AbstractTripleStore expected = getStore();
+
+		final AbstractTripleStore actual = getStore();
+
+		// temporary directory where we setup the test.
+		final File tmpDir = File.createTempFile(getClass().getName(), ".tmp");
+
+		try {
+
+			if (actual.getIndexManager() instanceof IBigdataFederation<?>) {
+				// The bulk build is not supported for scale-out.
+				return;
+			}
+
+			tmpDir.delete(); // delete random file name.
+			tmpDir.mkdir(); // recreate it as a directory.
+
+			final File[] files = new File[2];
+
+			for (int i = 0; i < files.length; i++) {
+
+				final StringBuilder sb = new StringBuilder();
+
+				sb.append("@prefix bd: <http://www.bigdata.com/> .\n");
+
+				for (int j = 0; j < 200; j++) {
+
+					sb.append("bd:s" + (j % 7) + " bd:p" + (j % 3) + " bd:o" + (j + i * 100) + " .\n");
+
+				}
+
+				// Note: this statement is present in every file.
+				sb.append("bd:s bd:p bd:o .\n");
+
+				files[i] = new File(tmpDir, "file" + i + ".ttl");
+
+				writeOnFile(files[i], sb.toString());
+
+			}
+
+			for (AbstractTripleStore store : new AbstractTripleStore[] { expected, actual }) {
+
+				final Properties properties = new Properties(store.getProperties());
+
+				properties.setProperty(DataLoader.Options.BULK_BUILD, Boolean.toString(store == actual));
+
+				properties.setProperty(DataLoader.Options.CLOSURE, ClosureEnum.None.name());
+
+				final DataLoader dataLoader = new DataLoader(properties, store);
+
+				for (File file : files) {
+
+					dataLoader.loadFiles(file, null/* baseURI */, RDFFormat.TURTLE, null/* defaultGraph */,
+							null/* filter */);
+
+				}
+
+				assertFalse(store.getSPORelation().isBulkBuild());
+
+			}
+
+			assertEquals(expected.getStatementCount(), actual.getStatementCount());
+
+			TestSPOBulkBuilder.assertSameStatementIndices(expected, actual);
+
+		} finally {
+
+			// destroy the temporary directory.
+			recursiveDelete(tmpDir);
+
+			expected.__tearDownUnitTest();
+
+			actual.__tearDownUnitTest();
+
+		}
+
+	}
+
+	/**
+	 * Test that the blank nodes of each file are co-referenced when the
+	 * buffer is flushed while several files are parsed concurrently. Each
+	 * file is reported in more than one chunk, so the buffer is flushed
+	 * between the statements which use the blank node of a file.
+	 */
+	@SuppressWarnings("rawtypes")
+	public void test_parallelParsers02_flush() throws Exception {
+
+		final AbstractTripleStore store = getStore();
+
+		// temporary directory where we setup the test.
+		final File tmpDir = File.createTempFile(getClass().getName(), ".tmp");
+
+		try {
+
+			tmpDir.delete(); // delete random file name.
+			tmpDir.mkdir(); // recreate it as a directory.
+
+			final int nfiles = 3;
+
+			final int nstmts = ParallelFileLoader.CHUNK_SIZE + 50;
+
+			for (int i = 0; i < nfiles; i++) {
+
+				final StringBuilder sb = new StringBuilder();
+
+				sb.append("@prefix bd: <http://www.bigdata.com/> .\n");
+
+				// Note: the same label is used in every file.
+				for (int j = 0; j < nstmts; j++) {
+
+					sb.append("_:a bd:p bd:o" + j + " .\n");
+
+				}
+
+				sb.append("bd:s" + i + " bd:q _:a .\n");
+
+				writeOnFile(new File(tmpDir, "file" + i + ".ttl"), sb.toString());
+
+			}
+
+			final Properties properties = new Properties(store.getProperties());
+
+			properties.setProperty(DataLoader.Options.CLOSURE, ClosureEnum.None.name());
+
+			final DataLoader dataLoader = new DataLoader(properties, store);
+
+			final ParallelFileLoader loader = new ParallelFileLoader(dataLoader,
+					dataLoader.getAssertionBuffer(), new RDFParserOptions(),
+					nfiles/* parserThreads */, false/* ignoreInvalidFiles */,
+					100/* flushSize */, new HashMap<String, BigdataBNode>());
+
+			loader.loadFiles(dataLoader.newLoadStats(),
+					ParallelFileLoader.getFiles(tmpDir, null/* filter */),
+					null/* baseURI */, RDFFormat.TURTLE, null/* defaultGraph */);
+
+			dataLoader.endSource();
+
+			assertTrue(loader.getFlushCount() > 0);
+
+			assertEquals(nfiles * (nstmts + 1),
+					store.getExplicitStatementCount(null/* c */));
+
+			// One blank node per file.
+			final BigdataURI p = store.getValueFactory().createURI(
+					"http://www.bigdata.com/p");
+
+			final Set<IV> subjects = new HashSet<IV>();
+
+			final BigdataStatementIterator itr = store.getStatements(
+					null/* s */, p, null/* o */);
+
+			try {
+
+				while (itr.hasNext()) {
+
+					subjects.add(itr.next().getSubject().getIV());
+
+				}
+
+			} finally {
+
+				itr.close();
+
+			}
+
+			assertEquals(nfiles, subjects.size());
+
+		} finally {
+
+			// destroy the temporary directory.
+			recursiveDelete(tmpDir);
+
+			store.__tearDownUnitTest();
+
+		}
+
+	}
+
 	private void doDurableQueueTest(final DataLoader dataLoader) throws IOException {
 		
 		// temporary directory where we setup the test.
@@ -0,0 +1,291 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.store;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.util.ModelUtil;
+import org.openrdf.model.vocabulary.RDFS;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.helpers.StatementCollector;
+
+import com.bigdata.rdf.model.BigdataBNode;
+import com.bigdata.rdf.model.BigdataURI;
+import com.bigdata.rdf.model.BigdataValueFactory;
+import com.bigdata.rdf.rio.binary.BigdataBinaryRDFParser;
+import com.bigdata.rdf.spo.ExplicitSPOFilter;
+import com.bigdata.service.ndx.IScaleOutClientIndex;
+
+/**
+ * Test suite for {@link ParallelBinaryExport}.
+ */
+public class TestParallelBinaryExport extends AbstractTripleStoreTestCase {
+
+    public TestParallelBinaryExport() {
+    }
+
+    public TestParallelBinaryExport(final String name) {
+        super(name);
+    }
+
+    /**
+     * Load some data, including inline values, blank nodes and values which
+     * are stored in the BLOBS index.
+     */
+    private void loadData(final AbstractTripleStore store) throws IOException {
+
+        final String resource = "com/bigdata/rdf/store/sample-data.ttl";
+
+        new DataLoader(store).loadData(resource,
+                new File(resource).toURI().toString(), RDFFormat.TURTLE);
+
+        final BigdataValueFactory f = store.getValueFactory();
+
+        final BigdataURI mike = f.createURI("http://www.bigdata.com/Mike");
+        final BigdataURI age = f.createURI("http://www.bigdata.com/age");
+        final BigdataURI address = f.createURI("http://www.bigdata.com/address");
+        final BigdataBNode x = f.createBNode("x");
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("a long comment ");
+        }
+
+        store.addStatement(mike, age, f.createLiteral(42));
+        store.addStatement(mike, RDFS.COMMENT, f.createLiteral(sb.toString()));
+        store.addStatement(mike, address, x);
+        store.addStatement(x, RDFS.LABEL, f.createLiteral("DC"));
+
+        store.commit();
+
+    }
+
+    /**
+     * Return the explicit statements in the KB.
+     */
+    private List<Statement> getExplicitStatements(
+            final AbstractTripleStore store) {
+
+        final List<Statement> stmts = new LinkedList<Statement>();
+
+        final BigdataStatementIterator itr = store.asStatementIterator(store
+                .getAccessPath(store.getSPORelation().getPrimaryKeyOrder(),
+                        ExplicitSPOFilter.INSTANCE).iterator());
+
+        try {
+
+            while (itr.hasNext()) {
+
+                stmts.add(itr.next());
+
+            }
+
+        } finally {
+
+            itr.close();
+
+        }
+
+        return stmts;
+
+    }
+
+    /**
+     * Parse the exported files.
+     */
+    private List<Statement> parse(final List<File> files) throws Exception {
+
+        final StatementCollector c = new StatementCollector();
+
+        for (File file : files) {
+
+            final BigdataBinaryRDFParser p = new BigdataBinaryRDFParser(
+                    ValueFactoryImpl.getInstance());
+
+            p.setRDFHandler(c);
+
+            final InputStream is = new GZIPInputStream(new FileInputStream(
+                    file));
+
+            try {
+
+                p.parse(is, ""/* baseURI */);
+
+            } finally {
+
+                is.close();
+
+            }
+
+        }
+
+        return new LinkedList<Statement>(c.getStatements());
+
+    }
+
+    private File getTempDir() throws IOException {
+
+        final File dir = File.createTempFile(getName(), ".dir");
+
+        if (!dir.delete() || !dir.mkdirs())
+            fail("Could not create directory: " + dir);
+
+        return dir;
+
+    }
+
+    private static void delete(final File dir) {
+
+        final File[] files = dir.listFiles();
+
+        if (files != null) {
+
+            for (File file : files) {
+
+                file.delete();
+
+            }
+
+        }
+
+        dir.delete();
+
+    }
+
+    /**
+     * Export using several key ranges and small blocks and verify that the
+     * exported statements are the explicit statements in the KB.
+     */
+    public void test_export() throws Exception {
+
+        final AbstractTripleStore store = getStore();
+
+        final File dir = getTempDir();
+
+        try {
+
+            loadData(store);
+
+            final List<File> files = new ParallelBinaryExport(store, dir,
+                    3/* nparts */, 5/* blockSize */, false/* includeInferred */)
+                    .export();
+
+            if (!(store.getSPORelation().getPrimaryIndex() instanceof IScaleOutClientIndex)) {
+
+                // One file per key range.
+                assertEquals(3, files.size());
+
+            }
+
+            for (File file : files) {
+
+                assertTrue(file.getName().endsWith(".bgb.gz"));
+
+                assertTrue(file.exists());
+
+            }
+
+            final List<Statement> expected = getExplicitStatements(store);
+
+            final List<Statement> actual = parse(files);
+
+            assertEquals(expected.size(), actual.size());
+
+            assertTrue(ModelUtil.equals(expected, actual));
+
+        } finally {
+
+            delete(dir);
+
+            store.__tearDownUnitTest();
+
+        }
+
+    }
+
+    /**
+     * Export a KB and load the exported files into another KB using the
+     * {@link DataLoader}. Each statement is written onto its own file, so the
+     * statements using the blank node as their subject and as their object
+     * are in different files and the blank node must be co-referenced across
+     * the files.
+     */
+    public void test_exportAndLoad() throws Exception {
+
+        final AbstractTripleStore store = getStore();
+
+        AbstractTripleStore store2 = null;
+
+        final File dir = getTempDir();
+
+        try {
+
+            loadData(store);
+
+            final int nparts = (int) store.getSPORelation().getPrimaryIndex()
+                    .rangeCount();
+
+            new ParallelBinaryExport(store, dir, nparts, 1000/* blockSize */,
+                    false/* includeInferred */).export();
+
+            store2 = getStore(getProperties());
+
+            new DataLoader(store2).loadFiles(dir, null/* baseURI */,
+                    null/* rdfFormat */, null/* defaultGraph */, null/* filter */);
+
+            final List<Statement> expected = getExplicitStatements(store);
+
+            final List<Statement> actual = getExplicitStatements(store2);
+
+            assertEquals(expected.size(), actual.size());
+
+            assertTrue(ModelUtil.equals(expected, actual));
+
+        } finally {
+
+            delete(dir);
+
+            store.__tearDownUnitTest();
+
+            if (store2 != null)
+                store2.__tearDownUnitTest();
+
+        }
+
+    }
+
+}
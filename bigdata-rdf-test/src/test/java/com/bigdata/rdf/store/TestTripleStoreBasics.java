@@ -104,6 +104,9 @@ public class TestTripleStoreBasics extends TestCase2 {
 
         // the DataLoader utility.
         suite.addTestSuite(TestDataLoader.class);
+
+        // parallel export of the native binary format.
+        suite.addTestSuite(TestParallelBinaryExport.class);
         
 		/**
 		 * Test suite for configuration of the BLOBS index support.
@@ -120,6 +123,9 @@ public class TestTripleStoreBasics extends TestCase2 {
         // See BLZG-1507 (Implement support for DTE extension types for URIs)
         suite.addTestSuite(com.bigdata.rdf.store.TestInlineURIs.class);
 
+        // rewrite of a KB using a different inline URI configuration.
+        suite.addTestSuite(TestAnalyzeInlineURIs.class);
+
         return suite;
 
     }
@@ -86,6 +86,9 @@ public class TestAll extends TestCase {
         // bootstrap tests for the BigdataSail
         suite.addTestSuite(TestBootstrapBigdataSail.class);
 
+        // test suite for the dependencies of materialized views.
+        suite.addTestSuite(TestMaterializedView.class);
+
         // run the test suite with statement identifiers enabled.
         suite.addTest(TestBigdataSailWithSids.suite());
         
@@ -0,0 +1,354 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sail;
+
+import java.io.File;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+
+import com.bigdata.journal.BufferMode;
+import com.bigdata.rdf.axioms.NoAxioms;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.VTE;
+import com.bigdata.rdf.internal.impl.TermId;
+import com.bigdata.rdf.model.BigdataValue;
+import com.bigdata.rdf.sail.BigdataSail.BigdataSailConnection;
+import com.bigdata.rdf.sail.BigdataSail.Options;
+import com.bigdata.rdf.sail.MaterializedView.Dependencies;
+import com.bigdata.rdf.spo.SPO;
+
+/**
+ * Test suite for {@link MaterializedView}.
+ */
+public class TestMaterializedView extends TestCase2 {
+
+    public TestMaterializedView() {
+    }
+
+    public TestMaterializedView(final String name) {
+        super(name);
+    }
+
+    private static IV<?, ?> uri(final long termId) {
+
+        return new TermId<BigdataValue>(VTE.URI, termId);
+
+    }
+
+    /**
+     * Verify that a changed statement affects a view iff it matches one of
+     * the statement patterns of the view.
+     */
+    public void test_dependencies() {
+
+        final IV<?, ?> s1 = uri(1), s2 = uri(2);
+        final IV<?, ?> type = uri(3), label = uri(4), name = uri(5);
+        final IV<?, ?> person = uri(6), org = uri(7);
+
+        final List<IV<?, ?>[]> patterns = new LinkedList<IV<?, ?>[]>();
+
+        // ?x rdf:type :Person
+        patterns.add(new IV[] { null, type, person, null });
+
+        // ?x rdfs:label ?label
+        patterns.add(new IV[] { null, label, null, null });
+
+        final Dependencies deps = new Dependencies(patterns);
+
+        assertTrue(deps.isAffectedBy(new SPO(s1, type, person)));
+        assertTrue(deps.isAffectedBy(new SPO(s2, label, s1)));
+        assertTrue(deps.isAffectedBy(new SPO(s2, label, s1, org)));
+
+        // Wrong object for rdf:type.
+        assertFalse(deps.isAffectedBy(new SPO(s1, type, org)));
+
+        // Predicate is not used by the view.
+        assertFalse(deps.isAffectedBy(new SPO(s1, name, person)));
+
+    }
+
+    /**
+     * Verify that any change affects a view whose dependencies are unknown.
+     */
+    public void test_dependencies_any() {
+
+        assertTrue(Dependencies.ANY.isAffectedBy(new SPO(uri(1), uri(2),
+                uri(3))));
+
+    }
+
+    /**
+     * Verify that a view must be defined by a SELECT query.
+     */
+    public void test_parse() throws Exception {
+
+        new MaterializedView("kb", "set1",
+                "SELECT ?x WHERE { ?x ?p ?o }", null/* baseURI */).parse();
+
+        try {
+            new MaterializedView("kb", "set1",
+                    "ASK WHERE { ?x ?p ?o }", null/* baseURI */).parse();
+            fail("Expecting: " + org.openrdf.query.MalformedQueryException.class);
+        } catch (org.openrdf.query.MalformedQueryException ex) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + ex);
+        }
+
+    }
+
+    /**
+     * Return the properties for a KB which supports named solution sets.
+     */
+    private Properties getProperties(final File file) {
+
+        final Properties properties = new Properties();
+
+        properties.setProperty(Options.FILE, file.getAbsolutePath());
+
+        properties.setProperty(Options.BUFFER_MODE, BufferMode.DiskRW.toString());
+
+        properties.setProperty(Options.ISOLATABLE_INDICES, "false");
+
+        properties.setProperty(Options.TRUTH_MAINTENANCE, "false");
+
+        properties.setProperty(Options.AXIOMS_CLASS, NoAxioms.class.getName());
+
+        properties.setProperty(Options.TEXT_INDEX, "false");
+
+        return properties;
+
+    }
+
+    /**
+     * Return the #of solutions read from the named solution set using
+     * <code>INCLUDE</code> against the last commit point.
+     */
+    private int countIncluded(final BigdataSail sail, final String solutionSet)
+            throws Exception {
+
+        final BigdataSailRepositoryConnection cxn = new BigdataSailRepository(
+                sail).getReadOnlyConnection();
+
+        try {
+
+            final TupleQueryResult result = cxn.prepareTupleQuery(
+                    QueryLanguage.SPARQL,
+                    "SELECT * WHERE { INCLUDE %" + solutionSet + " }")
+                    .evaluate();
+
+            try {
+
+                int n = 0;
+
+                while (result.hasNext()) {
+                    result.next();
+                    n++;
+                }
+
+                return n;
+
+            } finally {
+
+                result.close();
+
+            }
+
+        } finally {
+
+            cxn.close();
+
+        }
+
+    }
+
+    /**
+     * Return the names of the views listed by the SERVICE against the last
+     * commit point.
+     */
+    private List<String> listViews(final BigdataSail sail) throws Exception {
+
+        final BigdataSailRepositoryConnection cxn = new BigdataSailRepository(
+                sail).getReadOnlyConnection();
+
+        try {
+
+            final TupleQueryResult result = cxn.prepareTupleQuery(
+                    QueryLanguage.SPARQL,
+                    "PREFIX bd: <http://www.bigdata.com/rdf#>\n"
+                            + "SELECT ?name ?query WHERE {\n"
+                            + "  SERVICE bd:materializedViews {\n"
+                            + "    ?view bd:solutionSet ?name ; bd:query ?query .\n"
+                            + "  }\n"
+                            + "}").evaluate();
+
+            try {
+
+                final List<String> names = new LinkedList<String>();
+
+                while (result.hasNext()) {
+
+                    final BindingSet bs = result.next();
+
+                    assertNotNull(bs.getValue("query"));
+
+                    names.add(bs.getValue("name").stringValue());
+
+                }
+
+                return names;
+
+            } finally {
+
+                result.close();
+
+            }
+
+        } finally {
+
+            cxn.close();
+
+        }
+
+    }
+
+    /**
+     * Verify that a view is maintained end-to-end: the named solution set
+     * read using <code>INCLUDE</code> reflects each committed update, a
+     * rolled back update does not change it, the view is listed by the
+     * SERVICE, and the registration survives a restart.
+     */
+    public void test_update_commit_include() throws Exception {
+
+        final File file = File.createTempFile(getName(), Options.JNL);
+
+        file.deleteOnExit();
+
+        final URI a = new URIImpl("http://example.org/a");
+        final URI b = new URIImpl("http://example.org/b");
+        final URI c = new URIImpl("http://example.org/c");
+        final URI knows = new URIImpl("http://example.org/knows");
+        final URI likes = new URIImpl("http://example.org/likes");
+
+        final MaterializedViewServiceFactory factory = MaterializedViewServiceFactory
+                .getInstance();
+
+        BigdataSail sail = new BigdataSail(getProperties(file));
+
+        try {
+
+            sail.initialize();
+
+            // Register the view.
+            BigdataSailConnection conn = sail.getUnisolatedConnection();
+            try {
+                conn.addStatement(a, knows, b);
+                factory.registerView(conn, "knows",
+                        "SELECT ?x ?y WHERE { ?x <http://example.org/knows> ?y }",
+                        null/* baseURI */);
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+
+            assertEquals(1, countIncluded(sail, "knows"));
+
+            // Update, commit, and then read the view.
+            conn = sail.getUnisolatedConnection();
+            try {
+                conn.addStatement(b, knows, c);
+                conn.addStatement(b, likes, c);
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+
+            assertEquals(2, countIncluded(sail, "knows"));
+
+            // Rollback does not change the view.
+            conn = sail.getUnisolatedConnection();
+            try {
+                conn.addStatement(c, knows, a);
+                conn.rollback();
+            } finally {
+                conn.close();
+            }
+
+            assertEquals(2, countIncluded(sail, "knows"));
+
+            // The view is listed by the SERVICE.
+            final List<String> expected = new LinkedList<String>();
+            expected.add("knows");
+            assertEquals(expected, listViews(sail));
+
+            // Restart.
+            sail.shutDown();
+
+            sail = new BigdataSail(getProperties(file));
+
+            sail.initialize();
+
+            // The view is still maintained.
+            conn = sail.getUnisolatedConnection();
+            try {
+                conn.addStatement(c, knows, a);
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+
+            assertEquals(3, countIncluded(sail, "knows"));
+
+            // Drop the view.
+            conn = sail.getUnisolatedConnection();
+            try {
+                assertTrue(factory.dropView(conn, "knows"));
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+
+            assertEquals(0, listViews(sail).size());
+
+        } finally {
+
+            sail.__tearDownUnitTest();
+
+        }
+
+    }
+
+}
@@ -84,6 +84,8 @@ public class TestAll extends TestCase {
             //BLZG-1773
             suite.addTestSuite(TestPrefixDeclProcessor.class);
 
+            suite.addTestSuite(TestStreamingUpdateDataParser.class);
+
         } catch (Exception ex) {
 
             throw new RuntimeException(ex);
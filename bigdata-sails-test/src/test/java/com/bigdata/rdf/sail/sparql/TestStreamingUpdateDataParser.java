@@ -0,0 +1,287 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.sail.sparql;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.Statement;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ContextStatementImpl;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.StatementCollector;
+
+/**
+ * Test suite for {@link StreamingUpdateDataParser}.
+ */
+public class TestStreamingUpdateDataParser extends TestCase2 {
+
+    public TestStreamingUpdateDataParser() {
+    }
+
+    public TestStreamingUpdateDataParser(final String name) {
+        super(name);
+    }
+
+    private static final String ex = "http://example.org/";
+
+    private final ValueFactory vf = ValueFactoryImpl.getInstance();
+
+    private List<Statement> parse(final StreamingUpdateDataParser parser)
+            throws IOException, MalformedQueryException, RDFHandlerException {
+
+        final List<Statement> stmts = new LinkedList<Statement>();
+
+        parser.parse(vf, new StatementCollector(stmts));
+
+        return stmts;
+
+    }
+
+    /**
+     * An INSERT DATA operation whose data block has braces inside of string
+     * literals, IRIs and comments.
+     */
+    public void test_insertData() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("PREFIX ex: <" + ex + ">\n"//
+                        + "INSERT DATA {\n"//
+                        + "  ex:a ex:p \"x}\" , '''y\"}''' .\n"//
+                        + "  <http://example.org/b#c> ex:p ex:c . # } comment\n"//
+                        + "  GRAPH ex:g { ex:a ex:p \"\" }\n"//
+                        + "}\n"), null/* baseURI */);
+
+        assertTrue(parser.next());
+
+        assertTrue(parser.isInsert());
+
+        final List<Statement> stmts = parse(parser);
+
+        assertEquals(4, stmts.size());
+
+        assertTrue(stmts.contains(new StatementImpl(new URIImpl(ex + "a"),
+                new URIImpl(ex + "p"), new LiteralImpl("x}"))));
+
+        assertTrue(stmts.contains(new StatementImpl(new URIImpl(ex + "a"),
+                new URIImpl(ex + "p"), new LiteralImpl("y\"}"))));
+
+        assertTrue(stmts.contains(new StatementImpl(new URIImpl(ex + "b#c"),
+                new URIImpl(ex + "p"), new URIImpl(ex + "c"))));
+
+        assertTrue(stmts.contains(new ContextStatementImpl(new URIImpl(ex
+                + "a"), new URIImpl(ex + "p"), new LiteralImpl(""),
+                new URIImpl(ex + "g"))));
+
+        assertFalse(parser.next());
+
+        assertTrue(parser.isExhausted());
+
+    }
+
+    /**
+     * A sequence of data operations. The prefix declarations are shared with
+     * the following operations.
+     */
+    public void test_sequence() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("prefix ex: <" + ex + ">"//
+                        + " insert data { ex:a ex:p ex:b } ;"//
+                        + " DELETE DATA { ex:a ex:p ex:c } ;"), null/* baseURI */);
+
+        assertTrue(parser.next());
+
+        assertTrue(parser.isInsert());
+
+        assertEquals(1, parse(parser).size());
+
+        assertTrue(parser.next());
+
+        assertFalse(parser.isInsert());
+
+        final List<Statement> stmts = parse(parser);
+
+        assertEquals(1, stmts.size());
+
+        assertEquals(new URIImpl(ex + "c"), stmts.get(0).getObject());
+
+        assertFalse(parser.next());
+
+        assertTrue(parser.isExhausted());
+
+    }
+
+    /**
+     * The base declaration and the base URI of the request.
+     */
+    public void test_base() throws Exception {
+
+        StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("BASE <" + ex + "> INSERT DATA { <a> <p> <b> }"),
+                "http://other.org/");
+
+        assertTrue(parser.next());
+
+        assertEquals(new URIImpl(ex + "a"), parse(parser).get(0).getSubject());
+
+        parser = new StreamingUpdateDataParser(new StringReader(
+                "INSERT DATA { <a> <p> <b> }"), ex);
+
+        assertTrue(parser.next());
+
+        assertEquals(new URIImpl(ex + "a"), parse(parser).get(0).getSubject());
+
+    }
+
+    /**
+     * The remainder of the request starting with an operation other than
+     * INSERT DATA or DELETE DATA.
+     */
+    public void test_remainder() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("PREFIX ex: <" + ex + ">"//
+                        + " INSERT DATA { ex:a ex:p ex:b } ;\n"//
+                        + " DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }"), null/* baseURI */);
+
+        assertTrue(parser.next());
+
+        assertEquals(1, parse(parser).size());
+
+        assertFalse(parser.next());
+
+        assertFalse(parser.isExhausted());
+
+        assertEquals("PREFIX ex: <" + ex + ">\n\n"
+                + " DELETE { ?s ?p ?o } WHERE { ?s ?p ?o }",
+                parser.getRemainder());
+
+    }
+
+    /**
+     * The base and prefix declarations which precede the data operations are
+     * prepended to the remainder of the request and are used by the following
+     * data operations.
+     */
+    public void test_remainderDeclarations() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("BASE <" + ex + "> PREFIX ex: <" + ex + ">"//
+                        + " INSERT DATA { <a> ex:p ex:b } ;"//
+                        + " DELETE DATA { <a> ex:p ex:c } ;\n"//
+                        + " DELETE WHERE { <a> ?p ?o }"), "http://other.org/");
+
+        assertTrue(parser.next());
+
+        assertEquals(new URIImpl(ex + "a"), parse(parser).get(0).getSubject());
+
+        assertTrue(parser.next());
+
+        assertEquals(new URIImpl(ex + "a"), parse(parser).get(0).getSubject());
+
+        assertFalse(parser.next());
+
+        assertEquals("BASE <" + ex + ">\nPREFIX ex: <" + ex + ">\n\n"
+                + " DELETE WHERE { <a> ?p ?o }", parser.getRemainder());
+
+    }
+
+    /**
+     * A request which does not begin with INSERT DATA or DELETE DATA is
+     * returned in full.
+     */
+    public void test_notData() throws Exception {
+
+        final String s = "PREFIX ex: <" + ex + ">\n"
+                + "INSERT { ex:a ex:p ?o } WHERE { ?s ?p ?o }";
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader(s), null/* baseURI */);
+
+        assertFalse(parser.next());
+
+        assertFalse(parser.isExhausted());
+
+        assertEquals(s, parser.getRemainder());
+
+    }
+
+    /**
+     * A data block which is not closed.
+     */
+    public void test_truncated() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("INSERT DATA { <" + ex + "a> <" + ex
+                        + "p> \"}\" ."), null/* baseURI */);
+
+        assertTrue(parser.next());
+
+        try {
+            parse(parser);
+            fail("Expecting: " + MalformedQueryException.class);
+        } catch (MalformedQueryException e) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + e);
+        }
+
+    }
+
+    /**
+     * Data operations which are not separated by a semicolon.
+     */
+    public void test_missingSemicolon() throws Exception {
+
+        final StreamingUpdateDataParser parser = new StreamingUpdateDataParser(
+                new StringReader("INSERT DATA { } INSERT DATA { }"), null/* baseURI */);
+
+        assertTrue(parser.next());
+
+        assertEquals(0, parse(parser).size());
+
+        try {
+            parser.next();
+            fail("Expecting: " + MalformedQueryException.class);
+        } catch (MalformedQueryException e) {
+            if (log.isInfoEnabled())
+                log.info("Ignoring expected exception: " + e);
+        }
+
+    }
+
+}
@@ -62,6 +62,8 @@ public class TestAll extends TestCase {
 
         suite.addTestSuite(TestServiceWhiteList.class);
 
+        suite.addTestSuite(TestStreamingSolutionWriter.class);
+
 //
 //        /*
 //         * WebApp Client.
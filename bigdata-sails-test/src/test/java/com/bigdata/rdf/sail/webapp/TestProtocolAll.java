@@ -35,6 +35,7 @@ public class TestProtocolAll  extends TestCase  {
         suite.addTestSuite(ExampleProtocolTest.class);
         suite.addTestSuite(TestRelease123Protocol.class);
         suite.addTestSuite(TestPostNotURLEncoded.class);
+        suite.addTestSuite(TestStreamingSparqlUpdate.class);
         suite.addTestSuite(TestAskJsonTrac704.class);
         return suite;
     }
@@ -0,0 +1,152 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+
+package com.bigdata.rdf.sail.webapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase2;
+
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.query.resultio.TupleQueryResultFormat;
+
+import com.bigdata.bop.Constant;
+import com.bigdata.bop.IBindingSet;
+import com.bigdata.bop.IVariable;
+import com.bigdata.bop.Var;
+import com.bigdata.bop.bindingSet.ListBindingSet;
+import com.bigdata.rdf.internal.IV;
+import com.bigdata.rdf.internal.impl.literal.FullyInlineTypedLiteralIV;
+import com.bigdata.rdf.internal.impl.literal.XSDNumericIV;
+import com.bigdata.rdf.internal.impl.uri.FullyInlineURIIV;
+import com.bigdata.relation.accesspath.ThickCloseableIterator;
+
+/**
+ * Test suite for {@link StreamingSolutionWriter}. The solutions only use
+ * inline {@link IV}s so they can be written without a lexicon.
+ */
+public class TestStreamingSolutionWriter extends TestCase2 {
+
+    public TestStreamingSolutionWriter() {
+    }
+
+    public TestStreamingSolutionWriter(final String name) {
+        super(name);
+    }
+
+    private final IVariable<?> x = Var.var("x");
+
+    private final IVariable<?> y = Var.var("y");
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private String write(final TupleQueryResultFormat format)
+            throws IOException {
+
+        final IBindingSet bset1 = new ListBindingSet();
+        bset1.set(x, new Constant<IV>(new FullyInlineURIIV(new URIImpl(
+                "http://www.bigdata.com/a"))));
+        bset1.set(y, new Constant<IV>(new XSDNumericIV(5)));
+
+        final IBindingSet bset2 = new ListBindingSet();
+        bset2.set(x, new Constant<IV>(new FullyInlineTypedLiteralIV(
+                "a,\"b\"", "en", null/* datatype */)));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        final StreamingSolutionWriter w = StreamingSolutionWriter
+                .newInstance(format, os);
+
+        assertNotNull(w);
+
+        final long n = w.write(null/* lex */, new IVariable[] { x, y },
+                new ThickCloseableIterator<IBindingSet[]>(
+                        new IBindingSet[][] { new IBindingSet[] { bset1,
+                                bset2 } }));
+
+        assertEquals(2L, n);
+
+        return new String(os.toByteArray(), "UTF-8");
+
+    }
+
+    public void test_tsv() throws IOException {
+
+        assertEquals("?x\t?y\n"
+                + "<http://www.bigdata.com/a>\t\"5\"^^<http://www.w3.org/2001/XMLSchema#int>\n"
+                + "\"a,\\\"b\\\"\"@en\t\n", write(TupleQueryResultFormat.TSV));
+
+    }
+
+    public void test_csv() throws IOException {
+
+        assertEquals("x,y\r\n" + "http://www.bigdata.com/a,5\r\n"
+                + "\"a,\"\"b\"\"\",\r\n", write(TupleQueryResultFormat.CSV));
+
+    }
+
+    public void test_json() throws IOException {
+
+        final String s = write(TupleQueryResultFormat.JSON);
+
+        assertTrue(s, s.contains("\"vars\" : [ \"x\", \"y\" ]"));
+
+        assertTrue(s, s.contains("\"x\" : { \"type\" : \"uri\", "
+                + "\"value\" : \"http://www.bigdata.com/a\" }"));
+
+        assertTrue(s, s.contains("\"x\" : { \"type\" : \"literal\", "
+                + "\"value\" : \"a,\\\"b\\\"\", \"xml:lang\" : \"en\" }"));
+
+        // The unbound variable is not written.
+        assertEquals(s, s.indexOf("\"y\" : {"), s.lastIndexOf("\"y\" : {"));
+
+    }
+
+    public void test_xml() throws IOException {
+
+        final String s = write(TupleQueryResultFormat.SPARQL);
+
+        assertTrue(s, s.contains("<variable name='y'/>"));
+
+        assertTrue(s, s.contains("<uri>http://www.bigdata.com/a</uri>"));
+
+        assertTrue(s, s.contains("<literal datatype="
+                + "'http://www.w3.org/2001/XMLSchema#int'>5</literal>"));
+
+        assertTrue(s, s.contains("<literal xml:lang='en'>"
+                + "a,&quot;b&quot;</literal>"));
+
+    }
+
+    public void test_unsupportedFormat() {
+
+        assertNull(StreamingSolutionWriter.newInstance(
+                TupleQueryResultFormat.BINARY, new ByteArrayOutputStream()));
+
+    }
+
+}
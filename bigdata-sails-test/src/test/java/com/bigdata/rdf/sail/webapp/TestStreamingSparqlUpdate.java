@@ -0,0 +1,125 @@
+/**
+
+Copyright (C) SYSTAP, LLC DBA Blazegraph 2006-2016.  All rights reserved.
+
+Contact:
+     SYSTAP, LLC DBA Blazegraph
+     2501 Calvert ST NW #106
+     Washington, DC 20008
+     licenses@blazegraph.com
+
+This program is free software; you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation; version 2 of the License.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program; if not, write to the Free Software
+Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+*/
+/*
+ * Created on Oct 19, 2026
+ */
+package com.bigdata.rdf.sail.webapp;
+
+import java.io.IOException;
+
+import junit.framework.Test;
+
+/**
+ * Test suite for SPARQL UPDATE requests which are sent as an
+ * <code>application/sparql-update</code> request body and evaluated by the
+ * {@link QueryServlet.StreamingSparqlUpdateTask}.
+ */
+public class TestStreamingSparqlUpdate extends AbstractProtocolTest {
+
+	static public Test suite() {
+		return ProxySuiteHelper.suiteWhenStandalone(
+				TestStreamingSparqlUpdate.class, "test.*", TestMode.quads,
+				TestMode.sids, TestMode.triples);
+	}
+
+	public TestStreamingSparqlUpdate(final String name) {
+		super(name);
+	}
+
+	private static final String ex = "http://example.org/";
+
+	private boolean ask(final String ask) throws IOException {
+		resetDefaultOptions();
+		return serviceRequest("query", ask).contains("true");
+	}
+
+	/**
+	 * A request consisting only of data operations. The response is the
+	 * SPARQL UPDATE response document and reports the #of statements which
+	 * were written.
+	 */
+	public void test_dataOnly() throws IOException {
+
+		setMethodisPost(BigdataRDFServlet.MIME_SPARQL_UPDATE, "PREFIX ex: <"
+				+ ex + ">\n"//
+				+ "INSERT DATA { ex:s ex:p ex:o1 , ex:o2 , ex:o3 } ;\n"//
+				+ "DELETE DATA { ex:s ex:p ex:o3 }");
+
+		final String response = serviceRequest();
+
+		assertTrue(response, response.contains("COMMIT"));
+		assertTrue(response, response.contains("mutationCount=4"));
+		assertFalse(response, response.contains("<data modified"));
+
+		assertTrue(ask("ASK { <" + ex + "s> <" + ex + "p> <" + ex + "o1> }"));
+		assertTrue(ask("ASK { <" + ex + "s> <" + ex + "p> <" + ex + "o2> }"));
+		assertFalse(ask("ASK { <" + ex + "s> <" + ex + "p> <" + ex + "o3> }"));
+
+	}
+
+	/**
+	 * A request whose data operations are followed by an operation which is
+	 * evaluated by the query model. That operation sees the streamed data and
+	 * uses the base and prefix declarations which precede the data.
+	 */
+	public void test_dataAndUpdate() throws IOException {
+
+		setMethodisPost(BigdataRDFServlet.MIME_SPARQL_UPDATE, "BASE <" + ex
+				+ ">\n"//
+				+ "PREFIX ex: <" + ex + ">\n"//
+				+ "INSERT DATA { <s> ex:p ex:o1 , ex:o2 } ;\n"//
+				+ "INSERT { <s> ex:q ?o } WHERE { <s> ex:p ?o } ;\n"//
+				+ "DELETE WHERE { <s> ex:p ?o }");
+
+		final String response = serviceRequest();
+
+		assertTrue(response, response.contains("COMMIT"));
+		assertFalse(response, response.contains("<data modified"));
+
+		assertTrue(ask("ASK { <" + ex + "s> <" + ex + "q> <" + ex + "o1> }"));
+		assertTrue(ask("ASK { <" + ex + "s> <" + ex + "q> <" + ex + "o2> }"));
+		assertFalse(ask("ASK { <" + ex + "s> <" + ex + "p> ?o }"));
+
+	}
+
+	/**
+	 * A failure in an operation which follows the data operations rolls back
+	 * the entire request.
+	 */
+	public void test_rollback() throws IOException {
+
+		setMethodisPost(BigdataRDFServlet.MIME_SPARQL_UPDATE, "PREFIX ex: <"
+				+ ex + ">\n"//
+				+ "INSERT DATA { ex:s ex:p ex:o } ;\n"//
+				+ "INSERT { ex:s ex:q ?o } WHERE { ex:s ex:p ?o ");
+
+		setAllow400s();
+
+		serviceRequest();
+
+		assertFalse(ask("ASK { <" + ex + "s> <" + ex + "p> <" + ex + "o> }"));
+
+	}
+
+}
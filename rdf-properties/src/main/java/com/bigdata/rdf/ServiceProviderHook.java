@@ -97,6 +97,10 @@ public class ServiceProviderHook {
 	
 	public static final String JSON_RESULT_PARSER_FACTORY = "com.bigdata.rdf.rio.json.BigdataSPARQLResultsJSONParserFactory"; 
 	public static final String JSON_CONSTRUCT_PARSER_FACTORY = "com.bigdata.rdf.rio.json.BigdataSPARQLResultsJSONParserForConstructFactory";
+
+	public static final String BINARY_PARSER_FACTORY = "com.bigdata.rdf.rio.binary.BigdataBinaryRDFParserFactory";
+
+	public static final String BINARY_WRITER_FACTORY = "com.bigdata.rdf.rio.binary.BigdataBinaryRDFWriterFactory";
 	
 	
 	
@@ -120,6 +124,10 @@ public class ServiceProviderHook {
 				"application/sparql-results+json", "application/json"),
 				Charset.forName("UTF-8"), Arrays.asList("srj", "json"),
 				RDFFormat.NO_NAMESPACES, RDFFormat.SUPPORTS_CONTEXTS);        
+
+		BLAZEGRAPH_BINARY = new RDFFormat("Blazegraph-Binary",
+				"application/x-blazegraph-binary", null/* charset */, "bgb",
+				RDFFormat.NO_NAMESPACES, RDFFormat.SUPPORTS_CONTEXTS);
 		
         forceLoad();
 
@@ -150,6 +158,12 @@ public class ServiceProviderHook {
      * result stes using JSON.
      */
     public static final RDFFormat JSON_RDR;
+
+    /**
+     * The native binary interchange format. The values are coded as for the
+     * lexicon so the data can be loaded without parsing any RDF syntax.
+     */
+    public static final RDFFormat BLAZEGRAPH_BINARY;
     
     /**
 	 * This hook may be used to force the load of this class so it can ensure
@@ -211,6 +225,7 @@ public class ServiceProviderHook {
 		RDFFormat.register(TURTLE_RDR);
 		RDFFormat.register(NTRIPLES_RDR);
 		RDFFormat.register(JSON_RDR);
+		RDFFormat.register(BLAZEGRAPH_BINARY);
 		
 		/*
          * Force the class loader to resolve the register, which will cause it
@@ -237,6 +252,9 @@ public class ServiceProviderHook {
              * RDR-enabled.
              */
             r.add((RDFParserFactory) getInstanceForClass(JSON_CONSTRUCT_PARSER_FACTORY));
+
+            // Native binary interchange.
+            r.add((RDFParserFactory) getInstanceForClass(BINARY_PARSER_FACTORY));
             
         }
         
@@ -270,6 +288,9 @@ public class ServiceProviderHook {
 
             // RDR-enabled
             r.add((RDFWriterFactory) getInstanceForClass(JSON_CONSTRUCT_WRITER_FACTORY));
+
+            // Native binary interchange.
+            r.add((RDFWriterFactory) getInstanceForClass(BINARY_WRITER_FACTORY));
             
         }
 